@@ -1,5 +1,5 @@
 /****************************************************************************
- * Copyright 2022, Optimizely, Inc. and contributors                        *
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
  *                                                                          *
  * Licensed under the Apache License, Version 2.0 (the "License");          *
  * you may not use this file except in compliance with the License.         *
@@ -13,27 +13,23 @@
  * See the License for the specific language governing permissions and      *
  * limitations under the License.                                           *
  ***************************************************************************/
-package com.optimizely.optimizely_flutter_sdk;
+package com.optimizely.ab.android.sdk;
 
-import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.Optimizely;
 
-import java.util.Map;
+import org.slf4j.LoggerFactory;
 
-public class OptimizelyUserContextResponse {
-    private final String userId;
-
-    private final Map<String, Object> attributes;
-
-    public OptimizelyUserContextResponse(OptimizelyUserContext optimizelyUserContext) {
-        this.userId = optimizelyUserContext.getUserId();
-        this.attributes = optimizelyUserContext.getAttributes();
-    }
-
-    public String getUserId() {
-        return userId;
+/** Builds Android clients without OptimizelyManager, whose constructor of OptimizelyClient is package-private. */
+public final class BenchmarkClients {
+    private BenchmarkClients() {
     }
 
-    public Map<String, Object> getAttributes() {
-        return attributes;
+    /** Returns a client for the datafile whose events are discarded. */
+    public static OptimizelyClient fromDatafile(String datafile) {
+        Optimizely optimizely = Optimizely.builder()
+                .withDatafile(datafile)
+                .withEventHandler(logEvent -> { })
+                .build();
+        return new OptimizelyClient(optimizely, LoggerFactory.getLogger(OptimizelyClient.class));
     }
 }
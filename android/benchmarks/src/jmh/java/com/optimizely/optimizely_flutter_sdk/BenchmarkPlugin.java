@@ -0,0 +1,74 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk;
+
+import com.optimizely.ab.android.sdk.BenchmarkClients;
+import com.optimizely.ab.android.sdk.OptimizelyClient;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.MethodResponse;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.OptimizelyMessageCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodChannel;
+
+/** The plugin with a client built from the bundled datafile, registered under {@link #SDK_KEY}. */
+public class BenchmarkPlugin extends OptimizelyFlutterSdkPlugin {
+    public static final String SDK_KEY = "benchmark_sdk_key";
+    private static final String DATAFILE_RESOURCE = "/benchmark_datafile.json";
+
+    private final OptimizelyClient optimizelyClient;
+
+    public BenchmarkPlugin() {
+        optimizelyClient = BenchmarkClients.fromDatafile(loadDatafile());
+    }
+
+    @Override
+    protected OptimizelyClient getOptimizelyClient(String SDKKey) {
+        return SDK_KEY.equals(SDKKey) ? optimizelyClient : super.getOptimizelyClient(SDKKey);
+    }
+
+    public MethodResponse response(Object result) {
+        return createResponse(true, result, "");
+    }
+
+    /** Points the plugin and log channels at the messenger, as attaching to an engine would. */
+    public static void attachChannels(BinaryMessenger messenger) {
+        channel = new MethodChannel(messenger, CHANNEL_NAME, OptimizelyMessageCodec.METHOD_CODEC);
+        FlutterLogbackAppender.clearChannel();
+        FlutterLogbackAppender.setChannel(new MethodChannel(messenger, FlutterLogbackAppender.CHANNEL_NAME));
+    }
+
+    public static String loadDatafile() {
+        try (InputStream input = BenchmarkPlugin.class.getResourceAsStream(DATAFILE_RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException(DATAFILE_RESOURCE + " not found");
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
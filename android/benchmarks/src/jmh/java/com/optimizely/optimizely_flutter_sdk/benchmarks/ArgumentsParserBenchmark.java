@@ -0,0 +1,95 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.benchmarks;
+
+import com.optimizely.optimizely_flutter_sdk.helper_classes.ArgumentsParser;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.DecideOption;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.OptimizelyMessageCodec;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.RequestArguments;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.flutter.plugin.common.MethodCall;
+
+/** Decoding of an incoming decide call, encoded as Dart does, and reading its arguments like a handler. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ArgumentsParserBenchmark {
+    private ByteBuffer encodedCall;
+    private MethodCall call;
+    private Map<String, Object> mapArguments;
+
+    @Setup
+    public void setUp() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            keys.add("flag_" + i);
+        }
+        call = Fixtures.decideCall("user_context_id", keys);
+        encodedCall = OptimizelyMessageCodec.METHOD_CODEC.encodeMethodCall(call);
+        mapArguments = Fixtures.argumentsMap(
+                RequestParameterKey.USER_CONTEXT_ID, "user_context_id",
+                RequestParameterKey.DECIDE_KEYS, keys,
+                RequestParameterKey.DECIDE_OPTIONS, Collections.singletonList(DecideOption.DISABLE_DECISION_EVENT));
+    }
+
+    @Benchmark
+    public MethodCall decode() {
+        encodedCall.rewind();
+        return OptimizelyMessageCodec.METHOD_CODEC.decodeMethodCall(encodedCall);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        readDecideArguments(new ArgumentsParser((RequestArguments) call.arguments), blackhole);
+    }
+
+    /** Map arguments, as executeBatch operations still arrive, are validated and converted first. */
+    @Benchmark
+    public void parseMap(Blackhole blackhole) {
+        readDecideArguments(new ArgumentsParser(mapArguments), blackhole);
+    }
+
+    @Benchmark
+    public void decodeAndParse(Blackhole blackhole) {
+        encodedCall.rewind();
+        RequestArguments arguments = OptimizelyMessageCodec.METHOD_CODEC.decodeMethodCall(encodedCall).arguments();
+        readDecideArguments(new ArgumentsParser(arguments), blackhole);
+    }
+
+    private static void readDecideArguments(ArgumentsParser argumentsParser, Blackhole blackhole) {
+        blackhole.consume(argumentsParser.getSdkKey());
+        blackhole.consume(argumentsParser.getUserContextId());
+        blackhole.consume(argumentsParser.getDecideKeys());
+        blackhole.consume(argumentsParser.getDecideOptions());
+    }
+}
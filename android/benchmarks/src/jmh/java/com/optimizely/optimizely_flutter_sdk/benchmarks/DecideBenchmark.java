@@ -0,0 +1,63 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.benchmarks;
+
+import com.optimizely.optimizely_flutter_sdk.BenchmarkPlugin;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.flutter.plugin.common.MethodCall;
+
+/** decide and decideAll through onMethodCall, including the encoding of the reply. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecideBenchmark {
+    private BenchmarkPlugin plugin;
+    private final FakeResult result = new FakeResult();
+    private MethodCall decideCall;
+    private MethodCall decideAllCall;
+
+    @Setup
+    public void setUp() {
+        plugin = new BenchmarkPlugin();
+        String userContextId = Fixtures.createUserContext(plugin);
+        decideCall = Fixtures.decideCall(userContextId, Collections.singletonList("flag_0"));
+        decideAllCall = Fixtures.decideCall(userContextId, Collections.emptyList());
+    }
+
+    @Benchmark
+    public ByteBuffer decide() {
+        plugin.onMethodCall(decideCall, result);
+        return result.lastEnvelope;
+    }
+
+    @Benchmark
+    public ByteBuffer decideAll() {
+        plugin.onMethodCall(decideAllCall, result);
+        return result.lastEnvelope;
+    }
+}
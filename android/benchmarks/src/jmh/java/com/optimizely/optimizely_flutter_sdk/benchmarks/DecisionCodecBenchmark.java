@@ -0,0 +1,152 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.android.sdk.BenchmarkClients;
+import com.optimizely.ab.optimizelydecision.OptimizelyDecideOption;
+import com.optimizely.ab.optimizelydecision.OptimizelyDecision;
+import com.optimizely.optimizely_flutter_sdk.BenchmarkPlugin;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.ResponseKey;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.OptimizelyMessageCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.flutter.plugin.common.StandardMethodCodec;
+
+/**
+ * Encoding the reply of a decideAll, with OptimizelyMessageCodec and with the conversion it replaced:
+ * decisions wrapped in response objects, reflected into maps by a new ObjectMapper, put into a response
+ * map and encoded by the standard codec. Compare gc.alloc.rate.norm for the bytes allocated per reply.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecisionCodecBenchmark {
+    private BenchmarkPlugin plugin;
+    private Map<String, OptimizelyDecision> decisions;
+
+    @Setup
+    public void setUp() {
+        plugin = new BenchmarkPlugin();
+        OptimizelyUserContext userContext = BenchmarkClients.fromDatafile(BenchmarkPlugin.loadDatafile())
+                .createUserContext(Fixtures.USER_ID, Fixtures.attributes());
+        decisions = userContext.decideAll(Collections.singletonList(OptimizelyDecideOption.DISABLE_DECISION_EVENT));
+    }
+
+    @Benchmark
+    public ByteBuffer messageCodec() {
+        return OptimizelyMessageCodec.METHOD_CODEC.encodeSuccessEnvelope(plugin.response(decisions));
+    }
+
+    @Benchmark
+    public ByteBuffer jacksonMaps() {
+        Map<String, LegacyDecisionResponse> responses = new HashMap<>();
+        for (Map.Entry<String, OptimizelyDecision> entry : decisions.entrySet()) {
+            responses.put(entry.getKey(), new LegacyDecisionResponse(entry.getValue()));
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Object> converted = mapper.convertValue(responses, LinkedHashMap.class);
+        Map<String, Object> response = new HashMap<>();
+        response.put(ResponseKey.SUCCESS, true);
+        response.put(ResponseKey.RESULT, converted);
+        response.put(ResponseKey.REASON, "");
+        return StandardMethodCodec.INSTANCE.encodeSuccessEnvelope(response);
+    }
+
+    /** The removed OptimizelyDecisionResponse. */
+    public static final class LegacyDecisionResponse {
+        private final String variationKey;
+        private final boolean enabled;
+        private final Map variables;
+        private final String ruleKey;
+        private final String flagKey;
+        private final LegacyUserContextResponse userContext;
+        private final List<String> reasons;
+
+        LegacyDecisionResponse(OptimizelyDecision optimizelyDecision) {
+            this.variationKey = optimizelyDecision.getVariationKey();
+            this.enabled = optimizelyDecision.getEnabled();
+            this.variables = optimizelyDecision.getVariables().toMap();
+            this.ruleKey = optimizelyDecision.getRuleKey();
+            this.flagKey = optimizelyDecision.getFlagKey();
+            this.userContext = new LegacyUserContextResponse(optimizelyDecision.getUserContext());
+            this.reasons = optimizelyDecision.getReasons();
+        }
+
+        public String getVariationKey() {
+            return variationKey;
+        }
+
+        public boolean getEnabled() {
+            return enabled;
+        }
+
+        public Map getVariables() {
+            return variables;
+        }
+
+        public String getRuleKey() {
+            return ruleKey;
+        }
+
+        public String getFlagKey() {
+            return flagKey;
+        }
+
+        public LegacyUserContextResponse getUserContext() {
+            return userContext;
+        }
+
+        public List<String> getReasons() {
+            return reasons;
+        }
+    }
+
+    /** The removed OptimizelyUserContextResponse. */
+    public static final class LegacyUserContextResponse {
+        private final String userId;
+        private final Map<String, Object> attributes;
+
+        LegacyUserContextResponse(OptimizelyUserContext userContext) {
+            this.userId = userContext.getUserId();
+            this.attributes = userContext.getAttributes();
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.benchmarks;
+
+import com.optimizely.optimizely_flutter_sdk.helper_classes.MpscRingBuffer;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The event queue under 1, 4 and 8 producer threads, each group with one consumer draining it in
+ * batches as the adaptive event processor does.
+ *
+ * <p>Offers to a full queue fail like events dropped by the processor, so the primary score counts
+ * attempts. The {@code accepted} and {@code drained} counters are the events that actually went
+ * through, per second, and are the numbers to compare.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventQueueBenchmark {
+    private static final Object EVENT = new Object();
+    private static final int DRAIN_BATCH_SIZE = 100;
+
+    @Param({"ArrayBlockingQueue", "MpscRingBuffer"})
+    public String queueType;
+
+    // The default eventMaxQueueSize of 10000, as rounded up by the ring buffer, so both queues hold as many events
+    @Param({"16384"})
+    public int capacity;
+
+    private BlockingQueue<Object> queue;
+
+    /** Events that went through, counted by each thread. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long accepted;
+        public long drained;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            accepted = 0;
+            drained = 0;
+        }
+    }
+
+    /** Batch the consumer drains into, reused like the processor's. */
+    @State(Scope.Thread)
+    public static class Batch {
+        final List<Object> events = new ArrayList<>(DRAIN_BATCH_SIZE);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        queue = "MpscRingBuffer".equals(queueType)
+                ? new MpscRingBuffer<>(capacity)
+                : new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Benchmark
+    @Group("producers1")
+    @GroupThreads(1)
+    public void offer1(Counters counters) {
+        offer(counters);
+    }
+
+    @Benchmark
+    @Group("producers1")
+    @GroupThreads(1)
+    public void drain1(Counters counters, Batch batch) {
+        drain(counters, batch);
+    }
+
+    @Benchmark
+    @Group("producers4")
+    @GroupThreads(4)
+    public void offer4(Counters counters) {
+        offer(counters);
+    }
+
+    @Benchmark
+    @Group("producers4")
+    @GroupThreads(1)
+    public void drain4(Counters counters, Batch batch) {
+        drain(counters, batch);
+    }
+
+    @Benchmark
+    @Group("producers8")
+    @GroupThreads(8)
+    public void offer8(Counters counters) {
+        offer(counters);
+    }
+
+    @Benchmark
+    @Group("producers8")
+    @GroupThreads(1)
+    public void drain8(Counters counters, Batch batch) {
+        drain(counters, batch);
+    }
+
+    private void offer(Counters counters) {
+        if (queue.offer(EVENT)) {
+            counters.accepted++;
+        }
+    }
+
+    private void drain(Counters counters, Batch batch) {
+        batch.events.clear();
+        counters.drained += queue.drainTo(batch.events, DRAIN_BATCH_SIZE);
+    }
+}
@@ -0,0 +1,59 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.benchmarks;
+
+import androidx.annotation.NonNull;
+
+import com.optimizely.optimizely_flutter_sdk.helper_classes.MethodResponse;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.OptimizelyMessageCodec;
+
+import java.nio.ByteBuffer;
+
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Result that encodes replies like the platform channel does, so the codec's work is part of every
+ * measured call. The last reply is kept for setup code to read.
+ */
+final class FakeResult implements MethodChannel.Result {
+    Object lastValue;
+    ByteBuffer lastEnvelope;
+
+    @Override
+    public void success(Object result) {
+        lastValue = result;
+        lastEnvelope = OptimizelyMessageCodec.METHOD_CODEC.encodeSuccessEnvelope(result);
+    }
+
+    @Override
+    public void error(@NonNull String errorCode, String errorMessage, Object errorDetails) {
+        throw new IllegalStateException(errorCode + ": " + errorMessage);
+    }
+
+    @Override
+    public void notImplemented() {
+        throw new IllegalStateException("not implemented");
+    }
+
+    /** Returns the result of the last reply, failing if the plugin reported an error. */
+    Object requireSuccess() {
+        MethodResponse response = (MethodResponse) lastValue;
+        if (response == null || !Boolean.TRUE.equals(response.getSuccess())) {
+            throw new IllegalStateException("call failed: " + (response != null ? response.getReason() : null));
+        }
+        return response.getResult();
+    }
+}
@@ -0,0 +1,76 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.benchmarks;
+
+import com.optimizely.optimizely_flutter_sdk.BenchmarkPlugin;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.APIs;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.DecideOption;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.RequestArguments;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodCall;
+
+/** Shared setup of the benchmarks. */
+final class Fixtures {
+    static final String USER_ID = "benchmark_user";
+    static final int FLAG_COUNT = 40;
+
+    private Fixtures() {
+    }
+
+    /** Returns map arguments built from alternating keys and values, always including the SDK key. */
+    static Map<String, Object> argumentsMap(Object... keysAndValues) {
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put(RequestParameterKey.SDK_KEY, BenchmarkPlugin.SDK_KEY);
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            arguments.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return arguments;
+    }
+
+    /** Returns the arguments as the codec decodes them from Dart. */
+    static RequestArguments arguments(Object... keysAndValues) {
+        return RequestArguments.fromMap(argumentsMap(keysAndValues));
+    }
+
+    static Map<String, Object> attributes() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("country", "us");
+        return attributes;
+    }
+
+    /** Creates a user context with attributes matching the audience of half of the experiments. */
+    static String createUserContext(BenchmarkPlugin plugin) {
+        FakeResult result = new FakeResult();
+        plugin.onMethodCall(new MethodCall(APIs.CREATE_USER_CONTEXT, arguments(
+                RequestParameterKey.USER_ID, USER_ID,
+                RequestParameterKey.ATTRIBUTES, attributes())), result);
+        Map<?, ?> userContext = (Map<?, ?>) result.requireSuccess();
+        return (String) userContext.get(RequestParameterKey.USER_CONTEXT_ID);
+    }
+
+    // Impression events are disabled, they are built by the SDK rather than the plugin
+    static MethodCall decideCall(String userContextId, Object keys) {
+        return new MethodCall(APIs.DECIDE, arguments(
+                RequestParameterKey.USER_CONTEXT_ID, userContextId,
+                RequestParameterKey.DECIDE_KEYS, keys,
+                RequestParameterKey.DECIDE_OPTIONS, Collections.singletonList(DecideOption.DISABLE_DECISION_EVENT)));
+    }
+}
@@ -0,0 +1,89 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.benchmarks;
+
+import android.os.Looper;
+
+import com.optimizely.optimizely_flutter_sdk.BenchmarkPlugin;
+import com.optimizely.optimizely_flutter_sdk.FlutterLogbackAppender;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+/**
+ * FlutterLogbackAppender.append for a line below the Dart log level, which is dropped, and for an
+ * accepted line. Accepted lines are flushed to the messenger every {@link #FLUSH_EVERY} operations,
+ * so the batch sending is part of their cost.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LogAppenderBenchmark {
+    private static final int FLUSH_EVERY = 50;
+
+    private final FakeBinaryMessenger messenger = new FakeBinaryMessenger();
+    private FlutterLogbackAppender appender;
+    private Logger logger;
+    private int appended;
+
+    @Setup
+    public void setUp() {
+        BenchmarkPlugin.attachChannels(messenger);
+        FlutterLogbackAppender.setThreshold(ch.qos.logback.classic.Level.INFO);
+
+        LoggerContext loggerContext = new LoggerContext();
+        appender = new FlutterLogbackAppender();
+        appender.setContext(loggerContext);
+        appender.start();
+
+        logger = loggerContext.getLogger("com.optimizely.ab.Optimizely");
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        Looper.runPendingMessages();
+    }
+
+    @Benchmark
+    public void appendFiltered() {
+        // A new event per operation, as logging builds one and caches its formatted message
+        appender.doAppend(new LoggingEvent(Logger.class.getName(), logger, ch.qos.logback.classic.Level.DEBUG,
+                "Evaluating audiences for rule \"{}\": {}.", null, new Object[]{"experiment_0", "[audience_0]"}));
+    }
+
+    @Benchmark
+    public void appendAccepted() {
+        appender.doAppend(new LoggingEvent(Logger.class.getName(), logger, ch.qos.logback.classic.Level.INFO,
+                "User \"{}\" is in variation \"{}\" of experiment \"{}\".", null,
+                new Object[]{"benchmark_user", "variation_1", "experiment_0"}));
+        if (++appended % FLUSH_EVERY == 0) {
+            Looper.runPendingMessages();
+        }
+    }
+}
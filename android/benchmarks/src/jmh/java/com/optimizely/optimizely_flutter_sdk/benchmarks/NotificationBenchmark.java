@@ -0,0 +1,95 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.benchmarks;
+
+import android.os.Looper;
+
+import com.optimizely.optimizely_flutter_sdk.BenchmarkPlugin;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.APIs;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.NotificationType;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.flutter.plugin.common.MethodCall;
+
+/**
+ * Building notifications and sending them to Dart. Each operation raises the notifications, then
+ * runs the main looper, which flushes them as one batch through the plugin channel.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NotificationBenchmark {
+    // Whether the LogEvent listener asks for the raw body instead of parsed params
+    @Param({"false", "true"})
+    public boolean rawPayload;
+
+    private BenchmarkPlugin plugin;
+    private final FakeResult result = new FakeResult();
+    private final FakeBinaryMessenger messenger = new FakeBinaryMessenger();
+    private MethodCall decideAllCall;
+    private MethodCall trackCall;
+
+    @Setup
+    public void setUp() {
+        plugin = new BenchmarkPlugin();
+        BenchmarkPlugin.attachChannels(messenger);
+        addListener(1, NotificationType.DECISION);
+        addListener(2, NotificationType.LOG_EVENT);
+
+        String userContextId = Fixtures.createUserContext(plugin);
+        decideAllCall = Fixtures.decideCall(userContextId, Collections.emptyList());
+        trackCall = new MethodCall(APIs.TRACK_EVENT, Fixtures.arguments(
+                RequestParameterKey.USER_CONTEXT_ID, userContextId,
+                RequestParameterKey.EVENT_KEY, "purchase",
+                RequestParameterKey.EVENT_TAGS, Collections.singletonMap("revenue", 100)));
+    }
+
+    private void addListener(int id, String type) {
+        plugin.onMethodCall(new MethodCall(APIs.ADD_NOTIFICATION_LISTENER, Fixtures.arguments(
+                RequestParameterKey.NOTIFICATION_ID, id,
+                RequestParameterKey.NOTIFICATION_TYPE, type,
+                RequestParameterKey.RAW_PAYLOAD, rawPayload)), result);
+        result.requireSuccess();
+    }
+
+    /** One decision notification per flag. */
+    @Benchmark
+    public long decideAllWithDecisionListener() {
+        plugin.onMethodCall(decideAllCall, result);
+        Looper.runPendingMessages();
+        return messenger.bytes;
+    }
+
+    /** A track notification is not listened to; the LogEvent notification carries the event body. */
+    @Benchmark
+    public long trackWithLogEventListener() {
+        plugin.onMethodCall(trackCall, result);
+        Looper.runPendingMessages();
+        return messenger.bytes;
+    }
+}
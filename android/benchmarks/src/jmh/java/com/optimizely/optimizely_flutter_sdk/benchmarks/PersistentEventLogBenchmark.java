@@ -0,0 +1,153 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.benchmarks;
+
+import com.optimizely.optimizely_flutter_sdk.helper_classes.EventOverflowSegment;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.EventPayload;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.PersistentEventLog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The persistent event log with impression-sized records of about 600 bytes.
+ *
+ * <ul>
+ *   <li>{@code append}: appends per millisecond. Every {@link #BATCH_SIZE} appends the batch is
+ *   consumed, as the processor does, so the cost of reading, checkpointing and compacting is
+ *   included and the log stays small. {@code sync} is {@code none} (OS page cache only, which
+ *   survives the process being killed), {@code batched} (the default, one fsync per sync interval)
+ *   or {@code everyAppend} (one fsync per event, the cost the batching avoids).</li>
+ *   <li>{@code recover}: opening a log left with {@code pendingEvents} events by an earlier process,
+ *   i.e. listing its segments, reading the checkpoint and checking the CRC of every pending record.
+ *   Segments are in the page cache after the first run, so this is the floor of a cold start.</li>
+ * </ul>
+ */
+public class PersistentEventLogBenchmark {
+    private static final String SDK_KEY = "benchmark_sdk_key";
+    private static final int BATCH_SIZE = 10;
+    private static final EventPayload PAYLOAD = new EventPayload("https://logx.optimizely.com/v1/events",
+            "{\"account_id\":\"10367498574\",\"project_id\":\"10431130345\",\"revision\":\"241\","
+                    + "\"client_name\":\"flutter-sdk\",\"client_version\":\"3.0.0\",\"anonymize_ip\":true,"
+                    + "\"enrich_decisions\":true,\"visitors\":[{\"visitor_id\":\"user_123456\","
+                    + "\"attributes\":[{\"entity_id\":\"$opt_bot_filtering\",\"key\":\"$opt_bot_filtering\","
+                    + "\"type\":\"custom\",\"value\":false},{\"entity_id\":\"10401066117\",\"key\":\"country\","
+                    + "\"type\":\"custom\",\"value\":\"us\"}],\"snapshots\":[{\"decisions\":[{"
+                    + "\"campaign_id\":\"10420810910\",\"experiment_id\":\"10390977714\","
+                    + "\"variation_id\":\"10389729780\",\"metadata\":{\"flag_key\":\"flag_1\","
+                    + "\"rule_key\":\"experiment_1\",\"rule_type\":\"experiment\",\"variation_key\":\"a\","
+                    + "\"enabled\":true}}],\"events\":[{\"entity_id\":\"10420810910\",\"key\":\"campaign_activated\","
+                    + "\"timestamp\":1700000000000,\"uuid\":\"a68cf1ad-0393-4e18-af87-efe8f01a7c9c\"}]}]}]}");
+    private static final EventOverflowSegment.Replayer DISCARD = payloads -> {
+    };
+
+    @State(Scope.Thread)
+    public static class Appending {
+        @Param({"none", "batched", "everyAppend"})
+        public String sync;
+
+        File directory;
+        ScheduledExecutorService scheduler;
+        PersistentEventLog log;
+        long appends;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("event_log_benchmark").toFile();
+            scheduler = Executors.newSingleThreadScheduledExecutor();
+            log = new PersistentEventLog(directory, SDK_KEY, "batched".equals(sync) ? scheduler : null);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            scheduler.shutdownNow();
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Recovering {
+        @Param({"1000", "10000"})
+        public int pendingEvents;
+
+        File directory;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("event_log_benchmark").toFile();
+            PersistentEventLog log = new PersistentEventLog(directory, SDK_KEY, null);
+            for (int i = 0; i < pendingEvents; i++) {
+                if (!log.append(PAYLOAD)) {
+                    throw new IllegalStateException("Event log is full");
+                }
+            }
+            log.sync();
+        }
+
+        @TearDown
+        public void tearDown() {
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean append(Appending state) throws Exception {
+        boolean appended = state.log.append(PAYLOAD);
+        if ("everyAppend".equals(state.sync)) {
+            state.log.sync();
+        }
+        if (++state.appends % BATCH_SIZE == 0) {
+            state.log.consume(BATCH_SIZE, DISCARD);
+        }
+        return appended;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, Object> recover(Recovering state) {
+        // Opened on first use, which getStats is
+        return new PersistentEventLog(state.directory, SDK_KEY, null).getStats();
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
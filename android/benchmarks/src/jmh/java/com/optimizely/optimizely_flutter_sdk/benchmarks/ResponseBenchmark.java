@@ -0,0 +1,65 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.benchmarks;
+
+import com.optimizely.optimizely_flutter_sdk.BenchmarkPlugin;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.APIs;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.OptimizelyMessageCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.flutter.plugin.common.MethodCall;
+
+/** Building and encoding responses: the common envelope, and the converted OptimizelyConfig. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseBenchmark {
+    private BenchmarkPlugin plugin;
+    private final FakeResult result = new FakeResult();
+    private final Map<String, String> userContextResult =
+            Collections.singletonMap(RequestParameterKey.USER_CONTEXT_ID, "user_context_id");
+    private MethodCall getOptimizelyConfigCall;
+
+    @Setup
+    public void setUp() {
+        plugin = new BenchmarkPlugin();
+        getOptimizelyConfigCall = new MethodCall(APIs.GET_OPTIMIZELY_CONFIG, Fixtures.arguments());
+    }
+
+    @Benchmark
+    public ByteBuffer createResponse() {
+        return OptimizelyMessageCodec.METHOD_CODEC.encodeSuccessEnvelope(plugin.response(userContextResult));
+    }
+
+    @Benchmark
+    public ByteBuffer getOptimizelyConfig() {
+        plugin.onMethodCall(getOptimizelyConfigCall, result);
+        return result.lastEnvelope;
+    }
+}
@@ -0,0 +1,7 @@
+package android.app;
+
+import android.content.Context;
+
+/** JVM stand-in for {@code android.app.Activity}. */
+public abstract class Activity extends Context {
+}
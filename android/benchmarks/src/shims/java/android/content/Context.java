@@ -0,0 +1,5 @@
+package android.content;
+
+/** JVM stand-in for {@code android.content.Context}. The benchmarks never initialize through OptimizelyManager. */
+public abstract class Context {
+}
@@ -0,0 +1,28 @@
+package android.os;
+
+/** JVM stand-in for {@code android.os.Handler}, queueing messages on a {@link Looper}. */
+public class Handler {
+    private final Looper looper;
+
+    public Handler(Looper looper) {
+        this.looper = looper;
+    }
+
+    public Looper getLooper() {
+        return looper;
+    }
+
+    public boolean post(Runnable r) {
+        looper.post(r);
+        return true;
+    }
+
+    public boolean postDelayed(Runnable r, long delayMillis) {
+        looper.post(r);
+        return true;
+    }
+
+    public void removeCallbacks(Runnable r) {
+        looper.remove(r);
+    }
+}
@@ -0,0 +1,46 @@
+package android.os;
+
+import java.util.ArrayDeque;
+
+/**
+ * JVM stand-in for the Android main looper.
+ *
+ * <p>The benchmark thread plays the main thread: {@link #myLooper()} always returns the main looper,
+ * so replies are delivered inline, while posted messages wait until {@link #runPendingMessages()}.
+ */
+public final class Looper {
+    private static final Looper MAIN = new Looper();
+
+    final ArrayDeque<Runnable> messages = new ArrayDeque<>();
+
+    private Looper() {
+    }
+
+    public static Looper getMainLooper() {
+        return MAIN;
+    }
+
+    public static Looper myLooper() {
+        return MAIN;
+    }
+
+    /** Runs all posted messages, including the ones posted while running. Delays are ignored. */
+    public static void runPendingMessages() {
+        Runnable message;
+        while ((message = MAIN.poll()) != null) {
+            message.run();
+        }
+    }
+
+    synchronized void post(Runnable message) {
+        messages.add(message);
+    }
+
+    synchronized void remove(Runnable message) {
+        messages.removeIf(queued -> queued == message);
+    }
+
+    private synchronized Runnable poll() {
+        return messages.poll();
+    }
+}
@@ -0,0 +1,23 @@
+package android.view;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/** JVM stand-in for {@code android.view.Choreographer}; a frame is the next main looper message. */
+public final class Choreographer {
+    private static final Choreographer INSTANCE = new Choreographer();
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    public interface FrameCallback {
+        void doFrame(long frameTimeNanos);
+    }
+
+    public static Choreographer getInstance() {
+        return INSTANCE;
+    }
+
+    public void postFrameCallback(FrameCallback callback) {
+        handler.post(() -> callback.doFrame(System.nanoTime()));
+    }
+}
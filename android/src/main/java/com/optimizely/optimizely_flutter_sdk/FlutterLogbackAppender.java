@@ -1,21 +1,66 @@
 package com.optimizely.optimizely_flutter_sdk;
 import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.PluginMetrics;
 
 import android.os.Handler;
 import android.os.Looper;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.AppenderBase;
 import io.flutter.plugin.common.MethodChannel;
 
+/**
+ * Forwards SDK log lines to the Dart logger.
+ *
+ * <p>Events below the level the Dart side logs at are dropped before they are formatted. Accepted
+ * lines go into a bounded queue and are sent in one "logBatch" call per flush, which happens on the
+ * main thread after {@link #FLUSH_INTERVAL_IN_MILLIS} or as soon as {@link #BATCH_SIZE} lines are
+ * queued. Lines arriving while the queue is full are dropped and their count is sent with the next batch.
+ */
 public class FlutterLogbackAppender extends AppenderBase<ILoggingEvent> {
 
     public static final String CHANNEL_NAME = "optimizely_flutter_sdk_logger";
+    public static final String LOG_BATCH_METHOD = "logBatch";
+    public static final String LEVELS = "levels";
+    public static final String MESSAGES = "messages";
+    public static final String DROPPED = "dropped";
+
+    static final int QUEUE_SIZE = 1000;
+    static final int BATCH_SIZE = 100;
+    static final long FLUSH_INTERVAL_IN_MILLIS = 100;
+
     private static MethodChannel channel;
     private static final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+    // Level of the Dart logger, updated from the default log level passed on initialization
+    private static volatile Level threshold = Level.INFO;
+
+    private static final class LogLine {
+        final int level;
+        final String message;
+
+        LogLine(int level, String message) {
+            this.level = level;
+            this.message = message;
+        }
+    }
+
+    private final ArrayBlockingQueue<LogLine> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean immediateFlushScheduled = new AtomicBoolean();
+    // Dropped since the last batch, counted in PluginMetrics once the batch is sent
+    private final AtomicLong pendingDropped = new AtomicLong();
+    private final Runnable flushRunnable = this::flush;
+    // When the first line since the last flush was queued
+    private volatile long scheduledNanos;
 
     public static void setChannel(MethodChannel newChannel) {
         if (channel == null) {
@@ -27,39 +72,82 @@ public class FlutterLogbackAppender extends AppenderBase<ILoggingEvent> {
         channel = null;
     }
 
+    public static void setThreshold(Level level) {
+        threshold = level != null ? level : Level.INFO;
+    }
+
+    public static Level getThreshold() {
+        return threshold;
+    }
+
     @Override
     protected void append(ILoggingEvent event) {
-        if (channel == null) {
+        if (channel == null || !event.getLevel().isGreaterOrEqual(threshold)) {
             return;
         }
 
-        String message = event.getFormattedMessage();
-        String level = event.getLevel().toString();
-        int logLevel = convertLogLevel(level);
-        Map<String, Object> logData = new HashMap<>();
-        logData.put("level", logLevel);
-        logData.put("message", message);
+        if (!queue.offer(new LogLine(convertLogLevel(event.getLevel()), event.getFormattedMessage()))) {
+            pendingDropped.incrementAndGet();
+        }
 
-        mainThreadHandler.post(() -> {
-            if (channel != null) {
-                channel.invokeMethod("log", logData);
+        if (queue.size() >= BATCH_SIZE) {
+            if (!immediateFlushScheduled.getAndSet(true)) {
+                mainThreadHandler.post(flushRunnable);
             }
-        });
+        } else if (!flushScheduled.getAndSet(true)) {
+            scheduledNanos = System.nanoTime();
+            mainThreadHandler.postDelayed(flushRunnable, FLUSH_INTERVAL_IN_MILLIS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        mainThreadHandler.removeCallbacks(flushRunnable);
+        queue.clear();
+    }
+
+    // Runs on the main thread. Flags are cleared first so lines queued during the drain schedule a new flush.
+    private void flush() {
+        flushScheduled.set(false);
+        immediateFlushScheduled.set(false);
+
+        List<LogLine> lines = new ArrayList<>(queue.size());
+        queue.drainTo(lines);
+        long dropped = pendingDropped.getAndSet(0);
+        if (channel == null || (lines.isEmpty() && dropped == 0)) {
+            return;
+        }
+
+        List<Integer> levels = new ArrayList<>(lines.size());
+        List<String> messages = new ArrayList<>(lines.size());
+        for (LogLine line : lines) {
+            levels.add(line.level);
+            messages.add(line.message);
+        }
+        Map<String, Object> batch = new HashMap<>();
+        batch.put(LEVELS, levels);
+        batch.put(MESSAGES, messages);
+        batch.put(DROPPED, dropped);
+        long sendNanos = System.nanoTime();
+        channel.invokeMethod(LOG_BATCH_METHOD, batch);
+        PluginMetrics.INSTANCE.recordLogs(lines.size(), dropped, sendNanos - scheduledNanos, System.nanoTime() - sendNanos);
     }
 
-     int convertLogLevel(String logLevel) {
-        if (logLevel == null || logLevel.isEmpty()) {
+    int convertLogLevel(Level level) {
+        if (level == null) {
             return 3;
         }
-        
-        switch (logLevel.toUpperCase()) { 
-            case "ERROR":
+
+        switch (level.toInt()) {
+            case Level.ERROR_INT:
                 return 1;
-            case "WARN":
+            case Level.WARN_INT:
                 return 2;
-            case "INFO":
+            case Level.INFO_INT:
                 return 3;
-            case "DEBUG":
+            case Level.DEBUG_INT:
+            case Level.TRACE_INT:
                 return 4;
             default:
                 return 3;
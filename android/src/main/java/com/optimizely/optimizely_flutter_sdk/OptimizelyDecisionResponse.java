@@ -1,76 +0,0 @@
-/****************************************************************************
- * Copyright 2022, Optimizely, Inc. and contributors                        *
- *                                                                          *
- * Licensed under the Apache License, Version 2.0 (the "License");          *
- * you may not use this file except in compliance with the License.         *
- * You may obtain a copy of the License at                                  *
- *                                                                          *
- *    https://www.apache.org/licenses/LICENSE-2.0                            *
- *                                                                          *
- * Unless required by applicable law or agreed to in writing, software      *
- * distributed under the License is distributed on an "AS IS" BASIS,        *
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
- * See the License for the specific language governing permissions and      *
- * limitations under the License.                                           *
- ***************************************************************************/
-package com.optimizely.optimizely_flutter_sdk;
-
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.optimizely.ab.optimizelydecision.OptimizelyDecision;
-
-import java.util.List;
-import java.util.Map;
-
-public class OptimizelyDecisionResponse {
-    private final String variationKey;
-
-    private final boolean enabled;
-
-    private final Map variables;
-
-    private final String ruleKey;   
-
-    private final String flagKey;
-
-    private final OptimizelyUserContextResponse userContext;
-
-    private List<String> reasons;
-
-    public OptimizelyDecisionResponse(OptimizelyDecision optimizelyDecision) {
-        this.variationKey = optimizelyDecision.getVariationKey();
-        this.enabled = optimizelyDecision.getEnabled();
-        this.variables = optimizelyDecision.getVariables().toMap();
-        this.ruleKey = optimizelyDecision.getRuleKey();
-        this.flagKey = optimizelyDecision.getFlagKey();
-        this.userContext = new OptimizelyUserContextResponse(optimizelyDecision.getUserContext());
-        this.reasons = optimizelyDecision.getReasons();
-    }
-
-    public String getVariationKey() {
-        return variationKey;
-    }
-
-    public boolean getEnabled() {
-        return enabled;
-    }
-
-    public Map getVariables() {
-        return variables;
-    }
-
-    public String getRuleKey() {
-        return ruleKey;
-    }
-
-    public String getFlagKey() {
-        return flagKey;
-    }
-
-    public OptimizelyUserContextResponse getUserContext() {
-        return userContext;
-    }
-
-    public List<String> getReasons() {
-        return reasons;
-    }
-}
@@ -23,6 +23,7 @@ import com.optimizely.ab.OptimizelyUserContext;
 import com.optimizely.ab.OptimizelyDecisionContext;
 import com.optimizely.ab.OptimizelyForcedDecision;
 import com.optimizely.ab.UnknownEventTypeException;
+import com.optimizely.ab.android.datafile_handler.DatafileHandler;
 import com.optimizely.ab.android.event_handler.DefaultEventHandler;
 import com.optimizely.ab.android.sdk.OptimizelyClient;
 import java.util.HashMap;
@@ -30,14 +31,15 @@ import java.util.Map;
 
 import android.app.Activity;
 import android.content.Context;
-import android.os.Handler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.optimizely.ab.android.sdk.OptimizelyManager;
 import com.optimizely.ab.android.shared.DatafileConfig;
+import com.optimizely.ab.config.ProjectConfig;
 import com.optimizely.ab.config.Variation;
 import com.optimizely.ab.error.RaiseExceptionErrorHandler;
 import com.optimizely.ab.event.BatchEventProcessor;
+import com.optimizely.ab.event.EventHandler;
 import com.optimizely.ab.event.EventProcessor;
 import com.optimizely.ab.event.LogEvent;
 import com.optimizely.ab.notification.ActivateNotification;
@@ -50,13 +52,39 @@ import com.optimizely.ab.optimizelyconfig.OptimizelyConfig;
 import com.optimizely.ab.optimizelydecision.OptimizelyDecideOption;
 import com.optimizely.ab.optimizelydecision.OptimizelyDecision;
 import com.optimizely.optimizely_flutter_sdk.helper_classes.ArgumentsParser;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.AdaptiveEventProcessor;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.CompressedEventHandler;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.ConditionalDatafileHandler;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.SharedExecutors;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.EventOverflowQueue;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.EventOverflowSegment;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.PersistentEventLog;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.PersistentEventProcessor;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.MethodResponse;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.NotificationDispatcher;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.PluginMetrics;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.SdkKeyRegistry;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.UserContextStore;
 import com.optimizely.optimizely_flutter_sdk.helper_classes.Utils;
 
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.*;
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.DISABLE_ODP;
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.ENABLE_VUID;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.ENABLE_DECISION_CACHE;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.ENABLE_WARM_START;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.ENABLE_ADAPTIVE_BATCHING;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.ENABLE_PERSISTENT_EVENT_LOG;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.ENABLE_EVENT_COMPRESSION;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.EVENT_BATCH_MAX_BYTES;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.EVENT_OVERFLOW_BLOCK_TIMEOUT_IN_MILLIS;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.EVENT_OVERFLOW_POLICY;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.NOTIFICATION_BATCH_INTERVAL_IN_MILLIS;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.NOTIFICATION_OVERFLOW_POLICY;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.NOTIFICATION_QUEUE_SIZE;
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.SEGMENTS_CACHE_SIZE;
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.SEGMENTS_CACHE_TIMEOUT_IN_SECONDS;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.USER_CONTEXT_CACHE_SIZE;
+import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.USER_CONTEXT_CACHE_TIMEOUT_IN_SECONDS;
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.TIMEOUT_FOR_ODP_EVENT_IN_SECONDS;
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.TIMEOUT_FOR_SEGMENT_FETCH_IN_SECONDS;
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.CMAB_CONFIG;
@@ -65,19 +93,35 @@ import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.Req
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey.CMAB_PREDICTION_ENDPOINT;
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Utils.getNotificationListenerType;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 public class OptimizelyFlutterClient {
     protected Context context;
     protected Activity activity;
 
-    protected static final Map<String, OptimizelyManager> optimizelyManagerTracker = new HashMap<>();
-    protected static final Map<String, Map<String, OptimizelyUserContext>> userContextsTracker = new HashMap<>();
-    protected static final Map<String, Map<Integer, Integer>> notificationIdsTracker = new HashMap<>();
+    // Managers, user contexts and notification ids of every initialized SDK key
+    protected static final SdkKeyRegistry registry = new SdkKeyRegistry();
+
+    // Batches notifications of every SDK key into one channel call per frame
+    protected static final NotificationDispatcher notificationDispatcher = new NotificationDispatcher((method, arguments) -> {
+        if (OptimizelyFlutterSdkPlugin.channel != null) {
+            OptimizelyFlutterSdkPlugin.channel.invokeMethod(method, arguments);
+        }
+    });
+
+    // Events that did not fit into the event queue of each SDK key
+    private static final ConcurrentHashMap<String, EventOverflowSegment> eventOverflowSegments = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, PersistentEventLog> persistentEventLogs = new ConcurrentHashMap<>();
+
+    // Configured once and thread-safe, so it is shared by all listeners instead of built per event
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
 
     protected void initializeOptimizely(@NonNull ArgumentsParser argumentsParser, @NonNull Result result) {
@@ -105,19 +149,6 @@ public class OptimizelyFlutterClient {
 
         Utils.setDefaultLogLevel(argumentsParser.getDefaultLogLevel());
 
-        DefaultEventHandler eventHandler = DefaultEventHandler.getInstance(context);
-        eventHandler.setDispatchInterval(-1L);
-        NotificationCenter notificationCenter = new NotificationCenter();
-        // Here we are using the builder options to set batch size
-        // to 5 events and flush interval to a minute.
-        EventProcessor batchProcessor = BatchEventProcessor.builder()
-                .withNotificationCenter(notificationCenter)
-                .withEventHandler(eventHandler)
-                .withBatchSize(batchSize)
-                .withEventQueue(new ArrayBlockingQueue<>(maxQueueSize))
-                .withFlushInterval(timeInterval)
-                .build();
-
         // Datafile Download Interval
         long datafilePeriodicDownloadInterval = 15 * 60; // seconds
 
@@ -132,50 +163,102 @@ public class OptimizelyFlutterClient {
         DatafileConfig.defaultHost = argumentsParser.getDatafileHostPrefix() != null ? argumentsParser.getDatafileHostPrefix() : defaultDatafileHost;
         DatafileConfig.environmentUrlSuffix = argumentsParser.getDatafileHostSuffix() != null ? argumentsParser.getDatafileHostSuffix() : environmentUrlSuffix;
 
-        // Delete old user context
-        userContextsTracker.remove(sdkKey);
-        if (getOptimizelyClient(sdkKey) != null) {
-            getOptimizelyClient(sdkKey).close();
+        // User context store settings
+        int userContextCacheSize = argumentsParser.getIntSdkSetting(USER_CONTEXT_CACHE_SIZE, UserContextStore.DEFAULT_CAPACITY);
+        int userContextCacheTimeoutInSecs = argumentsParser.getIntSdkSetting(USER_CONTEXT_CACHE_TIMEOUT_IN_SECONDS, UserContextStore.DEFAULT_IDLE_TIMEOUT_IN_SECS);
+        boolean enableDecisionCache = argumentsParser.getBooleanSdkSetting(ENABLE_DECISION_CACHE, false);
+        boolean enableAdaptiveBatching = argumentsParser.getBooleanSdkSetting(ENABLE_ADAPTIVE_BATCHING, false);
+        boolean enablePersistentEventLog = argumentsParser.getBooleanSdkSetting(ENABLE_PERSISTENT_EVENT_LOG, false);
+        boolean enableEventCompression = argumentsParser.getBooleanSdkSetting(ENABLE_EVENT_COMPRESSION, false);
+        int eventBatchMaxBytes = argumentsParser.getIntSdkSetting(EVENT_BATCH_MAX_BYTES, 0);
+        EventOverflowQueue.OverflowPolicy eventOverflowPolicy = EventOverflowQueue.OverflowPolicy.fromValue(argumentsParser.getStringSdkSetting(EVENT_OVERFLOW_POLICY));
+        int eventOverflowBlockTimeoutInMillis = argumentsParser.getIntSdkSetting(EVENT_OVERFLOW_BLOCK_TIMEOUT_IN_MILLIS, EventOverflowQueue.DEFAULT_BLOCK_TIMEOUT_IN_MILLIS);
+        int notificationBatchIntervalInMillis = argumentsParser.getIntSdkSetting(NOTIFICATION_BATCH_INTERVAL_IN_MILLIS, NotificationDispatcher.DEFAULT_BATCH_INTERVAL_IN_MILLIS);
+        int notificationQueueSize = argumentsParser.getIntSdkSetting(NOTIFICATION_QUEUE_SIZE, NotificationDispatcher.DEFAULT_QUEUE_SIZE);
+        NotificationDispatcher.OverflowPolicy notificationOverflowPolicy = NotificationDispatcher.OverflowPolicy.fromValue(argumentsParser.getStringSdkSetting(NOTIFICATION_OVERFLOW_POLICY));
+
+        DefaultEventHandler defaultEventHandler = DefaultEventHandler.getInstance(context);
+        defaultEventHandler.setDispatchInterval(-1L);
+        EventHandler eventHandler = defaultEventHandler;
+        CompressedEventHandler compressedEventHandler = null;
+        if (enableEventCompression || eventBatchMaxBytes > 0) {
+            // Requests that fail compressed are stored and retried by the default handler
+            compressedEventHandler = new CompressedEventHandler(defaultEventHandler, enableEventCompression, eventBatchMaxBytes);
+            eventHandler = compressedEventHandler;
+        }
+        NotificationCenter notificationCenter = new NotificationCenter();
+        // Events spilled by an earlier client of the SDK key are replayed whatever the policy, even when the
+        // persistent event log replaces the queue
+        EventOverflowQueue eventQueue = new EventOverflowQueue(maxQueueSize, eventOverflowPolicy,
+                eventOverflowBlockTimeoutInMillis, getEventOverflowSegment(sdkKey), eventHandler, notificationCenter,
+                SharedExecutors.networkScheduler());
+        PersistentEventLog eventLog = null;
+        AdaptiveEventProcessor adaptiveProcessor = null;
+        EventProcessor batchProcessor;
+        try {
+            if (enablePersistentEventLog) {
+                // Events go to a file of the SDK key instead of the in-memory queue, and are batched from there
+                eventLog = getPersistentEventLog(sdkKey);
+                batchProcessor = new PersistentEventProcessor(eventLog, batchSize, timeInterval, eventHandler,
+                        notificationCenter, SharedExecutors.eventExecutor());
+            } else if (enableAdaptiveBatching) {
+                // Batch size and flush interval start from the configured ones and follow the load
+                adaptiveProcessor = new AdaptiveEventProcessor(eventQueue, batchSize,
+                        timeInterval, eventHandler, notificationCenter, SharedExecutors.eventExecutor());
+                batchProcessor = adaptiveProcessor;
+            } else {
+                // Here we are using the builder options to set batch size
+                // to 5 events and flush interval to a minute.
+                batchProcessor = BatchEventProcessor.builder()
+                        .withNotificationCenter(notificationCenter)
+                        .withEventHandler(eventHandler)
+                        .withBatchSize(batchSize)
+                        .withEventQueue(eventQueue)
+                        .withFlushInterval(timeInterval)
+                        .withExecutor(SharedExecutors.eventExecutor())
+                        .build();
+            }
+        } catch (RejectedExecutionException ex) {
+            // Every event thread is taken by the clients of other SDK keys
+            result.success(createResponse(ErrorMessage.TOO_MANY_CLIENTS));
+            return;
         }
-        optimizelyManagerTracker.remove(sdkKey);
-        notificationIdsTracker.remove(sdkKey);
 
+        notificationDispatcher.configure(sdkKey, notificationBatchIntervalInMillis, notificationQueueSize, notificationOverflowPolicy);
         List<OptimizelyDecideOption> defaultDecideOptions = argumentsParser.getDecideOptions();
 
-        // SDK Settings Default Values
-        int segmentsCacheSize = 100;
-        int segmentsCacheTimeoutInSecs = 600;
-        int timeoutForSegmentFetchInSecs = 10;
-        int timeoutForOdpEventInSecs = 10;
-        boolean disableOdp = false;
-        boolean enableVuid = false;
-        Map<String, Object> sdkSettings = argumentsParser.getOptimizelySdkSettings();
-        if (sdkSettings != null) {
-            if (sdkSettings.containsKey(SEGMENTS_CACHE_SIZE)) {
-                segmentsCacheSize = (Integer) sdkSettings.get(SEGMENTS_CACHE_SIZE);
-            }
-            if (sdkSettings.containsKey(SEGMENTS_CACHE_TIMEOUT_IN_SECONDS)) {
-                segmentsCacheTimeoutInSecs = (Integer) sdkSettings.get(SEGMENTS_CACHE_TIMEOUT_IN_SECONDS);
-            }
-            if (sdkSettings.containsKey(TIMEOUT_FOR_SEGMENT_FETCH_IN_SECONDS)) {
-                timeoutForSegmentFetchInSecs = (Integer) sdkSettings.get(TIMEOUT_FOR_SEGMENT_FETCH_IN_SECONDS);
-            }
-            if (sdkSettings.containsKey(TIMEOUT_FOR_ODP_EVENT_IN_SECONDS)) {
-                timeoutForOdpEventInSecs = (Integer) sdkSettings.get(TIMEOUT_FOR_ODP_EVENT_IN_SECONDS);
-            }
-            if (sdkSettings.containsKey(DISABLE_ODP)) {
-                disableOdp = (boolean) sdkSettings.get(DISABLE_ODP);
-            }
-            if (sdkSettings.containsKey(ENABLE_VUID)) {
-                enableVuid = (boolean) sdkSettings.get(ENABLE_VUID);
+        // Delete old user contexts and close the previous client
+        UserContextStore userContextStore = new UserContextStore(userContextCacheSize, userContextCacheTimeoutInSecs,
+                enableDecisionCache, defaultDecideOptions);
+        SdkKeyRegistry.Entry previousEntry = registry.reset(sdkKey, userContextStore);
+        registry.putEventQueue(sdkKey, eventLog == null ? eventQueue : null);
+        registry.putEventLog(sdkKey, eventLog);
+        registry.putCompressedEventHandler(sdkKey, compressedEventHandler);
+        registry.putAdaptiveEventProcessor(sdkKey, adaptiveProcessor);
+        if (previousEntry != null && previousEntry.getOptimizelyManager() != null) {
+            OptimizelyManager previousManager = previousEntry.getOptimizelyManager();
+            stopDatafileUpdates(previousManager);
+            OptimizelyClient previousClient = previousManager.getOptimizely();
+            if (previousClient != null) {
+                previousClient.close();
             }
         }
+
+        // SDK Settings Default Values
+        int segmentsCacheSize = argumentsParser.getIntSdkSetting(SEGMENTS_CACHE_SIZE, 100);
+        int segmentsCacheTimeoutInSecs = argumentsParser.getIntSdkSetting(SEGMENTS_CACHE_TIMEOUT_IN_SECONDS, 600);
+        int timeoutForSegmentFetchInSecs = argumentsParser.getIntSdkSetting(TIMEOUT_FOR_SEGMENT_FETCH_IN_SECONDS, 10);
+        int timeoutForOdpEventInSecs = argumentsParser.getIntSdkSetting(TIMEOUT_FOR_ODP_EVENT_IN_SECONDS, 10);
+        boolean disableOdp = argumentsParser.getBooleanSdkSetting(DISABLE_ODP, false);
+        boolean enableVuid = argumentsParser.getBooleanSdkSetting(ENABLE_VUID, false);
+        boolean enableWarmStart = argumentsParser.getBooleanSdkSetting(ENABLE_WARM_START, false);
         // Creating new instance
         OptimizelyManager.Builder optimizelyManagerBuilder = OptimizelyManager.builder()
                 .withEventProcessor(batchProcessor)
                 .withEventHandler(eventHandler)
                 .withNotificationCenter(notificationCenter)
                 .withDatafileDownloadInterval(datafilePeriodicDownloadInterval, TimeUnit.SECONDS)
+                .withDatafileHandler(new ConditionalDatafileHandler())
                 .withErrorHandler(new RaiseExceptionErrorHandler())
                 .withDefaultDecideOptions(defaultDecideOptions)
                 .withODPSegmentCacheSize(segmentsCacheSize)
@@ -212,16 +295,78 @@ public class OptimizelyFlutterClient {
 
         OptimizelyManager optimizelyManager = optimizelyManagerBuilder.build(context);
 
+        if (enableWarmStart) {
+            // The datafile saved by the last download, which the SDK keeps per SDK key
+            DatafileHandler datafileHandler = optimizelyManager.getDatafileHandler();
+            DatafileConfig datafileConfig = optimizelyManager.getDatafileConfig();
+            String savedDatafile = datafileHandler.loadSavedDatafile(context, datafileConfig);
+            if (savedDatafile != null) {
+                if (initializeFromDatafile(sdkKey, optimizelyManager, savedDatafile, DatafileSource.CACHED, result)) {
+                    return;
+                }
+                // Not usable anymore, fall back to the bundled datafile or the download
+                datafileHandler.removeSavedConfig(context, datafileConfig);
+            }
+        }
+
+        // Datafile shipped with the app, e.g. a Flutter asset. It is decoded straight from the
+        // channel message, which is only valid during this call.
+        ByteBuffer bundledDatafile = argumentsParser.getDatafile();
+        if (bundledDatafile != null) {
+            String datafile = StandardCharsets.UTF_8.decode(bundledDatafile).toString();
+            if (initializeFromDatafile(sdkKey, optimizelyManager, datafile, DatafileSource.BUNDLED, result)) {
+                return;
+            }
+        }
+
         optimizelyManager.initialize(context, null, (OptimizelyClient client) -> {
             if (client.isValid()) {
-                optimizelyManagerTracker.put(sdkKey, optimizelyManager);
-                result.success(createResponse());
+                registry.putOptimizelyManager(sdkKey, optimizelyManager);
+                result.success(createResponse(Collections.singletonMap(ResponseKey.DATAFILE_SOURCE, DatafileSource.FRESH)));
             } else {
                 result.success(createResponse(ErrorMessage.INVALID_OPTIMIZELY_CLIENT));
             }
         });
     }
 
+    // Starts synchronously from the given datafile, a fresh one is then downloaded in the background
+    private boolean initializeFromDatafile(String sdkKey, OptimizelyManager optimizelyManager, String datafile,
+                                           String datafileSource, @NonNull Result result) {
+        OptimizelyClient client = optimizelyManager.initialize(context, datafile, true, true);
+        if (!client.isValid()) {
+            return false;
+        }
+        registry.putOptimizelyManager(sdkKey, optimizelyManager);
+        result.success(createResponse(Collections.singletonMap(ResponseKey.DATAFILE_SOURCE, datafileSource)));
+        return true;
+    }
+
+    // One per SDK key, so replays of clients of the same key do not overlap
+    private EventOverflowSegment getEventOverflowSegment(String sdkKey) {
+        EventOverflowSegment segment = eventOverflowSegments.get(sdkKey);
+        if (segment == null) {
+            EventOverflowSegment created = new EventOverflowSegment(context.getFilesDir(), sdkKey);
+            segment = eventOverflowSegments.putIfAbsent(sdkKey, created);
+            if (segment == null) {
+                segment = created;
+            }
+        }
+        return segment;
+    }
+
+    // One per SDK key, so clients of the same key append to and consume the same files
+    private PersistentEventLog getPersistentEventLog(String sdkKey) {
+        PersistentEventLog eventLog = persistentEventLogs.get(sdkKey);
+        if (eventLog == null) {
+            PersistentEventLog created = new PersistentEventLog(context.getFilesDir(), sdkKey, SharedExecutors.scheduler());
+            eventLog = persistentEventLogs.putIfAbsent(sdkKey, created);
+            if (eventLog == null) {
+                eventLog = created;
+            }
+        }
+        return eventLog;
+    }
+
     protected void createUserContext(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyClient optimizelyClient = getOptimizelyClient(sdkKey);
@@ -241,13 +386,7 @@ public class OptimizelyFlutterClient {
                 optlyUserContext = optimizelyClient.createUserContext(attributes);
             }
             if (optlyUserContext != null) {
-                if (userContextsTracker.containsKey(sdkKey)) {
-                    userContextsTracker.get(sdkKey).put(userContextId, optlyUserContext);
-                } else {
-                    Map<String, OptimizelyUserContext> idContextMap = new HashMap<>();
-                    idContextMap.put(userContextId, optlyUserContext);
-                    userContextsTracker.put(sdkKey, idContextMap);
-                }
+                registry.putUserContext(sdkKey, userContextId, optlyUserContext);
                 result.success(createResponse(
                         Collections.singletonMap(RequestParameterKey.USER_CONTEXT_ID, userContextId)));
             } else {
@@ -360,13 +499,30 @@ public class OptimizelyFlutterClient {
     protected void decide(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
 
         List<String> decideKeys = argumentsParser.getDecideKeys();
         List<OptimizelyDecideOption> decideOptions = argumentsParser.getDecideOptions();
 
+        String userContextId = argumentsParser.getUserContextId();
+        UserContextStore userContextStore = registry.getUserContextStore(sdkKey);
+        String cacheKey = userContextStore != null ? userContextStore.getDecisionCacheKey(decideKeys, decideOptions) : null;
+        long decisionGeneration = 0;
+        if (cacheKey != null) {
+            // Cached decisions are only valid for the config revision they were made with
+            OptimizelyClient optimizelyClient = getOptimizelyClient(sdkKey);
+            ProjectConfig projectConfig = optimizelyClient != null ? optimizelyClient.getProjectConfig() : null;
+            String revision = projectConfig != null ? projectConfig.getRevision() : null;
+            Map<String, OptimizelyDecision> cachedDecisions = userContextStore.getDecisions(userContextId, cacheKey, revision);
+            if (cachedDecisions != null) {
+                result.success(createResponse(cachedDecisions));
+                return;
+            }
+            decisionGeneration = userContextStore.getDecisionGeneration();
+        }
+
         Map<String, OptimizelyDecision> optimizelyDecisionsMap;
 
         if (decideKeys.size() > 0) {
@@ -374,23 +530,18 @@ public class OptimizelyFlutterClient {
         } else {
             optimizelyDecisionsMap = userContext.decideAll(decideOptions);
         }
-
-        Map<String, OptimizelyDecisionResponse> optimizelyDecisionResponseMap = null;
-        if (optimizelyDecisionsMap != null) {
-            optimizelyDecisionResponseMap = new HashMap<>();
-            for (Map.Entry<String, OptimizelyDecision> entry : optimizelyDecisionsMap.entrySet()) {
-                optimizelyDecisionResponseMap.put(entry.getKey(), new OptimizelyDecisionResponse(entry.getValue()));
-            }
+        if (cacheKey != null) {
+            userContextStore.putDecisions(userContextId, cacheKey, optimizelyDecisionsMap, decisionGeneration);
         }
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, Object> s = mapper.convertValue(optimizelyDecisionResponseMap, LinkedHashMap.class);
-        result.success(createResponse(s));
+
+        // Decisions are encoded directly by OptimizelyMessageCodec
+        result.success(createResponse(optimizelyDecisionsMap));
     }
 
     protected void decideAsync(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
 
@@ -401,37 +552,19 @@ public class OptimizelyFlutterClient {
         if (decideKeys == null || decideKeys.isEmpty()) {
             // decideAllAsync
             userContext.decideAllAsync(decideOptions, decisions -> {
-                Map<String, OptimizelyDecisionResponse> optimizelyDecisionResponseMap = new HashMap<>();
-                if (decisions != null) {
-                    for (Map.Entry<String, OptimizelyDecision> entry : decisions.entrySet()) {
-                        optimizelyDecisionResponseMap.put(entry.getKey(), new OptimizelyDecisionResponse(entry.getValue()));
-                    }
-                }
-                ObjectMapper mapper = new ObjectMapper();
-                Map<String, Object> s = mapper.convertValue(optimizelyDecisionResponseMap, LinkedHashMap.class);
-                result.success(createResponse(s));
+                result.success(createResponse(decisions != null ? decisions : new HashMap<String, OptimizelyDecision>()));
             });
         } else if (decideKeys.size() == 1) {
             // decideAsync for single key
             userContext.decideAsync(decideKeys.get(0), decideOptions, decision -> {
-                Map<String, OptimizelyDecisionResponse> optimizelyDecisionResponseMap = new HashMap<>();
-                optimizelyDecisionResponseMap.put(decideKeys.get(0), new OptimizelyDecisionResponse(decision));
-                ObjectMapper mapper = new ObjectMapper();
-                Map<String, Object> s = mapper.convertValue(optimizelyDecisionResponseMap, LinkedHashMap.class);
-                result.success(createResponse(s));
+                Map<String, OptimizelyDecision> decisions = new HashMap<>();
+                decisions.put(decideKeys.get(0), decision);
+                result.success(createResponse(decisions));
             });
         } else {
             // decideForKeysAsync for multiple keys
             userContext.decideForKeysAsync(decideKeys, decideOptions, decisions -> {
-                Map<String, OptimizelyDecisionResponse> optimizelyDecisionResponseMap = new HashMap<>();
-                if (decisions != null) {
-                    for (Map.Entry<String, OptimizelyDecision> entry : decisions.entrySet()) {
-                        optimizelyDecisionResponseMap.put(entry.getKey(), new OptimizelyDecisionResponse(entry.getValue()));
-                    }
-                }
-                ObjectMapper mapper = new ObjectMapper();
-                Map<String, Object> s = mapper.convertValue(optimizelyDecisionResponseMap, LinkedHashMap.class);
-                result.success(createResponse(s));
+                result.success(createResponse(decisions != null ? decisions : new HashMap<String, OptimizelyDecision>()));
             });
         }
     }
@@ -439,7 +572,7 @@ public class OptimizelyFlutterClient {
     protected void setForcedDecision(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
 
@@ -455,6 +588,7 @@ public class OptimizelyFlutterClient {
         OptimizelyDecisionContext optimizelyDecisionContext = new OptimizelyDecisionContext(flagKey, ruleKey);
         OptimizelyForcedDecision optimizelyForcedDecision = new OptimizelyForcedDecision(variationKey);
         userContext.setForcedDecision(optimizelyDecisionContext, optimizelyForcedDecision);
+        invalidateDecisions(argumentsParser);
 
         result.success(createResponse());
     }
@@ -462,7 +596,7 @@ public class OptimizelyFlutterClient {
     protected void getForcedDecision(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
         String flagKey = argumentsParser.getFlagKey();
@@ -485,7 +619,7 @@ public class OptimizelyFlutterClient {
     protected void removeForcedDecision(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
 
@@ -498,6 +632,7 @@ public class OptimizelyFlutterClient {
 
         OptimizelyDecisionContext optimizelyDecisionContext = new OptimizelyDecisionContext(flagKey, ruleKey);
         userContext.removeForcedDecision(optimizelyDecisionContext);
+        invalidateDecisions(argumentsParser);
 
         result.success(createResponse());
     }
@@ -505,10 +640,11 @@ public class OptimizelyFlutterClient {
     protected void removeAllForcedDecisions(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
         userContext.removeAllForcedDecisions();
+        invalidateDecisions(argumentsParser);
 
         result.success(createResponse());
     }
@@ -517,7 +653,7 @@ public class OptimizelyFlutterClient {
     protected void getQualifiedSegments(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
         List<String> qualifiedSegments = userContext.getQualifiedSegments();
@@ -532,7 +668,7 @@ public class OptimizelyFlutterClient {
     protected void setQualifiedSegments(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
         List<String> qualifiedSegments = argumentsParser.getQualifiedSegments();
@@ -541,6 +677,7 @@ public class OptimizelyFlutterClient {
             return;
         }
         userContext.setQualifiedSegments(qualifiedSegments);
+        invalidateDecisions(argumentsParser);
         result.success(createResponse());
     }
 
@@ -558,7 +695,7 @@ public class OptimizelyFlutterClient {
     protected void isQualifiedFor(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
         String segment = argumentsParser.getSegment();
@@ -601,13 +738,14 @@ public class OptimizelyFlutterClient {
     protected void fetchQualifiedSegments(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
         List<ODPSegmentOption> segmentOptions = argumentsParser.getSegmentOptions();
 
         try {
             userContext.fetchQualifiedSegments((fetchQualifiedResult) -> {
+                invalidateDecisions(argumentsParser);
                 result.success(createResponse(fetchQualifiedResult));
             },segmentOptions);
 
@@ -616,6 +754,69 @@ public class OptimizelyFlutterClient {
         }
     }
 
+    protected void getUserContextStats(ArgumentsParser argumentsParser, @NonNull Result result) {
+        String sdkKey = argumentsParser.getSdkKey();
+        OptimizelyClient optimizelyClient = getOptimizelyClient(sdkKey);
+        if (!isOptimizelyClientValid(sdkKey, optimizelyClient, result)) {
+            return;
+        }
+        result.success(createResponse(registry.getUserContextStats(sdkKey)));
+    }
+
+    /// Returns the number of notifications dropped by the bounded notification queues, by notification type.
+    protected void getNotificationStats(ArgumentsParser argumentsParser, @NonNull Result result) {
+        String sdkKey = argumentsParser.getSdkKey();
+        OptimizelyClient optimizelyClient = getOptimizelyClient(sdkKey);
+        if (!isOptimizelyClientValid(sdkKey, optimizelyClient, result)) {
+            return;
+        }
+        result.success(createResponse(Collections.singletonMap(NotificationStatsKey.DROPPED_NOTIFICATIONS,
+                notificationDispatcher.getDroppedCounts(sdkKey))));
+    }
+
+    /// Returns the call, notification and log forwarding metrics of the plugin across all SDK keys.
+    /// Clears them afterwards if resetMetrics is set.
+    protected void getMetrics(ArgumentsParser argumentsParser, @NonNull Result result) {
+        Map<String, Object> metrics = PluginMetrics.INSTANCE.snapshot();
+        metrics.put(MetricsKey.THREADS, SharedExecutors.threadCounts());
+        Map<String, Object> eventQueue = registry.getEventQueueStats(argumentsParser.getSdkKey());
+        if (eventQueue != null) {
+            metrics.put(MetricsKey.EVENT_QUEUE, eventQueue);
+        }
+        Map<String, Object> eventLog = registry.getEventLogStats(argumentsParser.getSdkKey());
+        if (eventLog != null) {
+            metrics.put(MetricsKey.EVENT_LOG, eventLog);
+        }
+        Map<String, Object> eventDispatch = registry.getEventDispatchStats(argumentsParser.getSdkKey());
+        if (eventDispatch != null) {
+            metrics.put(MetricsKey.EVENT_DISPATCH, eventDispatch);
+        }
+        Map<String, Object> eventBatching = registry.getEventBatchingStats(argumentsParser.getSdkKey());
+        if (eventBatching != null) {
+            metrics.put(MetricsKey.EVENT_BATCHING, eventBatching);
+        }
+        if (argumentsParser.getResetMetrics()) {
+            PluginMetrics.INSTANCE.reset();
+        }
+        result.success(createResponse(metrics));
+    }
+
+    /// Releases native user contexts no longer referenced by Dart.
+    /// Accepts either a single userContextId or a list of userContextIds.
+    protected void releaseUserContexts(ArgumentsParser argumentsParser, @NonNull Result result) {
+        String sdkKey = argumentsParser.getSdkKey();
+        List<String> userContextIds = argumentsParser.getUserContextIds();
+        if (userContextIds == null && argumentsParser.getUserContextId() != null) {
+            userContextIds = Collections.singletonList(argumentsParser.getUserContextId());
+        }
+        if (sdkKey == null || userContextIds == null) {
+            result.success(createResponse(ErrorMessage.INVALID_PARAMS));
+            return;
+        }
+        registry.removeUserContexts(sdkKey, userContextIds);
+        result.success(createResponse());
+    }
+
     protected void close(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyClient optimizelyClient = getOptimizelyClient(sdkKey);
@@ -625,16 +826,24 @@ public class OptimizelyFlutterClient {
 
         optimizelyClient.close();
 
-        optimizelyManagerTracker.remove(sdkKey);
-        userContextsTracker.remove(sdkKey);
+        SdkKeyRegistry.Entry entry = registry.remove(sdkKey);
+        if (entry != null && entry.getOptimizelyManager() != null) {
+            stopDatafileUpdates(entry.getOptimizelyManager());
+        }
+        notificationDispatcher.remove(sdkKey);
 
         result.success(createResponse());
     }
 
+    // Datafile polling runs in the app process and would outlive the client
+    private void stopDatafileUpdates(OptimizelyManager optimizelyManager) {
+        optimizelyManager.getDatafileHandler().stopBackgroundUpdates(context, optimizelyManager.getDatafileConfig());
+    }
+
     protected void trackEvent(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
 
@@ -658,7 +867,7 @@ public class OptimizelyFlutterClient {
     protected void getUserId(ArgumentsParser argumentsParser, @NonNull Result result) {
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
         if (userContext == null) {
-            result.success(createResponse(ErrorMessage.USER_CONTEXT_NOT_FOUND));
+            result.success(createResponse(registry.getUserContextNotFoundReason(argumentsParser.getSdkKey(), argumentsParser.getUserContextId())));
             return;
         }
         result.success(createResponse(Collections.singletonMap(RequestParameterKey.USER_ID, userContext.getUserId())));
@@ -667,7 +876,7 @@ public class OptimizelyFlutterClient {
     protected void getAttributes(ArgumentsParser argumentsParser, @NonNull Result result) {
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
         if (userContext == null) {
-            result.success(createResponse(ErrorMessage.USER_CONTEXT_NOT_FOUND));
+            result.success(createResponse(registry.getUserContextNotFoundReason(argumentsParser.getSdkKey(), argumentsParser.getUserContextId())));
             return;
         }
         result.success(createResponse(Collections.singletonMap(RequestParameterKey.ATTRIBUTES, userContext.getAttributes())));
@@ -676,7 +885,7 @@ public class OptimizelyFlutterClient {
     protected void setAttribute(ArgumentsParser argumentsParser, @NonNull Result result) {
         String sdkKey = argumentsParser.getSdkKey();
         OptimizelyUserContext userContext = getUserContext(argumentsParser);
-        if (!isUserContextValid(sdkKey, userContext, result)) {
+        if (!isUserContextValid(sdkKey, argumentsParser.getUserContextId(), userContext, result)) {
             return;
         }
 
@@ -689,7 +898,7 @@ public class OptimizelyFlutterClient {
         for (String attributeKey : attributes.keySet()) {
             userContext.setAttribute(attributeKey, attributes.get(attributeKey));
         }
-        userContextsTracker.get(sdkKey).put(argumentsParser.getUserContextId(), userContext);
+        invalidateDecisions(argumentsParser);
         result.success(createResponse(userContext.getAttributes()));
     }
 
@@ -706,8 +915,7 @@ public class OptimizelyFlutterClient {
             return;
         }
         optimizelyClient.getNotificationCenter().removeNotificationListener(id);
-        if (notificationIdsTracker.containsKey(sdkKey))
-            notificationIdsTracker.get(sdkKey).remove(id);
+        registry.removeNotificationId(sdkKey, id);
         result.success(createResponse());
     }
 
@@ -726,9 +934,9 @@ public class OptimizelyFlutterClient {
         } else {
             optimizelyClient.getNotificationCenter().clearNotificationListeners(getNotificationListenerType(type));
         }
-        if (notificationIdsTracker.containsKey(sdkKey)) {
+        if (callBackIds != null) {
             for (Integer id: callBackIds) {
-                notificationIdsTracker.get(sdkKey).remove(id);
+                registry.removeNotificationId(sdkKey, id);
             }
         }
         result.success(createResponse());
@@ -746,8 +954,7 @@ public class OptimizelyFlutterClient {
             result.success(createResponse(ErrorMessage.OPTIMIZELY_CONFIG_NOT_FOUND));
             return;
         }
-        ObjectMapper objMapper = new ObjectMapper();
-        Map optimizelyConfigMap = objMapper.convertValue(optimizelyConfig, Map.class);
+        Map optimizelyConfigMap = OBJECT_MAPPER.convertValue(optimizelyConfig, Map.class);
         optimizelyConfigMap.remove("datafile");
         result.success(createResponse(optimizelyConfigMap));
     }
@@ -811,12 +1018,16 @@ public class OptimizelyFlutterClient {
                 break;
             }
             case NotificationType.LOG_EVENT: {
+                // In raw mode the body is forwarded as UTF-8 bytes and only parsed on the Dart side if read
+                boolean rawPayload = argumentsParser.getRawPayload();
                 notificationId = optimizelyClient.getNotificationCenter().addNotificationHandler(LogEvent.class, logEvent -> {
-                    ObjectMapper mapper = new ObjectMapper();
-                    Map<String, Object> eventParams = mapper.readValue(logEvent.getBody(), Map.class);
                     Map<String, Object> listenerMap = new HashMap<>();
                     listenerMap.put(LogEventListenerKeys.URL, logEvent.getEndpointUrl());
-                    listenerMap.put(LogEventListenerKeys.PARAMS, eventParams);
+                    if (rawPayload) {
+                        listenerMap.put(LogEventListenerKeys.BODY, logEvent.getBody().getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        listenerMap.put(LogEventListenerKeys.PARAMS, OBJECT_MAPPER.readValue(logEvent.getBody(), Map.class));
+                    }
                     invokeNotification(id, sdkKey, NotificationType.LOG_EVENT, listenerMap);
                 });
                 break;
@@ -831,53 +1042,199 @@ public class OptimizelyFlutterClient {
             }
             default:
                 result.success(createResponse(ErrorMessage.INVALID_PARAMS));
+                return;
         }
-        if (!notificationIdsTracker.containsKey(sdkKey)) {
-            notificationIdsTracker.put(sdkKey, new HashMap<>());
-        }
-        notificationIdsTracker.get(sdkKey).put(id, notificationId);
+        registry.putNotificationId(sdkKey, id, notificationId);
         result.success(createResponse());
     }
 
-    private OptimizelyClient getOptimizelyClient(String SDKKey) {
-        return optimizelyManagerTracker.get(SDKKey) == null ? null : optimizelyManagerTracker.get(SDKKey).getOptimizely();
+    /// Runs an ordered list of operations in a single channel round trip.
+    ///
+    /// Each operation is dispatched exactly like a standalone method call and its response is
+    /// stored at the same index in the returned list. Operations acting on a user context resolve
+    /// it from an explicit userContextId or from the context created by the operation at index
+    /// userContextRef; one carrying neither, or a userContextRef to an operation that created no
+    /// context, replies INVALID_PARAMS.
+    protected void executeBatch(ArgumentsParser argumentsParser, @NonNull Result result) {
+        String sdkKey = argumentsParser.getSdkKey();
+        List<Map<String, Object>> operations = argumentsParser.getOperations();
+        if (sdkKey == null || operations == null) {
+            result.success(createResponse(ErrorMessage.INVALID_PARAMS));
+            return;
+        }
+        new BatchRunner(sdkKey, operations, result).run();
     }
 
-    private OptimizelyUserContext getUserContext(ArgumentsParser argumentsParser) {
-        String SDKKey = argumentsParser.getSdkKey();
-        String userContextId = argumentsParser.getUserContextId();
-        if (userContextsTracker.get(SDKKey) == null || !userContextsTracker.get(SDKKey).containsKey(userContextId)) {
-            return null;
+    /// Dispatches a single batch operation; overridden by the plugin to route it through the API switch.
+    protected void dispatchBatchOperation(String method, ArgumentsParser argumentsParser, @NonNull Result result) {
+        result.notImplemented();
+    }
+
+    /// Runs batch operations in order. Synchronous handlers are chained in a loop; an operation
+    /// that completes later (e.g. decideAsync) resumes the loop from its own callback.
+    private class BatchRunner {
+        private final String sdkKey;
+        private final List<Map<String, Object>> operations;
+        private final Result result;
+        private final List<Object> responses;
+        private final boolean[] completed;
+        private final Map<Integer, String> createdUserContextIds = new HashMap<>();
+        private int next = 0;
+        private boolean dispatching = false;
+        private boolean completedInline = false;
+
+        BatchRunner(String sdkKey, List<Map<String, Object>> operations, Result result) {
+            this.sdkKey = sdkKey;
+            this.operations = operations;
+            this.result = result;
+            this.responses = new ArrayList<>(Collections.nCopies(operations.size(), null));
+            this.completed = new boolean[operations.size()];
+        }
+
+        void run() {
+            while (true) {
+                int index;
+                Map<String, Object> arguments;
+                synchronized (this) {
+                    if (next >= operations.size()) {
+                        break;
+                    }
+                    index = next++;
+                    arguments = resolveArguments(operations.get(index));
+                    dispatching = true;
+                    completedInline = false;
+                }
+                dispatch(index, arguments);
+                synchronized (this) {
+                    dispatching = false;
+                    if (!completedInline) {
+                        return;
+                    }
+                }
+            }
+            result.success(createResponse(responses));
+        }
+
+        private void dispatch(int index, Map<String, Object> arguments) {
+            Result operationResult = new Result() {
+                @Override
+                public void success(Object o) {
+                    complete(index, o);
+                }
+
+                @Override
+                public void error(@NonNull String code, String message, Object details) {
+                    complete(index, createResponse(message));
+                }
+
+                @Override
+                public void notImplemented() {
+                    complete(index, createResponse(ErrorMessage.OPERATION_NOT_SUPPORTED_IN_BATCH));
+                }
+            };
+            Map<String, Object> operation = operations.get(index);
+            Object method = operation == null ? null : operation.get(RequestParameterKey.METHOD);
+            if (!(method instanceof String) || APIs.INITIALIZE.equals(method) || APIs.EXECUTE_BATCH.equals(method)) {
+                operationResult.notImplemented();
+                return;
+            }
+            try {
+                dispatchBatchOperation((String) method, new ArgumentsParser(arguments), operationResult);
+            } catch (Exception ex) {
+                operationResult.success(createResponse(ex.getMessage()));
+            }
+        }
+
+        private void complete(int index, Object response) {
+            boolean resume;
+            synchronized (this) {
+                // Some handlers may reply more than once on error paths; keep the first reply only
+                if (completed[index]) {
+                    return;
+                }
+                completed[index] = true;
+                responses.set(index, response);
+                trackCreatedUserContext(index, response);
+                resume = !dispatching;
+                if (dispatching) {
+                    completedInline = true;
+                }
+            }
+            if (resume) {
+                run();
+            }
+        }
+
+        private Map<String, Object> resolveArguments(Map<String, Object> operation) {
+            Map<String, Object> arguments = new HashMap<>();
+            if (operation != null && operation.get(RequestParameterKey.ARGUMENTS) instanceof Map) {
+                arguments.putAll((Map<String, Object>) operation.get(RequestParameterKey.ARGUMENTS));
+            }
+            if (!arguments.containsKey(RequestParameterKey.SDK_KEY)) {
+                arguments.put(RequestParameterKey.SDK_KEY, sdkKey);
+            }
+            // An unresolved reference leaves the operation without a user context id
+            Object userContextRef = arguments.remove(RequestParameterKey.USER_CONTEXT_REF);
+            if (userContextRef != null) {
+                arguments.put(RequestParameterKey.USER_CONTEXT_ID, createdUserContextIds.get(userContextRef));
+            }
+            return arguments;
+        }
+
+        private void trackCreatedUserContext(int index, Object response) {
+            Map<String, Object> operation = operations.get(index);
+            if (operation == null || !APIs.CREATE_USER_CONTEXT.equals(operation.get(RequestParameterKey.METHOD)) || !(response instanceof MethodResponse)) {
+                return;
+            }
+            MethodResponse methodResponse = (MethodResponse) response;
+            if (!Boolean.TRUE.equals(methodResponse.getSuccess()) || !(methodResponse.getResult() instanceof Map)) {
+                return;
+            }
+            Object userContextId = ((Map<String, ?>) methodResponse.getResult()).get(RequestParameterKey.USER_CONTEXT_ID);
+            if (userContextId instanceof String) {
+                createdUserContextIds.put(index, (String) userContextId);
+            }
         }
-        return userContextsTracker.get(SDKKey).get(userContextId);
     }
 
-    private Map<String, ?> createResponse(Boolean success, Object result, String reason) {
-        Map<String, Object> response = new HashMap<>();
-        response.put(ResponseKey.SUCCESS, success);
-        response.put(ResponseKey.RESULT, result);
-        response.put(ResponseKey.REASON, reason);
+    // Overridden by the JVM benchmarks, which build the client from a datafile instead of OptimizelyManager
+    protected OptimizelyClient getOptimizelyClient(String SDKKey) {
+        return registry.getOptimizelyClient(SDKKey);
+    }
+
+    private OptimizelyUserContext getUserContext(ArgumentsParser argumentsParser) {
+        return registry.getUserContext(argumentsParser.getSdkKey(), argumentsParser.getUserContextId());
+    }
 
-        return response;
+    // Drops cached decisions of a user context after it was mutated
+    private void invalidateDecisions(ArgumentsParser argumentsParser) {
+        UserContextStore userContextStore = registry.getUserContextStore(argumentsParser.getSdkKey());
+        if (userContextStore != null && argumentsParser.getUserContextId() != null) {
+            userContextStore.invalidateDecisions(argumentsParser.getUserContextId());
+        }
+    }
+
+    protected MethodResponse createResponse(Boolean success, Object result, String reason) {
+        return new MethodResponse(success, result, reason);
     }
 
     // Create response with success, empty reason and null object response
-    private Map<String, ?> createResponse(Boolean success) {
+    private MethodResponse createResponse(Boolean success) {
         return createResponse(success, null, "");
     }
 
     // Create response with empty reason and null object response when success is true
-    private Map<String, ?> createResponse() {
+    private MethodResponse createResponse() {
         return createResponse(true, null, "");
     }
 
     // Create response with result when success is true
-    private Map<String, ?> createResponse(Object result) {
+    private MethodResponse createResponse(Object result) {
         return createResponse(true, result, "");
     }
 
     // Create response with reason when success is false
-    private Map<String, ?> createResponse(String reason) {
+    private MethodResponse createResponse(String reason) {
         return createResponse(false, null, reason);
     }
 
@@ -893,29 +1250,19 @@ public class OptimizelyFlutterClient {
         return true;
     }
 
-    private boolean isUserContextValid(String sdkKey, OptimizelyUserContext optimizelyUserContext, @NonNull Result result) {
+    private boolean isUserContextValid(String sdkKey, String userContextId, OptimizelyUserContext optimizelyUserContext, @NonNull Result result) {
         if (sdkKey == null) {
             result.success(createResponse(ErrorMessage.INVALID_PARAMS));
             return false;
         }
         if (optimizelyUserContext == null) {
-            result.success(createResponse(ErrorMessage.USER_CONTEXT_NOT_FOUND));
+            result.success(createResponse(registry.getUserContextNotFoundReason(sdkKey, userContextId)));
             return false;
         }
         return true;
     }
 
-    private void invokeNotification(int id, String sdkKey, String notificationType, Map notificationMap) {
-        Map<String, Object> listenerResponse = new HashMap<>();
-        listenerResponse.put(RequestParameterKey.NOTIFICATION_ID, id);
-        listenerResponse.put(RequestParameterKey.SDK_KEY, sdkKey);
-        listenerResponse.put(RequestParameterKey.NOTIFICATION_TYPE, notificationType);
-        listenerResponse.put(RequestParameterKey.NOTIFICATION_PAYLOAD, notificationMap);
-        Map<String, Object> listenerUnmodifiable = Collections.unmodifiableMap(listenerResponse);
-        // Get a handler that can be used to post to the main thread
-        Handler mainHandler = new Handler(context.getMainLooper());
-
-        Runnable myRunnable = () -> OptimizelyFlutterSdkPlugin.channel.invokeMethod(notificationType + "CallbackListener", listenerUnmodifiable);
-        mainHandler.post(myRunnable);
+    private void invokeNotification(int id, String sdkKey, String notificationType, Map<String, ?> notificationMap) {
+        notificationDispatcher.dispatch(sdkKey, id, notificationType, Collections.unmodifiableMap(notificationMap));
     }
 }
@@ -26,11 +26,12 @@ import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
 
 import com.optimizely.optimizely_flutter_sdk.helper_classes.ArgumentsParser;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.OptimizelyMessageCodec;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.ReplyDispatcher;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.RequestArguments;
 
 import static com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.*;
 
-import android.os.Handler;
-import android.os.Looper;
 
 import java.util.Map;
 
@@ -47,58 +48,46 @@ import ch.qos.logback.core.Appender;
 /** OptimizelyFlutterSdkPlugin */
 public class OptimizelyFlutterSdkPlugin extends OptimizelyFlutterClient implements FlutterPlugin, ActivityAware, MethodCallHandler {
 
+  public static final String CHANNEL_NAME = "optimizely_flutter_sdk";
+
   public static MethodChannel channel;
   private static BinaryMessenger attachedMessenger;
+  private static BinaryMessenger.TaskQueue backgroundTaskQueue;
   private Appender<ILoggingEvent> flutterLogbackAppender;
 
   /**
-   * Wraps a {@link Result} so that all callbacks ({@code success}, {@code error},
-   * {@code notImplemented}) are guaranteed to run on the Android main thread.
+   * Delivers the results of all calls on the Android main thread.
    *
-   * <p>Flutter's {@code MethodChannel.Result} must be called from the main thread.
-   * Native SDK callbacks (e.g. {@code decideAsync}, {@code initialize}) may fire on
-   * background threads. Wrapping {@code result} here once in {@code onMethodCall}
-   * protects every handler automatically — current and future.
+   * <p>{@code onMethodCall} wraps each result with it, so handlers may reply from the background
+   * threads SDK callbacks (e.g. {@code decideAsync}, {@code initialize}) complete on. Replies from
+   * those threads are delivered together by one main looper message, only the first reply of a call
+   * is delivered, and each call is timed for {@code PluginMetrics}.
    */
-  private Result safeResult(@NonNull Result result) {
-    Handler mainHandler = new Handler(Looper.getMainLooper());
-    return new Result() {
-      @Override
-      public void success(Object o) {
-        if (Looper.myLooper() == Looper.getMainLooper()) {
-          result.success(o);
-        } else {
-          mainHandler.post(() -> result.success(o));
-        }
-      }
+  private static final ReplyDispatcher replyDispatcher = new ReplyDispatcher();
 
-      @Override
-      public void error(@NonNull String code, String message, Object details) {
-        if (Looper.myLooper() == Looper.getMainLooper()) {
-          result.error(code, message, details);
-        } else {
-          mainHandler.post(() -> result.error(code, message, details));
-        }
-      }
-
-      @Override
-      public void notImplemented() {
-        if (Looper.myLooper() == Looper.getMainLooper()) {
-          result.notImplemented();
-        } else {
-          mainHandler.post(result::notImplemented);
-        }
-      }
-    };
+  @Override
+  public void onMethodCall(@NonNull MethodCall call, @NonNull Result result) {
+    long startNanos = System.nanoTime();
+    // Arguments from Dart arrive already decoded by OptimizelyMessageCodec
+    ArgumentsParser argumentsParser = call.arguments instanceof RequestArguments
+            ? new ArgumentsParser((RequestArguments) call.arguments)
+            : new ArgumentsParser((Map<String, ?>) call.arguments);
+    long parsedNanos = System.nanoTime();
+    Result safeResult = replyDispatcher.wrap(result, call.method, parsedNanos - startNanos, parsedNanos);
+    dispatch(call.method, argumentsParser, safeResult);
   }
 
   @Override
-  public void onMethodCall(@NonNull MethodCall call, @NonNull Result result) {
-    Result safeResult = safeResult(result);
-    Map<String, ?> arguments = call.arguments();
-    ArgumentsParser argumentsParser = new ArgumentsParser(arguments);
-    switch (call.method) {
+  protected void dispatchBatchOperation(String method, ArgumentsParser argumentsParser, @NonNull Result result) {
+    dispatch(method, argumentsParser, result);
+  }
+
+  private void dispatch(@NonNull String method, @NonNull ArgumentsParser argumentsParser, @NonNull Result safeResult) {
+    switch (method) {
       case APIs.INITIALIZE: {
+        if (argumentsParser.getBooleanSdkSetting(RequestParameterKey.ENABLE_BACKGROUND_DISPATCH, false)) {
+          enableBackgroundDispatch();
+        }
         initializeOptimizely(argumentsParser, safeResult);
         break;
       }
@@ -207,18 +196,60 @@ public class OptimizelyFlutterSdkPlugin extends OptimizelyFlutterClient implemen
         close(argumentsParser, safeResult);
         break;
       }
+      case APIs.EXECUTE_BATCH: {
+        executeBatch(argumentsParser, safeResult);
+        break;
+      }
+      case APIs.GET_USER_CONTEXT_STATS: {
+        getUserContextStats(argumentsParser, safeResult);
+        break;
+      }
+      case APIs.RELEASE_USER_CONTEXT:
+      case APIs.RELEASE_USER_CONTEXTS: {
+        releaseUserContexts(argumentsParser, safeResult);
+        break;
+      }
+      case APIs.GET_NOTIFICATION_STATS: {
+        getNotificationStats(argumentsParser, safeResult);
+        break;
+      }
+      case APIs.GET_METRICS: {
+        getMetrics(argumentsParser, safeResult);
+        break;
+      }
       default:
         safeResult.notImplemented();
     }
   }
 
+  /**
+   * Re-registers the method call handler on a background {@link BinaryMessenger.TaskQueue}
+   * so that handlers in {@link OptimizelyFlutterClient} no longer run on the Android main thread.
+   *
+   * <p>The task queue is serial, so handlers still run one at a time and in order. Replies keep
+   * going through {@link #replyDispatcher}, which posts them back to the main thread. The switch is
+   * sticky for the lifetime of the engine and is a no-op on embeddings without task queue support.
+   */
+  private void enableBackgroundDispatch() {
+    if (backgroundTaskQueue != null || attachedMessenger == null) {
+      return;
+    }
+    try {
+      backgroundTaskQueue = attachedMessenger.makeBackgroundTaskQueue();
+    } catch (UnsupportedOperationException ex) {
+      return;
+    }
+    channel = new MethodChannel(attachedMessenger, CHANNEL_NAME, OptimizelyMessageCodec.METHOD_CODEC, backgroundTaskQueue);
+    channel.setMethodCallHandler(this);
+  }
+
   @Override
   public void onAttachedToEngine(@NonNull FlutterPluginBinding binding) {
     if (channel != null) {
       return;
     }
     attachedMessenger = binding.getBinaryMessenger();
-    channel = new MethodChannel(attachedMessenger, "optimizely_flutter_sdk");
+    channel = new MethodChannel(attachedMessenger, CHANNEL_NAME, OptimizelyMessageCodec.METHOD_CODEC);
     channel.setMethodCallHandler(this);
     context = binding.getApplicationContext();
 
@@ -231,7 +262,8 @@ public class OptimizelyFlutterSdkPlugin extends OptimizelyFlutterClient implemen
     flutterLogbackAppender.setContext(lc);
     flutterLogbackAppender.start();
     Logger rootLogger = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
-    rootLogger.setLevel(ch.qos.logback.classic.Level.ALL);
+    // Events below the Dart logger level are then never created, until initialize sets the default log level
+    rootLogger.setLevel(FlutterLogbackAppender.getThreshold());
     rootLogger.addAppender(flutterLogbackAppender);
   }
 
@@ -243,6 +275,7 @@ public class OptimizelyFlutterSdkPlugin extends OptimizelyFlutterClient implemen
     channel.setMethodCallHandler(null);
     channel = null;
     attachedMessenger = null;
+    backgroundTaskQueue = null;
     // Stop and detach the appender
     if (flutterLogbackAppender != null) {
         Logger rootLogger = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
@@ -0,0 +1,119 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch size and flush interval of an {@link AdaptiveEventProcessor}, adjusted after every flush.
+ *
+ * <p>The configured batch size and flush interval are the starting point and the quiet state:
+ * <ul>
+ *   <li>A batch that filled up while at least as many events were waiting doubles the batch size, up to
+ *   {@link #MAX_BATCH_SIZE}. A batch flushed by the timer at a quarter of the batch size or less halves
+ *   it again, down to the configured size.</li>
+ *   <li>Events waiting in the queue after a flush fill it to some ratio of its capacity. From
+ *   {@link #HIGH_WATERMARK} on, the flush interval is halved, down to {@link #MIN_FLUSH_INTERVAL_MILLIS}.
+ *   Below {@link #LOW_WATERMARK} it is doubled again, up to the configured interval.</li>
+ *   <li>Dispatch latency is kept as a moving average. While it is at least twice the lowest average seen,
+ *   and at least {@link #SLOW_DISPATCH_MILLIS}, the event handler is considered slow: the batch size and,
+ *   unless the queue is above the high watermark, the flush interval are doubled. The latency is the time
+ *   the handler takes to accept a batch, not to send it: the plugin's {@code DefaultEventHandler} stores
+ *   the request and schedules its upload, so this follows the storage, and network delays are not
+ *   seen.</li>
+ * </ul>
+ *
+ * <p>Updated by the consumer thread only; the getters may be called from any thread.
+ */
+public class AdaptiveBatchPolicy {
+    public static final int MAX_BATCH_SIZE = 100;
+    public static final long MIN_FLUSH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    static final double HIGH_WATERMARK = 0.5;
+    static final double LOW_WATERMARK = 0.1;
+    static final long SLOW_DISPATCH_MILLIS = 50;
+    // Weight of the latest dispatch in the moving average
+    private static final double LATENCY_WEIGHT = 0.25;
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long minFlushIntervalMillis;
+    private final long maxFlushIntervalMillis;
+    private final int queueCapacity;
+
+    private volatile int batchSize;
+    private volatile long flushIntervalMillis;
+    private volatile long dispatchLatencyNanos = -1;
+    private long lowestDispatchLatencyNanos = Long.MAX_VALUE;
+
+    public AdaptiveBatchPolicy(int batchSize, long flushIntervalMillis, int queueCapacity) {
+        this.minBatchSize = Math.max(batchSize, 1);
+        this.maxBatchSize = Math.max(minBatchSize, MAX_BATCH_SIZE);
+        this.maxFlushIntervalMillis = Math.max(flushIntervalMillis, 1);
+        this.minFlushIntervalMillis = Math.min(maxFlushIntervalMillis, MIN_FLUSH_INTERVAL_MILLIS);
+        this.queueCapacity = Math.max(queueCapacity, 1);
+        this.batchSize = minBatchSize;
+        this.flushIntervalMillis = maxFlushIntervalMillis;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    /** Returns the moving average of dispatch latency, or zero before the first dispatch. */
+    public long getDispatchLatencyNanos() {
+        return Math.max(dispatchLatencyNanos, 0);
+    }
+
+    /**
+     * Adjusts the policy to a flushed batch.
+     *
+     * @param eventCount     events in the batch, zero for an interval without events
+     * @param filled         whether the batch was flushed for reaching the batch size
+     * @param queuedEvents   events waiting in the queue after the flush
+     * @param dispatchNanos  time the event handler took to accept the batch
+     */
+    void onFlush(int eventCount, boolean filled, int queuedEvents, long dispatchNanos) {
+        boolean slow = eventCount > 0 && recordDispatch(dispatchNanos);
+        double fill = (double) queuedEvents / queueCapacity;
+
+        if ((filled && queuedEvents >= batchSize) || slow) {
+            batchSize = Math.min(batchSize * 2, maxBatchSize);
+        } else if (!filled && eventCount <= batchSize / 4) {
+            batchSize = Math.max(batchSize / 2, minBatchSize);
+        }
+
+        if (fill >= HIGH_WATERMARK) {
+            flushIntervalMillis = Math.max(flushIntervalMillis / 2, minFlushIntervalMillis);
+        } else if (fill < LOW_WATERMARK || slow) {
+            flushIntervalMillis = Math.min(flushIntervalMillis * 2, maxFlushIntervalMillis);
+        }
+    }
+
+    // Returns whether the event handler is considered slow
+    private boolean recordDispatch(long dispatchNanos) {
+        long average = dispatchLatencyNanos < 0
+                ? dispatchNanos
+                : (long) (LATENCY_WEIGHT * dispatchNanos + (1 - LATENCY_WEIGHT) * dispatchLatencyNanos);
+        dispatchLatencyNanos = average;
+        lowestDispatchLatencyNanos = Math.min(lowestDispatchLatencyNanos, average);
+        return average >= 2 * lowestDispatchLatencyNanos
+                && average >= TimeUnit.MILLISECONDS.toNanos(SLOW_DISPATCH_MILLIS);
+    }
+}
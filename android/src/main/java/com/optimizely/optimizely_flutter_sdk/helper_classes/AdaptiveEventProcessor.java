@@ -0,0 +1,193 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.ab.config.ProjectConfig;
+import com.optimizely.ab.event.EventHandler;
+import com.optimizely.ab.event.EventProcessor;
+import com.optimizely.ab.event.LogEvent;
+import com.optimizely.ab.event.internal.EventFactory;
+import com.optimizely.ab.event.internal.UserEvent;
+import com.optimizely.ab.notification.NotificationCenter;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.MetricsKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Event processor batching like {@code BatchEventProcessor}, with a batch size and flush interval that
+ * follow the load as described in {@link AdaptiveBatchPolicy}.
+ *
+ * <p>User events are queued by the calling thread. A consumer running on the given executor drains all
+ * queued events at once into the current batch, which is sent as one request when it reaches the batch
+ * size, when the flush interval has passed since the last flush, when an event of another project or
+ * revision arrives, and on close. Events arriving while the queue is full are dropped.
+ */
+public class AdaptiveEventProcessor implements EventProcessor, AutoCloseable {
+    public static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveEventProcessor.class);
+    private static final Object SHUTDOWN_SIGNAL = new Object();
+
+    private final BlockingQueue<Object> eventQueue;
+    private final EventHandler eventHandler;
+    private final NotificationCenter notificationCenter;
+    private final AdaptiveBatchPolicy policy;
+    private final Future<?> consumer;
+    private volatile boolean closed;
+
+    public AdaptiveEventProcessor(BlockingQueue<Object> eventQueue, int batchSize, long flushIntervalMillis,
+                                  EventHandler eventHandler, NotificationCenter notificationCenter,
+                                  ExecutorService executor) {
+        this.eventQueue = eventQueue;
+        this.eventHandler = eventHandler;
+        this.notificationCenter = notificationCenter;
+        this.policy = new AdaptiveBatchPolicy(batchSize, flushIntervalMillis,
+                eventQueue.size() + eventQueue.remainingCapacity());
+        this.consumer = executor.submit(this::consume);
+    }
+
+    @Override
+    public void process(UserEvent userEvent) {
+        if (closed) {
+            logger.warn("Event processor is closed, dropping event");
+            return;
+        }
+        if (!eventQueue.offer(userEvent)) {
+            logger.warn("Payload not accepted by the queue. Current size: {}", eventQueue.size());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            eventQueue.put(SHUTDOWN_SIGNAL);
+            consumer.get(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Event consumer failed", e.getCause());
+        } catch (TimeoutException e) {
+            logger.error("Timeout exceeded attempting to close for {} ms", CLOSE_TIMEOUT_MILLIS);
+        }
+    }
+
+    /** Returns the current batch size, flush interval and dispatch latency, for metrics. */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put(MetricsKey.BATCH_SIZE, policy.getBatchSize());
+        stats.put(MetricsKey.FLUSH_INTERVAL, policy.getFlushIntervalMillis());
+        stats.put(MetricsKey.QUEUE_SIZE, eventQueue.size());
+        stats.put(MetricsKey.DISPATCH_LATENCY, TimeUnit.NANOSECONDS.toMicros(policy.getDispatchLatencyNanos()));
+        return stats;
+    }
+
+    private void consume() {
+        List<UserEvent> batch = new ArrayList<>();
+        List<Object> drained = new ArrayList<>();
+        long lastFlushMillis = System.currentTimeMillis();
+        try {
+            while (true) {
+                // Each flush may change the interval, so the deadline is recomputed from the current one
+                long timeout = lastFlushMillis + policy.getFlushIntervalMillis() - System.currentTimeMillis();
+                if (timeout <= 0) {
+                    flush(batch, false);
+                    batch = new ArrayList<>();
+                    lastFlushMillis = System.currentTimeMillis();
+                    continue;
+                }
+
+                // Takes what is queued in one pass, waiting only while the queue is empty
+                drained.clear();
+                if (eventQueue.drainTo(drained, policy.getBatchSize()) == 0) {
+                    Object item = eventQueue.poll(timeout, TimeUnit.MILLISECONDS);
+                    if (item == null) {
+                        continue;
+                    }
+                    drained.add(item);
+                }
+
+                for (Object item : drained) {
+                    if (item == SHUTDOWN_SIGNAL) {
+                        flush(batch, false);
+                        return;
+                    }
+
+                    UserEvent userEvent = (UserEvent) item;
+                    if (shouldSplit(batch, userEvent)) {
+                        flush(batch, false);
+                        batch = new ArrayList<>();
+                        lastFlushMillis = System.currentTimeMillis();
+                    }
+                    batch.add(userEvent);
+                    if (batch.size() >= policy.getBatchSize()) {
+                        flush(batch, true);
+                        batch = new ArrayList<>();
+                        lastFlushMillis = System.currentTimeMillis();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flush(batch, false);
+        }
+    }
+
+    // Events of one request must share the project and revision
+    private static boolean shouldSplit(List<UserEvent> batch, UserEvent userEvent) {
+        if (batch.isEmpty()) {
+            return false;
+        }
+        ProjectConfig current = batch.get(batch.size() - 1).getUserContext().getProjectConfig();
+        ProjectConfig next = userEvent.getUserContext().getProjectConfig();
+        return !current.getProjectId().equals(next.getProjectId())
+                || !current.getRevision().equals(next.getRevision());
+    }
+
+    private void flush(List<UserEvent> batch, boolean filled) {
+        if (batch.isEmpty()) {
+            // An idle interval still lets the policy settle back
+            policy.onFlush(0, false, eventQueue.size(), 0);
+            return;
+        }
+        LogEvent logEvent = EventFactory.createLogEvent(batch);
+        if (notificationCenter != null) {
+            notificationCenter.send(logEvent);
+        }
+        long startNanos = System.nanoTime();
+        try {
+            eventHandler.dispatchEvent(logEvent);
+        } catch (Exception e) {
+            logger.error("Error dispatching event: {}", logEvent, e);
+        }
+        policy.onFlush(batch.size(), filled, eventQueue.size(), System.nanoTime() - startNanos);
+    }
+}
@@ -18,141 +18,193 @@ package com.optimizely.optimizely_flutter_sdk.helper_classes;
 import com.optimizely.ab.odp.ODPSegmentOption;
 import com.optimizely.ab.optimizelydecision.OptimizelyDecideOption;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
 public class ArgumentsParser {
-    private final Map<String, ?> arguments;
+    // Values are checked against their field types on decoding, so the casts below cannot fail
+    private final RequestArguments arguments;
 
-    public ArgumentsParser(Map<String, ?> arguments) {
+    public ArgumentsParser(RequestArguments arguments) {
         this.arguments = arguments;
     }
 
+    public ArgumentsParser(Map<String, ?> arguments) {
+        this(RequestArguments.fromMap(arguments));
+    }
+
     public String getSdkKey() {
-        return (String) arguments.get(Constants.RequestParameterKey.SDK_KEY);
+        return (String) arguments.get(RequestArguments.SDK_KEY);
     }
-    
+
     public String getSdkVersion() {
-        return (String) arguments.get(Constants.RequestParameterKey.SDK_VERSION);
+        return (String) arguments.get(RequestArguments.SDK_VERSION);
     }
 
     public Integer getNotificationID() {
-        return (Integer) arguments.get(Constants.RequestParameterKey.NOTIFICATION_ID);
+        return (Integer) arguments.get(RequestArguments.NOTIFICATION_ID);
     }
 
     public String getNotificationType() {
-        return (String) arguments.get(Constants.RequestParameterKey.NOTIFICATION_TYPE);
+        return (String) arguments.get(RequestArguments.NOTIFICATION_TYPE);
+    }
+
+    public boolean getRawPayload() {
+        return Boolean.TRUE.equals(arguments.get(RequestArguments.RAW_PAYLOAD));
+    }
+
+    public boolean getResetMetrics() {
+        return Boolean.TRUE.equals(arguments.get(RequestArguments.RESET_METRICS));
     }
 
     public List<Integer> getCallBackIds() {
-        return (List<Integer>) arguments.get(Constants.RequestParameterKey.CALLBACK_IDS);
+        return (List<Integer>) arguments.get(RequestArguments.CALLBACK_IDS);
     }
 
     public String getUserId() {
-        return (String) arguments.get(Constants.RequestParameterKey.USER_ID);
+        return (String) arguments.get(RequestArguments.USER_ID);
     }
 
     public String getUserContextId() {
-        return (String) arguments.get(Constants.RequestParameterKey.USER_CONTEXT_ID);
+        return (String) arguments.get(RequestArguments.USER_CONTEXT_ID);
+    }
+
+    public List<String> getUserContextIds() {
+        return (List<String>) arguments.get(RequestArguments.USER_CONTEXT_IDS);
     }
 
     public Map<String, Object> getAttributes() {
-        return (Map<String, Object>) arguments.get(Constants.RequestParameterKey.ATTRIBUTES);
+        return (Map<String, Object>) arguments.get(RequestArguments.ATTRIBUTES);
     }
 
     public String getEventKey() {
-        return (String) arguments.get(Constants.RequestParameterKey.EVENT_KEY);
+        return (String) arguments.get(RequestArguments.EVENT_KEY);
     }
 
     public Map<String, Object> getEventTags() {
-        return (Map<String, Object>) arguments.get(Constants.RequestParameterKey.EVENT_TAGS);
+        return (Map<String, Object>) arguments.get(RequestArguments.EVENT_TAGS);
     }
 
     public List<String> getDecideKeys() {
-        return (List<String>) arguments.get(Constants.RequestParameterKey.DECIDE_KEYS);
+        return (List<String>) arguments.get(RequestArguments.DECIDE_KEYS);
     }
 
     public List<OptimizelyDecideOption> getDecideOptions() {
-        return Utils.getDecideOptions((List<String>) arguments.get(Constants.RequestParameterKey.DECIDE_OPTIONS));
+        return Utils.getDecideOptions((List<String>) arguments.get(RequestArguments.DECIDE_OPTIONS));
     }
 
     public String getDefaultLogLevel() {
-        return (String) arguments.get(Constants.RequestParameterKey.DEFAULT_LOG_LEVEL);
+        return (String) arguments.get(RequestArguments.DEFAULT_LOG_LEVEL);
     }
 
     public String getFlagKey() {
-        return (String) arguments.get(Constants.RequestParameterKey.FLAG_KEY);
+        return (String) arguments.get(RequestArguments.FLAG_KEY);
     }
 
     public String getRuleKey() {
-        return (String) arguments.get(Constants.RequestParameterKey.RULE_KEY);
+        return (String) arguments.get(RequestArguments.RULE_KEY);
     }
 
     public String getVariationKey() {
-        return (String) arguments.get(Constants.RequestParameterKey.VARIATION_KEY);
+        return (String) arguments.get(RequestArguments.VARIATION_KEY);
     }
 
     public Integer getEventBatchSize() {
-        return (Integer) arguments.get(Constants.RequestParameterKey.EVENT_BATCH_SIZE);
+        return (Integer) arguments.get(RequestArguments.EVENT_BATCH_SIZE);
     }
 
     public Integer getEventTimeInterval() {
-        return (Integer) arguments.get(Constants.RequestParameterKey.EVENT_TIME_INTERVAL);
+        return (Integer) arguments.get(RequestArguments.EVENT_TIME_INTERVAL);
     }
 
     public Integer getEventMaxQueueSize() {
-        return (Integer) arguments.get(Constants.RequestParameterKey.EVENT_MAX_QUEUE_SIZE);
+        return (Integer) arguments.get(RequestArguments.EVENT_MAX_QUEUE_SIZE);
     }
 
     public Integer getDatafilePeriodicDownloadInterval() {
-        return (Integer) arguments.get(Constants.RequestParameterKey.DATAFILE_PERIODIC_DOWNLOAD_INTERVAL);
+        return (Integer) arguments.get(RequestArguments.DATAFILE_PERIODIC_DOWNLOAD_INTERVAL);
     }
 
     public String getDatafileHostSuffix() {
-        return (String) arguments.get(Constants.RequestParameterKey.DATAFILE_HOST_SUFFIX);
+        return (String) arguments.get(RequestArguments.DATAFILE_HOST_SUFFIX);
     }
 
     public String getDatafileHostPrefix() {
-        return (String) arguments.get(Constants.RequestParameterKey.DATAFILE_HOST_PREFIX);
+        return (String) arguments.get(RequestArguments.DATAFILE_HOST_PREFIX);
+    }
+
+    // View into the channel message, only valid until the handler returns
+    public ByteBuffer getDatafile() {
+        return (ByteBuffer) arguments.get(RequestArguments.DATAFILE);
     }
 
     public String getExperimentKey() {
-        return (String) arguments.get(Constants.RequestParameterKey.EXPERIMENT_KEY);
+        return (String) arguments.get(RequestArguments.EXPERIMENT_KEY);
     }
 
     public List<String> getQualifiedSegments() {
-        return (List<String>) arguments.get(Constants.RequestParameterKey.QUALIFIED_SEGMENTS);
+        return (List<String>) arguments.get(RequestArguments.QUALIFIED_SEGMENTS);
     }
 
     public String getSegment() {
-        return (String) arguments.get(Constants.RequestParameterKey.SEGMENT);
+        return (String) arguments.get(RequestArguments.SEGMENT);
     }
 
     public String getAction() {
-        return (String) arguments.get(Constants.RequestParameterKey.ACTION);
+        return (String) arguments.get(RequestArguments.ACTION);
     }
 
     public String getType() {
-        return (String) arguments.get(Constants.RequestParameterKey.ODP_EVENT_TYPE);
+        return (String) arguments.get(RequestArguments.ODP_EVENT_TYPE);
     }
 
     public Map<String, String> getIdentifiers() {
-        return (Map<String, String>) arguments.get(Constants.RequestParameterKey.IDENTIFIERS);
+        return (Map<String, String>) arguments.get(RequestArguments.IDENTIFIERS);
     }
 
     public Map<String, Object> getData() {
-        return (Map<String, Object>) arguments.get(Constants.RequestParameterKey.DATA);
+        return (Map<String, Object>) arguments.get(RequestArguments.DATA);
     }
 
     public List<ODPSegmentOption> getSegmentOptions() {
-        return Utils.getSegmentOptions((List<String>) arguments.get(Constants.RequestParameterKey.OPTIMIZELY_SEGMENT_OPTION));
+        return Utils.getSegmentOptions((List<String>) arguments.get(RequestArguments.OPTIMIZELY_SEGMENT_OPTION));
     }
 
     public Map<String, Object> getOptimizelySdkSettings() {
-        return (Map<String, Object>) arguments.get(Constants.RequestParameterKey.OPTIMIZELY_SDK_SETTINGS);
+        return (Map<String, Object>) arguments.get(RequestArguments.OPTIMIZELY_SDK_SETTINGS);
+    }
+
+    // SDK settings are a nested map that is not checked on decoding, so values of another type fall back
+
+    /** Returns an integer SDK setting, truncating other numbers, or the default if it is missing or not a number. */
+    public int getIntSdkSetting(String key, int defaultValue) {
+        Object value = getSdkSetting(key);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    /** Returns a boolean SDK setting, or the default if it is missing or not a boolean. */
+    public boolean getBooleanSdkSetting(String key, boolean defaultValue) {
+        Object value = getSdkSetting(key);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    /** Returns a string SDK setting, or null if it is missing or not a string. */
+    public String getStringSdkSetting(String key) {
+        Object value = getSdkSetting(key);
+        return value instanceof String ? (String) value : null;
+    }
+
+    private Object getSdkSetting(String key) {
+        Map<String, Object> sdkSettings = getOptimizelySdkSettings();
+        return sdkSettings != null ? sdkSettings.get(key) : null;
+    }
+
+    public List<Map<String, Object>> getOperations() {
+        return (List<Map<String, Object>>) arguments.get(RequestArguments.OPERATIONS);
     }
 
     public Map<String, Object> getCmabConfig() {
-        return (Map<String, Object>) arguments.get(Constants.RequestParameterKey.CMAB_CONFIG);
+        return (Map<String, Object>) arguments.get(RequestArguments.CMAB_CONFIG);
     }
 }
@@ -0,0 +1,145 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.ab.event.EventHandler;
+import com.optimizely.ab.event.LogEvent;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.MetricsKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Event handler splitting batches over a byte budget and sending them gzip-compressed.
+ *
+ * <p>Batches whose JSON body takes more than {@code maxBatchBytes} are split by visitor with
+ * {@link EventPayload#split}, so large attribute maps do not make requests grow with the batch size.
+ * The budget applies to the uncompressed body. With compression, each request is gzipped and posted
+ * on the calling thread with {@code Content-Encoding: gzip}. A request that fails is passed
+ * uncompressed to the fallback handler, which stores and retries it. Without compression, the split
+ * requests go to the fallback handler as they are.
+ */
+public class CompressedEventHandler implements EventHandler {
+    static final int TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(10);
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressedEventHandler.class);
+
+    private final EventHandler fallback;
+    private final boolean compress;
+    private final int maxBatchBytes;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong splitBatches = new AtomicLong();
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    /** Creates a handler that does not split batches if {@code maxBatchBytes} is zero or less. */
+    public CompressedEventHandler(EventHandler fallback, boolean compress, int maxBatchBytes) {
+        this.fallback = fallback;
+        this.compress = compress;
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    @Override
+    public void dispatchEvent(LogEvent logEvent) throws Exception {
+        List<LogEvent> logEvents = maxBatchBytes > 0
+                ? EventPayload.split(logEvent, maxBatchBytes)
+                : Collections.singletonList(logEvent);
+        if (logEvents.size() > 1) {
+            splitBatches.incrementAndGet();
+        }
+        for (LogEvent request : logEvents) {
+            if (!compress) {
+                requests.incrementAndGet();
+                fallback.dispatchEvent(request);
+                continue;
+            }
+            try {
+                post(request.getEndpointUrl(), request.getBody());
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Compressed event request to {} failed, passing it on uncompressed: {}",
+                        request.getEndpointUrl(), e.getMessage());
+                fallbacks.incrementAndGet();
+                fallback.dispatchEvent(request);
+            }
+        }
+    }
+
+    /** Returns the requests sent, batches split and bytes saved by compression, for metrics. */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put(MetricsKey.REQUESTS, requests.get());
+        stats.put(MetricsKey.SPLIT_BATCHES, splitBatches.get());
+        stats.put(MetricsKey.UNCOMPRESSED_BYTES, uncompressedBytes.get());
+        stats.put(MetricsKey.COMPRESSED_BYTES, compressedBytes.get());
+        stats.put(MetricsKey.FALLBACKS, fallbacks.get());
+        return stats;
+    }
+
+    private void post(String url, String body) throws IOException {
+        byte[] uncompressed = body.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = gzip(uncompressed);
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setRequestProperty("Content-Encoding", "gzip");
+            connection.setFixedLengthStreamingMode(compressed.length);
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(compressed);
+            }
+
+            int status = connection.getResponseCode();
+            if (status < 200 || status >= 300) {
+                throw new IOException("status " + status);
+            }
+            requests.incrementAndGet();
+            uncompressedBytes.addAndGet(uncompressed.length);
+            compressedBytes.addAndGet(compressed.length);
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+}
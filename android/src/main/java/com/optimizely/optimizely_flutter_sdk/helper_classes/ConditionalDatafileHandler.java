@@ -0,0 +1,72 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import android.content.Context;
+
+import com.optimizely.ab.android.datafile_handler.DatafileLoadedListener;
+import com.optimizely.ab.android.datafile_handler.DefaultDatafileHandler;
+import com.optimizely.ab.android.shared.DatafileConfig;
+import com.optimizely.ab.config.ProjectConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Datafile handler polling for datafile updates with a {@link DatafilePoller}.
+ *
+ * <p>The default handler schedules a WorkManager job, at most every 15 minutes, that downloads the
+ * datafile to the cache file, and reloads the config whenever the file changes. This handler polls
+ * from the app process instead, at the configured interval and with conditional requests. An unchanged
+ * datafile is neither saved nor parsed and fires no UpdateConfigNotification. A changed one becomes
+ * the config of the client, is saved for the next launch and is passed to the listener, which sends
+ * the notification. Initial downloads are left to the default handler.
+ */
+public class ConditionalDatafileHandler extends DefaultDatafileHandler {
+    // Guarded by this
+    private DatafilePoller poller;
+
+    @Override
+    public synchronized void startBackgroundUpdates(Context context, DatafileConfig datafileConfig, Long updateInterval,
+                                                    DatafileLoadedListener listener) {
+        stopBackgroundUpdates(context, datafileConfig);
+        if (updateInterval == null || updateInterval <= 0) {
+            return;
+        }
+
+        Context applicationContext = context.getApplicationContext();
+        poller = new DatafilePoller(datafileConfig.getUrl(), TimeUnit.SECONDS.toMillis(updateInterval),
+                SharedExecutors.networkScheduler(),
+                datafile -> {
+                    setDatafile(datafile);
+                    saveDatafile(applicationContext, datafileConfig, datafile);
+                    if (listener != null) {
+                        listener.onDatafileLoaded(datafile);
+                    }
+                });
+        ProjectConfig config = getConfig();
+        poller.start(config != null ? config.toDatafile() : null);
+    }
+
+    @Override
+    public synchronized void stopBackgroundUpdates(Context context, DatafileConfig datafileConfig) {
+        // Also cancels a job scheduled by the default handler, e.g. before an app update
+        super.stopBackgroundUpdates(context, datafileConfig);
+        if (poller != null) {
+            poller.stop();
+            poller = null;
+        }
+    }
+}
@@ -47,6 +47,18 @@ public class Constants {
         public static final String SET_QUALIFIED_SEGMENTS = "setQualifiedSegments";
         public static final String IS_QUALIFIED_FOR = "isQualifiedFor";
         public static final String FETCH_QUALIFIED_SEGMENTS = "fetchQualifiedSegments";
+
+        // Batch API constants
+        public static final String EXECUTE_BATCH = "executeBatch";
+
+        // User context store API constants
+        public static final String GET_USER_CONTEXT_STATS = "getUserContextStats";
+        public static final String RELEASE_USER_CONTEXT = "releaseUserContext";
+        public static final String RELEASE_USER_CONTEXTS = "releaseUserContexts";
+
+        // Notification API constants
+        public static final String GET_NOTIFICATION_STATS = "getNotificationStats";
+        public static final String GET_METRICS = "getMetrics";
     }
 
     public static class NotificationType {
@@ -55,6 +67,8 @@ public class Constants {
         public static final String DECISION = "decision";
         public static final String LOG_EVENT = "logEvent";
         public static final String CONFIG_UPDATE = "projectConfigUpdate";
+        // Carries several notifications of the types above in one channel call
+        public static final String BATCH = "notificationBatch";
     }
 
     public static class RequestParameterKey {
@@ -64,8 +78,11 @@ public class Constants {
         public static final String USER_CONTEXT_ID = "userContextId";
         public static final String NOTIFICATION_ID = "id";
         public static final String NOTIFICATION_TYPE = "type";
+        public static final String RAW_PAYLOAD = "rawPayload";
+        public static final String RESET_METRICS = "resetMetrics";
         public static final String CALLBACK_IDS = "callbackIds";
         public static final String NOTIFICATION_PAYLOAD = "payload";
+        public static final String NOTIFICATIONS = "notifications";
         public static final String ATTRIBUTES = "attributes";
         public static final String DECIDE_KEYS = "keys";
         public static final String DECIDE_OPTIONS = "optimizelyDecideOption";
@@ -82,6 +99,7 @@ public class Constants {
         public static final String VARIATION_KEY = "variationKey";
         public static final String DATAFILE_HOST_PREFIX = "datafileHostPrefix";
         public static final String DATAFILE_HOST_SUFFIX = "datafileHostSuffix";
+        public static final String DATAFILE = "datafile";
 
         public static final String VUID = "vuid";
         public static final String QUALIFIED_SEGMENTS = "qualifiedSegments";
@@ -98,6 +116,29 @@ public class Constants {
         public static final String TIMEOUT_FOR_ODP_EVENT_IN_SECONDS = "timeoutForOdpEventInSecs";
         public static final String DISABLE_ODP = "disableOdp";
         public static final String ENABLE_VUID = "enableVuid";
+        public static final String ENABLE_BACKGROUND_DISPATCH = "enableBackgroundDispatch";
+        public static final String USER_CONTEXT_CACHE_SIZE = "userContextCacheSize";
+        public static final String USER_CONTEXT_CACHE_TIMEOUT_IN_SECONDS = "userContextCacheTimeoutInSecs";
+        public static final String ENABLE_DECISION_CACHE = "enableDecisionCache";
+        public static final String NOTIFICATION_BATCH_INTERVAL_IN_MILLIS = "notificationBatchIntervalInMillis";
+        public static final String NOTIFICATION_QUEUE_SIZE = "notificationQueueSize";
+        public static final String NOTIFICATION_OVERFLOW_POLICY = "notificationOverflowPolicy";
+        public static final String ENABLE_WARM_START = "enableWarmStart";
+        public static final String ENABLE_ADAPTIVE_BATCHING = "enableAdaptiveBatching";
+        public static final String EVENT_OVERFLOW_POLICY = "eventOverflowPolicy";
+        public static final String EVENT_OVERFLOW_BLOCK_TIMEOUT_IN_MILLIS = "eventOverflowBlockTimeoutInMillis";
+        public static final String ENABLE_PERSISTENT_EVENT_LOG = "enablePersistentEventLog";
+        public static final String ENABLE_EVENT_COMPRESSION = "enableEventCompression";
+        public static final String EVENT_BATCH_MAX_BYTES = "eventBatchMaxBytes";
+
+        // Batch
+        public static final String OPERATIONS = "operations";
+        public static final String METHOD = "method";
+        public static final String ARGUMENTS = "arguments";
+        public static final String USER_CONTEXT_REF = "userContextRef";
+
+        // User context store
+        public static final String USER_CONTEXT_IDS = "userContextIds";
 
         // CMAB Config
         public static final String CMAB_CONFIG = "cmabConfig";
@@ -112,8 +153,11 @@ public class Constants {
         public static final String OPTIMIZELY_CONFIG_NOT_FOUND = "No optimizely config found.";
         public static final String OPTIMIZELY_CLIENT_NOT_FOUND = "Optimizely client not found.";
         public static final String USER_CONTEXT_NOT_FOUND = "User context not found.";
+        public static final String USER_CONTEXT_EVICTED = "User context was evicted, create a new one.";
         public static final String USER_CONTEXT_NOT_CREATED = "User context not created.";
         public static final String QUALIFIED_SEGMENTS_NOT_FOUND = "Qualified Segments not found.";
+        public static final String OPERATION_NOT_SUPPORTED_IN_BATCH = "Operation not supported in batch.";
+        public static final String TOO_MANY_CLIENTS = "Too many open clients, close one before initializing another.";
     }
 
     public static class DecisionListenerKeys {
@@ -143,12 +187,88 @@ public class Constants {
         public static final String URL = "url";
         public static final String HTTP_VERB = "http_verb";
         public static final String PARAMS = "params";
+        public static final String BODY = "body";
+    }
+
+    public static class MetricsKey {
+        public static final String CALLS = "calls";
+        public static final String NOTIFICATIONS = "notifications";
+        public static final String LOGS = "logs";
+        public static final String THREADS = "threads";
+        public static final String EVENT_THREADS = "eventThreads";
+        public static final String QUEUED_EVENT_CONSUMERS = "queuedEventConsumers";
+        public static final String SCHEDULER_THREADS = "schedulerThreads";
+        public static final String NETWORK_THREADS = "networkThreads";
+        public static final String PROCESS_THREADS = "processThreads";
+        public static final String EVENT_BATCHING = "eventBatching";
+        public static final String BATCH_SIZE = "batchSize";
+        public static final String FLUSH_INTERVAL = "flushIntervalInMillis";
+        public static final String QUEUE_SIZE = "queueSize";
+        public static final String DISPATCH_LATENCY = "dispatchLatency";
+        public static final String EVENT_QUEUE = "eventQueue";
+        public static final String OVERFLOW_POLICY = "overflowPolicy";
+        public static final String REJECTED = "rejected";
+        public static final String EVICTED_IMPRESSIONS = "evictedImpressions";
+        public static final String BLOCKED = "blocked";
+        public static final String TIMED_OUT = "timedOut";
+        public static final String SPILLED = "spilled";
+        public static final String REPLAYED = "replayed";
+        public static final String SPILL_FAILURES = "spillFailures";
+        public static final String SPILL_FULL = "spillFull";
+        public static final String SPILL_PENDING = "spillPending";
+        public static final String EVENT_LOG = "eventLog";
+        public static final String PENDING_EVENTS = "pendingEvents";
+        public static final String PENDING_BYTES = "pendingBytes";
+        public static final String SEGMENTS = "segments";
+        public static final String APPENDED = "appended";
+        public static final String SYNCS = "syncs";
+        public static final String RECOVERED = "recovered";
+        public static final String RECOVERY_TIME = "recoveryTime";
+        public static final String EVENT_DISPATCH = "eventDispatch";
+        public static final String REQUESTS = "requests";
+        public static final String SPLIT_BATCHES = "splitBatches";
+        public static final String UNCOMPRESSED_BYTES = "uncompressedBytes";
+        public static final String COMPRESSED_BYTES = "compressedBytes";
+        public static final String FALLBACKS = "fallbacks";
+        public static final String COUNT = "count";
+        public static final String ERRORS = "errors";
+        public static final String DROPPED = "dropped";
+        public static final String PARSE = "parse";
+        public static final String EXECUTE = "execute";
+        public static final String REPLY = "reply";
+        public static final String SERIALIZE = "serialize";
+        public static final String DELAY = "delay";
+        public static final String SEND = "send";
+        public static final String P50 = "p50";
+        public static final String P95 = "p95";
+        public static final String P99 = "p99";
+        public static final String MAX = "max";
     }
 
     public static class ResponseKey {
         public static final String RESULT = "result";
         public static final String REASON = "reason";
         public static final String SUCCESS = "success";
+        public static final String DATAFILE_SOURCE = "datafileSource";
+    }
+
+    // Datafile an initialized client started from
+    public static class DatafileSource {
+        public static final String CACHED = "cached";
+        public static final String FRESH = "fresh";
+        public static final String BUNDLED = "bundled";
+    }
+
+    public static class UserContextStatsKey {
+        public static final String SIZE = "size";
+        public static final String CAPACITY_EVICTIONS = "capacityEvictions";
+        public static final String TIMEOUT_EVICTIONS = "timeoutEvictions";
+        public static final String DECISION_CACHE_HITS = "decisionCacheHits";
+        public static final String DECISION_CACHE_MISSES = "decisionCacheMisses";
+    }
+
+    public static class NotificationStatsKey {
+        public static final String DROPPED_NOTIFICATIONS = "droppedNotifications";
     }
 
     public static class DecideOption {
@@ -0,0 +1,208 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls a datafile URL with conditional requests.
+ *
+ * <p>Every request after the first sends the ETag and Last-Modified validators of the last response,
+ * so an unchanged datafile costs a 304 without a body. Only a changed datafile reaches the listener:
+ * a 200 whose body has the same SHA-256 as the last one, e.g. from a server without validators, is
+ * treated as unchanged and not even decoded.
+ *
+ * <p>Polls run every interval. After a failure the next poll is retried sooner, starting at
+ * {@link #INITIAL_BACKOFF_MILLIS} and doubling with every further failure up to the interval. Each
+ * retry delay is jittered to between half and all of it, so clients that failed together do not
+ * retry together. Any response from the server resets the backoff.
+ */
+public class DatafilePoller {
+    /** Receives datafiles that changed since the last poll. */
+    public interface Listener {
+        void onDatafileChanged(String datafile);
+    }
+
+    /** Outcome of a poll. */
+    enum PollResult {
+        CHANGED,
+        NOT_MODIFIED,
+        FAILED
+    }
+
+    static final long INITIAL_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    static final int TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(10);
+
+    private static final Logger logger = LoggerFactory.getLogger(DatafilePoller.class);
+
+    private final String url;
+    private final long intervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Listener listener;
+    private final Random random;
+
+    // Only touched by polls, which never overlap
+    private String etag;
+    private String lastModified;
+    private byte[] lastDatafileDigest;
+    private int failures;
+
+    // Guarded by this
+    private ScheduledFuture<?> nextPoll;
+    private boolean stopped;
+
+    public DatafilePoller(String url, long intervalMillis, ScheduledExecutorService scheduler, Listener listener) {
+        this(url, intervalMillis, scheduler, listener, new Random());
+    }
+
+    DatafilePoller(String url, long intervalMillis, ScheduledExecutorService scheduler, Listener listener, Random random) {
+        this.url = url;
+        this.intervalMillis = intervalMillis;
+        this.scheduler = scheduler;
+        this.listener = listener;
+        this.random = random;
+    }
+
+    /**
+     * Starts polling after one interval, since the datafile was just loaded.
+     * The given datafile, if any, is the one loaded, so an identical response is not reported.
+     */
+    public synchronized void start(@Nullable String currentDatafile) {
+        if (currentDatafile != null) {
+            lastDatafileDigest = digest(currentDatafile.getBytes(StandardCharsets.UTF_8));
+        }
+        schedule(intervalMillis);
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        if (nextPoll != null) {
+            nextPoll.cancel(false);
+            nextPoll = null;
+        }
+    }
+
+    private synchronized boolean isStopped() {
+        return stopped;
+    }
+
+    private synchronized void schedule(long delayMillis) {
+        if (!stopped) {
+            nextPoll = scheduler.schedule(this::pollAndReschedule, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void pollAndReschedule() {
+        schedule(nextDelayMillis(poll()));
+    }
+
+    PollResult poll() {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            if (etag != null) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", lastModified);
+            }
+
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return PollResult.NOT_MODIFIED;
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                logger.warn("Datafile request to {} failed with status {}", url, status);
+                return PollResult.FAILED;
+            }
+
+            byte[] datafile = read(connection.getInputStream());
+            etag = connection.getHeaderField("ETag");
+            lastModified = connection.getHeaderField("Last-Modified");
+            byte[] datafileDigest = digest(datafile);
+            if (datafile.length == 0 || MessageDigest.isEqual(datafileDigest, lastDatafileDigest)) {
+                return PollResult.NOT_MODIFIED;
+            }
+            lastDatafileDigest = datafileDigest;
+            // A poll running while it was stopped must not reach the listener of a closed client
+            if (isStopped()) {
+                return PollResult.NOT_MODIFIED;
+            }
+            listener.onDatafileChanged(new String(datafile, StandardCharsets.UTF_8));
+            return PollResult.CHANGED;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Datafile request to {} failed: {}", url, e.getMessage());
+            return PollResult.FAILED;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    long nextDelayMillis(PollResult result) {
+        if (result != PollResult.FAILED) {
+            failures = 0;
+            return intervalMillis;
+        }
+        failures++;
+        long backoff = intervalMillis;
+        // Doubling stops at the interval, well before the shift could overflow
+        if (failures < 31 && INITIAL_BACKOFF_MILLIS << (failures - 1) < intervalMillis) {
+            backoff = INITIAL_BACKOFF_MILLIS << (failures - 1);
+        }
+        return backoff / 2 + (long) (random.nextDouble() * (backoff - backoff / 2));
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] read(InputStream input) throws IOException {
+        try (InputStream stream = input) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,382 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.optimizely.ab.event.EventHandler;
+import com.optimizely.ab.event.LogEvent;
+import com.optimizely.ab.event.internal.ImpressionEvent;
+import com.optimizely.ab.event.internal.UserEvent;
+import com.optimizely.ab.notification.NotificationCenter;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.MetricsKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event queue applying an {@link OverflowPolicy} to events arriving while it is full.
+ *
+ * <p>Events are kept in an {@link MpscRingBuffer}, which the event processor's consumer takes them
+ * from. When it is full:
+ * <ul>
+ *   <li>{@code REJECT} drops the new event, as the processor does with any full queue.</li>
+ *   <li>{@code DROP_OLDEST_IMPRESSIONS} admits the new event into a reserve of an eighth of the capacity
+ *   and owes an eviction for it. The consumer skips the oldest impressions it takes until no eviction
+ *   is owed. Reserved events are taken once the buffer is empty, so conversions are only dropped while
+ *   the reserve is full as well.</li>
+ *   <li>{@code BLOCK} makes the calling thread wait up to the block timeout for room. Decide and track
+ *   calls on the main thread never wait, their events are rejected as with {@code REJECT}.</li>
+ *   <li>{@code SPILL_TO_DISK} appends the event to an {@link EventOverflowSegment}. Spilled events are
+ *   replayed on the given scheduler in merged requests, straight to the event handler, whenever the
+ *   buffer is at most half full. Once the segment file reaches its size cap, events are rejected as
+ *   with {@code REJECT} and counted as spill full. As with {@code BLOCK}, events of calls on the main
+ *   thread are rejected instead of being written to disk there.</li>
+ * </ul>
+ *
+ * <p>Like the buffer, only the consumer may take events.
+ */
+public class EventOverflowQueue extends AbstractQueue<Object> implements BlockingQueue<Object> {
+    public enum OverflowPolicy {
+        // Drops the new event
+        REJECT("reject"),
+        // Drops the oldest queued impressions to make room
+        DROP_OLDEST_IMPRESSIONS("dropOldestImpressions"),
+        // Waits for room up to the block timeout
+        BLOCK("block"),
+        // Writes events to disk until there is room again
+        SPILL_TO_DISK("spillToDisk");
+
+        private final String value;
+
+        OverflowPolicy(String value) {
+            this.value = value;
+        }
+
+        /** Returns the policy with the given Dart name, or REJECT if there is none. */
+        public static OverflowPolicy fromValue(@Nullable String value) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.value.equals(value)) {
+                    return policy;
+                }
+            }
+            return REJECT;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    public static final int DEFAULT_BLOCK_TIMEOUT_IN_MILLIS = 100;
+    static final int RESERVE_DIVISOR = 8;
+    static final double REPLAY_WATERMARK = 0.5;
+    static final int REPLAY_BATCH_SIZE = 100;
+    static final long REPLAY_RETRY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private static final Logger logger = LoggerFactory.getLogger(EventOverflowQueue.class);
+
+    private final MpscRingBuffer<Object> buffer;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutMillis;
+
+    // Events admitted beyond the capacity, and evictions owed for them
+    private final ConcurrentLinkedQueue<Object> reserve = new ConcurrentLinkedQueue<>();
+    private final int reserveCapacity;
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicInteger owedEvictions = new AtomicInteger();
+
+    @Nullable
+    private final EventOverflowSegment segment;
+    private final EventHandler eventHandler;
+    private final NotificationCenter notificationCenter;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean replayScheduled = new AtomicBoolean();
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong spillFailures = new AtomicLong();
+    private final AtomicLong spillFull = new AtomicLong();
+
+    /** Creates a queue with any policy but {@code SPILL_TO_DISK}, which falls back to {@code REJECT}. */
+    public EventOverflowQueue(int capacity, OverflowPolicy policy, long blockTimeoutMillis) {
+        this(capacity, policy, blockTimeoutMillis, null, null, null, null);
+    }
+
+    /**
+     * Creates a queue spilling to the given segment, whose records left by an earlier process are
+     * replayed right away.
+     */
+    public EventOverflowQueue(int capacity, OverflowPolicy policy, long blockTimeoutMillis,
+                              @Nullable EventOverflowSegment segment, EventHandler eventHandler,
+                              NotificationCenter notificationCenter, ScheduledExecutorService scheduler) {
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.capacity = capacity;
+        this.policy = policy == OverflowPolicy.SPILL_TO_DISK && segment == null ? OverflowPolicy.REJECT : policy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.reserveCapacity = Math.max(this.capacity / RESERVE_DIVISOR, 1);
+        this.segment = segment;
+        this.eventHandler = eventHandler;
+        this.notificationCenter = notificationCenter;
+        this.scheduler = scheduler;
+        if (segment != null) {
+            scheduleReplay(0);
+        }
+    }
+
+    @Override
+    public boolean offer(@NonNull Object event) {
+        if (buffer.offer(event)) {
+            return true;
+        }
+        switch (policy) {
+            case DROP_OLDEST_IMPRESSIONS:
+                if (reserved.incrementAndGet() <= reserveCapacity) {
+                    reserve.offer(event);
+                    owedEvictions.incrementAndGet();
+                    return true;
+                }
+                reserved.decrementAndGet();
+                break;
+            case BLOCK:
+                if (isMainThread()) {
+                    break;
+                }
+                blocked.incrementAndGet();
+                try {
+                    if (buffer.offer(event, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                timedOut.incrementAndGet();
+                return false;
+            case SPILL_TO_DISK:
+                if (event instanceof UserEvent && !isMainThread()) {
+                    try {
+                        if (segment.append(EventPayload.of((UserEvent) event))) {
+                            spilled.incrementAndGet();
+                            scheduleReplay(REPLAY_RETRY_MILLIS);
+                            return true;
+                        }
+                        spillFull.incrementAndGet();
+                    } catch (IOException | RuntimeException e) {
+                        logger.warn("Failed to spill event to disk: {}", e.getMessage());
+                        spillFailures.incrementAndGet();
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    @Override
+    public boolean offer(Object event, long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        return buffer.offer(event, timeout, unit) || offer(event);
+    }
+
+    // Signals of the processor, e.g. on close, always wait for room
+    @Override
+    public void put(@NonNull Object event) throws InterruptedException {
+        buffer.put(event);
+    }
+
+    @Override
+    public Object poll() {
+        Object event;
+        while ((event = buffer.poll()) != null) {
+            if (!evict(event)) {
+                return event;
+            }
+        }
+        return pollReserve();
+    }
+
+    @Override
+    public Object poll(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            Object event = poll();
+            if (event != null) {
+                return event;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            event = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (event != null && !evict(event)) {
+                return event;
+            }
+        }
+    }
+
+    @Override
+    public Object take() throws InterruptedException {
+        Object event;
+        while ((event = poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) == null) {
+            // Only returns null after waiting for centuries, keep waiting
+        }
+        return event;
+    }
+
+    @Override
+    public Object peek() {
+        Object event = buffer.peek();
+        return event != null ? event : reserve.peek();
+    }
+
+    @Override
+    public int drainTo(@NonNull Collection<? super Object> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(@NonNull Collection<? super Object> collection, int maxElements) {
+        int drained = 0;
+        Object event;
+        while (drained < maxElements && (event = poll()) != null) {
+            collection.add(event);
+            drained++;
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        return buffer.size() + reserved.get();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return buffer.remainingCapacity();
+    }
+
+    @NonNull
+    @Override
+    public Iterator<Object> iterator() {
+        return buffer.iterator();
+    }
+
+    /** Returns the counters of the overflow policy. */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put(MetricsKey.OVERFLOW_POLICY, policy.getValue());
+        stats.put(MetricsKey.QUEUE_SIZE, size());
+        stats.put(MetricsKey.REJECTED, rejected.get());
+        stats.put(MetricsKey.EVICTED_IMPRESSIONS, evicted.get());
+        stats.put(MetricsKey.BLOCKED, blocked.get());
+        stats.put(MetricsKey.TIMED_OUT, timedOut.get());
+        stats.put(MetricsKey.SPILLED, spilled.get());
+        stats.put(MetricsKey.REPLAYED, replayed.get());
+        stats.put(MetricsKey.SPILL_FAILURES, spillFailures.get());
+        stats.put(MetricsKey.SPILL_FULL, spillFull.get());
+        stats.put(MetricsKey.SPILL_PENDING, segment != null ? segment.getPendingCount() : 0);
+        return stats;
+    }
+
+    // Waiting on the main thread would freeze the UI, so its events are rejected right away
+    private static boolean isMainThread() {
+        Looper mainLooper = Looper.getMainLooper();
+        return mainLooper != null && mainLooper == Looper.myLooper();
+    }
+
+    // Skips the event if it is an impression and an eviction is owed
+    private boolean evict(Object event) {
+        if (!(event instanceof ImpressionEvent)) {
+            return false;
+        }
+        int owed;
+        do {
+            owed = owedEvictions.get();
+            if (owed == 0) {
+                return false;
+            }
+        } while (!owedEvictions.compareAndSet(owed, owed - 1));
+        evicted.incrementAndGet();
+        return true;
+    }
+
+    private Object pollReserve() {
+        Object event = reserve.poll();
+        if (event != null) {
+            reserved.decrementAndGet();
+            // Taken into the room it was waiting for, no eviction needed anymore
+            int owed;
+            do {
+                owed = owedEvictions.get();
+            } while (owed > 0 && !owedEvictions.compareAndSet(owed, owed - 1));
+        }
+        return event;
+    }
+
+    private void scheduleReplay(long delayMillis) {
+        if (segment != null && replayScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::replay, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void replay() {
+        replayScheduled.set(false);
+        if (buffer.size() > capacity * REPLAY_WATERMARK) {
+            scheduleReplay(REPLAY_RETRY_MILLIS);
+            return;
+        }
+        try {
+            int count = segment.replay(REPLAY_BATCH_SIZE, payloads -> {
+                for (LogEvent logEvent : EventPayload.merge(payloads)) {
+                    if (notificationCenter != null) {
+                        notificationCenter.send(logEvent);
+                    }
+                    eventHandler.dispatchEvent(logEvent);
+                }
+            });
+            replayed.addAndGet(count);
+            if (segment.getPendingCount() > 0) {
+                scheduleReplay(0);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to replay spilled events: {}", e.getMessage());
+            scheduleReplay(REPLAY_RETRY_MILLIS);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import androidx.annotation.NonNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * File holding the events an {@link EventOverflowQueue} could not keep in memory, until they are replayed.
+ *
+ * <p>Each record is its length, the CRC32 of its bytes, then the endpoint and the body of an
+ * {@link EventPayload} separated by a newline. Records are appended with a single write each. Replayed
+ * records are skipped by offset, and the file is deleted once all of them are replayed. A file left by
+ * an earlier process is replayed from its start, so records replayed just before the process died are
+ * sent again. A torn or corrupt tail, e.g. from a crash during a write, is cut off when the file is opened.
+ *
+ * <p>The file is capped at {@code maxBytes}, replayed records included until the file is deleted. Appends
+ * that would grow it beyond that are refused.
+ *
+ * <p>Appends may come from any thread and do not wait for a replay in progress.
+ */
+public class EventOverflowSegment {
+    public static final String DIRECTORY_NAME = "optimizely_flutter_event_spill";
+    public static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+    static final int HEADER_SIZE = 8;
+
+    private static final Logger logger = LoggerFactory.getLogger(EventOverflowSegment.class);
+
+    /** Sends replayed payloads. A failure keeps them in the file to be replayed again. */
+    public interface Replayer {
+        void replay(List<EventPayload> payloads) throws Exception;
+    }
+
+    private final File file;
+    private final long maxBytes;
+    // Held by a replay, so only one runs at a time
+    private final Object replayLock = new Object();
+
+    // Guarded by this
+    private FileOutputStream output;
+    private boolean opened;
+    private long length;
+    private long replayedOffset;
+    private int pendingCount;
+
+    public EventOverflowSegment(File filesDir, String sdkKey) {
+        this(filesDir, sdkKey, DEFAULT_MAX_BYTES);
+    }
+
+    public EventOverflowSegment(File filesDir, String sdkKey, long maxBytes) {
+        // SDK keys are alphanumeric, anything else is replaced so a key cannot escape the directory
+        this.file = new File(new File(filesDir, DIRECTORY_NAME), sdkKey.replaceAll("[^A-Za-z0-9_-]", "_") + ".spill");
+        this.maxBytes = maxBytes;
+    }
+
+    /** Appends the payload to the end of the file. Returns false if the file has no room left for it. */
+    public synchronized boolean append(EventPayload payload) throws IOException {
+        open();
+        byte[] record = encode(payload);
+        if (length + record.length > maxBytes) {
+            return false;
+        }
+        if (output == null) {
+            File directory = file.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+            output = new FileOutputStream(file, true);
+        }
+        try {
+            output.write(record);
+        } catch (IOException e) {
+            // Part of the record may have been written, which would make later records unreadable
+            closeOutput();
+            try (RandomAccessFile truncated = new RandomAccessFile(file, "rw")) {
+                truncated.setLength(length);
+            } catch (IOException ignored) {
+                // Cut off when the file is opened next
+            }
+            throw e;
+        }
+        length += record.length;
+        pendingCount++;
+        return true;
+    }
+
+    /** Returns the number of records not replayed yet. */
+    public synchronized int getPendingCount() {
+        try {
+            open();
+        } catch (IOException e) {
+            logger.warn("Failed to open event spill {}: {}", file, e.getMessage());
+        }
+        return pendingCount;
+    }
+
+    /**
+     * Passes up to {@code maxCount} of the oldest pending records to the replayer and drops them from the
+     * file once it returns. Returns the number of records replayed.
+     */
+    public int replay(int maxCount, Replayer replayer) throws Exception {
+        synchronized (replayLock) {
+            long start;
+            long end;
+            synchronized (this) {
+                open();
+                start = replayedOffset;
+                end = length;
+            }
+            List<EventPayload> payloads = new ArrayList<>();
+            long offset = start;
+            if (start < end) {
+                try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+                    input.seek(start);
+                    while (offset < end && payloads.size() < maxCount) {
+                        int recordLength = input.readInt();
+                        // The CRC was checked when the file was opened or the record appended
+                        input.readInt();
+                        byte[] bytes = new byte[recordLength];
+                        input.readFully(bytes);
+                        payloads.add(decode(bytes));
+                        offset += HEADER_SIZE + recordLength;
+                    }
+                }
+            }
+            if (payloads.isEmpty()) {
+                return 0;
+            }
+
+            replayer.replay(Collections.unmodifiableList(payloads));
+
+            synchronized (this) {
+                replayedOffset = offset;
+                pendingCount -= payloads.size();
+                if (replayedOffset == length) {
+                    // Everything was replayed, appends start a new file
+                    closeOutput();
+                    if (file.exists() && !file.delete()) {
+                        logger.warn("Failed to delete event spill {}", file);
+                    }
+                    length = 0;
+                    replayedOffset = 0;
+                    pendingCount = 0;
+                }
+            }
+            return payloads.size();
+        }
+    }
+
+    // Reads the file left by an earlier process, if not done yet, and cuts off a damaged tail
+    private void open() throws IOException {
+        if (opened) {
+            return;
+        }
+        length = 0;
+        replayedOffset = 0;
+        pendingCount = 0;
+        if (file.isFile()) {
+            try (RandomAccessFile input = new RandomAccessFile(file, "rw")) {
+                long fileLength = input.length();
+                byte[] header = new byte[HEADER_SIZE];
+                while (length + HEADER_SIZE <= fileLength) {
+                    input.seek(length);
+                    input.readFully(header);
+                    ByteBuffer buffer = ByteBuffer.wrap(header);
+                    int recordLength = buffer.getInt();
+                    int crc = buffer.getInt();
+                    if (recordLength < 0 || length + HEADER_SIZE + recordLength > fileLength) {
+                        break;
+                    }
+                    byte[] bytes = new byte[recordLength];
+                    input.readFully(bytes);
+                    if (crc32(bytes) != crc) {
+                        break;
+                    }
+                    length += HEADER_SIZE + recordLength;
+                    pendingCount++;
+                }
+                if (length < fileLength) {
+                    logger.warn("Dropping {} damaged bytes at the end of event spill {}", fileLength - length, file);
+                    input.setLength(length);
+                }
+            }
+        }
+        opened = true;
+    }
+
+    private void closeOutput() {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close event spill {}: {}", file, e.getMessage());
+            }
+            output = null;
+        }
+    }
+
+    static byte[] encode(EventPayload payload) {
+        byte[] bytes = (payload.getUrl() + '\n' + payload.getBody()).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bytes.length);
+        record.putInt(bytes.length);
+        record.putInt(crc32(bytes));
+        record.put(bytes);
+        return record.array();
+    }
+
+    @NonNull
+    static EventPayload decode(byte[] bytes) {
+        String record = new String(bytes, StandardCharsets.UTF_8);
+        int separator = record.indexOf('\n');
+        return new EventPayload(record.substring(0, separator), record.substring(separator + 1));
+    }
+
+    private static int crc32(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+}
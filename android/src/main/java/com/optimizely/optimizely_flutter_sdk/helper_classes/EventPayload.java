@@ -0,0 +1,183 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import androidx.annotation.NonNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.optimizely.ab.event.LogEvent;
+import com.optimizely.ab.event.internal.EventFactory;
+import com.optimizely.ab.event.internal.UserEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The request of a single user event, i.e. its endpoint and JSON body, as kept on disk.
+ *
+ * <p>Bodies are event batches holding one visitor. {@link #merge} joins consecutive payloads sharing
+ * the endpoint and every batch field but the visitors into one request, as the batch processor would
+ * have sent them. {@link #split} does the reverse for a request over a byte budget.
+ */
+public final class EventPayload {
+    static final String VISITORS = "visitors";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String url;
+    private final String body;
+
+    public EventPayload(@NonNull String url, @NonNull String body) {
+        this.url = url;
+        this.body = body;
+    }
+
+    /** Returns the request the event would be sent in on its own. */
+    public static EventPayload of(UserEvent userEvent) {
+        LogEvent logEvent = EventFactory.createLogEvent(userEvent);
+        return new EventPayload(logEvent.getEndpointUrl(), logEvent.getBody());
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Joins the payloads into as few requests as possible, keeping their order.
+     * A payload whose body cannot be parsed is sent on its own.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<LogEvent> merge(List<EventPayload> payloads) {
+        List<LogEvent> logEvents = new ArrayList<>();
+        String url = null;
+        Map<String, Object> batch = null;
+        List<Object> visitors = null;
+        for (EventPayload payload : payloads) {
+            Map<String, Object> next;
+            try {
+                next = OBJECT_MAPPER.readValue(payload.body, LinkedHashMap.class);
+            } catch (IOException e) {
+                next = null;
+            }
+            Object nextVisitors = next == null ? null : next.remove(VISITORS);
+            if (!(nextVisitors instanceof List)) {
+                addLogEvent(logEvents, url, batch, visitors);
+                url = null;
+                batch = null;
+                logEvents.add(new PayloadLogEvent(payload.url, payload.body));
+                continue;
+            }
+            if (batch == null || !payload.url.equals(url) || !batch.equals(next)) {
+                addLogEvent(logEvents, url, batch, visitors);
+                url = payload.url;
+                batch = next;
+                visitors = new ArrayList<>();
+            }
+            visitors.addAll((List<Object>) nextVisitors);
+        }
+        addLogEvent(logEvents, url, batch, visitors);
+        return logEvents;
+    }
+
+    /**
+     * Splits the request into requests whose bodies take at most {@code maxBytes} in UTF-8, keeping the
+     * order of its visitors. A visitor too large on its own is sent alone, and a body that cannot be
+     * parsed is kept whole.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<LogEvent> split(LogEvent logEvent, int maxBytes) {
+        String body = logEvent.getBody();
+        // No character takes more than three bytes, so shorter bodies fit without encoding them
+        if (body == null || body.length() * 3L <= maxBytes || body.getBytes(StandardCharsets.UTF_8).length <= maxBytes) {
+            return Collections.singletonList(logEvent);
+        }
+        Map<String, Object> batch;
+        try {
+            batch = OBJECT_MAPPER.readValue(body, LinkedHashMap.class);
+        } catch (IOException e) {
+            return Collections.singletonList(logEvent);
+        }
+        Object allVisitors = batch.remove(VISITORS);
+        if (!(allVisitors instanceof List) || ((List<Object>) allVisitors).size() < 2) {
+            return Collections.singletonList(logEvent);
+        }
+
+        List<LogEvent> logEvents = new ArrayList<>();
+        try {
+            Map<String, Object> empty = new LinkedHashMap<>(batch);
+            empty.put(VISITORS, Collections.emptyList());
+            int emptyBytes = OBJECT_MAPPER.writeValueAsBytes(empty).length;
+            List<Object> visitors = new ArrayList<>();
+            int bytes = emptyBytes;
+            for (Object visitor : (List<Object>) allVisitors) {
+                // Visitors after the first are preceded by a comma
+                int visitorBytes = OBJECT_MAPPER.writeValueAsBytes(visitor).length + (visitors.isEmpty() ? 0 : 1);
+                if (!visitors.isEmpty() && bytes + visitorBytes > maxBytes) {
+                    addLogEvent(logEvents, logEvent.getEndpointUrl(), batch, visitors);
+                    visitors = new ArrayList<>();
+                    bytes = emptyBytes;
+                    visitorBytes--;
+                }
+                visitors.add(visitor);
+                bytes += visitorBytes;
+            }
+            addLogEvent(logEvents, logEvent.getEndpointUrl(), batch, visitors);
+        } catch (IOException e) {
+            // Maps read by the same mapper always serialize
+            throw new IllegalStateException(e);
+        }
+        return logEvents;
+    }
+
+    private static void addLogEvent(List<LogEvent> logEvents, String url, Map<String, Object> batch,
+                                    List<Object> visitors) {
+        if (batch == null) {
+            return;
+        }
+        Map<String, Object> body = new LinkedHashMap<>(batch);
+        body.put(VISITORS, visitors);
+        try {
+            logEvents.add(new PayloadLogEvent(url, OBJECT_MAPPER.writeValueAsString(body)));
+        } catch (IOException e) {
+            // Maps read by the same mapper always serialize
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** A log event with a body that is already serialized. */
+    static final class PayloadLogEvent extends LogEvent {
+        private final String body;
+
+        PayloadLogEvent(String url, String body) {
+            super(RequestMethod.POST, url, Collections.<String, String>emptyMap(), null);
+            this.body = body;
+        }
+
+        @Override
+        public String getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+/**
+ * Response of a method call.
+ *
+ * <p>Encoded by {@link OptimizelyMessageCodec} as its three fields in order, and decoded by Dart into the
+ * same success, result and reason map every platform replies with.
+ */
+public final class MethodResponse {
+    private final Boolean success;
+    private final Object result;
+    private final String reason;
+
+    public MethodResponse(Boolean success, Object result, String reason) {
+        this.success = success;
+        this.result = result;
+        this.reason = reason;
+    }
+
+    public Boolean getSuccess() {
+        return success;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
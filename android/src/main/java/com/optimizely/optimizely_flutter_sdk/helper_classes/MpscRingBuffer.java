@@ -0,0 +1,254 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import androidx.annotation.NonNull;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, used as the event queue.
+ *
+ * <p>Events are queued by every thread calling decide or track, and taken by the one consumer of the
+ * event processor. An {@code ArrayBlockingQueue} makes both sides contend for one lock. Here producers
+ * claim a slot of a ring buffer with a compare-and-set on the tail and publish into it by advancing the
+ * slot's sequence number, and the consumer frees slots the same way, so neither side ever locks.
+ *
+ * <p>Only the consumer may take elements, i.e. call poll, take, peek, drainTo, remove or clear. Any
+ * thread may add them. A consumer waiting on an empty queue parks and is unparked by the next producer.
+ * Producers waiting in put on a full queue, which only happens when closing, retry after a short park.
+ * The ring is sized to the capacity rounded up to a power of two of at least two, since with a single
+ * slot a published sequence would equal the next position and look free. Offers are still bounded by the
+ * requested capacity.
+ */
+public class MpscRingBuffer<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    public static final int MAX_CAPACITY = 1 << 30;
+    private static final long PUT_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int capacity;
+    private final int slotCount;
+    private final int mask;
+    private final Object[] elements;
+    // Per slot: its position while free, its position + 1 once published, reset to position + capacity on take
+    private final AtomicLongArray sequences;
+    // Next position to claim, advanced by producers
+    private final AtomicLong tail = new AtomicLong();
+    // Next position to take, only advanced by the consumer
+    private final AtomicLong head = new AtomicLong();
+    private volatile Thread waitingConsumer;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.capacity = capacity;
+        this.slotCount = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = slotCount - 1;
+        this.elements = new Object[slotCount];
+        this.sequences = new AtomicLongArray(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    @Override
+    public boolean offer(@NonNull E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                // The head may lag behind a concurrent take, which only ever rejects early
+                if (position - head.get() >= capacity) {
+                    return false;
+                }
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    // A volatile write, ordered before reading waitingConsumer
+                    sequences.set(index, position + 1);
+                    Thread consumer = waitingConsumer;
+                    if (consumer != null) {
+                        LockSupport.unpark(consumer);
+                    }
+                    return true;
+                }
+            } else if (difference < 0) {
+                // The slot still holds the element of the previous lap
+                return false;
+            }
+            // Another producer claimed the position first
+        }
+    }
+
+    @Override
+    public boolean offer(E element, long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(element)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(this, Math.min(remaining, PUT_RETRY_NANOS));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void put(@NonNull E element) throws InterruptedException {
+        while (!offer(element)) {
+            LockSupport.parkNanos(this, PUT_RETRY_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    @Override
+    public E poll() {
+        long position = head.get();
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            // Empty, or the producer of the slot has not published yet
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.lazySet(index, position + slotCount);
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    @Override
+    public E poll(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        E element = poll();
+        if (element != null) {
+            return element;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        waitingConsumer = Thread.currentThread();
+        try {
+            while (true) {
+                // Checked after announcing the wait, so a producer either sees the consumer or is seen by it
+                element = poll();
+                if (element != null) {
+                    return element;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E element;
+        while ((element = poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) == null) {
+            // Only returns null after waiting for centuries, keep waiting
+        }
+        return element;
+    }
+
+    @Override
+    public E peek() {
+        long position = head.get();
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        E element = (E) elements[index];
+        return element;
+    }
+
+    @Override
+    public int drainTo(@NonNull Collection<? super E> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(@NonNull Collection<? super E> collection, int maxElements) {
+        if (collection == this) {
+            throw new IllegalArgumentException();
+        }
+        int drained = 0;
+        E element;
+        while (drained < maxElements && (element = poll()) != null) {
+            collection.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        // Read head first, so a concurrent take cannot make the size negative
+        long position = head.get();
+        long size = tail.get() - position;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    /** Returns a snapshot of the published elements, in queue order. */
+    @NonNull
+    @Override
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<>();
+        long end = tail.get();
+        for (long position = head.get(); position < end; position++) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            @SuppressWarnings("unchecked")
+            E element = (E) elements[index];
+            // Taken meanwhile, the slot may already hold a later element
+            if (element == null || sequences.get(index) != position + 1) {
+                break;
+            }
+            snapshot.add(element);
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+}
@@ -0,0 +1,279 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delivers SDK notifications to Dart in batches.
+ *
+ * <p>Notifications raised by the SDK are buffered per SDK key, and each buffer is flushed to Dart as a
+ * single {@code notificationBatchCallbackListener} call, so a burst of notifications (e.g. a decision
+ * listener during decideAll) costs one main thread post and one channel message instead of one each.
+ *
+ * <p>A buffer is flushed on the next frame, or after the batch interval of its SDK key when one is set.
+ * Without an interval, a buffer whose frame does not come within {@link #FRAME_FALLBACK_MILLIS}, e.g.
+ * while the screen is off, is flushed then.
+ * Notifications keep the order they were raised in.
+ *
+ * <p>Each notification type of an SDK key holds at most {@code queueSize} notifications until the next
+ * flush. When a burst exceeds that, the {@link OverflowPolicy} decides which ones are dropped, and the
+ * drops are counted per type.
+ */
+public class NotificationDispatcher {
+    public static final int DEFAULT_BATCH_INTERVAL_IN_MILLIS = 0;
+    public static final int DEFAULT_QUEUE_SIZE = 1000;
+    // Two frames at 60 Hz, after which a batch waiting for a frame is flushed anyway
+    static final long FRAME_FALLBACK_MILLIS = 32;
+
+    /** Decides which notification is dropped when the queue of a type is full. */
+    public enum OverflowPolicy {
+        // Drops the oldest queued notification to make room
+        DROP_OLDEST("dropOldest"),
+        // Drops the new notification
+        DROP_NEWEST("dropNewest"),
+        // Keeps a uniform random sample of all notifications raised since the last flush
+        SAMPLE("sample");
+
+        private final String value;
+
+        OverflowPolicy(String value) {
+            this.value = value;
+        }
+
+        /** Returns the policy with the given Dart name, or DROP_OLDEST if there is none. */
+        public static OverflowPolicy fromValue(@Nullable String value) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.value.equals(value)) {
+                    return policy;
+                }
+            }
+            return DROP_OLDEST;
+        }
+    }
+
+    /** Sends a batch to Dart. Called on the main thread. */
+    public interface Sender {
+        void send(String method, Object arguments);
+    }
+
+    private static final class Notification {
+        final long sequence;
+        final Map<String, Object> map;
+
+        Notification(long sequence, Map<String, Object> map) {
+            this.sequence = sequence;
+            this.map = map;
+        }
+    }
+
+    private static final Comparator<Notification> BY_SEQUENCE = (a, b) -> Long.compare(a.sequence, b.sequence);
+
+    /** Fixed size ring of the queued notifications of one type. */
+    private static final class Ring {
+        final Notification[] slots;
+        int head;
+        int size;
+        // Notifications offered since the last drain
+        long offered;
+        long dropped;
+
+        Ring(int capacity) {
+            slots = new Notification[capacity];
+        }
+
+        void offer(Notification notification, OverflowPolicy policy) {
+            offered++;
+            if (size < slots.length) {
+                slots[(head + size) % slots.length] = notification;
+                size++;
+                return;
+            }
+            dropped++;
+            switch (policy) {
+                case DROP_NEWEST:
+                    break;
+                case SAMPLE: {
+                    // Reservoir sampling, the drain restores the order
+                    long index = ThreadLocalRandom.current().nextLong(offered);
+                    if (index < slots.length) {
+                        slots[(int) index] = notification;
+                    }
+                    break;
+                }
+                default:
+                    slots[head] = notification;
+                    head = (head + 1) % slots.length;
+            }
+        }
+
+        void drainTo(List<Notification> notifications) {
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % slots.length;
+                notifications.add(slots[index]);
+                slots[index] = null;
+            }
+            head = 0;
+            size = 0;
+            offered = 0;
+        }
+    }
+
+    private static final class Batch {
+        int intervalMillis = DEFAULT_BATCH_INTERVAL_IN_MILLIS;
+        int queueSize = DEFAULT_QUEUE_SIZE;
+        OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+        final Map<String, Ring> rings = new HashMap<>();
+        long sequence;
+        boolean scheduled;
+        // When the first notification since the last flush was queued
+        long scheduledNanos;
+    }
+
+    private final Sender sender;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Guarded by this
+    private final Map<String, Batch> batches = new HashMap<>();
+
+    public NotificationDispatcher(Sender sender) {
+        this.sender = sender;
+    }
+
+    /**
+     * Configures the buffering of notifications of the SDK key. An interval of zero flushes them on the
+     * next frame. Queues already holding notifications keep their size until the next flush.
+     */
+    public synchronized void configure(String sdkKey, int intervalMillis, int queueSize, OverflowPolicy overflowPolicy) {
+        Batch batch = getOrCreateBatch(sdkKey);
+        batch.intervalMillis = Math.max(intervalMillis, 0);
+        batch.queueSize = Math.max(queueSize, 1);
+        batch.overflowPolicy = overflowPolicy;
+    }
+
+    /** Buffers a notification for the listener with the given id. May be called from any thread. */
+    public void dispatch(String sdkKey, int id, String notificationType, Map<String, ?> payload) {
+        Map<String, Object> notification = new HashMap<>();
+        notification.put(Constants.RequestParameterKey.NOTIFICATION_ID, id);
+        notification.put(Constants.RequestParameterKey.NOTIFICATION_TYPE, notificationType);
+        notification.put(Constants.RequestParameterKey.NOTIFICATION_PAYLOAD, payload);
+
+        int intervalMillis;
+        synchronized (this) {
+            Batch batch = getOrCreateBatch(sdkKey);
+            Ring ring = batch.rings.get(notificationType);
+            if (ring == null || (ring.size == 0 && ring.slots.length != batch.queueSize)) {
+                Ring resized = new Ring(batch.queueSize);
+                if (ring != null) {
+                    resized.dropped = ring.dropped;
+                }
+                ring = resized;
+                batch.rings.put(notificationType, ring);
+            }
+            ring.offer(new Notification(batch.sequence++, notification), batch.overflowPolicy);
+            if (batch.scheduled) {
+                return;
+            }
+            batch.scheduled = true;
+            batch.scheduledNanos = System.nanoTime();
+            intervalMillis = batch.intervalMillis;
+        }
+        Runnable flush = () -> flush(sdkKey);
+        if (intervalMillis > 0) {
+            mainHandler.postDelayed(flush, intervalMillis);
+        } else {
+            // Choreographer is bound to the looper of the calling thread. No frames come while the screen
+            // is off, so a timed post flushes the batch when the frame does not come first.
+            mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(frameTimeNanos -> {
+                mainHandler.removeCallbacks(flush);
+                flush.run();
+            }));
+            mainHandler.postDelayed(flush, FRAME_FALLBACK_MILLIS);
+        }
+    }
+
+    /**
+     * Drops the notifications queued for the SDK key and its buffering settings, once its client is
+     * closed. A flush already posted for it then finds nothing to send.
+     */
+    public synchronized void remove(String sdkKey) {
+        batches.remove(sdkKey);
+    }
+
+    /** Returns the number of dropped notifications of the SDK key by notification type. */
+    public synchronized Map<String, Long> getDroppedCounts(String sdkKey) {
+        Map<String, Long> droppedCounts = new HashMap<>();
+        Batch batch = batches.get(sdkKey);
+        if (batch != null) {
+            for (Map.Entry<String, Ring> entry : batch.rings.entrySet()) {
+                droppedCounts.put(entry.getKey(), entry.getValue().dropped);
+            }
+        }
+        return droppedCounts;
+    }
+
+    void flush(String sdkKey) {
+        List<Notification> drained = new ArrayList<>();
+        long scheduledNanos;
+        synchronized (this) {
+            Batch batch = batches.get(sdkKey);
+            if (batch == null) {
+                return;
+            }
+            for (Ring ring : batch.rings.values()) {
+                ring.drainTo(drained);
+            }
+            batch.scheduled = false;
+            scheduledNanos = batch.scheduledNanos;
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        // Restores the order across types
+        Collections.sort(drained, BY_SEQUENCE);
+        List<Map<String, Object>> notifications = new ArrayList<>(drained.size());
+        for (Notification notification : drained) {
+            notifications.add(notification.map);
+        }
+
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put(Constants.RequestParameterKey.SDK_KEY, sdkKey);
+        arguments.put(Constants.RequestParameterKey.NOTIFICATIONS, Collections.unmodifiableList(notifications));
+        long sendNanos = System.nanoTime();
+        sender.send(Constants.NotificationType.BATCH + "CallbackListener", arguments);
+        PluginMetrics.INSTANCE.recordNotifications(drained.size(), sendNanos - scheduledNanos, System.nanoTime() - sendNanos);
+    }
+
+    private Batch getOrCreateBatch(String sdkKey) {
+        Batch batch = batches.get(sdkKey);
+        if (batch == null) {
+            batch = new Batch();
+            batches.put(sdkKey, batch);
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,136 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.optimizelydecision.OptimizelyDecision;
+import com.optimizely.ab.optimizelyjson.OptimizelyJSON;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import io.flutter.plugin.common.StandardMessageCodec;
+import io.flutter.plugin.common.StandardMethodCodec;
+
+/**
+ * Message codec of the plugin method channel.
+ *
+ * <p>Extends the standard codec with tagged encodings of the plugin's own types, written without keys:
+ * <ul>
+ *   <li>{@link OptimizelyDecision}, written straight into the channel buffer instead of being converted
+ *   to intermediate maps first. Fields are written positionally: variationKey, enabled, variables,
+ *   ruleKey, flagKey, userId, attributes, reasons.</li>
+ *   <li>{@link MethodResponse}, written positionally: success, result, reason.</li>
+ *   <li>{@link RequestArguments}, the arguments of calls from Dart, written as a count followed by
+ *   (field, value) pairs with the field as a single byte. Values are validated while reading. Byte
+ *   arrays of the datafile field are not copied: they are read as a view into the message buffer.</li>
+ * </ul>
+ *
+ * <p>Decisions and responses only travel from native to Dart, so there are no matching readers here.
+ *
+ * <p>Must be kept in sync with OptimizelyMessageCodec in lib/src/utils/optimizely_message_codec.dart.
+ */
+public class OptimizelyMessageCodec extends StandardMessageCodec {
+    public static final OptimizelyMessageCodec INSTANCE = new OptimizelyMessageCodec();
+    public static final StandardMethodCodec METHOD_CODEC = new StandardMethodCodec(INSTANCE);
+
+    // Custom type tags must not collide with the standard ones (0-15)
+    static final byte DECISION = (byte) 128;
+    static final byte REQUEST = (byte) 129;
+    static final byte RESPONSE = (byte) 130;
+    // Standard tag of Uint8List, private in StandardMessageCodec
+    static final byte BYTE_ARRAY = 8;
+
+    @Override
+    protected void writeValue(ByteArrayOutputStream stream, Object value) {
+        if (value instanceof OptimizelyDecision) {
+            stream.write(DECISION);
+            writeDecision(stream, (OptimizelyDecision) value);
+        } else if (value instanceof MethodResponse) {
+            MethodResponse response = (MethodResponse) value;
+            stream.write(RESPONSE);
+            writeValue(stream, response.getSuccess());
+            writeValue(stream, response.getResult());
+            writeValue(stream, response.getReason());
+        } else if (value instanceof RequestArguments) {
+            stream.write(REQUEST);
+            writeRequestArguments(stream, (RequestArguments) value);
+        } else if (value instanceof ByteBuffer) {
+            ByteBuffer bytes = ((ByteBuffer) value).duplicate();
+            stream.write(BYTE_ARRAY);
+            writeSize(stream, bytes.remaining());
+            while (bytes.hasRemaining()) {
+                stream.write(bytes.get());
+            }
+        } else {
+            super.writeValue(stream, value);
+        }
+    }
+
+    @Override
+    protected Object readValueOfType(byte type, ByteBuffer buffer) {
+        if (type == REQUEST) {
+            RequestArguments arguments = new RequestArguments();
+            int size = readSize(buffer);
+            for (int i = 0; i < size; i++) {
+                int field = buffer.get() & 0xff;
+                if (field == RequestArguments.DATAFILE && buffer.get(buffer.position()) == BYTE_ARRAY) {
+                    buffer.get();
+                    arguments.set(field, readBytesView(buffer));
+                } else {
+                    arguments.set(field, readValue(buffer));
+                }
+            }
+            return arguments;
+        }
+        return super.readValueOfType(type, buffer);
+    }
+
+    // Slice of the message instead of the copy the standard codec makes for byte arrays
+    private static ByteBuffer readBytesView(ByteBuffer buffer) {
+        int length = readSize(buffer);
+        ByteBuffer bytes = buffer.slice();
+        bytes.limit(length);
+        buffer.position(buffer.position() + length);
+        return bytes;
+    }
+
+    // Only Dart sends arguments, this encodes them the same way for the JVM benchmarks
+    private void writeRequestArguments(ByteArrayOutputStream stream, RequestArguments arguments) {
+        writeSize(stream, arguments.size());
+        for (int field = 0; field < arguments.fieldCount(); field++) {
+            Object value = arguments.get(field);
+            if (value != null) {
+                stream.write(field);
+                writeValue(stream, value);
+            }
+        }
+    }
+
+    private void writeDecision(ByteArrayOutputStream stream, OptimizelyDecision decision) {
+        OptimizelyJSON variables = decision.getVariables();
+        OptimizelyUserContext userContext = decision.getUserContext();
+
+        writeValue(stream, decision.getVariationKey());
+        writeValue(stream, decision.getEnabled());
+        writeValue(stream, variables != null ? variables.toMap() : null);
+        writeValue(stream, decision.getRuleKey());
+        writeValue(stream, decision.getFlagKey());
+        writeValue(stream, userContext != null ? userContext.getUserId() : null);
+        writeValue(stream, userContext != null ? userContext.getAttributes() : null);
+        writeValue(stream, decision.getReasons());
+    }
+}
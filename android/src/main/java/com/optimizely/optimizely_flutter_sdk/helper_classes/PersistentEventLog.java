@@ -0,0 +1,487 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import androidx.annotation.Nullable;
+
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.MetricsKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the events of an SDK key, kept in files until they are sent.
+ *
+ * <p>The log is a directory of numbered segment files holding records in the format of
+ * {@link EventOverflowSegment}, and a checkpoint file with the position of the first record not sent
+ * yet. Records are appended with a single write each, which the OS keeps when the process is killed.
+ * Flushing them to the disk with fsync, which keeps them through a power loss too, is batched: at most
+ * one sync runs per {@link #DEFAULT_SYNC_INTERVAL_MILLIS} on the given scheduler, however many
+ * records were appended meanwhile.
+ *
+ * <p>Appends go to the last segment until it exceeds the segment size, then to a new one. A consumer
+ * reads the oldest records from the checkpoint, sends them and then moves the checkpoint past them.
+ * Segments entirely behind the checkpoint are deleted, so while the consumer keeps up the log takes
+ * at most about one segment. The checkpoint is replaced by a rename but not synced, so after a power
+ * loss records sent just before may be sent again.
+ *
+ * <p>The log is opened, i.e. recovered, on first use: segments behind the checkpoint are deleted, the
+ * records from the checkpoint on are checked, and each segment is cut at its first torn or corrupt record.
+ *
+ * <p>Appends may come from any thread and do not wait for the consumer. Consumers of the same log run
+ * one at a time.
+ */
+public class PersistentEventLog {
+    public static final String DIRECTORY_NAME = "optimizely_flutter_event_log";
+    public static final int DEFAULT_SEGMENT_BYTES = 1 << 20;
+    public static final long DEFAULT_MAX_PENDING_BYTES = 16L << 20;
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 200;
+    static final String CHECKPOINT_FILE_NAME = "checkpoint";
+    static final String SEGMENT_SUFFIX = ".log";
+    // Segment id, offset in the segment and their CRC32
+    private static final int CHECKPOINT_SIZE = 20;
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentEventLog.class);
+
+    private final File directory;
+    private final int segmentBytes;
+    private final long maxPendingBytes;
+    private final long syncIntervalMillis;
+    @Nullable
+    private final ScheduledExecutorService scheduler;
+    private final Runnable syncTask = this::sync;
+    // Held by a consumer from reading records until the checkpoint moves past them
+    private final Object consumeLock = new Object();
+
+    // Guarded by this. Lengths of the segments by id, the last one being appended to.
+    private final TreeMap<Long, Long> segments = new TreeMap<>();
+    private FileChannel output;
+    private long writeSegment;
+    private long checkpointSegment;
+    private long checkpointOffset;
+    private long pendingBytes;
+    private boolean opened;
+    private boolean syncScheduled;
+    private long recovered;
+    private long recoveryNanos;
+    // Written under the lock, read by the processor to decide when to flush
+    private volatile int pendingCount;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+
+    public PersistentEventLog(File filesDir, String sdkKey, @Nullable ScheduledExecutorService scheduler) {
+        this(filesDir, sdkKey, scheduler, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_PENDING_BYTES, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    /** Creates a log that is not synced in the background if no scheduler is given. */
+    public PersistentEventLog(File filesDir, String sdkKey, @Nullable ScheduledExecutorService scheduler,
+                              int segmentBytes, long maxPendingBytes, long syncIntervalMillis) {
+        // SDK keys are alphanumeric, anything else is replaced so a key cannot escape the directory
+        this.directory = new File(new File(filesDir, DIRECTORY_NAME), sdkKey.replaceAll("[^A-Za-z0-9_-]", "_"));
+        this.scheduler = scheduler;
+        this.segmentBytes = segmentBytes;
+        this.maxPendingBytes = maxPendingBytes;
+        this.syncIntervalMillis = syncIntervalMillis;
+    }
+
+    /**
+     * Appends the payload to the log. Returns false, dropping the payload, if the records not sent yet
+     * already take {@code maxPendingBytes}.
+     */
+    public boolean append(EventPayload payload) throws IOException {
+        byte[] record = EventOverflowSegment.encode(payload);
+        synchronized (this) {
+            open();
+            if (pendingBytes + record.length > maxPendingBytes) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            if (output == null || segments.get(writeSegment) >= segmentBytes) {
+                openOutput();
+            }
+            long offset = segments.get(writeSegment);
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    output.write(buffer);
+                }
+            } catch (IOException e) {
+                // Part of the record may have been written, which would make later records unreadable
+                closeOutput(false);
+                try (RandomAccessFile truncated = new RandomAccessFile(segmentFile(writeSegment), "rw")) {
+                    truncated.setLength(offset);
+                } catch (IOException ignored) {
+                    // Cut off when the log is opened next
+                }
+                throw e;
+            }
+            segments.put(writeSegment, offset + record.length);
+            pendingBytes += record.length;
+            pendingCount++;
+            appended.incrementAndGet();
+            if (scheduler != null && !syncScheduled) {
+                syncScheduled = true;
+                scheduler.schedule(syncTask, syncIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return true;
+    }
+
+    /** Returns the number of records not sent yet, or zero until the log is opened. */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Passes up to {@code maxCount} of the oldest records not sent yet to the replayer, and moves the
+     * checkpoint past them once it returns. A failure keeps them to be passed again. Returns the number
+     * of records passed.
+     */
+    public int consume(int maxCount, EventOverflowSegment.Replayer replayer) throws Exception {
+        synchronized (consumeLock) {
+            long segment;
+            long offset;
+            Map<Long, Long> lengths;
+            synchronized (this) {
+                open();
+                segment = checkpointSegment;
+                offset = checkpointOffset;
+                // Records appended from now on are left for the next call
+                lengths = new TreeMap<>(segments.tailMap(segment, true));
+            }
+
+            List<EventPayload> payloads = new ArrayList<>();
+            long bytes = 0;
+            for (Map.Entry<Long, Long> entry : lengths.entrySet()) {
+                if (payloads.size() >= maxCount) {
+                    break;
+                }
+                if (entry.getKey() != segment) {
+                    segment = entry.getKey();
+                    offset = 0;
+                }
+                long end = entry.getValue();
+                if (offset >= end) {
+                    continue;
+                }
+                // Segments are bounded in size, so the rest of one is read at once
+                byte[] chunk = new byte[(int) (end - offset)];
+                try (RandomAccessFile input = new RandomAccessFile(segmentFile(segment), "r")) {
+                    input.seek(offset);
+                    input.readFully(chunk);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                while (buffer.hasRemaining() && payloads.size() < maxCount) {
+                    // The CRC was checked when the log was opened or the record appended
+                    int recordLength = buffer.getInt();
+                    buffer.getInt();
+                    payloads.add(EventOverflowSegment.decode(
+                            Arrays.copyOfRange(chunk, buffer.position(), buffer.position() + recordLength)));
+                    buffer.position(buffer.position() + recordLength);
+                    bytes += EventOverflowSegment.HEADER_SIZE + recordLength;
+                }
+                offset += buffer.position();
+            }
+            if (payloads.isEmpty()) {
+                return 0;
+            }
+
+            replayer.replay(Collections.unmodifiableList(payloads));
+
+            synchronized (this) {
+                checkpointSegment = segment;
+                checkpointOffset = offset;
+                pendingCount -= payloads.size();
+                pendingBytes -= bytes;
+                compact();
+                writeCheckpoint();
+            }
+            return payloads.size();
+        }
+    }
+
+    /** Flushes appended records to the disk. */
+    public void sync() {
+        FileChannel channel;
+        synchronized (this) {
+            syncScheduled = false;
+            channel = output;
+        }
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            syncs.incrementAndGet();
+        } catch (ClosedChannelException e) {
+            // Closed by a roll or compaction, which synced it first if it was still needed
+        } catch (IOException e) {
+            logger.warn("Failed to sync event log {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /** Returns the size of the log, what was appended and dropped, and how long it took to open, for metrics. */
+    public synchronized Map<String, Object> getStats() {
+        try {
+            open();
+        } catch (IOException e) {
+            logger.warn("Failed to open event log {}: {}", directory, e.getMessage());
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put(MetricsKey.PENDING_EVENTS, pendingCount);
+        stats.put(MetricsKey.PENDING_BYTES, pendingBytes);
+        stats.put(MetricsKey.SEGMENTS, segments.size());
+        stats.put(MetricsKey.APPENDED, appended.get());
+        stats.put(MetricsKey.DROPPED, dropped.get());
+        stats.put(MetricsKey.SYNCS, syncs.get());
+        stats.put(MetricsKey.RECOVERED, recovered);
+        stats.put(MetricsKey.RECOVERY_TIME, TimeUnit.NANOSECONDS.toMicros(recoveryNanos));
+        return stats;
+    }
+
+    // Reads the log left by an earlier process, if not done yet
+    private void open() throws IOException {
+        if (opened) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        segments.clear();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file.length());
+                    } catch (NumberFormatException e) {
+                        logger.warn("Ignoring unexpected file {} in event log", file);
+                    }
+                }
+            }
+        }
+        if (!readCheckpoint()) {
+            checkpointSegment = segments.isEmpty() ? 0 : segments.firstKey();
+            checkpointOffset = 0;
+        }
+
+        // Segments sent before the process died, whose deletion did not happen
+        Iterator<Map.Entry<Long, Long>> sent = segments.headMap(checkpointSegment, false).entrySet().iterator();
+        while (sent.hasNext()) {
+            deleteSegment(sent.next().getKey());
+            sent.remove();
+        }
+
+        int count = 0;
+        long bytes = 0;
+        for (Map.Entry<Long, Long> entry : segments.entrySet()) {
+            long start = 0;
+            if (entry.getKey() == checkpointSegment) {
+                // The checkpoint may be ahead of records lost with a power loss
+                checkpointOffset = Math.min(checkpointOffset, entry.getValue());
+                start = checkpointOffset;
+            }
+            long[] scanned = recover(entry.getKey(), start, entry.getValue());
+            entry.setValue(scanned[0]);
+            count += (int) scanned[1];
+            bytes += scanned[0] - start;
+        }
+        pendingCount = count;
+        pendingBytes = bytes;
+        recovered = count;
+        recoveryNanos = System.nanoTime() - startNanos;
+        opened = true;
+    }
+
+    // Checks the records of a segment from the start offset and cuts it at the first damaged one.
+    // Returns the length kept and the number of records found.
+    private long[] recover(long segment, long start, long length) throws IOException {
+        File file = segmentFile(segment);
+        long count = 0;
+        long end = start;
+        try (RandomAccessFile input = new RandomAccessFile(file, "rw")) {
+            byte[] chunk = new byte[(int) (length - start)];
+            input.seek(start);
+            input.readFully(chunk);
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= EventOverflowSegment.HEADER_SIZE) {
+                int recordLength = buffer.getInt();
+                int recordCrc = buffer.getInt();
+                if (recordLength < 0 || recordLength > buffer.remaining()) {
+                    break;
+                }
+                crc.reset();
+                crc.update(chunk, buffer.position(), recordLength);
+                if ((int) crc.getValue() != recordCrc) {
+                    break;
+                }
+                buffer.position(buffer.position() + recordLength);
+                end = start + buffer.position();
+                count++;
+            }
+            if (end < length) {
+                logger.warn("Dropping {} damaged bytes at the end of event log segment {}", length - end, file);
+                input.setLength(end);
+            }
+        }
+        return new long[]{end, count};
+    }
+
+    // Appends to the last segment if it has room, else to a new one
+    private void openOutput() throws IOException {
+        closeOutput(true);
+        Map.Entry<Long, Long> last = segments.lastEntry();
+        if (last != null && last.getValue() < segmentBytes) {
+            writeSegment = last.getKey();
+        } else {
+            writeSegment = last != null ? last.getKey() + 1 : checkpointSegment + 1;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        output = new FileOutputStream(segmentFile(writeSegment), true).getChannel();
+        if (!segments.containsKey(writeSegment)) {
+            segments.put(writeSegment, 0L);
+        }
+    }
+
+    private void closeOutput(boolean sync) {
+        if (output == null) {
+            return;
+        }
+        try {
+            if (sync) {
+                output.force(false);
+                syncs.incrementAndGet();
+            }
+            output.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close event log segment {}: {}", segmentFile(writeSegment), e.getMessage());
+        }
+        output = null;
+    }
+
+    // Deletes the segments behind the checkpoint and moves it to the start of the next one
+    private void compact() {
+        Iterator<Map.Entry<Long, Long>> sent = segments.headMap(checkpointSegment, false).entrySet().iterator();
+        while (sent.hasNext()) {
+            deleteSegment(sent.next().getKey());
+            sent.remove();
+        }
+        // The last segment is kept while it has room, so a consumer keeping up does not create a file per batch
+        Long length = segments.get(checkpointSegment);
+        Long next = segments.higherKey(checkpointSegment);
+        if (length == null || checkpointOffset < length || (next == null && length < segmentBytes)) {
+            return;
+        }
+        if (checkpointSegment == writeSegment) {
+            // Its records were sent, so they no longer need to be synced
+            closeOutput(false);
+        }
+        deleteSegment(checkpointSegment);
+        segments.remove(checkpointSegment);
+        if (next != null) {
+            checkpointSegment = next;
+            checkpointOffset = 0;
+        }
+    }
+
+    private void deleteSegment(long segment) {
+        File file = segmentFile(segment);
+        if (file.exists() && !file.delete()) {
+            logger.warn("Failed to delete event log segment {}", file);
+        }
+    }
+
+    private boolean readCheckpoint() {
+        File file = new File(directory, CHECKPOINT_FILE_NAME);
+        if (!file.isFile() || file.length() != CHECKPOINT_SIZE) {
+            return false;
+        }
+        byte[] bytes = new byte[CHECKPOINT_SIZE];
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            input.readFully(bytes);
+        } catch (IOException e) {
+            logger.warn("Failed to read event log checkpoint {}: {}", file, e.getMessage());
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long segment = buffer.getLong();
+        long offset = buffer.getLong();
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, CHECKPOINT_SIZE - 4);
+        if ((int) crc.getValue() != buffer.getInt() || offset < 0) {
+            logger.warn("Ignoring corrupt event log checkpoint {}", file);
+            return false;
+        }
+        checkpointSegment = segment;
+        checkpointOffset = offset;
+        return true;
+    }
+
+    // Written to a temporary file renamed over the old one, so a crash leaves either of them whole
+    private void writeCheckpoint() {
+        ByteBuffer buffer = ByteBuffer.allocate(CHECKPOINT_SIZE);
+        buffer.putLong(checkpointSegment);
+        buffer.putLong(checkpointOffset);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, CHECKPOINT_SIZE - 4);
+        buffer.putInt((int) crc.getValue());
+        File file = new File(directory, CHECKPOINT_FILE_NAME);
+        File temporary = new File(directory, CHECKPOINT_FILE_NAME + ".tmp");
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+            try (FileOutputStream checkpoint = new FileOutputStream(temporary)) {
+                checkpoint.write(buffer.array());
+            }
+            if (!temporary.renameTo(file)) {
+                throw new IOException("Cannot rename " + temporary);
+            }
+        } catch (IOException e) {
+            // Records sent since the last checkpoint will be sent again after a restart
+            logger.warn("Failed to write event log checkpoint {}: {}", file, e.getMessage());
+        }
+    }
+
+    private File segmentFile(long segment) {
+        return new File(directory, String.format(Locale.US, "%020d", segment) + SEGMENT_SUFFIX);
+    }
+}
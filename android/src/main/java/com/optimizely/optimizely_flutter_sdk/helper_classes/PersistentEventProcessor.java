@@ -0,0 +1,164 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.ab.event.EventHandler;
+import com.optimizely.ab.event.EventProcessor;
+import com.optimizely.ab.event.LogEvent;
+import com.optimizely.ab.event.internal.UserEvent;
+import com.optimizely.ab.notification.NotificationCenter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Event processor appending events to a {@link PersistentEventLog} before they are batched, so events
+ * not sent yet survive the process being killed.
+ *
+ * <p>The calling thread serializes the event and appends it to the log. A consumer running on the given
+ * executor sends the oldest events of the log as one request when the batch size is reached and when
+ * the flush interval has passed since the last flush, then moves the log's checkpoint past them. Events
+ * of another project or revision start a new request. A failed dispatch keeps the events in the log
+ * to be sent at the next flush, so requests sent before the failure may be sent again. After a failure
+ * the consumer waits for the flush interval, at least {@link #MIN_RETRY_MILLIS}, even when a full
+ * batch is waiting.
+ *
+ * <p>On close the consumer sends what is in the log. Events it could not send stay there for the next
+ * client of the SDK key, including one created after the app restarts.
+ */
+public class PersistentEventProcessor implements EventProcessor, AutoCloseable {
+    public static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    public static final long MIN_RETRY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    // Returned by flush when the dispatch failed
+    private static final int FAILED = -1;
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentEventProcessor.class);
+
+    private final PersistentEventLog eventLog;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final EventHandler eventHandler;
+    private final NotificationCenter notificationCenter;
+    private final Future<?> consumer;
+    private volatile Thread consumerThread;
+    private volatile boolean closed;
+
+    public PersistentEventProcessor(PersistentEventLog eventLog, int batchSize, long flushIntervalMillis,
+                                    EventHandler eventHandler, NotificationCenter notificationCenter,
+                                    ExecutorService executor) {
+        this.eventLog = eventLog;
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.eventHandler = eventHandler;
+        this.notificationCenter = notificationCenter;
+        this.consumer = executor.submit(this::consume);
+    }
+
+    @Override
+    public void process(UserEvent userEvent) {
+        if (closed) {
+            logger.warn("Event processor is closed, dropping event");
+            return;
+        }
+        try {
+            if (!eventLog.append(EventPayload.of(userEvent))) {
+                logger.warn("Payload not accepted by the event log. Current size: {}", eventLog.getPendingCount());
+                return;
+            }
+        } catch (IOException e) {
+            logger.error("Failed to append event to the event log", e);
+            return;
+        }
+        if (eventLog.getPendingCount() >= batchSize) {
+            LockSupport.unpark(consumerThread);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(consumerThread);
+        try {
+            consumer.get(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Event consumer failed", e.getCause());
+        } catch (TimeoutException e) {
+            logger.error("Timeout exceeded attempting to close for {} ms", CLOSE_TIMEOUT_MILLIS);
+        }
+    }
+
+    private void consume() {
+        consumerThread = Thread.currentThread();
+        try {
+            // Events left by an earlier process are sent right away
+            long deadline = 0;
+            boolean failed = false;
+            while (!closed) {
+                long timeout = deadline - System.currentTimeMillis();
+                // A full batch is only sent early while dispatching works
+                if (timeout > 0 && (failed || eventLog.getPendingCount() < batchSize)) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(timeout));
+                    if (Thread.interrupted()) {
+                        break;
+                    }
+                    continue;
+                }
+                failed = flush() == FAILED;
+                deadline = System.currentTimeMillis()
+                        + (failed ? Math.max(flushIntervalMillis, MIN_RETRY_MILLIS) : flushIntervalMillis);
+            }
+            while (flush() > 0) {
+                // Sends everything before closing, stopping at the first failure
+            }
+        } finally {
+            consumerThread = null;
+            eventLog.sync();
+        }
+    }
+
+    // Sends one batch from the log. Returns the number of events sent, or FAILED.
+    private int flush() {
+        try {
+            return eventLog.consume(batchSize, this::dispatch);
+        } catch (Exception e) {
+            logger.error("Error dispatching events, keeping them in the event log", e);
+            return FAILED;
+        }
+    }
+
+    private void dispatch(List<EventPayload> payloads) throws Exception {
+        for (LogEvent logEvent : EventPayload.merge(payloads)) {
+            if (notificationCenter != null) {
+                notificationCenter.send(logEvent);
+            }
+            eventHandler.dispatchEvent(logEvent);
+        }
+    }
+}
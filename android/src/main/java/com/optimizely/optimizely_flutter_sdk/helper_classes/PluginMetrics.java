@@ -0,0 +1,195 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.MetricsKey;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Call counts and latency histograms of the plugin.
+ *
+ * <p>Every method call records the time spent building its arguments parser, running the handler
+ * until it replies, waiting for the main thread, and inside the reply, which is where the codec
+ * serializes the response. Notification and log forwarding record how long entries waited in their
+ * queue and how long sending a batch took.
+ *
+ * <p>Latencies are kept in log-linear histograms of microseconds with four buckets per power of two,
+ * so reported percentiles are the upper bound of their bucket and at most 25% above the actual value.
+ */
+public class PluginMetrics {
+    private static final String[] CALL_PHASES = {
+            MetricsKey.PARSE, MetricsKey.EXECUTE, MetricsKey.REPLY, MetricsKey.SERIALIZE};
+    private static final String[] FORWARDING_PHASES = {MetricsKey.DELAY, MetricsKey.SEND};
+
+    // Declared after the phases, which the constructor reads
+    public static final PluginMetrics INSTANCE = new PluginMetrics();
+
+    /** Log-linear histogram of microsecond values. */
+    static final class Histogram {
+        // Values below 4 get a bucket each, then four buckets per power of two up to 2^40
+        private static final int SUB_BUCKETS = 4;
+        private static final int BUCKET_COUNT = SUB_BUCKETS + (40 - 2) * SUB_BUCKETS;
+
+        private final long[] buckets = new long[BUCKET_COUNT];
+        private long count;
+        private long max;
+
+        void record(long micros) {
+            long value = Math.max(micros, 0);
+            buckets[Math.min(bucketIndex(value), BUCKET_COUNT - 1)]++;
+            count++;
+            max = Math.max(max, value);
+        }
+
+        static int bucketIndex(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+            return SUB_BUCKETS + (exponent - 2) * SUB_BUCKETS + subBucket;
+        }
+
+        // Largest value falling into the bucket
+        static long bucketUpperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + 2;
+            int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - 2)) - 1;
+        }
+
+        long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put(MetricsKey.P50, percentile(0.5));
+            map.put(MetricsKey.P95, percentile(0.95));
+            map.put(MetricsKey.P99, percentile(0.99));
+            map.put(MetricsKey.MAX, max);
+            return map;
+        }
+    }
+
+    /** Counters and one histogram per phase of a single operation. */
+    private static final class Metric {
+        private final String[] phases;
+        private final Histogram[] histograms;
+        private long count;
+        private long errors;
+        private long dropped;
+
+        Metric(String[] phases) {
+            this.phases = phases;
+            this.histograms = new Histogram[phases.length];
+            for (int i = 0; i < phases.length; i++) {
+                histograms[i] = new Histogram();
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put(MetricsKey.COUNT, count);
+            map.put(MetricsKey.ERRORS, errors);
+            map.put(MetricsKey.DROPPED, dropped);
+            for (int i = 0; i < phases.length; i++) {
+                map.put(phases[i], histograms[i].toMap());
+            }
+            return map;
+        }
+    }
+
+    // Guarded by this
+    private final Map<String, Metric> calls = new HashMap<>();
+    private Metric notifications = new Metric(FORWARDING_PHASES);
+    private Metric logs = new Metric(FORWARDING_PHASES);
+
+    /** Records a method call. Phases that did not happen are passed as zero. */
+    public synchronized void recordCall(String method, boolean error, long parseNanos, long executeNanos,
+                                        long replyNanos, long serializeNanos) {
+        Metric metric = calls.get(method);
+        if (metric == null) {
+            metric = new Metric(CALL_PHASES);
+            calls.put(method, metric);
+        }
+        metric.count++;
+        if (error) {
+            metric.errors++;
+        }
+        metric.histograms[0].record(toMicros(parseNanos));
+        metric.histograms[1].record(toMicros(executeNanos));
+        metric.histograms[2].record(toMicros(replyNanos));
+        metric.histograms[3].record(toMicros(serializeNanos));
+    }
+
+    /** Records a batch of notifications sent to Dart. */
+    public synchronized void recordNotifications(int count, long delayNanos, long sendNanos) {
+        recordForwarding(notifications, count, 0, delayNanos, sendNanos);
+    }
+
+    /** Records a batch of log lines sent to Dart, with the lines dropped since the previous one. */
+    public synchronized void recordLogs(int count, long dropped, long delayNanos, long sendNanos) {
+        recordForwarding(logs, count, dropped, delayNanos, sendNanos);
+    }
+
+    /** Returns all metrics, with latencies in microseconds. */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> callMetrics = new HashMap<>();
+        for (Map.Entry<String, Metric> entry : calls.entrySet()) {
+            callMetrics.put(entry.getKey(), entry.getValue().toMap());
+        }
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put(MetricsKey.CALLS, callMetrics);
+        snapshot.put(MetricsKey.NOTIFICATIONS, notifications.toMap());
+        snapshot.put(MetricsKey.LOGS, logs.toMap());
+        return snapshot;
+    }
+
+    /** Clears all metrics, e.g. after they were reported. */
+    public synchronized void reset() {
+        calls.clear();
+        notifications = new Metric(FORWARDING_PHASES);
+        logs = new Metric(FORWARDING_PHASES);
+    }
+
+    private static void recordForwarding(Metric metric, int count, long dropped, long delayNanos, long sendNanos) {
+        metric.count += count;
+        metric.dropped += dropped;
+        metric.histograms[0].record(toMicros(delayNanos));
+        metric.histograms[1].record(toMicros(sendNanos));
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
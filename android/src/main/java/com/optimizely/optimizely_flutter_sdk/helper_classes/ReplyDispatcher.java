@@ -0,0 +1,163 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.flutter.plugin.common.MethodChannel.Result;
+
+/**
+ * Delivers method call results on the main thread.
+ *
+ * <p>Flutter's {@code MethodChannel.Result} must be called from the main thread, while SDK callbacks
+ * (e.g. {@code decideAsync}, {@code fetchQualifiedSegments}, {@code initialize}) may complete on
+ * background threads. Results replied on the main thread are delivered right away. Results replied
+ * elsewhere are queued and all queued results are delivered by a single main looper message, so a
+ * burst of async completions costs one post instead of one each.
+ *
+ * <p>The wrapper of a result records its own reply and is itself the queued item, so an off-thread
+ * reply allocates nothing beyond the queue node. It also times the call for {@link PluginMetrics}.
+ * Only the first reply of a call is delivered; any further one is ignored.
+ */
+public class ReplyDispatcher {
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ConcurrentLinkedQueue<MainThreadResult> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Runnable drainRunnable = this::drain;
+
+    /**
+     * Returns a result that forwards its reply to the given result on the main thread.
+     * The handler of the method is timed from {@code startNanos} until it replies.
+     */
+    public Result wrap(@NonNull Result result, String method, long parseNanos, long startNanos) {
+        return new MainThreadResult(this, result, method, parseNanos, startNanos);
+    }
+
+    private void enqueue(MainThreadResult reply) {
+        pending.offer(reply);
+        if (!drainScheduled.getAndSet(true)) {
+            mainHandler.post(drainRunnable);
+        }
+    }
+
+    // The flag is cleared first, so replies queued during the drain schedule a new one
+    private void drain() {
+        drainScheduled.set(false);
+        try {
+            MainThreadResult reply;
+            while ((reply = pending.poll()) != null) {
+                reply.deliver();
+            }
+        } finally {
+            // A throwing reply must not strand the ones queued behind it
+            if (!pending.isEmpty() && !drainScheduled.getAndSet(true)) {
+                mainHandler.post(drainRunnable);
+            }
+        }
+    }
+
+    private static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    private static final class MainThreadResult implements Result {
+        private static final int SUCCESS = 0;
+        private static final int ERROR = 1;
+        private static final int NOT_IMPLEMENTED = 2;
+
+        private final ReplyDispatcher dispatcher;
+        private final Result result;
+        private final String method;
+        private final long parseNanos;
+        private final long startNanos;
+        private final AtomicBoolean replied = new AtomicBoolean();
+        // Set once before the reply is queued; the queue publishes them to the main thread
+        private int kind;
+        private Object value;
+        private String errorCode;
+        private String errorMessage;
+        private long repliedNanos;
+
+        MainThreadResult(ReplyDispatcher dispatcher, Result result, String method, long parseNanos, long startNanos) {
+            this.dispatcher = dispatcher;
+            this.result = result;
+            this.method = method;
+            this.parseNanos = parseNanos;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void success(Object o) {
+            reply(SUCCESS, o, null, null);
+        }
+
+        @Override
+        public void error(@NonNull String code, String message, Object details) {
+            reply(ERROR, details, code, message);
+        }
+
+        @Override
+        public void notImplemented() {
+            reply(NOT_IMPLEMENTED, null, null, null);
+        }
+
+        private void reply(int kind, Object value, String errorCode, String errorMessage) {
+            // A second reply would overwrite the first one while it is queued and deliver it twice
+            if (replied.getAndSet(true)) {
+                return;
+            }
+            this.kind = kind;
+            this.value = value;
+            this.errorCode = errorCode;
+            this.errorMessage = errorMessage;
+            repliedNanos = System.nanoTime();
+            if (isMainThread()) {
+                deliver();
+            } else {
+                dispatcher.enqueue(this);
+            }
+        }
+
+        void deliver() {
+            long deliveredNanos = System.nanoTime();
+            switch (kind) {
+                case SUCCESS:
+                    result.success(value);
+                    break;
+                case ERROR:
+                    result.error(errorCode, errorMessage, value);
+                    break;
+                default:
+                    result.notImplemented();
+            }
+            // The codec serializes the reply inside the delegate call
+            PluginMetrics.INSTANCE.recordCall(method, isError(), parseNanos, repliedNanos - startNanos,
+                    deliveredNanos - repliedNanos, System.nanoTime() - deliveredNanos);
+        }
+
+        // Handlers report most failures as a successful reply with success set to false
+        private boolean isError() {
+            return kind != SUCCESS
+                    || (value instanceof MethodResponse && Boolean.FALSE.equals(((MethodResponse) value).getSuccess()));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import androidx.annotation.NonNull;
+
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arguments of a method call, held in an array indexed by field.
+ *
+ * <p>Dart sends the arguments of a call as (field, value) pairs, where the field is its index in
+ * {@link #FIELDS} instead of its string key. Each value is checked against the type of its field when
+ * it is decoded, so reading it afterwards is an array access and a cast that cannot fail. Arguments
+ * that still arrive as maps, e.g. the operations of executeBatch, are converted the same way, and
+ * keys without a field are ignored.
+ *
+ * <p>Binary fields are views into the message they were decoded from and are only valid until the
+ * handler of the call returns.
+ *
+ * <p>The field table must be kept in sync with lib/src/utils/request_fields.dart and
+ * ios/Classes/HelperClasses/OptimizelyMessageCodec.swift, which RequestFieldsTest checks. Fields may
+ * only be appended.
+ */
+public final class RequestArguments {
+    public static final int SDK_KEY = 0;
+    public static final int SDK_VERSION = 1;
+    public static final int USER_ID = 2;
+    public static final int USER_CONTEXT_ID = 3;
+    public static final int USER_CONTEXT_IDS = 4;
+    public static final int NOTIFICATION_ID = 5;
+    public static final int NOTIFICATION_TYPE = 6;
+    public static final int RAW_PAYLOAD = 7;
+    public static final int RESET_METRICS = 8;
+    public static final int CALLBACK_IDS = 9;
+    public static final int ATTRIBUTES = 10;
+    public static final int EVENT_KEY = 11;
+    public static final int EVENT_TAGS = 12;
+    public static final int DECIDE_KEYS = 13;
+    public static final int DECIDE_OPTIONS = 14;
+    public static final int DEFAULT_LOG_LEVEL = 15;
+    public static final int FLAG_KEY = 16;
+    public static final int RULE_KEY = 17;
+    public static final int VARIATION_KEY = 18;
+    public static final int EXPERIMENT_KEY = 19;
+    public static final int EVENT_BATCH_SIZE = 20;
+    public static final int EVENT_TIME_INTERVAL = 21;
+    public static final int EVENT_MAX_QUEUE_SIZE = 22;
+    public static final int DATAFILE_PERIODIC_DOWNLOAD_INTERVAL = 23;
+    public static final int DATAFILE_HOST_PREFIX = 24;
+    public static final int DATAFILE_HOST_SUFFIX = 25;
+    public static final int QUALIFIED_SEGMENTS = 26;
+    public static final int SEGMENT = 27;
+    public static final int ACTION = 28;
+    public static final int IDENTIFIERS = 29;
+    public static final int DATA = 30;
+    public static final int OPTIMIZELY_SEGMENT_OPTION = 31;
+    public static final int OPTIMIZELY_SDK_SETTINGS = 32;
+    public static final int OPERATIONS = 33;
+    public static final int CMAB_CONFIG = 34;
+    public static final int DATAFILE = 35;
+    // Shares the "type" key with the notification type
+    public static final int ODP_EVENT_TYPE = NOTIFICATION_TYPE;
+
+    private static final class Field {
+        final String key;
+        final Class<?> type;
+
+        Field(String key, Class<?> type) {
+            this.key = key;
+            this.type = type;
+        }
+    }
+
+    private static final Field[] FIELDS = {
+            new Field(RequestParameterKey.SDK_KEY, String.class),
+            new Field(RequestParameterKey.SDK_VERSION, String.class),
+            new Field(RequestParameterKey.USER_ID, String.class),
+            new Field(RequestParameterKey.USER_CONTEXT_ID, String.class),
+            new Field(RequestParameterKey.USER_CONTEXT_IDS, List.class),
+            new Field(RequestParameterKey.NOTIFICATION_ID, Integer.class),
+            new Field(RequestParameterKey.NOTIFICATION_TYPE, String.class),
+            new Field(RequestParameterKey.RAW_PAYLOAD, Boolean.class),
+            new Field(RequestParameterKey.RESET_METRICS, Boolean.class),
+            new Field(RequestParameterKey.CALLBACK_IDS, List.class),
+            new Field(RequestParameterKey.ATTRIBUTES, Map.class),
+            new Field(RequestParameterKey.EVENT_KEY, String.class),
+            new Field(RequestParameterKey.EVENT_TAGS, Map.class),
+            new Field(RequestParameterKey.DECIDE_KEYS, List.class),
+            new Field(RequestParameterKey.DECIDE_OPTIONS, List.class),
+            new Field(RequestParameterKey.DEFAULT_LOG_LEVEL, String.class),
+            new Field(RequestParameterKey.FLAG_KEY, String.class),
+            new Field(RequestParameterKey.RULE_KEY, String.class),
+            new Field(RequestParameterKey.VARIATION_KEY, String.class),
+            new Field(RequestParameterKey.EXPERIMENT_KEY, String.class),
+            new Field(RequestParameterKey.EVENT_BATCH_SIZE, Integer.class),
+            new Field(RequestParameterKey.EVENT_TIME_INTERVAL, Integer.class),
+            new Field(RequestParameterKey.EVENT_MAX_QUEUE_SIZE, Integer.class),
+            new Field(RequestParameterKey.DATAFILE_PERIODIC_DOWNLOAD_INTERVAL, Integer.class),
+            new Field(RequestParameterKey.DATAFILE_HOST_PREFIX, String.class),
+            new Field(RequestParameterKey.DATAFILE_HOST_SUFFIX, String.class),
+            new Field(RequestParameterKey.QUALIFIED_SEGMENTS, List.class),
+            new Field(RequestParameterKey.SEGMENT, String.class),
+            new Field(RequestParameterKey.ACTION, String.class),
+            new Field(RequestParameterKey.IDENTIFIERS, Map.class),
+            new Field(RequestParameterKey.DATA, Map.class),
+            new Field(RequestParameterKey.OPTIMIZELY_SEGMENT_OPTION, List.class),
+            new Field(RequestParameterKey.OPTIMIZELY_SDK_SETTINGS, Map.class),
+            new Field(RequestParameterKey.OPERATIONS, List.class),
+            new Field(RequestParameterKey.CMAB_CONFIG, Map.class),
+            new Field(RequestParameterKey.DATAFILE, ByteBuffer.class)
+    };
+    private static final Map<String, Integer> FIELD_IDS = new HashMap<>();
+
+    static {
+        for (int i = 0; i < FIELDS.length; i++) {
+            FIELD_IDS.put(FIELDS[i].key, i);
+        }
+    }
+
+    private final Object[] values = new Object[FIELDS.length];
+
+    /** Converts map arguments, failing with an {@link IllegalArgumentException} on a value of the wrong type. */
+    public static RequestArguments fromMap(Map<String, ?> arguments) {
+        RequestArguments requestArguments = new RequestArguments();
+        if (arguments != null) {
+            for (Map.Entry<String, ?> entry : arguments.entrySet()) {
+                Integer field = FIELD_IDS.get(entry.getKey());
+                if (field != null) {
+                    requestArguments.set(field, entry.getValue());
+                }
+            }
+        }
+        return requestArguments;
+    }
+
+    /** Sets a field, failing with an {@link IllegalArgumentException} if it is unknown or the value has the wrong type. */
+    public void set(int field, Object value) {
+        if (field < 0 || field >= FIELDS.length) {
+            throw new IllegalArgumentException("Unknown argument field: " + field);
+        }
+        if (value != null && !FIELDS[field].type.isInstance(value)) {
+            throw new IllegalArgumentException("Invalid argument " + FIELDS[field].key + ": expected "
+                    + FIELDS[field].type.getSimpleName() + " but was " + value.getClass().getSimpleName());
+        }
+        values[field] = value;
+    }
+
+    public Object get(int field) {
+        return values[field];
+    }
+
+    /** Returns the number of fields that are set. */
+    int size() {
+        int size = 0;
+        for (Object value : values) {
+            if (value != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    int fieldCount() {
+        return values.length;
+    }
+
+    /** Returns the string key of a field. */
+    static String fieldKey(int field) {
+        return FIELDS[field].key;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                map.put(FIELDS[i].key, values[i]);
+            }
+        }
+        return map.toString();
+    }
+}
@@ -0,0 +1,268 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import androidx.annotation.Nullable;
+
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.android.sdk.OptimizelyClient;
+import com.optimizely.ab.android.sdk.OptimizelyManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-SDK-key state of the plugin: the initialized manager, its event queue, adaptive event processor,
+ * persistent event log and compressed event handler if any, the user contexts created for it and the
+ * ids of its notification listeners.
+ *
+ * <p>Handlers may run on a background task queue while SDK callbacks (initialize completion,
+ * decideAsync, notifications) touch the same state from their own threads, so everything is
+ * thread-safe. All state of an SDK key lives in one {@link Entry}, so a lookup
+ * resolves the key once and resetting a key is a single removal.
+ *
+ * <p>Null keys are treated as absent since concurrent maps reject them.
+ */
+public class SdkKeyRegistry {
+
+    /** State owned by a single SDK key. */
+    public static final class Entry {
+        private volatile OptimizelyManager optimizelyManager;
+        private volatile AdaptiveEventProcessor adaptiveEventProcessor;
+        private volatile EventOverflowQueue eventQueue;
+        private volatile PersistentEventLog eventLog;
+        private volatile CompressedEventHandler compressedEventHandler;
+        private final UserContextStore userContexts;
+        private final ConcurrentHashMap<Integer, Integer> notificationIds = new ConcurrentHashMap<>();
+
+        Entry(UserContextStore userContexts) {
+            this.userContexts = userContexts;
+        }
+
+        @Nullable
+        public OptimizelyManager getOptimizelyManager() {
+            return optimizelyManager;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private Entry getOrCreateEntry(String sdkKey) {
+        Entry entry = entries.get(sdkKey);
+        if (entry == null) {
+            Entry created = new Entry(new UserContextStore());
+            entry = entries.putIfAbsent(sdkKey, created);
+            if (entry == null) {
+                entry = created;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Replaces all state of the SDK key with an empty entry using the given user context store.
+     * Returns the previous state, or null if there was none.
+     */
+    @Nullable
+    public Entry reset(String sdkKey, UserContextStore userContexts) {
+        if (sdkKey == null) {
+            return null;
+        }
+        return entries.put(sdkKey, new Entry(userContexts));
+    }
+
+    /** Drops all state of the SDK key and returns it, or null if there was none. */
+    @Nullable
+    public Entry remove(String sdkKey) {
+        if (sdkKey == null) {
+            return null;
+        }
+        return entries.remove(sdkKey);
+    }
+
+    public void putOptimizelyManager(String sdkKey, OptimizelyManager optimizelyManager) {
+        if (sdkKey == null) {
+            return;
+        }
+        getOrCreateEntry(sdkKey).optimizelyManager = optimizelyManager;
+    }
+
+    public void putAdaptiveEventProcessor(String sdkKey, @Nullable AdaptiveEventProcessor eventProcessor) {
+        if (sdkKey == null) {
+            return;
+        }
+        getOrCreateEntry(sdkKey).adaptiveEventProcessor = eventProcessor;
+    }
+
+    public void putEventLog(String sdkKey, @Nullable PersistentEventLog eventLog) {
+        if (sdkKey == null) {
+            return;
+        }
+        getOrCreateEntry(sdkKey).eventLog = eventLog;
+    }
+
+    public void putCompressedEventHandler(String sdkKey, @Nullable CompressedEventHandler eventHandler) {
+        if (sdkKey == null) {
+            return;
+        }
+        getOrCreateEntry(sdkKey).compressedEventHandler = eventHandler;
+    }
+
+    public void putEventQueue(String sdkKey, @Nullable EventOverflowQueue eventQueue) {
+        if (sdkKey == null) {
+            return;
+        }
+        getOrCreateEntry(sdkKey).eventQueue = eventQueue;
+    }
+
+    /** Returns the overflow counters of the event queue of the SDK key, or null if it has none. */
+    @Nullable
+    public Map<String, Object> getEventQueueStats(String sdkKey) {
+        if (sdkKey == null) {
+            return null;
+        }
+        Entry entry = entries.get(sdkKey);
+        EventOverflowQueue eventQueue = entry == null ? null : entry.eventQueue;
+        return eventQueue == null ? null : eventQueue.getStats();
+    }
+
+    /** Returns the current batching of the SDK key, or null if it does not batch adaptively. */
+    @Nullable
+    public Map<String, Object> getEventBatchingStats(String sdkKey) {
+        if (sdkKey == null) {
+            return null;
+        }
+        Entry entry = entries.get(sdkKey);
+        AdaptiveEventProcessor eventProcessor = entry == null ? null : entry.adaptiveEventProcessor;
+        return eventProcessor == null ? null : eventProcessor.getStats();
+    }
+
+    /** Returns the size and counters of the persistent event log of the SDK key, or null if it has none. */
+    @Nullable
+    public Map<String, Object> getEventLogStats(String sdkKey) {
+        if (sdkKey == null) {
+            return null;
+        }
+        Entry entry = entries.get(sdkKey);
+        PersistentEventLog eventLog = entry == null ? null : entry.eventLog;
+        return eventLog == null ? null : eventLog.getStats();
+    }
+
+    /** Returns the requests and bytes sent by the compressed event handler of the SDK key, or null if it has none. */
+    @Nullable
+    public Map<String, Object> getEventDispatchStats(String sdkKey) {
+        if (sdkKey == null) {
+            return null;
+        }
+        Entry entry = entries.get(sdkKey);
+        CompressedEventHandler eventHandler = entry == null ? null : entry.compressedEventHandler;
+        return eventHandler == null ? null : eventHandler.getStats();
+    }
+
+    @Nullable
+    public OptimizelyClient getOptimizelyClient(String sdkKey) {
+        if (sdkKey == null) {
+            return null;
+        }
+        Entry entry = entries.get(sdkKey);
+        OptimizelyManager optimizelyManager = entry == null ? null : entry.optimizelyManager;
+        return optimizelyManager == null ? null : optimizelyManager.getOptimizely();
+    }
+
+    public void putUserContext(String sdkKey, String userContextId, OptimizelyUserContext userContext) {
+        if (sdkKey == null || userContextId == null || userContext == null) {
+            return;
+        }
+        getOrCreateEntry(sdkKey).userContexts.put(userContextId, userContext);
+    }
+
+    @Nullable
+    public OptimizelyUserContext getUserContext(String sdkKey, String userContextId) {
+        if (sdkKey == null || userContextId == null) {
+            return null;
+        }
+        Entry entry = entries.get(sdkKey);
+        return entry == null ? null : entry.userContexts.get(userContextId);
+    }
+
+    @Nullable
+    public UserContextStore getUserContextStore(String sdkKey) {
+        if (sdkKey == null) {
+            return null;
+        }
+        Entry entry = entries.get(sdkKey);
+        return entry == null ? null : entry.userContexts;
+    }
+
+    /** Removes the user contexts from the store of the SDK key and returns how many were removed. */
+    public int removeUserContexts(String sdkKey, Iterable<String> userContextIds) {
+        if (sdkKey == null || userContextIds == null) {
+            return 0;
+        }
+        Entry entry = entries.get(sdkKey);
+        if (entry == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (String userContextId : userContextIds) {
+            if (userContextId != null && entry.userContexts.remove(userContextId)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the error of a lookup that found no user context, which tells callers holding an evicted
+     * context apart from ones using an unknown id.
+     */
+    public String getUserContextNotFoundReason(String sdkKey, String userContextId) {
+        if (userContextId == null) {
+            return Constants.ErrorMessage.INVALID_PARAMS;
+        }
+        Entry entry = sdkKey == null ? null : entries.get(sdkKey);
+        if (entry != null && entry.userContexts.wasEvicted(userContextId)) {
+            return Constants.ErrorMessage.USER_CONTEXT_EVICTED;
+        }
+        return Constants.ErrorMessage.USER_CONTEXT_NOT_FOUND;
+    }
+
+    @Nullable
+    public Map<String, Object> getUserContextStats(String sdkKey) {
+        if (sdkKey == null) {
+            return null;
+        }
+        Entry entry = entries.get(sdkKey);
+        return entry == null ? null : entry.userContexts.getStats();
+    }
+
+    public void putNotificationId(String sdkKey, Integer callbackId, Integer notificationId) {
+        if (sdkKey == null || callbackId == null || notificationId == null) {
+            return;
+        }
+        getOrCreateEntry(sdkKey).notificationIds.put(callbackId, notificationId);
+    }
+
+    public void removeNotificationId(String sdkKey, Integer callbackId) {
+        if (sdkKey == null || callbackId == null) {
+            return;
+        }
+        Entry entry = entries.get(sdkKey);
+        if (entry != null) {
+            entry.notificationIds.remove(callbackId);
+        }
+    }
+}
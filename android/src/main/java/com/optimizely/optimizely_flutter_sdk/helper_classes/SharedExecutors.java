@@ -0,0 +1,122 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import androidx.annotation.NonNull;
+
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.MetricsKey;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads shared by the clients of all SDK keys.
+ *
+ * <p>Each event processor runs a consumer that flushes its queue for as long as the processor is open.
+ * By default every processor gets its own single thread executor, whose thread outlives the processor,
+ * so each initialization leaves one more idle thread behind. The consumers of all SDK keys run on
+ * {@link #eventExecutor()} instead, a pool of at most {@link #EVENT_THREADS} threads that reuses the
+ * threads of closed processors and lets idle ones exit. A consumer holds its thread until its processor
+ * closes, so the pool bounds the number of clients whose events are sent. Up to
+ * {@link #QUEUED_EVENT_CONSUMERS} more consumers wait for the thread of a closing client, e.g. while a
+ * client replaces the previous one of its SDK key, and any further one is rejected with a
+ * {@link RejectedExecutionException}.
+ *
+ * <p>Short background tasks of the plugin run on two schedulers whose threads exit while nothing is
+ * scheduled: {@link #networkScheduler()} runs datafile polls and event spill replays, which wait on
+ * the network for up to their timeouts, and {@link #scheduler()} runs local disk work such as event log
+ * syncs, which a slow request then cannot hold back.
+ */
+public final class SharedExecutors {
+    // Event consumers of up to this many open clients run at a time
+    public static final int EVENT_THREADS = 8;
+    public static final int QUEUED_EVENT_CONSUMERS = 2;
+    public static final int SCHEDULER_THREADS = 1;
+    public static final int NETWORK_THREADS = 2;
+    static final long KEEP_ALIVE_IN_SECS = 30;
+
+    private static final ThreadPoolExecutor eventExecutor = createEventExecutor();
+    private static final ScheduledThreadPoolExecutor scheduler = createScheduler(SCHEDULER_THREADS, "optimizely-background");
+    private static final ScheduledThreadPoolExecutor networkScheduler = createScheduler(NETWORK_THREADS, "optimizely-network");
+
+    private SharedExecutors() {
+    }
+
+    /** Returns the executor running the event consumers of all clients. */
+    public static ExecutorService eventExecutor() {
+        return eventExecutor;
+    }
+
+    /** Returns the executor running event log syncs of all clients. */
+    public static ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    /** Returns the executor running datafile polls and event spill replays of all clients. */
+    public static ScheduledExecutorService networkScheduler() {
+        return networkScheduler;
+    }
+
+    /** Returns the live threads of the shared executors and of the process. */
+    public static Map<String, Object> threadCounts() {
+        Map<String, Object> counts = new HashMap<>();
+        counts.put(MetricsKey.EVENT_THREADS, eventExecutor.getPoolSize());
+        counts.put(MetricsKey.QUEUED_EVENT_CONSUMERS, eventExecutor.getQueue().size());
+        counts.put(MetricsKey.SCHEDULER_THREADS, scheduler.getPoolSize());
+        counts.put(MetricsKey.NETWORK_THREADS, networkScheduler.getPoolSize());
+        counts.put(MetricsKey.PROCESS_THREADS, Thread.activeCount());
+        return counts;
+    }
+
+    private static ThreadPoolExecutor createEventExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(EVENT_THREADS, EVENT_THREADS,
+                KEEP_ALIVE_IN_SECS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUED_EVENT_CONSUMERS),
+                threadFactory("optimizely-events"), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ScheduledThreadPoolExecutor createScheduler(int threads, String name) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, threadFactory(name));
+        executor.setKeepAliveTime(KEEP_ALIVE_IN_SECS, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        // Stopped pollers cancel their next poll, which should not linger in the queue until it is due
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+                // Pending events are flushed by closing the client, not by keeping the process alive
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
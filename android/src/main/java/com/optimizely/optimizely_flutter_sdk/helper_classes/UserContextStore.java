@@ -0,0 +1,274 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import androidx.annotation.Nullable;
+
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.optimizelydecision.OptimizelyDecideOption;
+import com.optimizely.ab.optimizelydecision.OptimizelyDecision;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded store of the user contexts created for a single SDK key.
+ *
+ * <p>Contexts are kept in least-recently-used order. Once the store holds more than {@code capacity}
+ * contexts the least recently used one is evicted, and contexts not used for longer than the idle
+ * timeout are evicted on the next access. A capacity or timeout of zero disables that policy.
+ *
+ * <p>Ids of recently evicted contexts are remembered, so a lookup of an evicted context can be told
+ * apart from one of an id that never existed.
+ *
+ * <p>When the decision cache is enabled, the results of synchronous decide calls are kept with their
+ * context, keyed by flag keys and decide options. Only calls that send no impression event are cached
+ * (DISABLE_DECISION_EVENT passed or set as a default option), so serving a cached result never skips
+ * an impression. Cache hits do not fire decision notifications. Callers must invalidate the cache of
+ * a context whenever its attributes, segments or forced decisions change. The whole cache is dropped
+ * when a lookup sees a config revision other than the one the cached decisions were made with.
+ */
+public class UserContextStore {
+    public static final int DEFAULT_CAPACITY = 10000;
+    public static final int DEFAULT_IDLE_TIMEOUT_IN_SECS = 0;
+
+    // Upper bound of remembered evicted ids
+    static final int MAX_EVICTED_IDS = 1000;
+
+    private static final class Node {
+        final OptimizelyUserContext userContext;
+        long lastAccessNanos;
+        // Created on the first cached decision
+        Map<String, Map<String, OptimizelyDecision>> decisions;
+
+        Node(OptimizelyUserContext userContext, long lastAccessNanos) {
+            this.userContext = userContext;
+            this.lastAccessNanos = lastAccessNanos;
+        }
+    }
+
+    private final int capacity;
+    private final long idleTimeoutNanos;
+    private final LinkedHashMap<String, Node> contexts = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Boolean> evictedIds = new LinkedHashMap<String, Boolean>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_EVICTED_IDS;
+        }
+    };
+    private long capacityEvictions;
+    private long timeoutEvictions;
+
+    private final boolean decisionCacheEnabled;
+    private final boolean decisionEventDisabledByDefault;
+    // Bumped on every invalidation, so decisions made before it are not cached after it
+    private long decisionGeneration;
+    @Nullable
+    private String decisionRevision;
+    private long decisionCacheHits;
+    private long decisionCacheMisses;
+
+    public UserContextStore() {
+        this(DEFAULT_CAPACITY, DEFAULT_IDLE_TIMEOUT_IN_SECS);
+    }
+
+    public UserContextStore(int capacity, int idleTimeoutInSecs) {
+        this(capacity, idleTimeoutInSecs, false, null);
+    }
+
+    public UserContextStore(int capacity, int idleTimeoutInSecs, boolean decisionCacheEnabled,
+                            @Nullable Collection<OptimizelyDecideOption> defaultDecideOptions) {
+        this.capacity = Math.max(capacity, 0);
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(Math.max(idleTimeoutInSecs, 0));
+        this.decisionCacheEnabled = decisionCacheEnabled;
+        this.decisionEventDisabledByDefault = defaultDecideOptions != null
+                && defaultDecideOptions.contains(OptimizelyDecideOption.DISABLE_DECISION_EVENT);
+    }
+
+    public synchronized void put(String userContextId, OptimizelyUserContext userContext) {
+        long now = nanoTime();
+        contexts.put(userContextId, new Node(userContext, now));
+        evictExpired(now);
+        if (capacity > 0) {
+            Iterator<Map.Entry<String, Node>> iterator = contexts.entrySet().iterator();
+            while (contexts.size() > capacity && iterator.hasNext()) {
+                evictedIds.put(iterator.next().getKey(), Boolean.TRUE);
+                iterator.remove();
+                capacityEvictions++;
+            }
+        }
+    }
+
+    @Nullable
+    public synchronized OptimizelyUserContext get(String userContextId) {
+        Node node = contexts.get(userContextId);
+        if (node == null) {
+            return null;
+        }
+        long now = nanoTime();
+        if (isExpired(node, now)) {
+            contexts.remove(userContextId);
+            evictedIds.put(userContextId, Boolean.TRUE);
+            timeoutEvictions++;
+            return null;
+        }
+        node.lastAccessNanos = now;
+        return node.userContext;
+    }
+
+    /** Removes a context the caller no longer uses. Released ids are not reported as evicted. */
+    public synchronized boolean remove(String userContextId) {
+        return contexts.remove(userContextId) != null;
+    }
+
+    /** Returns true if the id belonged to a context this store evicted. */
+    public synchronized boolean wasEvicted(String userContextId) {
+        return evictedIds.containsKey(userContextId);
+    }
+
+    /**
+     * Returns the decision cache key of a decide call, or null if its result must not be cached.
+     * An empty key list stands for decideAll.
+     */
+    @Nullable
+    public String getDecisionCacheKey(List<String> decideKeys, @Nullable List<OptimizelyDecideOption> decideOptions) {
+        if (!decisionCacheEnabled) {
+            return null;
+        }
+        EnumSet<OptimizelyDecideOption> options = EnumSet.noneOf(OptimizelyDecideOption.class);
+        if (decideOptions != null) {
+            options.addAll(decideOptions);
+        }
+        if (!decisionEventDisabledByDefault && !options.contains(OptimizelyDecideOption.DISABLE_DECISION_EVENT)) {
+            return null;
+        }
+        // CMAB cache options have side effects on every call
+        if (options.contains(OptimizelyDecideOption.IGNORE_CMAB_CACHE)
+                || options.contains(OptimizelyDecideOption.RESET_CMAB_CACHE)
+                || options.contains(OptimizelyDecideOption.INVALIDATE_USER_CMAB_CACHE)) {
+            return null;
+        }
+        // Key order matters for decideForKeys, while the option set is normalized by EnumSet order
+        StringBuilder key = new StringBuilder();
+        for (String decideKey : decideKeys) {
+            key.append(decideKey).append(',');
+        }
+        return key.append('|').append(options).toString();
+    }
+
+    /** Returns the current decision generation, to be passed to {@link #putDecisions}. */
+    public synchronized long getDecisionGeneration() {
+        return decisionGeneration;
+    }
+
+    /**
+     * Returns the cached decisions of the context for the cache key and counts the hit or miss.
+     * All cached decisions are dropped first if the config revision changed.
+     */
+    @Nullable
+    public synchronized Map<String, OptimizelyDecision> getDecisions(String userContextId, String cacheKey,
+                                                                      @Nullable String revision) {
+        if (revision == null ? decisionRevision != null : !revision.equals(decisionRevision)) {
+            invalidateAllDecisions();
+            decisionRevision = revision;
+        }
+        Node node = contexts.get(userContextId);
+        Map<String, OptimizelyDecision> decisions = node == null || node.decisions == null ? null : node.decisions.get(cacheKey);
+        if (decisions == null) {
+            decisionCacheMisses++;
+        } else {
+            decisionCacheHits++;
+        }
+        return decisions;
+    }
+
+    /**
+     * Caches decisions of the context made at the given generation.
+     * Ignored if the cache was invalidated since, or the context is gone.
+     */
+    public synchronized void putDecisions(String userContextId, String cacheKey,
+                                          Map<String, OptimizelyDecision> decisions, long generation) {
+        Node node = contexts.get(userContextId);
+        if (node == null || generation != decisionGeneration) {
+            return;
+        }
+        if (node.decisions == null) {
+            node.decisions = new HashMap<>();
+        }
+        node.decisions.put(cacheKey, Collections.unmodifiableMap(decisions));
+    }
+
+    /** Drops the cached decisions of a context whose attributes, segments or forced decisions changed. */
+    public synchronized void invalidateDecisions(String userContextId) {
+        decisionGeneration++;
+        Node node = contexts.get(userContextId);
+        if (node != null) {
+            node.decisions = null;
+        }
+    }
+
+    /** Drops the cached decisions of all contexts. */
+    public synchronized void invalidateAllDecisions() {
+        decisionGeneration++;
+        for (Node node : contexts.values()) {
+            node.decisions = null;
+        }
+    }
+
+    /** Returns the number of live contexts, the eviction counts and the decision cache counts of this store. */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put(Constants.UserContextStatsKey.SIZE, contexts.size());
+        stats.put(Constants.UserContextStatsKey.CAPACITY_EVICTIONS, capacityEvictions);
+        stats.put(Constants.UserContextStatsKey.TIMEOUT_EVICTIONS, timeoutEvictions);
+        stats.put(Constants.UserContextStatsKey.DECISION_CACHE_HITS, decisionCacheHits);
+        stats.put(Constants.UserContextStatsKey.DECISION_CACHE_MISSES, decisionCacheMisses);
+        return stats;
+    }
+
+    // Overridden by tests to move the clock
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private boolean isExpired(Node node, long now) {
+        return idleTimeoutNanos > 0 && now - node.lastAccessNanos > idleTimeoutNanos;
+    }
+
+    // Contexts are in access order, so expired ones are at the head
+    private void evictExpired(long now) {
+        if (idleTimeoutNanos <= 0) {
+            return;
+        }
+        Iterator<Map.Entry<String, Node>> iterator = contexts.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Node> entry = iterator.next();
+            if (!isExpired(entry.getValue(), now)) {
+                break;
+            }
+            evictedIds.put(entry.getKey(), Boolean.TRUE);
+            iterator.remove();
+            timeoutEvictions++;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import androidx.annotation.Nullable;
 import static com.optimizely.ab.notification.DecisionNotification.FeatureVariableDecisionNotificationBuilder.SOURCE_INFO;
 
 import com.google.common.base.CaseFormat;
+import com.optimizely.optimizely_flutter_sdk.FlutterLogbackAppender;
 import com.optimizely.ab.event.LogEvent;
 import com.optimizely.ab.notification.ActivateNotification;
 import com.optimizely.ab.notification.DecisionNotification;
@@ -128,6 +129,7 @@ public class Utils {
         Level defaultLogLevel = Utils.mapLogLevel(logLevel);
         Logger rootLogger = (Logger) LoggerFactory.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME);
         rootLogger.setLevel(defaultLogLevel);
+        FlutterLogbackAppender.setThreshold(defaultLogLevel);
     }
 
     public static Level mapLogLevel(@Nullable String logLevel) {
@@ -0,0 +1,100 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveBatchPolicyTest {
+    private static final long INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int CAPACITY = 1000;
+    private static final long FAST_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final AdaptiveBatchPolicy policy = new AdaptiveBatchPolicy(10, INTERVAL_MILLIS, CAPACITY);
+
+    @Test
+    public void growsBatchSizeUnderBurstLoad() {
+        policy.onFlush(10, true, 50, FAST_NANOS);
+        assertEquals(20, policy.getBatchSize());
+
+        for (int i = 0; i < 5; i++) {
+            policy.onFlush(policy.getBatchSize(), true, 90, FAST_NANOS);
+        }
+        assertEquals(AdaptiveBatchPolicy.MAX_BATCH_SIZE, policy.getBatchSize());
+    }
+
+    @Test
+    public void keepsBatchSizeWhenNothingIsWaiting() {
+        policy.onFlush(10, true, 2, FAST_NANOS);
+
+        assertEquals(10, policy.getBatchSize());
+    }
+
+    @Test
+    public void shrinksBatchSizeBackWhenQuiet() {
+        policy.onFlush(10, true, 50, FAST_NANOS);
+        policy.onFlush(20, true, 50, FAST_NANOS);
+        assertEquals(40, policy.getBatchSize());
+
+        policy.onFlush(3, false, 0, FAST_NANOS);
+        assertEquals(20, policy.getBatchSize());
+        policy.onFlush(0, false, 0, 0);
+        policy.onFlush(0, false, 0, 0);
+        assertEquals(10, policy.getBatchSize());
+    }
+
+    @Test
+    public void shortensFlushIntervalWhenQueueNearsCapacity() {
+        policy.onFlush(10, true, CAPACITY * 3 / 4, FAST_NANOS);
+        assertEquals(INTERVAL_MILLIS / 2, policy.getFlushIntervalMillis());
+
+        for (int i = 0; i < 10; i++) {
+            policy.onFlush(policy.getBatchSize(), true, CAPACITY * 3 / 4, FAST_NANOS);
+        }
+        assertEquals(AdaptiveBatchPolicy.MIN_FLUSH_INTERVAL_MILLIS, policy.getFlushIntervalMillis());
+
+        for (int i = 0; i < 10; i++) {
+            policy.onFlush(0, false, 0, 0);
+        }
+        assertEquals(INTERVAL_MILLIS, policy.getFlushIntervalMillis());
+    }
+
+    @Test
+    public void backsOffWhenDispatchLatencyRises() {
+        policy.onFlush(10, true, CAPACITY / 2, FAST_NANOS);
+        assertEquals(INTERVAL_MILLIS / 2, policy.getFlushIntervalMillis());
+
+        for (int i = 0; i < 5; i++) {
+            policy.onFlush(5, false, CAPACITY / 5, SLOW_NANOS);
+        }
+        assertEquals(INTERVAL_MILLIS, policy.getFlushIntervalMillis());
+        assertEquals(AdaptiveBatchPolicy.MAX_BATCH_SIZE, policy.getBatchSize());
+    }
+
+    @Test
+    public void keepsShorteningIntervalWhenSlowAndQueueNearsCapacity() {
+        policy.onFlush(10, true, 0, FAST_NANOS);
+        for (int i = 0; i < 3; i++) {
+            policy.onFlush(10, true, CAPACITY * 3 / 4, SLOW_NANOS);
+        }
+
+        assertEquals(INTERVAL_MILLIS / 8, policy.getFlushIntervalMillis());
+    }
+}
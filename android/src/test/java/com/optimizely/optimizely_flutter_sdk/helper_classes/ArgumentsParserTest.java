@@ -0,0 +1,65 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ArgumentsParserTest {
+    @Test
+    public void readsSdkSettingsOfAnyNumericType() {
+        Map<String, Object> sdkSettings = new HashMap<>();
+        sdkSettings.put("integer", 5);
+        sdkSettings.put("long", 6L);
+        sdkSettings.put("double", 7.0);
+        sdkSettings.put("boolean", true);
+        sdkSettings.put("string", "value");
+        ArgumentsParser parser = parser(sdkSettings);
+
+        assertEquals(5, parser.getIntSdkSetting("integer", 0));
+        assertEquals(6, parser.getIntSdkSetting("long", 0));
+        assertEquals(7, parser.getIntSdkSetting("double", 0));
+        assertTrue(parser.getBooleanSdkSetting("boolean", false));
+        assertEquals("value", parser.getStringSdkSetting("string"));
+    }
+
+    @Test
+    public void fallsBackOnMissingNullOrMistypedSdkSettings() {
+        Map<String, Object> sdkSettings = new HashMap<>();
+        sdkSettings.put("null", null);
+        sdkSettings.put("string", "5");
+        ArgumentsParser parser = parser(sdkSettings);
+
+        assertEquals(3, parser.getIntSdkSetting("missing", 3));
+        assertEquals(3, parser.getIntSdkSetting("null", 3));
+        assertEquals(3, parser.getIntSdkSetting("string", 3));
+        assertFalse(parser.getBooleanSdkSetting("string", false));
+        assertNull(parser.getStringSdkSetting("null"));
+        assertEquals(3, new ArgumentsParser(new HashMap<String, Object>()).getIntSdkSetting("missing", 3));
+    }
+
+    private static ArgumentsParser parser(Map<String, Object> sdkSettings) {
+        return new ArgumentsParser(Collections.singletonMap(Constants.RequestParameterKey.OPTIMIZELY_SDK_SETTINGS, sdkSettings));
+    }
+}
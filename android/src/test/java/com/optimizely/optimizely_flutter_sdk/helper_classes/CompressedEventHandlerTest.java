@@ -0,0 +1,180 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.ab.event.LogEvent;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.MetricsKey;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedEventHandlerTest {
+    /** A request received by the stub server. */
+    private static final class StubRequest {
+        final String contentEncoding;
+        final String body;
+
+        StubRequest(String contentEncoding, String body) {
+            this.contentEncoding = contentEncoding;
+            this.body = body;
+        }
+    }
+
+    private final List<StubRequest> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<LogEvent> fallbackEvents = Collections.synchronizedList(new ArrayList<>());
+    private volatile int status = 204;
+    private HttpServer server;
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/events", exchange -> {
+            String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            InputStream input = exchange.getRequestBody();
+            if ("gzip".equals(contentEncoding)) {
+                input = new GZIPInputStream(input);
+            }
+            requests.add(new StubRequest(contentEncoding, new String(read(input), StandardCharsets.UTF_8)));
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/events";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void sendsBodyGzipped() throws Exception {
+        CompressedEventHandler handler = handler(true, 0);
+        String body = batch(visitor(0), visitor(1));
+
+        handler.dispatchEvent(logEvent(body));
+
+        assertEquals(1, requests.size());
+        assertEquals("gzip", requests.get(0).contentEncoding);
+        assertEquals(body, requests.get(0).body);
+        assertTrue(fallbackEvents.isEmpty());
+        long compressedBytes = (Long) handler.getStats().get(MetricsKey.COMPRESSED_BYTES);
+        assertTrue(compressedBytes < (Long) handler.getStats().get(MetricsKey.UNCOMPRESSED_BYTES));
+    }
+
+    @Test
+    public void splitsBatchesOverByteBudget() throws Exception {
+        int maxBatchBytes = batch(visitor(0), visitor(1)).length();
+        CompressedEventHandler handler = handler(true, maxBatchBytes);
+
+        handler.dispatchEvent(logEvent(batch(visitor(0), visitor(1), visitor(2), visitor(3), visitor(4))));
+
+        assertEquals(3, requests.size());
+        assertEquals(batch(visitor(0), visitor(1)), requests.get(0).body);
+        assertEquals(batch(visitor(2), visitor(3)), requests.get(1).body);
+        assertEquals(batch(visitor(4)), requests.get(2).body);
+        for (StubRequest request : requests) {
+            assertTrue(request.body.getBytes(StandardCharsets.UTF_8).length <= maxBatchBytes);
+        }
+        assertEquals(1L, handler.getStats().get(MetricsKey.SPLIT_BATCHES));
+        assertEquals(3L, handler.getStats().get(MetricsKey.REQUESTS));
+    }
+
+    @Test
+    public void sendsVisitorOverByteBudgetAlone() throws Exception {
+        CompressedEventHandler handler = handler(true, 10);
+
+        handler.dispatchEvent(logEvent(batch(visitor(0), visitor(1))));
+
+        assertEquals(2, requests.size());
+        assertEquals(batch(visitor(1)), requests.get(1).body);
+    }
+
+    @Test
+    public void passesFailedRequestsUncompressedToFallback() throws Exception {
+        status = 503;
+        CompressedEventHandler handler = handler(true, 0);
+        String body = batch(visitor(0));
+
+        handler.dispatchEvent(logEvent(body));
+        server.stop(0);
+        handler.dispatchEvent(logEvent(body));
+
+        assertEquals(2, fallbackEvents.size());
+        assertEquals(body, fallbackEvents.get(0).getBody());
+        assertEquals(url, fallbackEvents.get(1).getEndpointUrl());
+        assertEquals(2L, handler.getStats().get(MetricsKey.FALLBACKS));
+        assertEquals(0L, handler.getStats().get(MetricsKey.REQUESTS));
+    }
+
+    @Test
+    public void passesSplitRequestsToFallbackWithoutCompression() throws Exception {
+        int maxBatchBytes = batch(visitor(0)).length();
+        CompressedEventHandler handler = handler(false, maxBatchBytes);
+
+        handler.dispatchEvent(logEvent(batch(visitor(0), visitor(1))));
+
+        assertTrue(requests.isEmpty());
+        assertEquals(2, fallbackEvents.size());
+        assertEquals(batch(visitor(0)), fallbackEvents.get(0).getBody());
+        assertEquals(batch(visitor(1)), fallbackEvents.get(1).getBody());
+    }
+
+    private CompressedEventHandler handler(boolean compress, int maxBatchBytes) {
+        return new CompressedEventHandler(fallbackEvents::add, compress, maxBatchBytes);
+    }
+
+    private LogEvent logEvent(String body) {
+        return new EventPayload.PayloadLogEvent(url, body);
+    }
+
+    private static String batch(String... visitors) {
+        return "{\"account_id\":\"10\",\"project_id\":\"20\",\"revision\":\"1\",\"anonymize_ip\":true,"
+                + "\"visitors\":[" + String.join(",", visitors) + "]}";
+    }
+
+    private static String visitor(int index) {
+        return "{\"visitor_id\":\"user_" + index + "\",\"attributes\":[{\"entity_id\":\"100\","
+                + "\"key\":\"country\",\"type\":\"custom\",\"value\":\"us\"}],\"snapshots\":[{\"events\":"
+                + "[{\"entity_id\":\"200\",\"key\":\"purchase\",\"timestamp\":1700000000000}]}]}";
+    }
+
+    private static byte[] read(InputStream input) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,250 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DatafilePollerTest {
+    private static final long INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2026 07:28:00 GMT";
+
+    /** A response of the stub server. */
+    private static final class StubResponse {
+        final int status;
+        final String body;
+        final String etag;
+        final String lastModified;
+
+        StubResponse(int status, String body, String etag, String lastModified) {
+            this.status = status;
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final Queue<StubResponse> responses = new ArrayDeque<>();
+    private final List<Headers> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> changedDatafiles = Collections.synchronizedList(new ArrayList<>());
+    private HttpServer server;
+    private ScheduledExecutorService scheduler;
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/datafiles/sdk_key.json", exchange -> {
+            requests.add(exchange.getRequestHeaders());
+            StubResponse response;
+            synchronized (responses) {
+                response = responses.poll();
+            }
+            if (response == null) {
+                response = new StubResponse(500, null, null, null);
+            }
+            if (response.etag != null) {
+                exchange.getResponseHeaders().set("ETag", response.etag);
+            }
+            if (response.lastModified != null) {
+                exchange.getResponseHeaders().set("Last-Modified", response.lastModified);
+            }
+            if (response.body == null) {
+                exchange.sendResponseHeaders(response.status, -1);
+            } else {
+                byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(response.status, body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/datafiles/sdk_key.json";
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        scheduler.shutdownNow();
+    }
+
+    private void respond(int status, String body, String etag, String lastModified) {
+        synchronized (responses) {
+            responses.add(new StubResponse(status, body, etag, lastModified));
+        }
+    }
+
+    private DatafilePoller poller(Random random) {
+        return new DatafilePoller(url, INTERVAL_MILLIS, scheduler, changedDatafiles::add, random);
+    }
+
+    // Returns the given value from nextDouble
+    private static Random fixedRandom(double value) {
+        return new Random() {
+            @Override
+            public double nextDouble() {
+                return value;
+            }
+        };
+    }
+
+    @Test
+    public void sendsValidatorsOfLastResponseAndSkipsNotModified() {
+        DatafilePoller poller = poller(new Random());
+        respond(200, "{\"revision\":\"1\"}", "\"v1\"", LAST_MODIFIED);
+        respond(304, null, null, null);
+
+        assertEquals(DatafilePoller.PollResult.CHANGED, poller.poll());
+        assertEquals(DatafilePoller.PollResult.NOT_MODIFIED, poller.poll());
+
+        assertNull(requests.get(0).getFirst("If-None-Match"));
+        assertNull(requests.get(0).getFirst("If-Modified-Since"));
+        assertEquals("\"v1\"", requests.get(1).getFirst("If-None-Match"));
+        assertEquals(LAST_MODIFIED, requests.get(1).getFirst("If-Modified-Since"));
+        assertEquals(Collections.singletonList("{\"revision\":\"1\"}"), changedDatafiles);
+    }
+
+    @Test
+    public void reportsEveryChangedDatafile() {
+        DatafilePoller poller = poller(new Random());
+        respond(200, "{\"revision\":\"1\"}", "\"v1\"", null);
+        respond(200, "{\"revision\":\"2\"}", "\"v2\"", null);
+
+        assertEquals(DatafilePoller.PollResult.CHANGED, poller.poll());
+        assertEquals(DatafilePoller.PollResult.CHANGED, poller.poll());
+
+        assertEquals("\"v1\"", requests.get(1).getFirst("If-None-Match"));
+        assertEquals(2, changedDatafiles.size());
+        assertEquals("{\"revision\":\"2\"}", changedDatafiles.get(1));
+    }
+
+    @Test
+    public void treatsIdenticalBodyWithoutValidatorsAsNotModified() {
+        DatafilePoller poller = poller(new Random());
+        respond(200, "{\"revision\":\"1\"}", null, null);
+        respond(200, "{\"revision\":\"1\"}", null, null);
+
+        assertEquals(DatafilePoller.PollResult.CHANGED, poller.poll());
+        assertEquals(DatafilePoller.PollResult.NOT_MODIFIED, poller.poll());
+        assertEquals(1, changedDatafiles.size());
+    }
+
+    @Test
+    public void doesNotReportDatafileItStartedWith() {
+        DatafilePoller poller = poller(new Random());
+        poller.start("{\"revision\":\"1\"}");
+        poller.stop();
+        respond(200, "{\"revision\":\"1\"}", "\"v1\"", null);
+
+        assertEquals(DatafilePoller.PollResult.NOT_MODIFIED, poller.poll());
+        assertTrue(changedDatafiles.isEmpty());
+    }
+
+    @Test
+    public void failsOnServerErrorAndUnreachableServer() {
+        DatafilePoller poller = poller(new Random());
+        respond(500, null, null, null);
+
+        assertEquals(DatafilePoller.PollResult.FAILED, poller.poll());
+
+        server.stop(0);
+        assertEquals(DatafilePoller.PollResult.FAILED, poller.poll());
+        assertTrue(changedDatafiles.isEmpty());
+    }
+
+    @Test
+    public void backsOffExponentiallyUpToIntervalAndResetsOnResponse() {
+        DatafilePoller poller = poller(fixedRandom(0.0));
+
+        assertEquals(5_000, poller.nextDelayMillis(DatafilePoller.PollResult.FAILED));
+        assertEquals(10_000, poller.nextDelayMillis(DatafilePoller.PollResult.FAILED));
+        assertEquals(20_000, poller.nextDelayMillis(DatafilePoller.PollResult.FAILED));
+        // 80 seconds would exceed the interval
+        assertEquals(30_000, poller.nextDelayMillis(DatafilePoller.PollResult.FAILED));
+        assertEquals(INTERVAL_MILLIS, poller.nextDelayMillis(DatafilePoller.PollResult.NOT_MODIFIED));
+        assertEquals(5_000, poller.nextDelayMillis(DatafilePoller.PollResult.FAILED));
+        assertEquals(INTERVAL_MILLIS, poller.nextDelayMillis(DatafilePoller.PollResult.CHANGED));
+    }
+
+    @Test
+    public void jittersBackoffBetweenHalfAndAllOfIt() {
+        assertEquals(5_000, poller(fixedRandom(0.0)).nextDelayMillis(DatafilePoller.PollResult.FAILED));
+        assertEquals(7_500, poller(fixedRandom(0.5)).nextDelayMillis(DatafilePoller.PollResult.FAILED));
+        assertEquals(9_999, poller(fixedRandom(0.9999)).nextDelayMillis(DatafilePoller.PollResult.FAILED));
+    }
+
+    @Test(timeout = 10_000)
+    public void pollsOnSchedulerUntilStopped() throws InterruptedException {
+        DatafilePoller poller = new DatafilePoller(url, 50, scheduler, changedDatafiles::add, new Random());
+        respond(200, "{\"revision\":\"1\"}", "\"v1\"", null);
+        respond(304, null, null, null);
+        respond(200, "{\"revision\":\"2\"}", "\"v2\"", null);
+
+        poller.start(null);
+        while (changedDatafiles.size() < 2) {
+            Thread.sleep(10);
+        }
+        poller.stop();
+
+        assertEquals("{\"revision\":\"2\"}", changedDatafiles.get(1));
+        assertEquals("\"v1\"", requests.get(2).getFirst("If-None-Match"));
+    }
+
+    @Test(timeout = 10_000)
+    public void runsNoPollAfterStop() throws InterruptedException {
+        DatafilePoller poller = new DatafilePoller(url, 20, scheduler, changedDatafiles::add, new Random());
+        respond(200, "{\"revision\":\"1\"}", "\"v1\"", null);
+
+        poller.start(null);
+        while (changedDatafiles.isEmpty()) {
+            Thread.sleep(5);
+        }
+        poller.stop();
+        int polls = requests.size();
+        for (int i = 0; i < 10; i++) {
+            respond(200, "{\"revision\":\"" + (i + 2) + "\"}", null, null);
+        }
+        Thread.sleep(200);
+
+        assertEquals(polls, requests.size());
+        assertEquals(1, changedDatafiles.size());
+    }
+}
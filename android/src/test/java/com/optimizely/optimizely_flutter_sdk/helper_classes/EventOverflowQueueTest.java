@@ -0,0 +1,159 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.ab.event.internal.ConversionEvent;
+import com.optimizely.ab.event.internal.ImpressionEvent;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.MetricsKey;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.EventOverflowQueue.OverflowPolicy;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EventOverflowQueueTest {
+    @Test
+    public void rejectsEventsWhenFull() {
+        EventOverflowQueue queue = new EventOverflowQueue(2, OverflowPolicy.REJECT, 0);
+
+        assertTrue(queue.offer(new ConversionEvent()));
+        assertTrue(queue.offer(new ConversionEvent()));
+        assertFalse(queue.offer(new ConversionEvent()));
+        assertEquals(1L, queue.getStats().get(MetricsKey.REJECTED));
+    }
+
+    @Test
+    public void holdsRequestedCapacityRatherThanPowerOfTwo() {
+        EventOverflowQueue queue = new EventOverflowQueue(10, OverflowPolicy.REJECT, 0);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(new ConversionEvent()));
+        }
+
+        assertFalse(queue.offer(new ConversionEvent()));
+        assertEquals(10, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+    }
+
+    @Test
+    public void dropsOldestImpressionsToKeepConversions() {
+        EventOverflowQueue queue = new EventOverflowQueue(8, OverflowPolicy.DROP_OLDEST_IMPRESSIONS, 0);
+        List<Object> kept = new ArrayList<>();
+        Object oldestImpression = new ImpressionEvent();
+        queue.offer(oldestImpression);
+        for (int i = 0; i < 7; i++) {
+            Object event = i % 2 == 0 ? new ConversionEvent() : new ImpressionEvent();
+            queue.offer(event);
+            kept.add(event);
+        }
+        ConversionEvent overflowing = new ConversionEvent();
+        kept.add(overflowing);
+
+        // The reserve holds an eighth of the capacity
+        assertTrue(queue.offer(overflowing));
+        assertFalse(queue.offer(new ConversionEvent()));
+
+        List<Object> taken = new ArrayList<>();
+        queue.drainTo(taken);
+        assertEquals(kept, taken);
+        assertEquals(1L, queue.getStats().get(MetricsKey.EVICTED_IMPRESSIONS));
+        assertEquals(1L, queue.getStats().get(MetricsKey.REJECTED));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void servesReservedEventsWithoutImpressionsToEvict() {
+        EventOverflowQueue queue = new EventOverflowQueue(8, OverflowPolicy.DROP_OLDEST_IMPRESSIONS, 0);
+        for (int i = 0; i < 8; i++) {
+            queue.offer(new ConversionEvent());
+        }
+        ConversionEvent overflowing = new ConversionEvent();
+        assertTrue(queue.offer(overflowing));
+        assertEquals(9, queue.size());
+
+        List<Object> taken = new ArrayList<>();
+        queue.drainTo(taken);
+        assertEquals(9, taken.size());
+        assertSame(overflowing, taken.get(8));
+
+        // Nothing is owed anymore, so later impressions are kept
+        ImpressionEvent impression = new ImpressionEvent();
+        queue.offer(impression);
+        assertSame(impression, queue.poll());
+    }
+
+    @Test
+    public void blocksUntilThereIsRoom() throws InterruptedException {
+        EventOverflowQueue queue = new EventOverflowQueue(2, OverflowPolicy.BLOCK, TimeUnit.SECONDS.toMillis(5));
+        ConversionEvent first = new ConversionEvent();
+        ConversionEvent second = new ConversionEvent();
+        queue.offer(first);
+        queue.offer(new ConversionEvent());
+        Thread consumer = new Thread(() -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            queue.poll();
+            queue.poll();
+        });
+        consumer.start();
+
+        assertTrue(queue.offer(second));
+        consumer.join();
+        assertSame(second, queue.poll());
+        assertEquals(1L, queue.getStats().get(MetricsKey.BLOCKED));
+        assertEquals(0L, queue.getStats().get(MetricsKey.TIMED_OUT));
+    }
+
+    @Test
+    public void rejectsEventsAfterBlockTimeout() {
+        EventOverflowQueue queue = new EventOverflowQueue(2, OverflowPolicy.BLOCK, 20);
+        queue.offer(new ConversionEvent());
+        queue.offer(new ConversionEvent());
+        long startNanos = System.nanoTime();
+
+        assertFalse(queue.offer(new ConversionEvent()));
+        assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(1L, queue.getStats().get(MetricsKey.TIMED_OUT));
+        assertEquals(0L, queue.getStats().get(MetricsKey.REJECTED));
+    }
+
+    @Test
+    public void rejectsInsteadOfSpillingWithoutSegment() {
+        EventOverflowQueue queue = new EventOverflowQueue(2, OverflowPolicy.SPILL_TO_DISK, 0);
+        queue.offer(new ConversionEvent());
+        queue.offer(new ConversionEvent());
+
+        assertFalse(queue.offer(new ConversionEvent()));
+        assertEquals(OverflowPolicy.REJECT.getValue(), queue.getStats().get(MetricsKey.OVERFLOW_POLICY));
+    }
+
+    @Test
+    public void parsesPolicyNames() {
+        assertEquals(OverflowPolicy.SPILL_TO_DISK, OverflowPolicy.fromValue("spillToDisk"));
+        assertEquals(OverflowPolicy.DROP_OLDEST_IMPRESSIONS, OverflowPolicy.fromValue("dropOldestImpressions"));
+        for (String unknown : Arrays.asList(null, "", "dropNewest")) {
+            assertEquals(OverflowPolicy.REJECT, OverflowPolicy.fromValue(unknown));
+        }
+    }
+}
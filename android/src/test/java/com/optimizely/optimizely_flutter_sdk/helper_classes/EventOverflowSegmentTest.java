@@ -0,0 +1,172 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EventOverflowSegmentTest {
+    private static final String URL = "https://logx.optimizely.com/v1/events";
+    private static final String SDK_KEY = "sdk_key";
+
+    private File filesDir;
+    private File file;
+    private final List<String> replayed = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        filesDir = Files.createTempDirectory("event_spill").toFile();
+        file = new File(new File(filesDir, EventOverflowSegment.DIRECTORY_NAME), SDK_KEY + ".spill");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        file.getParentFile().delete();
+        filesDir.delete();
+    }
+
+    @Test
+    public void replaysRecordsInOrderAndDeletesFile() throws Exception {
+        EventOverflowSegment segment = new EventOverflowSegment(filesDir, SDK_KEY);
+        for (int i = 0; i < 3; i++) {
+            segment.append(payload(i));
+        }
+        assertEquals(3, segment.getPendingCount());
+
+        assertEquals(2, segment.replay(2, this::record));
+        assertEquals(1, segment.getPendingCount());
+        assertEquals(1, segment.replay(10, this::record));
+
+        assertEquals(bodies(0, 1, 2), replayed);
+        assertEquals(0, segment.getPendingCount());
+        assertFalse(file.exists());
+        assertEquals(0, segment.replay(10, this::record));
+    }
+
+    @Test
+    public void keepsRecordsWhenReplayFails() throws Exception {
+        EventOverflowSegment segment = new EventOverflowSegment(filesDir, SDK_KEY);
+        segment.append(payload(0));
+        segment.append(payload(1));
+
+        try {
+            segment.replay(10, payloads -> {
+                throw new IOException("offline");
+            });
+            fail("Expected the replay to fail");
+        } catch (IOException expected) {
+            // Kept for the next replay
+        }
+
+        assertEquals(2, segment.getPendingCount());
+        segment.replay(10, this::record);
+        assertEquals(bodies(0, 1), replayed);
+    }
+
+    @Test
+    public void recoversRecordsOfEarlierProcessAndCutsTornTail() throws Exception {
+        EventOverflowSegment segment = new EventOverflowSegment(filesDir, SDK_KEY);
+        segment.append(payload(0));
+        segment.append(payload(1));
+        long intactLength = file.length();
+        // A record whose write was interrupted
+        byte[] record = EventOverflowSegment.encode(payload(2));
+        try (FileOutputStream output = new FileOutputStream(file, true)) {
+            output.write(record, 0, record.length - 3);
+        }
+
+        EventOverflowSegment recovered = new EventOverflowSegment(filesDir, SDK_KEY);
+        assertEquals(2, recovered.getPendingCount());
+        assertEquals(intactLength, file.length());
+
+        recovered.append(payload(3));
+        recovered.replay(10, this::record);
+        assertEquals(bodies(0, 1, 3), replayed);
+    }
+
+    @Test
+    public void refusesAppendsBeyondMaxBytesUntilReplayed() throws Exception {
+        long recordBytes = EventOverflowSegment.encode(payload(0)).length;
+        EventOverflowSegment segment = new EventOverflowSegment(filesDir, SDK_KEY, recordBytes * 2);
+
+        assertTrue(segment.append(payload(0)));
+        assertTrue(segment.append(payload(1)));
+        assertFalse(segment.append(payload(2)));
+        assertEquals(2, segment.getPendingCount());
+        assertEquals(recordBytes * 2, file.length());
+
+        // Replayed records take room until the file is deleted
+        segment.replay(1, this::record);
+        assertFalse(segment.append(payload(2)));
+        segment.replay(1, this::record);
+        assertTrue(segment.append(payload(2)));
+    }
+
+    @Test
+    public void dropsCorruptRecords() throws Exception {
+        EventOverflowSegment segment = new EventOverflowSegment(filesDir, SDK_KEY);
+        segment.append(payload(0));
+        long intactLength = file.length();
+        segment.append(payload(1));
+        // Flip a byte of the second record's body
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        bytes[bytes.length - 2] ^= 1;
+        Files.write(file.toPath(), bytes);
+
+        EventOverflowSegment recovered = new EventOverflowSegment(filesDir, SDK_KEY);
+        assertEquals(1, recovered.getPendingCount());
+        assertEquals(intactLength, file.length());
+        assertEquals(1, recovered.replay(10, this::record));
+        assertEquals(bodies(0), replayed);
+    }
+
+    private void record(List<EventPayload> payloads) {
+        for (EventPayload payload : payloads) {
+            assertEquals(URL, payload.getUrl());
+            replayed.add(payload.getBody());
+        }
+    }
+
+    private static EventPayload payload(int index) {
+        return new EventPayload(URL, body(index));
+    }
+
+    private static String body(int index) {
+        return "{\"visitors\":[{\"visitor_id\":\"user_" + index + "\"}]}";
+    }
+
+    private static List<String> bodies(int... indices) {
+        List<String> bodies = new ArrayList<>();
+        for (int index : indices) {
+            bodies.add(body(index));
+        }
+        return bodies;
+    }
+}
@@ -0,0 +1,80 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.ab.event.LogEvent;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventPayloadTest {
+    private static final String URL = "https://logx.optimizely.com/v1/events";
+
+    @Test
+    public void mergesPayloadsOfTheSameBatch() {
+        List<LogEvent> logEvents = EventPayload.merge(Arrays.asList(
+                new EventPayload(URL, batch("1", "user_1")),
+                new EventPayload(URL, batch("1", "user_2")),
+                new EventPayload(URL, batch("2", "user_3"))));
+
+        assertEquals(2, logEvents.size());
+        assertEquals("{\"account_id\":\"10\",\"revision\":\"1\",\"visitors\":"
+                + "[{\"visitor_id\":\"user_1\"},{\"visitor_id\":\"user_2\"}]}", logEvents.get(0).getBody());
+        assertEquals(batch("2", "user_3"), logEvents.get(1).getBody());
+    }
+
+    @Test
+    public void keepsUnreadablePayloadsAsTheyAre() {
+        List<LogEvent> logEvents = EventPayload.merge(Arrays.asList(
+                new EventPayload(URL, batch("1", "user_1")),
+                new EventPayload(URL, "not json"),
+                new EventPayload(URL, batch("1", "user_2"))));
+
+        assertEquals(3, logEvents.size());
+        assertEquals("not json", logEvents.get(1).getBody());
+    }
+
+    @Test
+    public void splitsRequestsOverByteBudgetByVisitor() {
+        String body = "{\"account_id\":\"10\",\"visitors\":[{\"visitor_id\":\"user_1\"},"
+                + "{\"visitor_id\":\"user_2\"},{\"visitor_id\":\"user_3\"}]}";
+        String firstTwo = "{\"account_id\":\"10\",\"visitors\":[{\"visitor_id\":\"user_1\"},{\"visitor_id\":\"user_2\"}]}";
+
+        List<LogEvent> logEvents = EventPayload.split(new EventPayload.PayloadLogEvent(URL, body), firstTwo.length());
+
+        assertEquals(2, logEvents.size());
+        assertEquals(firstTwo, logEvents.get(0).getBody());
+        assertEquals("{\"account_id\":\"10\",\"visitors\":[{\"visitor_id\":\"user_3\"}]}", logEvents.get(1).getBody());
+        assertEquals(URL, logEvents.get(1).getEndpointUrl());
+    }
+
+    @Test
+    public void keepsRequestsWithinByteBudgetOrUnreadable() {
+        LogEvent small = new EventPayload.PayloadLogEvent(URL, batch("1", "user_1"));
+        LogEvent unreadable = new EventPayload.PayloadLogEvent(URL, "not json, but longer than the budget");
+
+        assertEquals(1, EventPayload.split(small, 1000).size());
+        assertEquals(1, EventPayload.split(unreadable, 10).size());
+    }
+
+    private static String batch(String revision, String visitorId) {
+        return "{\"account_id\":\"10\",\"revision\":\"" + revision + "\",\"visitors\":[{\"visitor_id\":\"" + visitorId + "\"}]}";
+    }
+}
@@ -0,0 +1,166 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MpscRingBufferTest {
+    @Test
+    public void boundsOffersByRequestedCapacity() {
+        MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(5);
+        assertEquals(5, queue.remainingCapacity());
+
+        // Across laps of the eight slot ring
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(queue.offer(i));
+            }
+            assertFalse(queue.offer(5));
+            assertEquals(5, queue.size());
+            assertEquals(0, queue.remainingCapacity());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(Integer.valueOf(i), queue.poll());
+            }
+        }
+    }
+
+    @Test
+    public void holdsSingleElementWithCapacityOne() {
+        MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(1);
+
+        assertTrue(queue.offer(1));
+        assertFalse(queue.offer(2));
+        assertEquals(Integer.valueOf(1), queue.poll());
+        assertTrue(queue.offer(2));
+        assertEquals(Integer.valueOf(2), queue.poll());
+    }
+
+    @Test
+    public void keepsOrderAcrossLaps() {
+        MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(i));
+            assertTrue(queue.offer(i + 100));
+            assertEquals(Integer.valueOf(i), queue.poll());
+            assertEquals(Integer.valueOf(i + 100), queue.poll());
+        }
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void rejectsOffersWhenFull() {
+        MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(2);
+
+        assertTrue(queue.offer(1));
+        assertTrue(queue.offer(2));
+        assertFalse(queue.offer(3));
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+
+        assertEquals(Integer.valueOf(1), queue.poll());
+        assertTrue(queue.offer(3));
+    }
+
+    @Test
+    public void drainsUpToMaxElements() {
+        MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+
+        assertEquals(3, queue.drainTo(drained, 3));
+        assertEquals(Arrays.asList(0, 1, 2), drained);
+        assertEquals(Arrays.asList(3, 4), new ArrayList<>(queue));
+        assertEquals(2, queue.drainTo(drained));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void pollTimesOutWhenEmpty() throws InterruptedException {
+        MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(8);
+        long startNanos = System.nanoTime();
+
+        assertNull(queue.poll(50, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void wakesWaitingConsumer() throws InterruptedException {
+        MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(8);
+        Thread producer = new Thread(() -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            queue.offer(42);
+        });
+        producer.start();
+
+        assertEquals(Integer.valueOf(42), queue.poll(5, TimeUnit.SECONDS));
+        producer.join();
+    }
+
+    @Test
+    public void deliversEveryElementOfConcurrentProducersOnce() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 100_000;
+        MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(64);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = first; i < first + perProducer; i++) {
+                        queue.put(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        boolean[] seen = new boolean[producers * perProducer];
+        int[] lastOfProducer = new int[producers];
+        Arrays.fill(lastOfProducer, -1);
+        for (int received = 0; received < seen.length; received++) {
+            Integer element = queue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(element);
+            assertFalse(seen[element]);
+            seen[element] = true;
+            // Elements of one producer arrive in the order they were put
+            int producer = element / perProducer;
+            assertTrue(element > lastOfProducer[producer]);
+            lastOfProducer[producer] = element;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,172 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.RequestParameterKey;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.NotificationDispatcher.OverflowPolicy;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NotificationDispatcherTest {
+    private static final String SDK_KEY = "sdk-key";
+    private static final String DECISION = "decision";
+    private static final String TRACK = "track";
+
+    private final List<Map<String, Object>> sent = new ArrayList<>();
+    private final NotificationDispatcher dispatcher = new NotificationDispatcher(
+            (method, arguments) -> sent.add(castMap(arguments)));
+
+    @Test
+    public void flushesNotificationsOfAllTypesInOrder() {
+        dispatcher.dispatch(SDK_KEY, 1, DECISION, payload(0));
+        dispatcher.dispatch(SDK_KEY, 2, TRACK, payload(1));
+        dispatcher.dispatch(SDK_KEY, 1, DECISION, payload(2));
+
+        dispatcher.flush(SDK_KEY);
+
+        assertEquals(1, sent.size());
+        assertEquals(SDK_KEY, sent.get(0).get(RequestParameterKey.SDK_KEY));
+        assertEquals(Collections.singletonList(TRACK), types(flushed()).subList(1, 2));
+        assertEquals(listOf(0, 1, 2), numbers(flushed()));
+    }
+
+    @Test
+    public void dropOldestKeepsNewestNotifications() {
+        dispatcher.configure(SDK_KEY, 0, 3, OverflowPolicy.DROP_OLDEST);
+        dispatchDecisions(0, 10);
+
+        dispatcher.flush(SDK_KEY);
+
+        assertEquals(listOf(7, 8, 9), numbers(flushed()));
+        assertEquals(7L, (long) dispatcher.getDroppedCounts(SDK_KEY).get(DECISION));
+    }
+
+    @Test
+    public void dropNewestKeepsOldestNotifications() {
+        dispatcher.configure(SDK_KEY, 0, 3, OverflowPolicy.DROP_NEWEST);
+        dispatchDecisions(0, 10);
+
+        dispatcher.flush(SDK_KEY);
+
+        assertEquals(listOf(0, 1, 2), numbers(flushed()));
+        assertEquals(7L, (long) dispatcher.getDroppedCounts(SDK_KEY).get(DECISION));
+    }
+
+    @Test
+    public void sampleKeepsOrderedSampleOfAllNotifications() {
+        dispatcher.configure(SDK_KEY, 0, 3, OverflowPolicy.SAMPLE);
+        dispatchDecisions(0, 1000);
+
+        dispatcher.flush(SDK_KEY);
+
+        List<Integer> numbers = numbers(flushed());
+        assertEquals(3, numbers.size());
+        assertTrue(numbers.get(0) < numbers.get(1) && numbers.get(1) < numbers.get(2));
+        // Not just the first ones, as dropNewest would keep
+        assertTrue(numbers.get(2) > 2);
+        assertEquals(997L, (long) dispatcher.getDroppedCounts(SDK_KEY).get(DECISION));
+    }
+
+    @Test
+    public void boundsEachTypeSeparately() {
+        dispatcher.configure(SDK_KEY, 0, 2, OverflowPolicy.DROP_NEWEST);
+        dispatchDecisions(0, 3);
+        dispatcher.dispatch(SDK_KEY, 2, TRACK, payload(3));
+
+        dispatcher.flush(SDK_KEY);
+
+        assertEquals(listOf(0, 1, 3), numbers(flushed()));
+        assertEquals(1L, (long) dispatcher.getDroppedCounts(SDK_KEY).get(DECISION));
+        assertEquals(0L, (long) dispatcher.getDroppedCounts(SDK_KEY).get(TRACK));
+    }
+
+    @Test
+    public void keepsDroppedCountsAcrossFlushes() {
+        dispatcher.configure(SDK_KEY, 0, 2, OverflowPolicy.DROP_OLDEST);
+        dispatchDecisions(0, 5);
+        dispatcher.flush(SDK_KEY);
+        dispatchDecisions(5, 9);
+        dispatcher.flush(SDK_KEY);
+
+        assertEquals(listOf(7, 8), numbers(flushed()));
+        assertEquals(5L, (long) dispatcher.getDroppedCounts(SDK_KEY).get(DECISION));
+    }
+
+    @Test
+    public void doesNotFlushNotificationsOfRemovedSdkKey() {
+        dispatchDecisions(0, 3);
+
+        dispatcher.remove(SDK_KEY);
+        dispatcher.flush(SDK_KEY);
+
+        assertEquals(0, sent.size());
+        assertEquals(0, dispatcher.getDroppedCounts(SDK_KEY).size());
+    }
+
+    private void dispatchDecisions(int from, int to) {
+        for (int i = from; i < to; i++) {
+            dispatcher.dispatch(SDK_KEY, 1, DECISION, payload(i));
+        }
+    }
+
+    private List<Map<String, Object>> flushed() {
+        Object notifications = sent.get(sent.size() - 1).get(RequestParameterKey.NOTIFICATIONS);
+        List<Map<String, Object>> flushed = new ArrayList<>();
+        for (Object notification : (List<?>) notifications) {
+            flushed.add(castMap(notification));
+        }
+        return flushed;
+    }
+
+    private static Map<String, ?> payload(int number) {
+        return Collections.singletonMap("number", number);
+    }
+
+    private static List<Integer> numbers(List<Map<String, Object>> notifications) {
+        List<Integer> numbers = new ArrayList<>();
+        for (Map<String, Object> notification : notifications) {
+            numbers.add((Integer) castMap(notification.get(RequestParameterKey.NOTIFICATION_PAYLOAD)).get("number"));
+        }
+        return numbers;
+    }
+
+    private static List<Object> types(List<Map<String, Object>> notifications) {
+        List<Object> types = new ArrayList<>();
+        for (Map<String, Object> notification : notifications) {
+            types.add(notification.get(RequestParameterKey.NOTIFICATION_TYPE));
+        }
+        return types;
+    }
+
+    private static List<Integer> listOf(Integer... numbers) {
+        List<Integer> list = new ArrayList<>();
+        Collections.addAll(list, numbers);
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object map) {
+        return (Map<String, Object>) map;
+    }
+}
@@ -0,0 +1,69 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OptimizelyMessageCodecTest {
+    @Test
+    public void decodesEncodedRequestArguments() {
+        byte[] datafile = {'{', '}'};
+        RequestArguments arguments = new RequestArguments();
+        arguments.set(RequestArguments.SDK_KEY, "sdk-key");
+        arguments.set(RequestArguments.NOTIFICATION_ID, 7);
+        arguments.set(RequestArguments.RAW_PAYLOAD, true);
+        arguments.set(RequestArguments.DECIDE_KEYS, Arrays.asList("flag_1", "flag_2"));
+        arguments.set(RequestArguments.ATTRIBUTES, Collections.singletonMap("age", 21.5));
+        arguments.set(RequestArguments.DATAFILE, ByteBuffer.wrap(datafile));
+
+        Object decoded = OptimizelyMessageCodec.INSTANCE.decodeMessage(OptimizelyMessageCodec.INSTANCE.encodeMessage(arguments));
+
+        assertTrue(decoded instanceof RequestArguments);
+        RequestArguments decodedArguments = (RequestArguments) decoded;
+        assertEquals(arguments.size(), decodedArguments.size());
+        assertEquals("sdk-key", decodedArguments.get(RequestArguments.SDK_KEY));
+        assertEquals(7, decodedArguments.get(RequestArguments.NOTIFICATION_ID));
+        assertEquals(true, decodedArguments.get(RequestArguments.RAW_PAYLOAD));
+        assertEquals(Arrays.asList("flag_1", "flag_2"), decodedArguments.get(RequestArguments.DECIDE_KEYS));
+        assertEquals(21.5, ((Map<?, ?>) decodedArguments.get(RequestArguments.ATTRIBUTES)).get("age"));
+        assertEquals(ByteBuffer.wrap(datafile), decodedArguments.get(RequestArguments.DATAFILE));
+    }
+
+    @Test
+    public void rejectsValueOfTheWrongType() {
+        // SDK key sent as the integer 5
+        ByteBuffer message = ByteBuffer.allocateDirect(8).order(ByteOrder.nativeOrder());
+        message.put(OptimizelyMessageCodec.REQUEST).put((byte) 1).put((byte) RequestArguments.SDK_KEY)
+                .put((byte) 3).putInt(5);
+        message.flip();
+
+        try {
+            OptimizelyMessageCodec.INSTANCE.decodeMessage(message);
+            fail("Expected the argument to be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
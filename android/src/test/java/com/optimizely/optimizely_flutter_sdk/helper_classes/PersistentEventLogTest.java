@@ -0,0 +1,212 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.MetricsKey;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PersistentEventLogTest {
+    private static final String URL = "https://logx.optimizely.com/v1/events";
+    private static final String SDK_KEY = "sdk_key";
+    // Holds about two records, so the tests cross segments
+    private static final int SEGMENT_BYTES = 200;
+
+    private File filesDir;
+    private File directory;
+    private final List<String> consumed = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        filesDir = Files.createTempDirectory("event_log").toFile();
+        directory = new File(new File(filesDir, PersistentEventLog.DIRECTORY_NAME), SDK_KEY);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        directory.getParentFile().delete();
+        filesDir.delete();
+    }
+
+    @Test
+    public void consumesRecordsInOrderAcrossSegments() throws Exception {
+        PersistentEventLog log = newLog(Long.MAX_VALUE);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(log.append(payload(i)));
+        }
+        assertEquals(5, log.getPendingCount());
+        assertTrue(segmentCount() > 1);
+
+        assertEquals(3, log.consume(3, this::record));
+        assertEquals(2, log.getPendingCount());
+        assertEquals(2, log.consume(10, this::record));
+
+        assertEquals(bodies(0, 1, 2, 3, 4), consumed);
+        assertEquals(0, log.consume(10, this::record));
+        // Sent segments are deleted, but the one appended to
+        assertEquals(1, segmentCount());
+        assertEquals(0L, log.getStats().get(MetricsKey.PENDING_BYTES));
+    }
+
+    @Test
+    public void recoversRecordsNotConsumedBeforeRestart() throws Exception {
+        PersistentEventLog log = newLog(Long.MAX_VALUE);
+        for (int i = 0; i < 5; i++) {
+            log.append(payload(i));
+        }
+        log.consume(3, this::record);
+        consumed.clear();
+
+        PersistentEventLog recovered = newLog(Long.MAX_VALUE);
+        recovered.append(payload(5));
+        assertEquals(3, recovered.getPendingCount());
+        assertEquals(2L, recovered.getStats().get(MetricsKey.RECOVERED));
+
+        recovered.consume(10, this::record);
+        assertEquals(bodies(3, 4, 5), consumed);
+    }
+
+    @Test
+    public void cutsTornTailWhenRecovering() throws Exception {
+        PersistentEventLog log = newLog(Long.MAX_VALUE);
+        log.append(payload(0));
+        File segment = lastSegment();
+        // A record whose write was interrupted
+        byte[] record = EventOverflowSegment.encode(payload(1));
+        try (FileOutputStream output = new FileOutputStream(segment, true)) {
+            output.write(record, 0, record.length - 3);
+        }
+
+        PersistentEventLog recovered = newLog(Long.MAX_VALUE);
+        recovered.append(payload(2));
+        assertEquals(2, recovered.getPendingCount());
+        recovered.consume(10, this::record);
+        assertEquals(bodies(0, 2), consumed);
+    }
+
+    @Test
+    public void keepsRecordsWhenConsumerFails() throws Exception {
+        PersistentEventLog log = newLog(Long.MAX_VALUE);
+        log.append(payload(0));
+        log.append(payload(1));
+
+        try {
+            log.consume(10, payloads -> {
+                throw new IOException("offline");
+            });
+            fail("Expected the consumer to fail");
+        } catch (IOException expected) {
+            // Kept for the next call
+        }
+
+        assertEquals(2, log.getPendingCount());
+        log.consume(10, this::record);
+        assertEquals(bodies(0, 1), consumed);
+    }
+
+    @Test
+    public void dropsAppendsBeyondMaxPendingBytes() throws Exception {
+        int recordBytes = EventOverflowSegment.encode(payload(0)).length;
+        PersistentEventLog log = newLog(recordBytes * 2);
+
+        assertTrue(log.append(payload(0)));
+        assertTrue(log.append(payload(1)));
+        assertFalse(log.append(payload(2)));
+        assertEquals(1L, log.getStats().get(MetricsKey.DROPPED));
+
+        // Consuming makes room again
+        log.consume(1, this::record);
+        assertTrue(log.append(payload(3)));
+    }
+
+    @Test
+    public void startsFromOldestSegmentWithCorruptCheckpoint() throws Exception {
+        PersistentEventLog log = newLog(Long.MAX_VALUE);
+        log.append(payload(0));
+        log.append(payload(1));
+        log.consume(1, this::record);
+        consumed.clear();
+        File checkpoint = new File(directory, PersistentEventLog.CHECKPOINT_FILE_NAME);
+        byte[] bytes = Files.readAllBytes(checkpoint.toPath());
+        bytes[0] ^= 1;
+        Files.write(checkpoint.toPath(), bytes);
+
+        // Records after the corrupt checkpoint may be sent again, none is lost
+        PersistentEventLog recovered = newLog(Long.MAX_VALUE);
+        recovered.consume(10, this::record);
+        assertEquals(bodies(0, 1), consumed);
+    }
+
+    private PersistentEventLog newLog(long maxPendingBytes) {
+        return new PersistentEventLog(filesDir, SDK_KEY, null, SEGMENT_BYTES, maxPendingBytes, 0);
+    }
+
+    private int segmentCount() {
+        File[] segments = directory.listFiles((dir, name) -> name.endsWith(PersistentEventLog.SEGMENT_SUFFIX));
+        return segments == null ? 0 : segments.length;
+    }
+
+    private File lastSegment() {
+        File[] segments = directory.listFiles((dir, name) -> name.endsWith(PersistentEventLog.SEGMENT_SUFFIX));
+        Arrays.sort(segments);
+        return segments[segments.length - 1];
+    }
+
+    private void record(List<EventPayload> payloads) {
+        for (EventPayload payload : payloads) {
+            assertEquals(URL, payload.getUrl());
+            consumed.add(payload.getBody());
+        }
+    }
+
+    private static EventPayload payload(int index) {
+        return new EventPayload(URL, body(index));
+    }
+
+    private static String body(int index) {
+        return "{\"visitors\":[{\"visitor_id\":\"user_" + index + "\"}]}";
+    }
+
+    private static List<String> bodies(int... indices) {
+        List<String> bodies = new ArrayList<>();
+        for (int index : indices) {
+            bodies.add(body(index));
+        }
+        return bodies;
+    }
+}
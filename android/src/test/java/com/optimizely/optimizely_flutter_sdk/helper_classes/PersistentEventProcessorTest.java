@@ -0,0 +1,104 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.ab.event.LogEvent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentEventProcessorTest {
+    private static final String URL = "https://logx.optimizely.com/v1/events";
+    private static final String SDK_KEY = "sdk_key";
+    private static final long FLUSH_INTERVAL_MILLIS = 50;
+
+    private File filesDir;
+    private PersistentEventLog eventLog;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final List<LogEvent> dispatched = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        filesDir = Files.createTempDirectory("event_processor").toFile();
+        eventLog = new PersistentEventLog(filesDir, SDK_KEY, null);
+        for (int i = 0; i < 3; i++) {
+            eventLog.append(new EventPayload(URL, "{\"visitors\":[{\"visitor_id\":\"user_" + i + "\"}]}"));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        deleteRecursively(filesDir);
+    }
+
+    @Test(timeout = 10_000)
+    public void sendsEventsLeftInTheLog() throws InterruptedException {
+        PersistentEventProcessor processor = new PersistentEventProcessor(eventLog, 10, FLUSH_INTERVAL_MILLIS,
+                dispatched::add, null, executor);
+        while (eventLog.getPendingCount() > 0) {
+            Thread.sleep(5);
+        }
+        processor.close();
+
+        // Merged into one request
+        assertEquals(1, dispatched.size());
+        assertEquals(URL, dispatched.get(0).getEndpointUrl());
+    }
+
+    @Test(timeout = 10_000)
+    public void backsOffAfterFailedDispatchInsteadOfRetryingAtOnce() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        // A batch of one, so a full batch is always waiting
+        PersistentEventProcessor processor = new PersistentEventProcessor(eventLog, 1, FLUSH_INTERVAL_MILLIS,
+                logEvent -> {
+                    attempts.incrementAndGet();
+                    throw new IOException("offline");
+                }, null, executor);
+
+        Thread.sleep(PersistentEventProcessor.MIN_RETRY_MILLIS / 2);
+        assertEquals(1, attempts.get());
+        Thread.sleep(PersistentEventProcessor.MIN_RETRY_MILLIS);
+        assertTrue(attempts.get() <= 3);
+
+        processor.close();
+        // Kept for the next client of the SDK key
+        assertEquals(3, eventLog.getPendingCount());
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
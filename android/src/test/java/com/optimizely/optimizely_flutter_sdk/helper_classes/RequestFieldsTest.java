@@ -0,0 +1,106 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that Dart, Android and iOS number the fields of request arguments the same way.
+ *
+ * <p>Reads the Dart and Swift tables from the sources of the repository, relative to the android
+ * project directory the unit tests run in.
+ */
+public class RequestFieldsTest {
+    private static final String DART_FIELDS = "../lib/src/utils/request_fields.dart";
+    private static final String DART_CONSTANTS = "../lib/src/utils/constants.dart";
+    private static final String SWIFT_FIELDS = "../ios/Classes/HelperClasses/OptimizelyMessageCodec.swift";
+    private static final String SWIFT_CONSTANTS = "../ios/Classes/HelperClasses/Constants.swift";
+
+    @Test
+    public void dartFieldsMatchAndroidFields() throws IOException {
+        Map<String, String> constants = constants(read(DART_CONSTANTS), "static const String (\\w+) =\\s*\"([^\"]*)\";");
+        List<String> fields = fields(read(DART_FIELDS), "const List<String> requestFields = [", "];",
+                "Constants\\.(\\w+)", constants);
+
+        assertFieldsMatch(fields);
+    }
+
+    @Test
+    public void swiftFieldsMatchAndroidFields() throws IOException {
+        String swiftConstants = read(SWIFT_CONSTANTS);
+        String requestParameterKeys = section(swiftConstants, "struct RequestParameterKey {", "\n}");
+        Map<String, String> constants = constants(requestParameterKeys, "static let (\\w+) = \"([^\"]*)\"");
+        List<String> fields = fields(read(SWIFT_FIELDS), "static let requestFields: [String] = [", "]",
+                "RequestParameterKey\\.(\\w+)", constants);
+
+        assertFieldsMatch(fields);
+    }
+
+    private static void assertFieldsMatch(List<String> fields) {
+        assertEquals(new RequestArguments().fieldCount(), fields.size());
+        for (int field = 0; field < fields.size(); field++) {
+            assertEquals("field " + field, RequestArguments.fieldKey(field), fields.get(field));
+        }
+    }
+
+    private static List<String> fields(String source, String start, String end, String entry, Map<String, String> constants) {
+        List<String> fields = new ArrayList<>();
+        Matcher matcher = Pattern.compile(entry).matcher(section(source, start, end));
+        while (matcher.find()) {
+            String key = constants.get(matcher.group(1));
+            if (key == null) {
+                throw new AssertionError("Unknown constant " + matcher.group(1));
+            }
+            fields.add(key);
+        }
+        return fields;
+    }
+
+    private static Map<String, String> constants(String source, String declaration) {
+        Map<String, String> constants = new HashMap<>();
+        Matcher matcher = Pattern.compile(declaration).matcher(source);
+        while (matcher.find()) {
+            constants.put(matcher.group(1), matcher.group(2));
+        }
+        return constants;
+    }
+
+    private static String section(String source, String start, String end) {
+        int from = source.indexOf(start);
+        if (from < 0) {
+            throw new AssertionError("Missing " + start);
+        }
+        from += start.length();
+        return source.substring(from, source.indexOf(end, from));
+    }
+
+    private static String read(String path) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SharedExecutorsTest {
+    @Test
+    public void queuesConsumersBeyondThePoolAndRejectsTheRest() throws Exception {
+        int running = SharedExecutors.EVENT_THREADS;
+        int queued = SharedExecutors.QUEUED_EVENT_CONSUMERS;
+        CountDownLatch started = new CountDownLatch(running + queued);
+        CountDownLatch closed = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < running + queued; i++) {
+            futures.add(SharedExecutors.eventExecutor().submit(() -> {
+                started.countDown();
+                closed.await();
+                return null;
+            }));
+        }
+
+        try {
+            SharedExecutors.eventExecutor().submit(() -> null);
+            fail("Expected the consumer to be rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+        assertEquals(running, SharedExecutors.threadCounts().get(Constants.MetricsKey.EVENT_THREADS));
+        assertEquals(queued, SharedExecutors.threadCounts().get(Constants.MetricsKey.QUEUED_EVENT_CONSUMERS));
+
+        // Queued consumers take the threads of closed ones
+        closed.countDown();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(0, SharedExecutors.threadCounts().get(Constants.MetricsKey.QUEUED_EVENT_CONSUMERS));
+    }
+}
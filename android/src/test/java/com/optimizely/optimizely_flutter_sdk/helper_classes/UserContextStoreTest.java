@@ -0,0 +1,274 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    https://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+package com.optimizely.optimizely_flutter_sdk.helper_classes;
+
+import com.optimizely.ab.OptimizelyUserContext;
+import com.optimizely.ab.optimizelydecision.OptimizelyDecideOption;
+import com.optimizely.ab.optimizelydecision.OptimizelyDecision;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.ErrorMessage;
+import com.optimizely.optimizely_flutter_sdk.helper_classes.Constants.UserContextStatsKey;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UserContextStoreTest {
+    private static final String SDK_KEY = "sdk-key";
+
+    private static final List<String> DECIDE_KEYS = Arrays.asList("flag-1", "flag-2");
+    private static final List<OptimizelyDecideOption> NO_EVENT =
+            Collections.singletonList(OptimizelyDecideOption.DISABLE_DECISION_EVENT);
+
+    private final OptimizelyUserContext userContext = new OptimizelyUserContext();
+    private final Map<String, OptimizelyDecision> decisions =
+            Collections.singletonMap("flag-1", new OptimizelyDecision());
+    private long nowNanos;
+
+    private UserContextStore store(int capacity, int idleTimeoutInSecs) {
+        return new UserContextStore(capacity, idleTimeoutInSecs) {
+            @Override
+            long nanoTime() {
+                return nowNanos;
+            }
+        };
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedContextOverCapacity() {
+        UserContextStore store = store(2, 0);
+        store.put("a", userContext);
+        store.put("b", userContext);
+        // Using "a" makes "b" the least recently used
+        assertSame(userContext, store.get("a"));
+
+        store.put("c", userContext);
+
+        assertNull(store.get("b"));
+        assertSame(userContext, store.get("a"));
+        assertSame(userContext, store.get("c"));
+        assertTrue(store.wasEvicted("b"));
+        assertFalse(store.wasEvicted("a"));
+        assertEquals(1L, store.getStats().get(UserContextStatsKey.CAPACITY_EVICTIONS));
+        assertEquals(2, store.getStats().get(UserContextStatsKey.SIZE));
+    }
+
+    @Test
+    public void evictsContextsIdleLongerThanTimeout() {
+        UserContextStore store = store(0, 10);
+        store.put("a", userContext);
+        store.put("b", userContext);
+
+        nowNanos += TimeUnit.SECONDS.toNanos(6);
+        assertSame(userContext, store.get("b"));
+        nowNanos += TimeUnit.SECONDS.toNanos(6);
+
+        // "a" idled for 12 seconds, "b" for 6
+        assertNull(store.get("a"));
+        assertSame(userContext, store.get("b"));
+        assertTrue(store.wasEvicted("a"));
+        assertEquals(1L, store.getStats().get(UserContextStatsKey.TIMEOUT_EVICTIONS));
+    }
+
+    @Test
+    public void evictsIdleContextsOnPut() {
+        UserContextStore store = store(0, 10);
+        store.put("a", userContext);
+
+        nowNanos += TimeUnit.SECONDS.toNanos(11);
+        store.put("b", userContext);
+
+        assertTrue(store.wasEvicted("a"));
+        assertEquals(1, store.getStats().get(UserContextStatsKey.SIZE));
+    }
+
+    @Test
+    public void keepsContextsWithoutCapacityOrTimeout() {
+        UserContextStore store = store(0, 0);
+        for (int i = 0; i < 100; i++) {
+            store.put("id-" + i, userContext);
+        }
+        nowNanos += TimeUnit.DAYS.toNanos(1);
+
+        assertSame(userContext, store.get("id-0"));
+        assertEquals(100, store.getStats().get(UserContextStatsKey.SIZE));
+    }
+
+    @Test
+    public void doesNotReportRemovedContextAsEvicted() {
+        UserContextStore store = store(1, 0);
+        store.put("a", userContext);
+
+        assertTrue(store.remove("a"));
+
+        assertFalse(store.wasEvicted("a"));
+    }
+
+    @Test
+    public void remembersOnlyMostRecentlyEvictedIds() {
+        UserContextStore store = store(1, 0);
+        int evictions = UserContextStore.MAX_EVICTED_IDS + 10;
+        for (int i = 0; i <= evictions; i++) {
+            store.put("id-" + i, userContext);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertFalse(store.wasEvicted("id-" + i));
+        }
+        for (int i = 10; i < evictions; i++) {
+            assertTrue(store.wasEvicted("id-" + i));
+        }
+        assertEquals((long) evictions, store.getStats().get(UserContextStatsKey.CAPACITY_EVICTIONS));
+    }
+
+    @Test
+    public void reportsEvictedContextsApartFromUnknownOnes() {
+        SdkKeyRegistry registry = new SdkKeyRegistry();
+        registry.reset(SDK_KEY, store(1, 0));
+        registry.putUserContext(SDK_KEY, "a", userContext);
+        registry.putUserContext(SDK_KEY, "b", userContext);
+
+        assertNull(registry.getUserContext(SDK_KEY, "a"));
+        assertEquals(ErrorMessage.USER_CONTEXT_EVICTED, registry.getUserContextNotFoundReason(SDK_KEY, "a"));
+        assertTrue(ErrorMessage.USER_CONTEXT_EVICTED.startsWith("User context was evicted"));
+        assertEquals(ErrorMessage.USER_CONTEXT_NOT_FOUND, registry.getUserContextNotFoundReason(SDK_KEY, "unknown"));
+        assertEquals(ErrorMessage.USER_CONTEXT_NOT_FOUND, registry.getUserContextNotFoundReason("other-key", "a"));
+    }
+
+    @Test
+    public void servesCachedDecisionsOfSameCall() {
+        UserContextStore store = decisionCachingStore(null);
+        String cacheKey = store.getDecisionCacheKey(DECIDE_KEYS, NO_EVENT);
+
+        assertNull(store.getDecisions("a", cacheKey, "1"));
+        store.putDecisions("a", cacheKey, decisions, store.getDecisionGeneration());
+
+        assertEquals(decisions, store.getDecisions("a", cacheKey, "1"));
+        assertNull(store.getDecisions("b", cacheKey, "1"));
+        assertEquals(1L, store.getStats().get(UserContextStatsKey.DECISION_CACHE_HITS));
+        assertEquals(2L, store.getStats().get(UserContextStatsKey.DECISION_CACHE_MISSES));
+    }
+
+    @Test
+    public void dropsCachedDecisionsAfterSetAttributes() {
+        UserContextStore store = decisionCachingStore(null);
+        String cacheKey = cacheDecisions(store, "1");
+
+        // What the client does on setAttributes
+        store.invalidateDecisions("a");
+
+        assertNull(store.getDecisions("a", cacheKey, "1"));
+    }
+
+    @Test
+    public void dropsCachedDecisionsAfterForcedDecisionChanges() {
+        UserContextStore store = decisionCachingStore(null);
+        String cacheKey = cacheDecisions(store, "1");
+
+        // What the client does on setForcedDecision, removeForcedDecision and removeAllForcedDecisions
+        store.invalidateDecisions("a");
+        assertNull(store.getDecisions("a", cacheKey, "1"));
+
+        cacheDecisions(store, "1");
+        store.invalidateDecisions("a");
+        assertNull(store.getDecisions("a", cacheKey, "1"));
+    }
+
+    @Test
+    public void doesNotCacheDecisionsMadeBeforeInvalidation() {
+        UserContextStore store = decisionCachingStore(null);
+        String cacheKey = store.getDecisionCacheKey(DECIDE_KEYS, NO_EVENT);
+        store.getDecisions("a", cacheKey, "1");
+        long generation = store.getDecisionGeneration();
+
+        // Attributes changed while the decision was being made
+        store.invalidateDecisions("a");
+        store.putDecisions("a", cacheKey, decisions, generation);
+
+        assertNull(store.getDecisions("a", cacheKey, "1"));
+    }
+
+    @Test
+    public void dropsAllCachedDecisionsOnConfigRevisionChange() {
+        UserContextStore store = decisionCachingStore(null);
+        String cacheKey = cacheDecisions(store, "1");
+        store.put("b", userContext);
+        store.putDecisions("b", cacheKey, decisions, store.getDecisionGeneration());
+
+        assertNull(store.getDecisions("a", cacheKey, "2"));
+        assertNull(store.getDecisions("b", cacheKey, "2"));
+        // Going back to the old revision does not bring them back either
+        assertNull(store.getDecisions("a", cacheKey, "1"));
+    }
+
+    @Test
+    public void doesNotCacheCallsSendingImpressions() {
+        assertNull(decisionCachingStore(null).getDecisionCacheKey(DECIDE_KEYS, null));
+        assertNull(decisionCachingStore(null).getDecisionCacheKey(DECIDE_KEYS,
+                Collections.singletonList(OptimizelyDecideOption.INCLUDE_REASONS)));
+        assertNull(store(0, 0).getDecisionCacheKey(DECIDE_KEYS, NO_EVENT));
+        assertNotNull(decisionCachingStore(NO_EVENT).getDecisionCacheKey(DECIDE_KEYS, null));
+    }
+
+    @Test
+    public void doesNotCacheCallsWithCmabCacheOptions() {
+        UserContextStore store = decisionCachingStore(NO_EVENT);
+
+        assertNull(store.getDecisionCacheKey(DECIDE_KEYS, Collections.singletonList(OptimizelyDecideOption.IGNORE_CMAB_CACHE)));
+        assertNull(store.getDecisionCacheKey(DECIDE_KEYS, Collections.singletonList(OptimizelyDecideOption.RESET_CMAB_CACHE)));
+        assertNull(store.getDecisionCacheKey(DECIDE_KEYS,
+                Collections.singletonList(OptimizelyDecideOption.INVALIDATE_USER_CMAB_CACHE)));
+    }
+
+    @Test
+    public void keysCacheByDecideKeyOrderAndOptionSet() {
+        UserContextStore store = decisionCachingStore(null);
+        List<OptimizelyDecideOption> options = Arrays.asList(
+                OptimizelyDecideOption.INCLUDE_REASONS, OptimizelyDecideOption.DISABLE_DECISION_EVENT);
+        List<OptimizelyDecideOption> reordered = Arrays.asList(
+                OptimizelyDecideOption.DISABLE_DECISION_EVENT, OptimizelyDecideOption.INCLUDE_REASONS);
+
+        assertEquals(store.getDecisionCacheKey(DECIDE_KEYS, options), store.getDecisionCacheKey(DECIDE_KEYS, reordered));
+        assertFalse(store.getDecisionCacheKey(DECIDE_KEYS, NO_EVENT).equals(
+                store.getDecisionCacheKey(Arrays.asList("flag-2", "flag-1"), NO_EVENT)));
+        assertFalse(store.getDecisionCacheKey(DECIDE_KEYS, NO_EVENT).equals(store.getDecisionCacheKey(DECIDE_KEYS, options)));
+    }
+
+    private UserContextStore decisionCachingStore(List<OptimizelyDecideOption> defaultDecideOptions) {
+        UserContextStore store = new UserContextStore(0, 0, true, defaultDecideOptions);
+        store.put("a", userContext);
+        return store;
+    }
+
+    // Caches decisions of "a" made at the config revision and returns their cache key
+    private String cacheDecisions(UserContextStore store, String revision) {
+        String cacheKey = store.getDecisionCacheKey(DECIDE_KEYS, NO_EVENT);
+        store.getDecisions("a", cacheKey, revision);
+        store.putDecisions("a", cacheKey, decisions, store.getDecisionGeneration());
+        assertEquals(decisions, store.getDecisions("a", cacheKey, revision));
+        return cacheKey;
+    }
+}
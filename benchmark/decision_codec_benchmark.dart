@@ -0,0 +1,94 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+
+// Compares the decideAll payload of 500 flags encoded as keyed maps (the former
+// Jackson convertValue output) against the tagged decision encoding of
+// OptimizelyMessageCodec.
+//
+// Run with: flutter test benchmark/decision_codec_benchmark.dart
+
+import 'package:flutter/services.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/decide_response.dart';
+import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+import 'package:optimizely_flutter_sdk/src/utils/optimizely_message_codec.dart';
+
+const int flagCount = 500;
+const int warmupIterations = 50;
+const int iterations = 200;
+
+Map<String, dynamic> keyedDecision(int i) => {
+      Constants.variationKey: "variation_$i",
+      Constants.enabled: i.isEven,
+      Constants.variables: {
+        "bool_var": true,
+        "str_var": "hello",
+        "int_var": i,
+        "double_var": 5.5
+      },
+      Constants.ruleKey: "rule_$i",
+      Constants.flagKey: "flag_$i",
+      Constants.userContext: {
+        Constants.userId: "user_1",
+        Constants.attributes: {"country": "us", "age": 32}
+      },
+      Constants.reasons: <String>[],
+    };
+
+Map<String, dynamic> response(Object? Function(int) decision) => {
+      Constants.responseSuccess: true,
+      Constants.responseResult: {
+        for (var i = 0; i < flagCount; i++) "flag_$i": decision(i)
+      },
+      Constants.responseReason: "",
+    };
+
+int decodeMicros(MessageCodec<Object?> codec, ByteData message) {
+  for (var i = 0; i < warmupIterations; i++) {
+    DecideForKeysResponse(
+        Map<String, dynamic>.from(codec.decodeMessage(message) as Map));
+  }
+  final stopwatch = Stopwatch()..start();
+  for (var i = 0; i < iterations; i++) {
+    DecideForKeysResponse(
+        Map<String, dynamic>.from(codec.decodeMessage(message) as Map));
+  }
+  return stopwatch.elapsedMicroseconds ~/ iterations;
+}
+
+void main() {
+  test("decideAll of $flagCount flags", () {
+    const keyedCodec = StandardMessageCodec();
+    const taggedCodec = OptimizelyMessageCodec();
+
+    final keyed = keyedCodec.encodeMessage(response(keyedDecision))!;
+    final tagged = taggedCodec.encodeMessage(
+        response((i) => Decision(keyedDecision(i))))!;
+
+    // Native side allocations per decision before the codec change:
+    // OptimizelyDecisionResponse, OptimizelyUserContextResponse, and the
+    // LinkedHashMaps Jackson builds for both. The tagged encoding writes
+    // straight from OptimizelyDecision.
+    // ignore: avoid_print
+    print("keyed maps:  ${keyed.lengthInBytes} bytes, "
+        "${decodeMicros(keyedCodec, keyed)} us/decode");
+    // ignore: avoid_print
+    print("tagged:      ${tagged.lengthInBytes} bytes, "
+        "${decodeMicros(taggedCodec, tagged)} us/decode");
+
+    expect(tagged.lengthInBytes, lessThan(keyed.lengthInBytes));
+  });
+}
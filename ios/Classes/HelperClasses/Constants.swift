@@ -47,6 +47,16 @@ struct API {
     static let setQualifiedSegments = "setQualifiedSegments"
     static let isQualifiedFor = "isQualifiedFor"
     static let fetchQualifiedSegments = "fetchQualifiedSegments"
+    
+    // Batch
+    static let executeBatch = "executeBatch"
+    
+    // User context store
+    static let getUserContextStats = "getUserContextStats"
+    static let getNotificationStats = "getNotificationStats"
+    static let getMetrics = "getMetrics"
+    static let releaseUserContext = "releaseUserContext"
+    static let releaseUserContexts = "releaseUserContexts"
 }
 
 struct NotificationType {
@@ -55,6 +65,8 @@ struct NotificationType {
     static let decision = "decision"
     static let logEvent = "logEvent"
     static let projectConfigUpdate = "projectConfigUpdate"
+    // Carries several notifications of the types above in one channel call
+    static let batch = "notificationBatch"
 }
 
 struct DecideOption {
@@ -79,8 +91,11 @@ struct RequestParameterKey {
     static let userContextId = "userContextId"
     static let notificationId = "id"
     static let notificationType = "type"
+    static let rawPayload = "rawPayload"
+    static let resetMetrics = "resetMetrics"
     static let callbackIds = "callbackIds"
     static let notificationPayload = "payload"
+    static let notifications = "notifications"
     static let attributes = "attributes"
     static let decideKeys = "keys"
     static let variationKey = "variationKey"
@@ -101,6 +116,7 @@ struct RequestParameterKey {
     static let datafilePeriodicDownloadInterval = "datafilePeriodicDownloadInterval"
     static let datafileHostPrefix = "datafileHostPrefix"
     static let datafileHostSuffix = "datafileHostSuffix"
+    static let datafile = "datafile"
     
     // ODP
     static let vuid = "vuid"
@@ -119,8 +135,24 @@ struct RequestParameterKey {
     static let timeoutForOdpEventInSecs = "timeoutForOdpEventInSecs"
     static let disableOdp = "disableOdp"
     static let enableVuid = "enableVuid"
+    static let userContextCacheSize = "userContextCacheSize"
+    static let userContextCacheTimeoutInSecs = "userContextCacheTimeoutInSecs"
+    static let enableDecisionCache = "enableDecisionCache"
+    static let notificationBatchIntervalInMillis = "notificationBatchIntervalInMillis"
+    static let notificationQueueSize = "notificationQueueSize"
+    static let notificationOverflowPolicy = "notificationOverflowPolicy"
+    static let enableWarmStart = "enableWarmStart"
     static let sdkVersion = "sdkVersion"
 
+    // Batch
+    static let operations = "operations"
+    static let method = "method"
+    static let arguments = "arguments"
+    static let userContextRef = "userContextRef"
+
+    // User context store
+    static let userContextIds = "userContextIds"
+
     // CMAB Config
     static let cmabConfig = "cmabConfig"
     static let cmabCacheSize = "cmabCacheSize"
@@ -128,11 +160,50 @@ struct RequestParameterKey {
     static let cmabPredictionEndpoint = "cmabPredictionEndpoint"
 }
 
+struct UserContextStatsKey {
+    static let size = "size"
+    static let capacityEvictions = "capacityEvictions"
+    static let timeoutEvictions = "timeoutEvictions"
+    static let decisionCacheHits = "decisionCacheHits"
+    static let decisionCacheMisses = "decisionCacheMisses"
+}
+
+struct NotificationStatsKey {
+    static let droppedNotifications = "droppedNotifications"
+}
+
+struct MetricsKey {
+    static let calls = "calls"
+    static let notifications = "notifications"
+    static let logs = "logs"
+    static let count = "count"
+    static let errors = "errors"
+    static let dropped = "dropped"
+    static let parse = "parse"
+    static let execute = "execute"
+    static let reply = "reply"
+    static let serialize = "serialize"
+    static let delay = "delay"
+    static let send = "send"
+    static let p50 = "p50"
+    static let p95 = "p95"
+    static let p99 = "p99"
+    static let max = "max"
+}
+
 struct ResponseKey {
     static let success = "success"
     static let result = "result"
     static let reason = "reason"
     static let variationKey = "variationKey"
+    static let datafileSource = "datafileSource"
+}
+
+// Datafile an initialized client started from
+struct DatafileSource {
+    static let cached = "cached"
+    static let fresh = "fresh"
+    static let bundled = "bundled"
 }
 
 struct ErrorMessage {
@@ -140,7 +211,9 @@ struct ErrorMessage {
     static let optimizelyConfigNotFound = "No optimizely config found."
     static let optlyClientNotFound = "Optimizely client not found."
     static let userContextNotFound = "User context not found."
+    static let userContextEvicted = "User context was evicted, create a new one."
     static let qualifiedSegmentsNotFound = "Qualified Segments not found."
+    static let operationNotSupportedInBatch = "Operation not supported in batch."
 }
 
 //Sohail: There is one issue, can we make sure the types remain same, probably we will need to write unit test separately for type.
@@ -0,0 +1,212 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    http://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+
+
+import Foundation
+
+/// Delivers SDK notifications to Dart in batches.
+///
+/// Notifications raised by the SDK are buffered per SDK key, and each buffer is flushed to Dart as a
+/// single `notificationBatchCallbackListener` call, so a burst of notifications (e.g. a decision
+/// listener during decideAll) costs one main queue dispatch and one channel message instead of one each.
+///
+/// A buffer is flushed on the next main run loop pass, or after the batch interval of its SDK key
+/// when one is set. Notifications keep the order they were raised in.
+///
+/// Each notification type of an SDK key holds at most `queueSize` notifications until the next
+/// flush. When a burst exceeds that, the `OverflowPolicy` decides which ones are dropped, and the
+/// drops are counted per type.
+class NotificationDispatcher {
+    static let defaultBatchIntervalInMillis = 0
+    static let defaultQueueSize = 1000
+    
+    /// Decides which notification is dropped when the queue of a type is full
+    enum OverflowPolicy: String {
+        // Drops the oldest queued notification to make room
+        case dropOldest
+        // Drops the new notification
+        case dropNewest
+        // Keeps a uniform random sample of all notifications raised since the last flush
+        case sample
+    }
+    
+    private typealias Notification = (sequence: Int, map: [String: Any])
+    
+    /// Fixed size ring of the queued notifications of one type
+    private class Ring {
+        var slots: [Notification?]
+        var head = 0
+        var size = 0
+        // Notifications offered since the last drain
+        var offered = 0
+        var dropped = 0
+        
+        init(capacity: Int) {
+            slots = [Notification?](repeating: nil, count: capacity)
+        }
+        
+        func offer(_ notification: Notification, policy: OverflowPolicy) {
+            offered += 1
+            if size < slots.count {
+                slots[(head + size) % slots.count] = notification
+                size += 1
+                return
+            }
+            dropped += 1
+            switch policy {
+            case .dropNewest:
+                break
+            case .sample:
+                // Reservoir sampling, the drain restores the order
+                let index = Int.random(in: 0..<offered)
+                if index < slots.count {
+                    slots[index] = notification
+                }
+            case .dropOldest:
+                slots[head] = notification
+                head = (head + 1) % slots.count
+            }
+        }
+        
+        func drain(into notifications: inout [Notification]) {
+            for i in 0..<size {
+                let index = (head + i) % slots.count
+                if let notification = slots[index] {
+                    notifications.append(notification)
+                }
+                slots[index] = nil
+            }
+            head = 0
+            size = 0
+            offered = 0
+        }
+    }
+    
+    private class Batch {
+        var intervalInMillis = NotificationDispatcher.defaultBatchIntervalInMillis
+        var queueSize = NotificationDispatcher.defaultQueueSize
+        var overflowPolicy = OverflowPolicy.dropOldest
+        var rings = [String: Ring]()
+        var sequence = 0
+        var scheduled = false
+        // When the first notification since the last flush was queued
+        var scheduledNanos: UInt64 = 0
+    }
+    
+    // Sends a batch to Dart, called on the main queue
+    private let send: (String, Any) -> Void
+    private var batches = [String: Batch]()
+    private let lock = NSLock()
+    
+    init(send: @escaping (String, Any) -> Void) {
+        self.send = send
+    }
+    
+    /// Configures the buffering of notifications of the SDK key. An interval of zero flushes them on the next main run loop pass.
+    /// Queues already holding notifications keep their size until the next flush
+    func configure(sdkKey: String, intervalInMillis: Int, queueSize: Int, overflowPolicy: OverflowPolicy) {
+        lock.lock()
+        defer { lock.unlock() }
+        let batch = getOrCreateBatch(sdkKey)
+        batch.intervalInMillis = max(intervalInMillis, 0)
+        batch.queueSize = max(queueSize, 1)
+        batch.overflowPolicy = overflowPolicy
+    }
+    
+    /// Buffers a notification for the listener with the given id. May be called from any thread
+    func dispatch(sdkKey: String, id: Int, type: String, payload: [String: Any]) {
+        let notification: [String: Any] = [
+            RequestParameterKey.notificationId: id,
+            RequestParameterKey.notificationType: type,
+            RequestParameterKey.notificationPayload: payload
+        ]
+        
+        lock.lock()
+        let batch = getOrCreateBatch(sdkKey)
+        var ring = batch.rings[type]
+        if ring == nil || (ring!.size == 0 && ring!.slots.count != batch.queueSize) {
+            let resized = Ring(capacity: batch.queueSize)
+            resized.dropped = ring?.dropped ?? 0
+            batch.rings[type] = resized
+            ring = resized
+        }
+        ring?.offer((batch.sequence, notification), policy: batch.overflowPolicy)
+        batch.sequence += 1
+        let shouldSchedule = !batch.scheduled
+        batch.scheduled = true
+        if shouldSchedule {
+            batch.scheduledNanos = PluginMetrics.now()
+        }
+        let intervalInMillis = batch.intervalInMillis
+        lock.unlock()
+        
+        guard shouldSchedule else {
+            return
+        }
+        if intervalInMillis > 0 {
+            DispatchQueue.main.asyncAfter(deadline: .now() + .milliseconds(intervalInMillis)) { [weak self] in
+                self?.flush(sdkKey: sdkKey)
+            }
+        } else {
+            DispatchQueue.main.async { [weak self] in
+                self?.flush(sdkKey: sdkKey)
+            }
+        }
+    }
+    
+    /// Returns the number of dropped notifications of the SDK key by notification type
+    func droppedCounts(sdkKey: String) -> [String: Int] {
+        lock.lock()
+        defer { lock.unlock() }
+        return batches[sdkKey]?.rings.mapValues { $0.dropped } ?? [:]
+    }
+    
+    private func flush(sdkKey: String) {
+        var drained = [Notification]()
+        lock.lock()
+        guard let batch = batches[sdkKey] else {
+            lock.unlock()
+            return
+        }
+        for ring in batch.rings.values {
+            ring.drain(into: &drained)
+        }
+        batch.scheduled = false
+        let scheduledNanos = batch.scheduledNanos
+        lock.unlock()
+        
+        guard !drained.isEmpty else {
+            return
+        }
+        // Restores the order across types
+        let notifications = drained.sorted { $0.sequence < $1.sequence }.map { $0.map }
+        let sendNanos = PluginMetrics.now()
+        send("\(NotificationType.batch)CallbackListener", [
+            RequestParameterKey.sdkKey: sdkKey,
+            RequestParameterKey.notifications: notifications
+        ])
+        PluginMetrics.shared.recordNotifications(count: notifications.count, delayNanos: sendNanos - scheduledNanos, sendNanos: PluginMetrics.now() - sendNanos)
+    }
+    
+    private func getOrCreateBatch(_ sdkKey: String) -> Batch {
+        if let batch = batches[sdkKey] {
+            return batch
+        }
+        let batch = Batch()
+        batches[sdkKey] = batch
+        return batch
+    }
+}
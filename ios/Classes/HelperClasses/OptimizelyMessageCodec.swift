@@ -0,0 +1,93 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    http://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+
+import Flutter
+
+/// Reads the method call arguments Dart sends as (field, value) pairs back into the dictionaries
+/// the handlers read.
+///
+/// Fields are numbered by their position in `requestFields`. The table must be kept in sync with
+/// lib/src/utils/request_fields.dart and RequestArguments.java on Android. Fields may only be appended.
+class OptimizelyMessageReader: FlutterStandardReader {
+    // Custom type tag of method call arguments in OptimizelyMessageCodec on the Dart side
+    static let requestTag: UInt8 = 129
+
+    static let requestFields: [String] = [
+        RequestParameterKey.sdkKey,
+        RequestParameterKey.sdkVersion,
+        RequestParameterKey.userId,
+        RequestParameterKey.userContextId,
+        RequestParameterKey.userContextIds,
+        RequestParameterKey.notificationId,
+        RequestParameterKey.notificationType,
+        RequestParameterKey.rawPayload,
+        RequestParameterKey.resetMetrics,
+        RequestParameterKey.callbackIds,
+        RequestParameterKey.attributes,
+        RequestParameterKey.eventKey,
+        RequestParameterKey.eventTags,
+        RequestParameterKey.decideKeys,
+        RequestParameterKey.decideOptions,
+        RequestParameterKey.defaultLogLevel,
+        RequestParameterKey.flagKey,
+        RequestParameterKey.ruleKey,
+        RequestParameterKey.variationKey,
+        RequestParameterKey.experimentKey,
+        RequestParameterKey.eventBatchSize,
+        RequestParameterKey.eventTimeInterval,
+        RequestParameterKey.eventMaxQueueSize,
+        RequestParameterKey.datafilePeriodicDownloadInterval,
+        RequestParameterKey.datafileHostPrefix,
+        RequestParameterKey.datafileHostSuffix,
+        RequestParameterKey.qualifiedSegments,
+        RequestParameterKey.segment,
+        RequestParameterKey.action,
+        RequestParameterKey.identifiers,
+        RequestParameterKey.data,
+        RequestParameterKey.optimizelySegmentOption,
+        RequestParameterKey.optimizelySdkSettings,
+        RequestParameterKey.operations,
+        RequestParameterKey.cmabConfig,
+        RequestParameterKey.datafile
+    ]
+
+    override func readValue(ofType type: UInt8) -> Any? {
+        guard type == Self.requestTag else {
+            return super.readValue(ofType: type)
+        }
+        let size = Int(readSize())
+        var arguments = [String: Any](minimumCapacity: size)
+        for _ in 0..<size {
+            let field = Int(readByte())
+            let value = readValue()
+            // Fields unknown to this version are skipped like unknown dictionary keys
+            if field < Self.requestFields.count, let value = value {
+                arguments[Self.requestFields[field]] = value
+            }
+        }
+        return arguments
+    }
+}
+
+/// Codec reader/writer of the plugin method channel.
+///
+/// Only reading differs from the standard codec. Decisions and responses are still sent to Dart as
+/// dictionaries, which the Dart codec accepts as well.
+class OptimizelyMessageReaderWriter: FlutterStandardReaderWriter {
+    override func reader(with data: Data) -> FlutterStandardReader {
+        return OptimizelyMessageReader(data: data)
+    }
+}
@@ -0,0 +1,187 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    http://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+
+
+import Foundation
+
+/// Call counts and latency histograms of the plugin.
+///
+/// Every method call records the time spent reading its arguments, running the handler until it
+/// replies, waiting for the main queue, and inside the reply, which is where the codec serializes the
+/// response. Notification and log forwarding record how long entries waited for the main queue and
+/// how long sending them took.
+///
+/// Latencies are kept in log-linear histograms of microseconds with four buckets per power of two,
+/// so reported percentiles are the upper bound of their bucket and at most 25% above the actual value.
+class PluginMetrics {
+    static let shared = PluginMetrics()
+    
+    private static let callPhases = [MetricsKey.parse, MetricsKey.execute, MetricsKey.reply, MetricsKey.serialize]
+    private static let forwardingPhases = [MetricsKey.delay, MetricsKey.send]
+    
+    /// Log-linear histogram of microsecond values
+    struct Histogram {
+        // Values below 4 get a bucket each, then four buckets per power of two up to 2^40
+        private static let subBuckets = 4
+        private static let bucketCount = subBuckets + (40 - 2) * subBuckets
+        
+        private var buckets = [Int](repeating: 0, count: Histogram.bucketCount)
+        private var count = 0
+        private var max = 0
+        
+        mutating func record(_ micros: Int) {
+            let value = Swift.max(micros, 0)
+            buckets[Swift.min(Histogram.bucketIndex(value), Histogram.bucketCount - 1)] += 1
+            count += 1
+            max = Swift.max(max, value)
+        }
+        
+        static func bucketIndex(_ value: Int) -> Int {
+            if value < subBuckets {
+                return value
+            }
+            let exponent = 63 - value.leadingZeroBitCount
+            let subBucket = (value >> (exponent - 2)) & (subBuckets - 1)
+            return subBuckets + (exponent - 2) * subBuckets + subBucket
+        }
+        
+        // Largest value falling into the bucket
+        static func bucketUpperBound(_ index: Int) -> Int {
+            if index < subBuckets {
+                return index
+            }
+            let exponent = (index - subBuckets) / subBuckets + 2
+            let subBucket = (index - subBuckets) % subBuckets
+            return ((subBuckets + subBucket + 1) << (exponent - 2)) - 1
+        }
+        
+        func percentile(_ percentile: Double) -> Int {
+            guard count > 0 else {
+                return 0
+            }
+            let rank = Int((percentile * Double(count)).rounded(.up))
+            var seen = 0
+            for (index, bucket) in buckets.enumerated() {
+                seen += bucket
+                if seen >= rank {
+                    return Swift.min(Histogram.bucketUpperBound(index), max)
+                }
+            }
+            return max
+        }
+        
+        func toDictionary() -> [String: Any] {
+            return [
+                MetricsKey.p50: percentile(0.5),
+                MetricsKey.p95: percentile(0.95),
+                MetricsKey.p99: percentile(0.99),
+                MetricsKey.max: max
+            ]
+        }
+    }
+    
+    /// Counters and one histogram per phase of a single operation
+    private struct Metric {
+        let phases: [String]
+        var histograms: [Histogram]
+        var count = 0
+        var errors = 0
+        var dropped = 0
+        
+        init(phases: [String]) {
+            self.phases = phases
+            self.histograms = [Histogram](repeating: Histogram(), count: phases.count)
+        }
+        
+        func toDictionary() -> [String: Any] {
+            var dictionary: [String: Any] = [
+                MetricsKey.count: count,
+                MetricsKey.errors: errors,
+                MetricsKey.dropped: dropped
+            ]
+            for (index, phase) in phases.enumerated() {
+                dictionary[phase] = histograms[index].toDictionary()
+            }
+            return dictionary
+        }
+    }
+    
+    private let lock = NSLock()
+    private var calls = [String: Metric]()
+    private var notifications = Metric(phases: PluginMetrics.forwardingPhases)
+    private var logs = Metric(phases: PluginMetrics.forwardingPhases)
+    
+    /// Monotonic timestamp passed back to the record functions
+    static func now() -> UInt64 {
+        return DispatchTime.now().uptimeNanoseconds
+    }
+    
+    /// Records a method call. Phases that did not happen are passed as zero.
+    func recordCall(method: String, error: Bool, parseNanos: UInt64, executeNanos: UInt64, replyNanos: UInt64, serializeNanos: UInt64) {
+        lock.lock()
+        defer { lock.unlock() }
+        var metric = calls[method] ?? Metric(phases: PluginMetrics.callPhases)
+        metric.count += 1
+        if error {
+            metric.errors += 1
+        }
+        for (index, nanos) in [parseNanos, executeNanos, replyNanos, serializeNanos].enumerated() {
+            metric.histograms[index].record(Int(nanos / 1000))
+        }
+        calls[method] = metric
+    }
+    
+    /// Records a batch of notifications sent to Dart
+    func recordNotifications(count: Int, delayNanos: UInt64, sendNanos: UInt64) {
+        lock.lock()
+        defer { lock.unlock() }
+        PluginMetrics.recordForwarding(&notifications, count: count, dropped: 0, delayNanos: delayNanos, sendNanos: sendNanos)
+    }
+    
+    /// Records log lines sent to Dart
+    func recordLogs(count: Int, delayNanos: UInt64, sendNanos: UInt64) {
+        lock.lock()
+        defer { lock.unlock() }
+        PluginMetrics.recordForwarding(&logs, count: count, dropped: 0, delayNanos: delayNanos, sendNanos: sendNanos)
+    }
+    
+    /// Returns all metrics, with latencies in microseconds
+    func snapshot() -> [String: Any] {
+        lock.lock()
+        defer { lock.unlock() }
+        return [
+            MetricsKey.calls: calls.mapValues { $0.toDictionary() },
+            MetricsKey.notifications: notifications.toDictionary(),
+            MetricsKey.logs: logs.toDictionary()
+        ]
+    }
+    
+    /// Clears all metrics, e.g. after they were reported
+    func reset() {
+        lock.lock()
+        defer { lock.unlock() }
+        calls.removeAll()
+        notifications = Metric(phases: PluginMetrics.forwardingPhases)
+        logs = Metric(phases: PluginMetrics.forwardingPhases)
+    }
+    
+    private static func recordForwarding(_ metric: inout Metric, count: Int, dropped: Int, delayNanos: UInt64, sendNanos: UInt64) {
+        metric.count += count
+        metric.dropped += dropped
+        metric.histograms[0].record(Int(delayNanos / 1000))
+        metric.histograms[1].record(Int(sendNanos / 1000))
+    }
+}
@@ -0,0 +1,161 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    http://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+
+import Foundation
+import Optimizely
+
+/// Per-SDK-key state of the plugin: the started client, the user contexts created for it
+/// and the ids of its notification listeners.
+///
+/// SDK callbacks (e.g. client start completion) update this state from their own threads,
+/// so every access goes through a lock. All state of an SDK key lives in one entry, so a
+/// lookup resolves the key once and resetting a key is a single removal.
+class SdkKeyRegistry {
+    /// State owned by a single SDK key.
+    class Entry {
+        fileprivate(set) var optimizelyClient: OptimizelyClient?
+        fileprivate let userContexts: UserContextStore
+        fileprivate var notificationIds = [Int: Int]()
+        
+        init(userContexts: UserContextStore = UserContextStore()) {
+            self.userContexts = userContexts
+        }
+    }
+    
+    private var entries = [String: Entry]()
+    private let lock = NSLock()
+    
+    private func synchronized<T>(_ body: () -> T) -> T {
+        lock.lock()
+        defer { lock.unlock() }
+        return body()
+    }
+    
+    private func getOrCreateEntry(_ sdkKey: String) -> Entry {
+        if let entry = entries[sdkKey] {
+            return entry
+        }
+        let entry = Entry()
+        entries[sdkKey] = entry
+        return entry
+    }
+    
+    /// Replaces all state of the SDK key with an empty entry using the given user context store and returns the previous state
+    @discardableResult
+    func reset(sdkKey: String, userContexts: UserContextStore) -> Entry? {
+        return synchronized {
+            let previous = entries[sdkKey]
+            entries[sdkKey] = Entry(userContexts: userContexts)
+            return previous
+        }
+    }
+    
+    /// Drops all state of the SDK key and returns it
+    @discardableResult
+    func remove(sdkKey: String) -> Entry? {
+        return synchronized { entries.removeValue(forKey: sdkKey) }
+    }
+    
+    func setOptimizelyClient(_ optimizelyClient: OptimizelyClient, sdkKey: String) {
+        synchronized { getOrCreateEntry(sdkKey).optimizelyClient = optimizelyClient }
+    }
+    
+    func optimizelyClient(sdkKey: String) -> OptimizelyClient? {
+        return synchronized { entries[sdkKey]?.optimizelyClient }
+    }
+    
+    func setUserContext(_ userContext: OptimizelyUserContext, userContextId: String, sdkKey: String) {
+        synchronized { getOrCreateEntry(sdkKey).userContexts.put(userContext, userContextId: userContextId) }
+    }
+    
+    func userContext(userContextId: String, sdkKey: String) -> OptimizelyUserContext? {
+        return synchronized { entries[sdkKey]?.userContexts.get(userContextId) }
+    }
+    
+    /// Removes the user contexts from the store of the SDK key and returns how many were removed
+    @discardableResult
+    func removeUserContexts(userContextIds: [String], sdkKey: String) -> Int {
+        return synchronized {
+            guard let userContexts = entries[sdkKey]?.userContexts else {
+                return 0
+            }
+            return userContextIds.filter { userContexts.remove($0) }.count
+        }
+    }
+    
+    /// Returns true if the user context was evicted from the store of the SDK key
+    func wasUserContextEvicted(userContextId: String, sdkKey: String) -> Bool {
+        return synchronized { entries[sdkKey]?.userContexts.wasEvicted(userContextId) ?? false }
+    }
+    
+    func isDecisionCacheEnabled(sdkKey: String) -> Bool {
+        return synchronized { entries[sdkKey]?.userContexts.decisionCacheEnabled ?? false }
+    }
+    
+    /// Returns the decision cache key of a decide call, or nil if the SDK key does not cache its result
+    func decisionCacheKey(decideKeys: [String]?, decideOptions: [String]?, sdkKey: String) -> String? {
+        return synchronized { entries[sdkKey]?.userContexts.decisionCacheKey(decideKeys: decideKeys, decideOptions: decideOptions) }
+    }
+    
+    /// Returns the cached decisions of a user context along with the generation to cache new decisions with
+    func decisions(userContextId: String, cacheKey: String, sdkKey: String) -> (decisions: [String: Any]?, generation: Int) {
+        return synchronized {
+            guard let userContexts = entries[sdkKey]?.userContexts else {
+                return (nil, 0)
+            }
+            let decisions = userContexts.decisions(userContextId: userContextId, cacheKey: cacheKey)
+            return (decisions, userContexts.decisionGeneration)
+        }
+    }
+    
+    func putDecisions(_ decisions: [String: Any], userContextId: String, cacheKey: String, generation: Int, sdkKey: String) {
+        synchronized { entries[sdkKey]?.userContexts.putDecisions(decisions, userContextId: userContextId, cacheKey: cacheKey, generation: generation) }
+    }
+    
+    /// Drops the cached decisions of a user context after it was mutated
+    func invalidateDecisions(userContextId: String, sdkKey: String) {
+        synchronized { entries[sdkKey]?.userContexts.invalidateDecisions(userContextId: userContextId) }
+    }
+    
+    /// Drops the cached decisions of all user contexts of the SDK key
+    func invalidateAllDecisions(sdkKey: String) {
+        synchronized { entries[sdkKey]?.userContexts.invalidateAllDecisions() }
+    }
+    
+    /// Returns the number of live user contexts, the eviction counts and the decision cache counts of the SDK key
+    func userContextStats(sdkKey: String) -> [String: Any]? {
+        return synchronized {
+            guard let userContexts = entries[sdkKey]?.userContexts else {
+                return nil
+            }
+            return [
+                UserContextStatsKey.size: userContexts.count,
+                UserContextStatsKey.capacityEvictions: userContexts.capacityEvictions,
+                UserContextStatsKey.timeoutEvictions: userContexts.timeoutEvictions,
+                UserContextStatsKey.decisionCacheHits: userContexts.decisionCacheHits,
+                UserContextStatsKey.decisionCacheMisses: userContexts.decisionCacheMisses
+            ]
+        }
+    }
+    
+    func setNotificationId(_ notificationId: Int, callbackId: Int, sdkKey: String) {
+        synchronized { getOrCreateEntry(sdkKey).notificationIds[callbackId] = notificationId }
+    }
+    
+    func removeNotificationId(callbackId: Int, sdkKey: String) {
+        synchronized { _ = entries[sdkKey]?.notificationIds.removeValue(forKey: callbackId) }
+    }
+}
@@ -0,0 +1,237 @@
+/****************************************************************************
+ * Copyright 2024, Optimizely, Inc. and contributors                        *
+ *                                                                          *
+ * Licensed under the Apache License, Version 2.0 (the "License");          *
+ * you may not use this file except in compliance with the License.         *
+ * You may obtain a copy of the License at                                  *
+ *                                                                          *
+ *    http://www.apache.org/licenses/LICENSE-2.0                            *
+ *                                                                          *
+ * Unless required by applicable law or agreed to in writing, software      *
+ * distributed under the License is distributed on an "AS IS" BASIS,        *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+ * See the License for the specific language governing permissions and      *
+ * limitations under the License.                                           *
+ ***************************************************************************/
+
+import Foundation
+import Optimizely
+
+/// Bounded store of the user contexts created for a single SDK key.
+///
+/// Contexts are kept in least-recently-used order. Once the store holds more than `capacity`
+/// contexts the least recently used one is evicted, and contexts not used for longer than the idle
+/// timeout are evicted on the next access. A capacity or timeout of zero disables that policy.
+///
+/// Ids of recently evicted contexts are remembered, so a lookup of an evicted context can be told
+/// apart from one of an id that never existed.
+///
+/// When the decision cache is enabled, the results of synchronous decide calls are kept with their
+/// context, keyed by flag keys and decide options. Only calls that send no impression event are cached
+/// (disableDecisionEvent passed or set as a default option), so serving a cached result never skips
+/// an impression. Cache hits do not fire decision notifications. Callers must invalidate the cache of
+/// a context whenever its attributes, segments or forced decisions change, and the whole cache when
+/// the datafile changes.
+///
+/// Not thread-safe on its own, SdkKeyRegistry serializes access.
+class UserContextStore {
+    static let defaultCapacity = 10000
+    static let defaultIdleTimeoutInSecs = 0
+    
+    // Upper bound of remembered evicted ids
+    private static let maxEvictedIds = 1000
+    
+    private class Node {
+        let userContextId: String
+        let userContext: OptimizelyUserContext
+        var lastAccess: TimeInterval
+        // Created on the first cached decision
+        var decisions: [String: [String: Any]]?
+        var prev: Node?
+        var next: Node?
+        
+        init(userContextId: String, userContext: OptimizelyUserContext, lastAccess: TimeInterval) {
+            self.userContextId = userContextId
+            self.userContext = userContext
+            self.lastAccess = lastAccess
+        }
+    }
+    
+    private let capacity: Int
+    private let idleTimeout: TimeInterval
+    private var nodes = [String: Node]()
+    // Least recently used at head, most recently used at tail
+    private var head: Node?
+    private var tail: Node?
+    private var evictedIds = Set<String>()
+    private var evictedIdsOrder = [String]()
+    private(set) var capacityEvictions = 0
+    private(set) var timeoutEvictions = 0
+    
+    let decisionCacheEnabled: Bool
+    private let decisionEventDisabledByDefault: Bool
+    // Bumped on every invalidation, so decisions made before it are not cached after it
+    private(set) var decisionGeneration = 0
+    private(set) var decisionCacheHits = 0
+    private(set) var decisionCacheMisses = 0
+    
+    var count: Int {
+        return nodes.count
+    }
+    
+    init(capacity: Int = UserContextStore.defaultCapacity,
+         idleTimeoutInSecs: Int = UserContextStore.defaultIdleTimeoutInSecs,
+         decisionCacheEnabled: Bool = false,
+         defaultDecideOptions: [String]? = nil) {
+        self.capacity = max(capacity, 0)
+        self.idleTimeout = TimeInterval(max(idleTimeoutInSecs, 0))
+        self.decisionCacheEnabled = decisionCacheEnabled
+        self.decisionEventDisabledByDefault = defaultDecideOptions?.contains(DecideOption.disableDecisionEvent) ?? false
+    }
+    
+    func put(_ userContext: OptimizelyUserContext, userContextId: String) {
+        let now = ProcessInfo.processInfo.systemUptime
+        if let existing = nodes[userContextId] {
+            unlink(existing)
+        }
+        let node = Node(userContextId: userContextId, userContext: userContext, lastAccess: now)
+        nodes[userContextId] = node
+        append(node)
+        evictExpired(now: now)
+        while capacity > 0, nodes.count > capacity, let eldest = head {
+            evict(eldest)
+            capacityEvictions += 1
+        }
+    }
+    
+    func get(_ userContextId: String) -> OptimizelyUserContext? {
+        guard let node = nodes[userContextId] else {
+            return nil
+        }
+        let now = ProcessInfo.processInfo.systemUptime
+        if isExpired(node, now: now) {
+            evict(node)
+            timeoutEvictions += 1
+            return nil
+        }
+        node.lastAccess = now
+        unlink(node)
+        append(node)
+        return node.userContext
+    }
+    
+    /// Removes a context the caller no longer uses. Released ids are not reported as evicted
+    @discardableResult
+    func remove(_ userContextId: String) -> Bool {
+        guard let node = nodes.removeValue(forKey: userContextId) else {
+            return false
+        }
+        unlink(node)
+        return true
+    }
+    
+    /// Returns true if the id belonged to a context this store evicted
+    func wasEvicted(_ userContextId: String) -> Bool {
+        return evictedIds.contains(userContextId)
+    }
+    
+    /// Returns the decision cache key of a decide call, or nil if its result must not be cached.
+    /// An empty key list stands for decideAll
+    func decisionCacheKey(decideKeys: [String]?, decideOptions: [String]?) -> String? {
+        guard decisionCacheEnabled else {
+            return nil
+        }
+        let options = Set(decideOptions ?? [])
+        guard decisionEventDisabledByDefault || options.contains(DecideOption.disableDecisionEvent) else {
+            return nil
+        }
+        // CMAB cache options have side effects on every call
+        guard options.isDisjoint(with: [DecideOption.ignoreCmabCache, DecideOption.resetCmabCache, DecideOption.invalidateUserCmabCache]) else {
+            return nil
+        }
+        // Key order matters for decide with keys, while options are sorted
+        return (decideKeys ?? []).joined(separator: ",") + "|" + options.sorted().joined(separator: ",")
+    }
+    
+    /// Returns the cached decisions of the context for the cache key and counts the hit or miss
+    func decisions(userContextId: String, cacheKey: String) -> [String: Any]? {
+        guard let decisions = nodes[userContextId]?.decisions?[cacheKey] else {
+            decisionCacheMisses += 1
+            return nil
+        }
+        decisionCacheHits += 1
+        return decisions
+    }
+    
+    /// Caches decisions of the context made at the given generation.
+    /// Ignored if the cache was invalidated since, or the context is gone
+    func putDecisions(_ decisions: [String: Any], userContextId: String, cacheKey: String, generation: Int) {
+        guard let node = nodes[userContextId], generation == decisionGeneration else {
+            return
+        }
+        if node.decisions == nil {
+            node.decisions = [:]
+        }
+        node.decisions?[cacheKey] = decisions
+    }
+    
+    /// Drops the cached decisions of a context whose attributes, segments or forced decisions changed
+    func invalidateDecisions(userContextId: String) {
+        decisionGeneration += 1
+        nodes[userContextId]?.decisions = nil
+    }
+    
+    /// Drops the cached decisions of all contexts, e.g. after a datafile change
+    func invalidateAllDecisions() {
+        decisionGeneration += 1
+        for node in nodes.values {
+            node.decisions = nil
+        }
+    }
+    
+    private func isExpired(_ node: Node, now: TimeInterval) -> Bool {
+        return idleTimeout > 0 && now - node.lastAccess > idleTimeout
+    }
+    
+    // Nodes are in access order, so expired ones are at the head
+    private func evictExpired(now: TimeInterval) {
+        while let eldest = head, isExpired(eldest, now: now) {
+            evict(eldest)
+            timeoutEvictions += 1
+        }
+    }
+    
+    private func evict(_ node: Node) {
+        unlink(node)
+        nodes.removeValue(forKey: node.userContextId)
+        if evictedIds.insert(node.userContextId).inserted {
+            evictedIdsOrder.append(node.userContextId)
+        }
+        if evictedIdsOrder.count > UserContextStore.maxEvictedIds {
+            evictedIds.remove(evictedIdsOrder.removeFirst())
+        }
+    }
+    
+    private func append(_ node: Node) {
+        node.prev = tail
+        node.next = nil
+        tail?.next = node
+        tail = node
+        if head == nil {
+            head = node
+        }
+    }
+    
+    private func unlink(_ node: Node) {
+        node.prev?.next = node.next
+        node.next?.prev = node.prev
+        if head === node {
+            head = node.next
+        }
+        if tail === node {
+            tail = node.prev
+        }
+        node.prev = nil
+        node.next = nil
+    }
+}
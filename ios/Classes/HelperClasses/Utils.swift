@@ -14,6 +14,7 @@
  * limitations under the License.                                           *
  ***************************************************************************/
 
+import Flutter
 import Foundation
 import Optimizely
 
@@ -81,14 +82,18 @@ public class Utils: NSObject {
     }
     
     /// Returns callback required for LogEventListener
-    static func getLogEventCallback(id: Int, sdkKey: String) -> LogEventListener {
+    /// In raw mode the event is forwarded as UTF-8 JSON bytes under "body" instead of a dictionary under "params"
+    static func getLogEventCallback(id: Int, sdkKey: String, rawPayload: Bool = false) -> LogEventListener {
         
         let listener : LogEventListener = {(url, logEvent) in
-            let listenerDict : [String : Any] = [
-                "url"       : url,
-                "params"    : logEvent as Any
-            ]
-            SwiftOptimizelyFlutterSdkPlugin.channel.invokeMethod("\(NotificationType.logEvent)CallbackListener", arguments: [RequestParameterKey.sdkKey: sdkKey, RequestParameterKey.notificationId: id, RequestParameterKey.notificationType: NotificationType.logEvent, RequestParameterKey.notificationPayload: listenerDict])
+            var listenerDict : [String : Any] = ["url" : url]
+            let event = logEvent as Any
+            if rawPayload, JSONSerialization.isValidJSONObject(event), let body = try? JSONSerialization.data(withJSONObject: event) {
+                listenerDict["body"] = FlutterStandardTypedData(bytes: body)
+            } else {
+                listenerDict["params"] = event
+            }
+            SwiftOptimizelyFlutterSdkPlugin.notificationDispatcher.dispatch(sdkKey: sdkKey, id: id, type: NotificationType.logEvent, payload: listenerDict)
         }
         
         return listener
@@ -102,7 +107,7 @@ public class Utils: NSObject {
             if let datafileMap = try? JSONSerialization.jsonObject(with: datafile, options: []) as? [String: Any] {
                 listenerDict["datafile"] = datafileMap
             }
-            SwiftOptimizelyFlutterSdkPlugin.channel.invokeMethod("\(NotificationType.projectConfigUpdate)CallbackListener", arguments: [RequestParameterKey.sdkKey: sdkKey, RequestParameterKey.notificationId: id, RequestParameterKey.notificationType: NotificationType.projectConfigUpdate, RequestParameterKey.notificationPayload: listenerDict])
+            SwiftOptimizelyFlutterSdkPlugin.notificationDispatcher.dispatch(sdkKey: sdkKey, id: id, type: NotificationType.projectConfigUpdate, payload: listenerDict)
         }
         
         return listener
@@ -117,7 +122,7 @@ public class Utils: NSObject {
                 "attributes"   : attributes as Any,
                 "variation"    : variation
             ]
-            SwiftOptimizelyFlutterSdkPlugin.channel.invokeMethod("\(NotificationType.activate)CallbackListener", arguments: [RequestParameterKey.sdkKey: sdkKey, RequestParameterKey.notificationId: id, RequestParameterKey.notificationType: NotificationType.activate, RequestParameterKey.notificationPayload: listenerDict])
+            SwiftOptimizelyFlutterSdkPlugin.notificationDispatcher.dispatch(sdkKey: sdkKey, id: id, type: NotificationType.activate, payload: listenerDict)
         }
         return listener
     }
@@ -131,7 +136,7 @@ public class Utils: NSObject {
                 "attributes"  : attributes as Any,
                 "decisionInfo": decisionInfo
             ]
-            SwiftOptimizelyFlutterSdkPlugin.channel.invokeMethod("\(NotificationType.decision)CallbackListener", arguments: [RequestParameterKey.sdkKey: sdkKey, RequestParameterKey.notificationId: id, RequestParameterKey.notificationType: NotificationType.decision, RequestParameterKey.notificationPayload: listenerDict])
+            SwiftOptimizelyFlutterSdkPlugin.notificationDispatcher.dispatch(sdkKey: sdkKey, id: id, type: NotificationType.decision, payload: listenerDict)
         }
         return listener
     }
@@ -146,7 +151,7 @@ public class Utils: NSObject {
                 "userId"       : userId,
                 //                "event": event as Any, This is causing codec related exceptions on flutter side, need to debug
             ]
-            SwiftOptimizelyFlutterSdkPlugin.channel.invokeMethod("\(NotificationType.track)CallbackListener", arguments: [RequestParameterKey.sdkKey: sdkKey, RequestParameterKey.notificationId: id, RequestParameterKey.notificationType: NotificationType.track, RequestParameterKey.notificationPayload: listenerDict])
+            SwiftOptimizelyFlutterSdkPlugin.notificationDispatcher.dispatch(sdkKey: sdkKey, id: id, type: NotificationType.track, payload: listenerDict)
         }
         return listener
     }
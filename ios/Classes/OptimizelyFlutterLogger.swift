@@ -35,11 +35,14 @@ public class OptimizelyFlutterLogger: NSObject, OPTLogger {
         }
         
         // https://docs.flutter.dev/platform-integration/platform-channels#jumping-to-the-main-thread-in-ios
+        let queuedNanos = PluginMetrics.now()
         DispatchQueue.main.async {
+            let sendNanos = PluginMetrics.now()
             channel.invokeMethod("log", arguments: [
                 "level": level.rawValue,
                 "message": message
             ])
+            PluginMetrics.shared.recordLogs(count: 1, delayNanos: sendNanos - queuedNanos, sendNanos: PluginMetrics.now() - sendNanos)
         }
     }
 }
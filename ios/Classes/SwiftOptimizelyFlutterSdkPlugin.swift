@@ -21,15 +21,15 @@ import Foundation
 
 /// A wrapper around Optimizely Swift SDK that communicates with flutter using a channel
 public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
-    // to keep track of notification listener id's in-case they are to be removed in future
-    var notificationIdsTracker = [String: [Int: Int]]()
-    // to keep track of optimizely clients against their sdkKeys
-    var optimizelyClientsTracker = [String: OptimizelyClient?]()
-    // to keep track of optimizely user contexts against their sdkKeys
-    var userContextsTracker = [String: [String: OptimizelyUserContext?]]()
+    // to keep track of optimizely clients, user contexts and notification listener id's against their sdkKeys
+    let registry = SdkKeyRegistry()
     
     // to communicate with optimizely flutter sdk
     static var channel: FlutterMethodChannel!
+    // Batches notifications of every SDK key into one channel call
+    static let notificationDispatcher = NotificationDispatcher { method, arguments in
+        SwiftOptimizelyFlutterSdkPlugin.channel?.invokeMethod(method, arguments: arguments)
+    }
     private static weak var attachedMessenger: FlutterBinaryMessenger?
 
     // to track each unique userContext
@@ -44,7 +44,10 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         }
         let messenger = registrar.messenger()
         attachedMessenger = messenger
-        channel = FlutterMethodChannel(name: "optimizely_flutter_sdk", binaryMessenger: messenger)
+        // Arguments from Dart arrive as numbered fields, see OptimizelyMessageReader
+        channel = FlutterMethodChannel(name: "optimizely_flutter_sdk",
+                                       binaryMessenger: messenger,
+                                       codec: FlutterStandardMethodCodec(readerWriter: OptimizelyMessageReaderWriter()))
         let instance = SwiftOptimizelyFlutterSdkPlugin()
         registrar.addMethodCallDelegate(instance, channel: channel)
 
@@ -72,7 +75,11 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
     /// any handler calling result() from a background thread (e.g. async SDK
     /// completion handlers) still delivers the response correctly on iOS 16.
     public func handle(_ call: FlutterMethodCall, result: @escaping FlutterResult) {
-        let safeResult = mainThreadResult(result)
+        dispatch(call, result: mainThreadResult(result, method: call.method, startNanos: PluginMetrics.now()))
+    }
+
+    /// Routes a method call to its handler. Shared by handle() and executeBatch().
+    private func dispatch(_ call: FlutterMethodCall, result safeResult: @escaping FlutterResult) {
         switch call.method {
         case API.initialize: initialize(call, result: safeResult)
         case API.addNotificationListener: addNotificationListener(call, result: safeResult)
@@ -95,6 +102,10 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         case API.removeForcedDecision: removeForcedDecision(call, result: safeResult)
         case API.removeAllForcedDecisions: removeAllForcedDecisions(call, result: safeResult)
         case API.close: close(call, result: safeResult)
+        case API.getUserContextStats: getUserContextStats(call, result: safeResult)
+        case API.getNotificationStats: getNotificationStats(call, result: safeResult)
+        case API.getMetrics: getMetrics(call, result: safeResult)
+        case API.releaseUserContext, API.releaseUserContexts: releaseUserContexts(call, result: safeResult)
 
         // ODP
         case API.getQualifiedSegments: getQualifiedSegments(call, result: safeResult)
@@ -103,6 +114,9 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         case API.isQualifiedFor: isQualifiedFor(call, result: safeResult)
         case API.sendOdpEvent: sendOdpEvent(call, result: safeResult)
         case API.fetchQualifiedSegments: fetchQualifiedSegments(call, result: safeResult)
+
+        // Batch
+        case API.executeBatch: executeBatch(call, result: safeResult)
         default: safeResult(FlutterMethodNotImplemented)
         }
     }
@@ -118,17 +132,35 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
     ///
     /// Applying this wrapper once in handle() protects every current and future
     /// method handler automatically — no individual handler needs to remember
-    /// to dispatch to main.
-    private func mainThreadResult(_ result: @escaping FlutterResult) -> FlutterResult {
+    /// to dispatch to main. The wrapper also times the call for PluginMetrics.
+    /// Handlers read their own arguments, so parsing is part of the execute phase here.
+    private func mainThreadResult(_ result: @escaping FlutterResult, method: String, startNanos: UInt64) -> FlutterResult {
         return { value in
-            if Thread.isMainThread {
+            let repliedNanos = PluginMetrics.now()
+            let deliver = {
+                let deliveredNanos = PluginMetrics.now()
+                // The codec serializes the reply inside the result call
                 result(value)
+                PluginMetrics.shared.recordCall(method: method, error: SwiftOptimizelyFlutterSdkPlugin.isErrorReply(value),
+                                                parseNanos: 0, executeNanos: repliedNanos - startNanos,
+                                                replyNanos: deliveredNanos - repliedNanos, serializeNanos: PluginMetrics.now() - deliveredNanos)
+            }
+            if Thread.isMainThread {
+                deliver()
             } else {
-                DispatchQueue.main.async { result(value) }
+                DispatchQueue.main.async(execute: deliver)
             }
         }
     }
     
+    /// Handlers report most failures as a successful reply with success set to false
+    private static func isErrorReply(_ value: Any?) -> Bool {
+        if value is FlutterError || (value as? NSObject) === FlutterMethodNotImplemented {
+            return true
+        }
+        return (value as? [String: Any])?[ResponseKey.success] as? Bool == false
+    }
+    
     /// Initializes optimizely client with the provided sdkKey
     func initialize(_ call: FlutterMethodCall, result: @escaping FlutterResult) {
         guard let (parameters, sdkKey) = getParametersAndSdkKey(arguments: call.arguments, result: result) else {
@@ -170,6 +202,13 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         var timeoutForOdpEventInSecs: Int = 10
         var disableOdp: Bool = false
         var enableVuid: Bool = false
+        var userContextCacheSize = UserContextStore.defaultCapacity
+        var userContextCacheTimeoutInSecs = UserContextStore.defaultIdleTimeoutInSecs
+        var enableDecisionCache = false
+        var enableWarmStart = false
+        var notificationBatchIntervalInMillis = NotificationDispatcher.defaultBatchIntervalInMillis
+        var notificationQueueSize = NotificationDispatcher.defaultQueueSize
+        var notificationOverflowPolicy = NotificationDispatcher.OverflowPolicy.dropOldest
         var sdkVersion = parameters[RequestParameterKey.sdkVersion] as? String
         var sdkName = Utils.sdkName
         
@@ -192,6 +231,27 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
             if let isEnableVuid = sdkSettings[RequestParameterKey.enableVuid] as? Bool {
                 enableVuid = isEnableVuid
             }
+            if let cacheSize = sdkSettings[RequestParameterKey.userContextCacheSize] as? Int {
+                userContextCacheSize = cacheSize
+            }
+            if let cacheTimeout = sdkSettings[RequestParameterKey.userContextCacheTimeoutInSecs] as? Int {
+                userContextCacheTimeoutInSecs = cacheTimeout
+            }
+            if let isDecisionCacheEnabled = sdkSettings[RequestParameterKey.enableDecisionCache] as? Bool {
+                enableDecisionCache = isDecisionCacheEnabled
+            }
+            if let isWarmStartEnabled = sdkSettings[RequestParameterKey.enableWarmStart] as? Bool {
+                enableWarmStart = isWarmStartEnabled
+            }
+            if let batchInterval = sdkSettings[RequestParameterKey.notificationBatchIntervalInMillis] as? Int {
+                notificationBatchIntervalInMillis = batchInterval
+            }
+            if let queueSize = sdkSettings[RequestParameterKey.notificationQueueSize] as? Int {
+                notificationQueueSize = queueSize
+            }
+            if let policy = sdkSettings[RequestParameterKey.notificationOverflowPolicy] as? String, let overflowPolicy = NotificationDispatcher.OverflowPolicy(rawValue: policy) {
+                notificationOverflowPolicy = overflowPolicy
+            }
         }
         let optimizelySdkSettings = OptimizelySdkSettings(segmentsCacheSize: segmentsCacheSize, segmentsCacheTimeoutInSecs: segmentsCacheTimeoutInSecs, timeoutForSegmentFetchInSecs: timeoutForSegmentFetchInSecs, timeoutForOdpEventInSecs: timeoutForOdpEventInSecs, disableOdp: disableOdp, enableVuid: enableVuid, sdkName: sdkName, sdkVersion: sdkVersion)
 
@@ -232,12 +292,10 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
             datafileHandler.endPointStringFormat = String(format: "\(datafileHostPrefix)\(datafileHostSuffix)", sdkKey)
         }
         
-        // Delete old user context
-        userContextsTracker.removeValue(forKey: sdkKey)
-        // Close and remove old client
-        getOptimizelyClient(sdkKey: sdkKey)?.close()
-        notificationIdsTracker.removeValue(forKey: sdkKey)
-        optimizelyClientsTracker.removeValue(forKey: sdkKey)
+        // Delete old user contexts, close and remove old client
+        SwiftOptimizelyFlutterSdkPlugin.notificationDispatcher.configure(sdkKey: sdkKey, intervalInMillis: notificationBatchIntervalInMillis, queueSize: notificationQueueSize, overflowPolicy: notificationOverflowPolicy)
+        let userContextStore = UserContextStore(capacity: userContextCacheSize, idleTimeoutInSecs: userContextCacheTimeoutInSecs, decisionCacheEnabled: enableDecisionCache, defaultDecideOptions: decideOptions)
+        registry.reset(sdkKey: sdkKey, userContexts: userContextStore)?.optimizelyClient?.close()
         
         // OptimizelyFlutterLogger bridges iOS logs to Flutter via Method Channel
         // iOS SDK log → OptimizelyFlutterLogger → Flutter Method Channel → Flutter console
@@ -255,11 +313,41 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
             settings: optimizelySdkSettings,
             cmabConfig: cmabConfig)
         
+        // Starts synchronously from a local datafile, a fresh one is then downloaded in the background and applied
+        let startFromDatafile = { [weak self] (datafile: Data, datafileSource: String) -> Bool in
+            guard let self = self, (try? optimizelyInstance.start(datafile: datafile, doUpdateConfigOnNewDatafile: true, doFetchDatafileBackground: true)) != nil else {
+                return false
+            }
+            self.registry.setOptimizelyClient(optimizelyInstance, sdkKey: sdkKey)
+            if enableDecisionCache {
+                self.addDecisionCacheInvalidation(optimizelyClient: optimizelyInstance, sdkKey: sdkKey)
+            }
+            result(self.createResponse(success: true, result: [ResponseKey.datafileSource: datafileSource]))
+            return true
+        }
+        
+        // The datafile saved by the last download, which the SDK keeps per SDK key
+        if enableWarmStart, let savedDatafile = datafileHandler.loadSavedDatafile(sdkKey: sdkKey) {
+            if startFromDatafile(savedDatafile, DatafileSource.cached) {
+                return
+            }
+            // Not usable anymore, fall back to the bundled datafile or the download
+            datafileHandler.removeSavedDatafile(sdkKey: sdkKey)
+        }
+        
+        // Datafile shipped with the app, e.g. a Flutter asset
+        if let bundledDatafile = parameters[RequestParameterKey.datafile] as? FlutterStandardTypedData, startFromDatafile(bundledDatafile.data, DatafileSource.bundled) {
+            return
+        }
+        
         optimizelyInstance.start{ [weak self] res in
             switch res {
             case .success(_):
-                self?.optimizelyClientsTracker[sdkKey] = optimizelyInstance
-                result(self?.createResponse(success: true))
+                self?.registry.setOptimizelyClient(optimizelyInstance, sdkKey: sdkKey)
+                if enableDecisionCache {
+                    self?.addDecisionCacheInvalidation(optimizelyClient: optimizelyInstance, sdkKey: sdkKey)
+                }
+                result(self?.createResponse(success: true, result: [ResponseKey.datafileSource: DatafileSource.fresh]))
             case .failure(let err):
                 result(self?.createResponse(success: false, reason: err.localizedDescription))
             }
@@ -289,7 +377,7 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
             notificationId = (optimizelyClient.notificationCenter?.addTrackNotificationListener(trackListener: Utils.getTrackCallback(id: id, sdkKey: sdkKey)))!
             break
         case NotificationType.logEvent:
-            notificationId = (optimizelyClient.notificationCenter?.addLogEventNotificationListener(logEventListener: Utils.getLogEventCallback(id: id, sdkKey: sdkKey)))!
+            notificationId = (optimizelyClient.notificationCenter?.addLogEventNotificationListener(logEventListener: Utils.getLogEventCallback(id: id, sdkKey: sdkKey, rawPayload: parameters[RequestParameterKey.rawPayload] as? Bool ?? false)))!
             break
         case NotificationType.projectConfigUpdate:
             let notificationId = optimizelyClient.notificationCenter?.addDatafileChangeNotificationListener(datafileListener:  Utils.getProjectConfigUpdateCallback(id: id, sdkKey: sdkKey))
@@ -298,10 +386,7 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
             result(createResponse(success: false, reason: ErrorMessage.invalidParameters))
             return
         }
-        if notificationIdsTracker[sdkKey] == nil {
-            notificationIdsTracker[sdkKey] = [Int: Int]()
-        }
-        notificationIdsTracker[sdkKey]![id] = notificationId
+        registry.setNotificationId(notificationId, callbackId: id, sdkKey: sdkKey)
         result(self.createResponse(success: true))
     }
     
@@ -318,9 +403,7 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
             return
         }
         optimizelyClient.notificationCenter?.removeNotificationListener(notificationId: notificationID)
-        if notificationIdsTracker[sdkKey] != nil {
-            notificationIdsTracker[sdkKey]?.removeValue(forKey: notificationID)
-        }
+        registry.removeNotificationId(callbackId: notificationID, sdkKey: sdkKey)
         result(self.createResponse(success: true))
     }
     
@@ -333,19 +416,23 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
             return
         }
         
+        var clearsDatafileChange = true
         if let type = parameters[RequestParameterKey.notificationType] as? String, let convertedNotificationType = Utils.getNotificationType(type: type) {
             // Remove listeners only for the provided type
             optimizelyClient.notificationCenter?.clearNotificationListeners(type: convertedNotificationType)
+            clearsDatafileChange = convertedNotificationType == .datafileChange
         } else {
             // Remove all listeners if type is not provided
             optimizelyClient.notificationCenter?.clearAllNotificationListeners()
         }
+        // Restore the plugin's own listener removed along with the caller's
+        if clearsDatafileChange && registry.isDecisionCacheEnabled(sdkKey: sdkKey) {
+            addDecisionCacheInvalidation(optimizelyClient: optimizelyClient, sdkKey: sdkKey)
+        }
         
         if let callBackIds = parameters[RequestParameterKey.callbackIds] as? [Int] {
-            if notificationIdsTracker[sdkKey] != nil {
-                for callbackId in callBackIds {
-                    notificationIdsTracker[sdkKey]?.removeValue(forKey: callbackId)
-                }
+            for callbackId in callBackIds {
+                registry.removeNotificationId(callbackId: callbackId, sdkKey: sdkKey)
             }
         }
         result(self.createResponse(success: true))
@@ -455,10 +542,8 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         } else {
             userContext = optimizelyClient.createUserContext(attributes: Utils.getTypedMap(arguments: parameters[RequestParameterKey.attributes] as? Any))
         }
-        if userContextsTracker[sdkKey] != nil {
-            userContextsTracker[sdkKey]![userContextId] = userContext
-        } else {
-            userContextsTracker[sdkKey] = [userContextId: userContext]
+        if let userContext = userContext {
+            registry.setUserContext(userContext, userContextId: userContextId, sdkKey: sdkKey)
         }
         result(self.createResponse(success: userContext != nil, result: [RequestParameterKey.userContextId: userContextId]))
     }
@@ -492,6 +577,7 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         for (k,v) in attributes {
             userContext.setAttribute(key: k, value: v)
         }
+        invalidateDecisions(parameters: parameters)
         result(createResponse(success: true))
     }
     
@@ -517,6 +603,7 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
             return
         }
         userContext.qualifiedSegments = qualifiedSegments
+        invalidateDecisions(parameters: parameters)
         result(createResponse(success: true))
     }
     
@@ -591,6 +678,7 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         let options = Utils.getSegmentOptions(options: segmentOptions)
         do {
             try userContext.fetchQualifiedSegments(options: options ?? [])
+            invalidateDecisions(parameters: parameters)
             result(createResponse(success: true))
         } catch {
             result(self.createResponse(success: false, reason: error.localizedDescription))
@@ -632,6 +720,19 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
             decideOptions = options
         }
         
+        let sdkKey = parameters[RequestParameterKey.sdkKey] as? String ?? ""
+        let userContextId = parameters[RequestParameterKey.userContextId] as? String ?? ""
+        var decisionGeneration = 0
+        let cacheKey = registry.decisionCacheKey(decideKeys: decideKeys, decideOptions: decideOptions, sdkKey: sdkKey)
+        if let cacheKey = cacheKey {
+            let cached = registry.decisions(userContextId: userContextId, cacheKey: cacheKey, sdkKey: sdkKey)
+            if let cachedDecisions = cached.decisions {
+                result(self.createResponse(success: true, result: cachedDecisions))
+                return
+            }
+            decisionGeneration = cached.generation
+        }
+        
         let options = Utils.getDecideOptions(options: decideOptions)
         var decisions = [String: OptimizelyDecision]()
         var resultMap = [String: Any]()
@@ -645,6 +746,9 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         for (key, decision) in decisions {
             resultMap[key] = Utils.convertDecisionToDictionary(decision: decision)
         }
+        if let cacheKey = cacheKey {
+            registry.putDecisions(resultMap, userContextId: userContextId, cacheKey: cacheKey, generation: decisionGeneration, sdkKey: sdkKey)
+        }
         
         result(self.createResponse(success: true, result: resultMap))
     }
@@ -712,6 +816,7 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         }
         
         let success = userContext.setForcedDecision(context: OptimizelyDecisionContext(flagKey: flagKey, ruleKey: parameters[RequestParameterKey.ruleKey] as? String), decision: OptimizelyForcedDecision(variationKey: variationKey))
+        invalidateDecisions(parameters: parameters)
         result(self.createResponse(success: success))
     }
     
@@ -743,19 +848,131 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         }
         
         let success = userContext.removeForcedDecision(context: OptimizelyDecisionContext(flagKey: flagKey, ruleKey: parameters[RequestParameterKey.ruleKey] as? String))
+        invalidateDecisions(parameters: parameters)
         result(self.createResponse(success: success))
     }
     
     /// Removes all forced decisions bound to this user context.
     func removeAllForcedDecisions(_ call: FlutterMethodCall, result: @escaping FlutterResult) {
-        guard let (_, userContext) = getParametersAndUserContext(arguments: call.arguments, result: result) else {
+        guard let (parameters, userContext) = getParametersAndUserContext(arguments: call.arguments, result: result) else {
             return
         }
         
         let success = userContext.removeAllForcedDecisions()
+        invalidateDecisions(parameters: parameters)
         result(self.createResponse(success: success))
     }
     
+    /// Runs an ordered list of operations in a single channel round trip.
+    /// Operations acting on a user context resolve it from an explicit userContextId or from the context
+    /// created by the operation at index userContextRef; one carrying neither, or a userContextRef to an
+    /// operation that created no context, replies invalid parameters.
+    func executeBatch(_ call: FlutterMethodCall, result: @escaping FlutterResult) {
+        guard let (parameters, sdkKey) = getParametersAndSdkKey(arguments: call.arguments, result: result) else {
+            return
+        }
+        guard let operations = parameters[RequestParameterKey.operations] as? [Any] else {
+            result(createResponse(success: false, reason: ErrorMessage.invalidParameters))
+            return
+        }
+        
+        var responses = [Any](repeating: NSNull(), count: operations.count)
+        var createdUserContextIds = [Int: String]()
+        
+        func run(_ index: Int) {
+            if index == operations.count {
+                result(self.createResponse(success: true, result: responses))
+                return
+            }
+            let operation = operations[index] as? Dictionary<String, Any?>
+            guard let method = operation?[RequestParameterKey.method] as? String, method != API.initialize, method != API.executeBatch else {
+                responses[index] = createResponse(success: false, reason: ErrorMessage.operationNotSupportedInBatch)
+                run(index + 1)
+                return
+            }
+            
+            var arguments = (operation?[RequestParameterKey.arguments] as? Dictionary<String, Any?>) ?? [:]
+            if arguments[RequestParameterKey.sdkKey] == nil {
+                arguments[RequestParameterKey.sdkKey] = sdkKey
+            }
+            // An unresolved reference leaves the operation without a user context id
+            if let userContextRef = arguments.removeValue(forKey: RequestParameterKey.userContextRef) {
+                arguments[RequestParameterKey.userContextId] = (userContextRef as? Int).flatMap { createdUserContextIds[$0] }
+            }
+            
+            var replied = false
+            dispatch(FlutterMethodCall(methodName: method, arguments: arguments)) { value in
+                // Keep the first reply only
+                guard !replied else { return }
+                replied = true
+                if (value as? NSObject) === FlutterMethodNotImplemented {
+                    responses[index] = self.createResponse(success: false, reason: ErrorMessage.operationNotSupportedInBatch)
+                } else {
+                    responses[index] = value ?? NSNull()
+                }
+                if method == API.createUserContext,
+                   let response = value as? [String: Any],
+                   response[ResponseKey.success] as? Bool == true,
+                   let userContextId = (response[ResponseKey.result] as? [String: Any])?[RequestParameterKey.userContextId] as? String {
+                    createdUserContextIds[index] = userContextId
+                }
+                run(index + 1)
+            }
+        }
+        run(0)
+    }
+    
+    /// Returns the number of live user contexts and the eviction counts of the user context store
+    func getUserContextStats(_ call: FlutterMethodCall, result: @escaping FlutterResult) {
+        guard let (_, sdkKey) = getParametersAndSdkKey(arguments: call.arguments, result: result) else {
+            return
+        }
+        guard getOptimizelyClient(sdkKey: sdkKey, result: result) != nil else {
+            return
+        }
+        result(createResponse(success: true, result: registry.userContextStats(sdkKey: sdkKey)))
+    }
+    
+    /// Returns the number of notifications dropped by the bounded notification queues, by notification type.
+    func getNotificationStats(_ call: FlutterMethodCall, result: @escaping FlutterResult) {
+        guard let (_, sdkKey) = getParametersAndSdkKey(arguments: call.arguments, result: result) else {
+            return
+        }
+        guard getOptimizelyClient(sdkKey: sdkKey, result: result) != nil else {
+            return
+        }
+        let droppedCounts = SwiftOptimizelyFlutterSdkPlugin.notificationDispatcher.droppedCounts(sdkKey: sdkKey)
+        result(createResponse(success: true, result: [NotificationStatsKey.droppedNotifications: droppedCounts]))
+    }
+    
+    /// Returns the call, notification and log forwarding metrics of the plugin across all SDK keys.
+    /// Clears them afterwards if resetMetrics is set
+    func getMetrics(_ call: FlutterMethodCall, result: @escaping FlutterResult) {
+        let metrics = PluginMetrics.shared.snapshot()
+        if let parameters = call.arguments as? [String: Any], parameters[RequestParameterKey.resetMetrics] as? Bool == true {
+            PluginMetrics.shared.reset()
+        }
+        result(createResponse(success: true, result: metrics))
+    }
+    
+    /// Releases native user contexts no longer referenced by Dart.
+    /// Accepts either a single userContextId or a list of userContextIds.
+    func releaseUserContexts(_ call: FlutterMethodCall, result: @escaping FlutterResult) {
+        guard let (parameters, sdkKey) = getParametersAndSdkKey(arguments: call.arguments, result: result) else {
+            return
+        }
+        var userContextIds = parameters[RequestParameterKey.userContextIds] as? [String]
+        if userContextIds == nil, let userContextId = parameters[RequestParameterKey.userContextId] as? String {
+            userContextIds = [userContextId]
+        }
+        guard let ids = userContextIds else {
+            result(createResponse(success: false, reason: ErrorMessage.invalidParameters))
+            return
+        }
+        registry.removeUserContexts(userContextIds: ids, sdkKey: sdkKey)
+        result(createResponse(success: true))
+    }
+    
     /// Closes optimizely client after Flushing/batching all events
     func close(_ call: FlutterMethodCall, result: @escaping FlutterResult) {
         guard let (_, sdkKey) = getParametersAndSdkKey(arguments: call.arguments, result: result) else {
@@ -766,14 +983,13 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         }
         
         optimizelyClient.close()
-        optimizelyClientsTracker.removeValue(forKey: sdkKey)
-        userContextsTracker.removeValue(forKey: sdkKey)
+        registry.remove(sdkKey: sdkKey)
         result(self.createResponse(success: true))
     }
     
     /// Returns saved optimizely client
     func getOptimizelyClient(sdkKey: String, result: FlutterResult? = nil) -> OptimizelyClient? {
-        guard let optimizelyClient = optimizelyClientsTracker[sdkKey] as? OptimizelyClient else {
+        guard let optimizelyClient = registry.optimizelyClient(sdkKey: sdkKey) else {
             if let _result = result {
                 _result(self.createResponse(success: false, reason: ErrorMessage.optlyClientNotFound))
             }
@@ -796,13 +1012,33 @@ public class SwiftOptimizelyFlutterSdkPlugin: NSObject, FlutterPlugin {
         guard let (parameters, sdkKey) = getParametersAndSdkKey(arguments: arguments, result: result) else {
             return nil
         }
-        guard let userContextId = parameters[RequestParameterKey.userContextId] as? String, let userContext = userContextsTracker[sdkKey]?[userContextId] as? OptimizelyUserContext else {
-            result(self.createResponse(success: false, reason: ErrorMessage.userContextNotFound))
+        guard let userContextId = parameters[RequestParameterKey.userContextId] as? String else {
+            result(self.createResponse(success: false, reason: ErrorMessage.invalidParameters))
+            return nil
+        }
+        guard let userContext = registry.userContext(userContextId: userContextId, sdkKey: sdkKey) else {
+            // Tells callers holding an evicted context apart from ones using an unknown id
+            let reason = registry.wasUserContextEvicted(userContextId: userContextId, sdkKey: sdkKey) ? ErrorMessage.userContextEvicted : ErrorMessage.userContextNotFound
+            result(self.createResponse(success: false, reason: reason))
             return nil
         }
         return (parameters, userContext)
     }
     
+    /// Drops cached decisions of the user context a mutating call was made on
+    func invalidateDecisions(parameters: Dictionary<String, Any?>) {
+        if let sdkKey = parameters[RequestParameterKey.sdkKey] as? String, let userContextId = parameters[RequestParameterKey.userContextId] as? String {
+            registry.invalidateDecisions(userContextId: userContextId, sdkKey: sdkKey)
+        }
+    }
+    
+    /// Drops all cached decisions of the SDK key whenever the datafile changes
+    func addDecisionCacheInvalidation(optimizelyClient: OptimizelyClient, sdkKey: String) {
+        _ = optimizelyClient.notificationCenter?.addDatafileChangeNotificationListener { [weak self] _ in
+            self?.registry.invalidateAllDecisions(sdkKey: sdkKey)
+        }
+    }
+    
     /// Returns saved optimizely client with parameters
     func getParametersAndOptimizelyClient(arguments: Any?, result: @escaping FlutterResult) -> (Dictionary<String, Any?>, OptimizelyClient)? {
         guard let (parameters, sdkKey) = getParametersAndSdkKey(arguments: arguments, result: result) else {
@@ -17,15 +17,21 @@
 library optimizely_flutter_sdk;
 
 import 'dart:async';
+import 'dart:typed_data';
 import 'package:optimizely_flutter_sdk/src/data_objects/activate_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/base_response.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/batch_operation.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/execute_batch_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/datafile_options.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/event_options.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/get_vuid_response.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/initialize_response.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/notification_stats_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/sdk_settings.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/cmab_config.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/get_variation_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/optimizely_config_response.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/user_context_stats_response.dart';
 import 'package:optimizely_flutter_sdk/src/optimizely_client_wrapper.dart';
 import 'package:optimizely_flutter_sdk/src/user_context/optimizely_user_context.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/log_level.dart';
@@ -58,6 +64,24 @@ export 'package:optimizely_flutter_sdk/src/data_objects/datafile_options.dart'
     show DatafileHostOptions;
 export 'package:optimizely_flutter_sdk/src/data_objects/log_level.dart'
     show OptimizelyLogLevel;
+export 'package:optimizely_flutter_sdk/src/data_objects/batch_operation.dart'
+    show BatchOperation;
+export 'package:optimizely_flutter_sdk/src/data_objects/execute_batch_response.dart'
+    show ExecuteBatchResponse;
+export 'package:optimizely_flutter_sdk/src/data_objects/user_context_stats_response.dart'
+    show UserContextStatsResponse;
+export 'package:optimizely_flutter_sdk/src/data_objects/notification_overflow_policy.dart'
+    show NotificationOverflowPolicy;
+export 'package:optimizely_flutter_sdk/src/data_objects/event_overflow_policy.dart'
+    show EventOverflowPolicy;
+export 'package:optimizely_flutter_sdk/src/data_objects/notification_stats_response.dart'
+    show NotificationStatsResponse;
+export 'package:optimizely_flutter_sdk/src/data_objects/metrics_response.dart'
+    show MetricsResponse, OperationMetrics, LatencyPercentiles, ThreadMetrics,
+        EventBatchingMetrics, EventQueueMetrics, EventLogMetrics,
+        EventDispatchMetrics;
+export 'package:optimizely_flutter_sdk/src/data_objects/initialize_response.dart'
+    show InitializeResponse, DatafileSource;
 export 'package:optimizely_flutter_sdk/src/logger/flutter_logger.dart'
     show OptimizelyLogger;
 
@@ -65,6 +89,8 @@ export 'package:optimizely_flutter_sdk/src/logger/flutter_logger.dart'
 ///
 /// To use, create an instance of OptimizelyFlutterSdk class with a valid sdkKey, datafilePeriodicDownloadInterval (optional), eventOptions (optional) , defaultDecideOptions (optional) and
 /// call initializeClient method.
+/// A datafile shipped with the app, e.g. loaded from an asset with `rootBundle.load`, can be passed as [datafile] (optional) to start
+/// without waiting for the download. A fresh datafile is still downloaded in the background.
 /// If successful, call createUserContext to setup user context.
 /// Once done, all API's should be available.
 class OptimizelyFlutterSdk {
@@ -76,6 +102,7 @@ class OptimizelyFlutterSdk {
   final OptimizelyLogLevel _defaultLogLevel;
   final SDKSettings _sdkSettings;
   final CmabConfig? _cmabConfig;
+  final Uint8List? _datafile;
   static OptimizelyLogger? _customLogger;
   /// Get the current logger
   static OptimizelyLogger? get logger {
@@ -89,6 +116,7 @@ class OptimizelyFlutterSdk {
     OptimizelyLogLevel defaultLogLevel = OptimizelyLogLevel.info,
     SDKSettings sdkSettings = const SDKSettings(),
     CmabConfig? cmabConfig,
+    Uint8List? datafile,
     OptimizelyLogger? logger})
     : _eventOptions = eventOptions,
       _datafilePeriodicDownloadInterval = datafilePeriodicDownloadInterval,
@@ -96,14 +124,17 @@ class OptimizelyFlutterSdk {
       _defaultDecideOptions = defaultDecideOptions,
       _defaultLogLevel = defaultLogLevel,
       _sdkSettings = sdkSettings,
-      _cmabConfig = cmabConfig {
+      _cmabConfig = cmabConfig,
+      _datafile = datafile {
       // Set the logger if provided
       _customLogger = logger ?? DefaultOptimizelyLogger();
       LoggerBridge.initialize(_customLogger);
   }
 
   /// Starts Optimizely SDK (Synchronous) with provided sdkKey.
-  Future<BaseResponse> initializeClient() async {
+  ///
+  /// Returns [InitializeResponse] telling whether the client started from a cached, bundled or freshly downloaded datafile.
+  Future<InitializeResponse> initializeClient() async {
     return await OptimizelyClientWrapper.initializeClient(
         _sdkKey,
         _eventOptions,
@@ -113,7 +144,8 @@ class OptimizelyFlutterSdk {
         _defaultLogLevel,
         _sdkSettings,
         _cmabConfig,
-        _customLogger
+        _customLogger,
+        _datafile
     );
   }
 
@@ -212,6 +244,51 @@ class OptimizelyFlutterSdk {
         userId: userId, attributes: attributes);
   }
 
+  /// Runs several operations in a single platform channel round trip.
+  ///
+  /// Useful on startup paths, e.g. creating a user context, setting its attributes and
+  /// deciding flags, where each separate call would pay its own channel hop.
+  ///
+  /// Takes [operations] A [List] of [BatchOperation] executed in order.
+  /// Returns [ExecuteBatchResponse] A object containing the response of every operation and any user contexts created.
+  Future<ExecuteBatchResponse> executeBatch(
+      List<BatchOperation> operations) async {
+    return await OptimizelyClientWrapper.executeBatch(_sdkKey, operations);
+  }
+
+  /// Returns statistics of the native user context store.
+  ///
+  /// The store is bounded by [SDKSettings.userContextCacheSize] and [SDKSettings.userContextCacheTimeoutInSecs].
+  /// Using an evicted user context fails with a reason asking to create a new one.
+  /// Hit and miss counts of the decision cache are reported when [SDKSettings.enableDecisionCache] is set.
+  ///
+  /// Returns [UserContextStatsResponse] A object containing the number of live user contexts, eviction and decision cache counts.
+  Future<UserContextStatsResponse> getUserContextStats() async {
+    return await OptimizelyClientWrapper.getUserContextStats(_sdkKey);
+  }
+
+  /// Returns how many notifications were dropped before reaching their listeners.
+  ///
+  /// Notifications of each type are buffered natively up to [SDKSettings.notificationQueueSize] between deliveries,
+  /// and [SDKSettings.notificationOverflowPolicy] decides which ones are dropped when a burst exceeds that.
+  ///
+  /// Returns [NotificationStatsResponse] A object containing the dropped notification counts by notification type.
+  Future<NotificationStatsResponse> getNotificationStats() async {
+    return await OptimizelyClientWrapper.getNotificationStats(_sdkKey);
+  }
+
+  /// Returns performance metrics of the native plugin, shared by all SDK keys.
+  ///
+  /// Every method call records its count, error count and latency percentiles for argument parsing,
+  /// native execution, waiting for the main thread and serializing the reply.
+  /// Notification and log forwarding record how long entries were queued and how long sending them took.
+  ///
+  /// Takes [reset] Whether the metrics are cleared after they are read, so consecutive reports do not overlap.
+  /// Returns [MetricsResponse] A object containing the metrics by method name, and of notification and log forwarding.
+  Future<MetricsResponse> getMetrics({bool reset = false}) async {
+    return await OptimizelyClientWrapper.getMetrics(_sdkKey, reset: reset);
+  }
+
   /// Allows user to remove notification listener using id.
   ///
   /// Takes [int] id which allows user to remove that specific listener.
@@ -275,10 +352,13 @@ class OptimizelyFlutterSdk {
   /// Allows user to listen to supported LogEvent notifications.
   ///
   /// Takes [callback] A [LogEventNotificationCallback] notification handler to be added.
+  /// Takes [rawPayload] Whether the event body is passed as raw UTF-8 bytes and only parsed when [LogEventListenerResponse.params] is read.
   /// Returns [int] Id of registered listener that allows the user to remove the added notification listener.
   Future<int> addLogEventNotificationListener(
-      LogEventNotificationCallback callback) async {
-    return await _addLogEventNotificationListener(callback);
+      LogEventNotificationCallback callback,
+      {bool rawPayload = false}) async {
+    return await _addLogEventNotificationListener(callback,
+        rawPayload: rawPayload);
   }
 
   /// Allows user to listen to supported Project Config Update notifications.
@@ -325,9 +405,11 @@ class OptimizelyFlutterSdk {
   /// Takes [callback] A [LogEventNotificationCallback] notification handler to be added.
   /// Returns [int] Id of registered listener that allows the user to remove the added notification listener.
   Future<int> _addLogEventNotificationListener(
-      LogEventNotificationCallback callback) async {
+      LogEventNotificationCallback callback,
+      {bool rawPayload = false}) async {
     return await OptimizelyClientWrapper.addLogEventNotificationListener(
-        _sdkKey, callback);
+        _sdkKey, callback,
+        rawPayload: rawPayload);
   }
 
   /// Allows user to listen to supported Project Config Update notifications.
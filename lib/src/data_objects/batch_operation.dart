@@ -0,0 +1,133 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+
+import 'package:optimizely_flutter_sdk/src/user_context/optimizely_decision_context.dart';
+import 'package:optimizely_flutter_sdk/src/user_context/optimizely_forced_decision.dart';
+import 'package:optimizely_flutter_sdk/src/user_context/optimizely_user_context.dart';
+import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+import 'package:optimizely_flutter_sdk/src/utils/utils.dart';
+
+/// A single operation executed as part of [OptimizelyFlutterSdk.executeBatch].
+///
+/// Operations acting on a user context target the given [userContextId], or
+/// else the context created by the operation at index [userContextRef] of the
+/// same batch. One given neither, or referring to an operation that created no
+/// context, fails with invalid parameters.
+class BatchOperation {
+  final String method;
+  final Map<String, dynamic> arguments;
+
+  const BatchOperation(this.method, [this.arguments = const {}]);
+
+  /// Creates a user context. Its id is returned in the operation result.
+  factory BatchOperation.createUserContext(
+      {String? userId, Map<String, dynamic> attributes = const {}}) {
+    Map<String, dynamic> arguments = {
+      Constants.attributes: Utils.convertToTypedMap(attributes)
+    };
+    if (userId != null) {
+      arguments[Constants.userId] = userId;
+    }
+    return BatchOperation(Constants.createUserContextMethod, arguments);
+  }
+
+  /// Sets attributes for a user context.
+  factory BatchOperation.setAttributes(Map<String, dynamic> attributes,
+      {String? userContextId, int? userContextRef}) {
+    return BatchOperation._withUserContext(
+        Constants.setAttributesMethod,
+        {Constants.attributes: Utils.convertToTypedMap(attributes)},
+        userContextId,
+        userContextRef);
+  }
+
+  /// Sets qualified segments for a user context.
+  factory BatchOperation.setQualifiedSegments(List<String> qualifiedSegments,
+      {String? userContextId, int? userContextRef}) {
+    return BatchOperation._withUserContext(
+        Constants.setQualifiedSegmentsMethod,
+        {Constants.qualifiedSegments: qualifiedSegments},
+        userContextId,
+        userContextRef);
+  }
+
+  /// Returns decisions for the given flag keys, or for all flags when [keys] is empty.
+  factory BatchOperation.decide(
+      {List<String> keys = const [],
+      Set<OptimizelyDecideOption> options = const {},
+      String? userContextId,
+      int? userContextRef}) {
+    return BatchOperation._withUserContext(
+        Constants.decideMethod,
+        {
+          Constants.keys: keys,
+          Constants.optimizelyDecideOption: Utils.convertDecideOptions(options)
+        },
+        userContextId,
+        userContextRef);
+  }
+
+  /// Tracks an event for a user context.
+  factory BatchOperation.trackEvent(String eventKey,
+      {Map<String, dynamic> eventTags = const {},
+      String? userContextId,
+      int? userContextRef}) {
+    return BatchOperation._withUserContext(
+        Constants.trackEventMethod,
+        {
+          Constants.eventKey: eventKey,
+          Constants.eventTags: Utils.convertToTypedMap(eventTags)
+        },
+        userContextId,
+        userContextRef);
+  }
+
+  /// Sets the forced decision for a given decision context.
+  factory BatchOperation.setForcedDecision(
+      OptimizelyDecisionContext context, OptimizelyForcedDecision decision,
+      {String? userContextId, int? userContextRef}) {
+    Map<String, dynamic> arguments = {
+      Constants.flagKey: context.flagKey,
+      Constants.variationKey: decision.variationKey
+    };
+    if (context.ruleKey != null) {
+      arguments[Constants.ruleKey] = context.ruleKey;
+    }
+    return BatchOperation._withUserContext(Constants.setForcedDecision,
+        arguments, userContextId, userContextRef);
+  }
+
+  /// Removes all forced decisions bound to a user context.
+  factory BatchOperation.removeAllForcedDecisions(
+      {String? userContextId, int? userContextRef}) {
+    return BatchOperation._withUserContext(Constants.removeAllForcedDecisions,
+        {}, userContextId, userContextRef);
+  }
+
+  factory BatchOperation._withUserContext(String method,
+      Map<String, dynamic> arguments, String? userContextId, int? userContextRef) {
+    if (userContextId != null) {
+      arguments[Constants.userContextId] = userContextId;
+    } else if (userContextRef != null) {
+      arguments[Constants.userContextRef] = userContextRef;
+    }
+    return BatchOperation(method, arguments);
+  }
+
+  Map<String, dynamic> toMap() {
+    return {Constants.method: method, Constants.arguments: arguments};
+  }
+}
@@ -61,6 +61,30 @@ class Decision {
     }
   }
 
+  /// Creates a decision from already decoded fields, see `OptimizelyMessageCodec`.
+  Decision.fromFields(
+      {String? variationKey,
+      String? flagKey,
+      String? ruleKey,
+      bool? enabled,
+      String? userId,
+      Map<String, dynamic>? attributes,
+      Map<String, dynamic>? variables,
+      List<String>? reasons}) {
+    this.variationKey = variationKey ?? '';
+    this.flagKey = flagKey ?? '';
+    this.ruleKey = ruleKey ?? '';
+    this.enabled = enabled ?? false;
+    if (userId != null) {
+      userContext[Constants.userId] = userId;
+    }
+    if (attributes != null) {
+      userContext[Constants.attributes] = attributes;
+    }
+    this.variables = variables ?? {};
+    this.reasons = reasons ?? [];
+  }
+
   @override
   String toString() {
     var encodedVariables = json.encode(variables);
@@ -79,7 +103,9 @@ class BaseDecideResponse extends BaseResponse {
           Map<String, dynamic>.from(json[Constants.responseResult]);
       // ignore: unnecessary_set_literal
       decisionsMap.forEach((k, v) => {
-            if (v is Map<dynamic, dynamic>)
+            if (v is Decision)
+              {_decisions[k] = v}
+            else if (v is Map<dynamic, dynamic>)
               {_decisions[k] = Decision(Map<String, dynamic>.from(v))}
           });
     }
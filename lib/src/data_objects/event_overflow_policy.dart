@@ -0,0 +1,27 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+/// Decides what the native SDK does with an event when the event queue is full (Android only).
+enum EventOverflowPolicy {
+  // Drops the new event
+  reject,
+  // Keeps the new event and drops the oldest queued impression in its place, so conversions are not lost
+  dropOldestImpressions,
+  // Makes the tracking call wait up to eventOverflowBlockTimeoutInMillis for room, then drops the event
+  block,
+  // Writes the event to a file of the SDK key, which is sent once the queue has drained, also after a restart.
+  // Events of calls handled on the main thread are dropped instead, as with block
+  spillToDisk
+}
@@ -0,0 +1,43 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+
+import 'package:optimizely_flutter_sdk/src/data_objects/base_response.dart';
+import 'package:optimizely_flutter_sdk/src/user_context/optimizely_user_context.dart';
+import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+
+class ExecuteBatchResponse extends BaseResponse {
+  /// Raw responses of each operation, in the order they were submitted.
+  /// Every entry carries its own success, result and reason keys.
+  List<Map<String, dynamic>> results = [];
+
+  /// User contexts created by the batch, keyed by the index of the
+  /// createUserContext operation that produced them.
+  Map<int, OptimizelyUserContext> userContexts = {};
+
+  ExecuteBatchResponse(Map<String, dynamic> json) : super(json) {
+    if (json[Constants.responseResult] is List) {
+      for (var result in json[Constants.responseResult]) {
+        results.add(
+            result is Map ? Map<String, dynamic>.from(result) : {});
+      }
+    }
+  }
+
+  /// Wraps the response of the operation at [index] in a [BaseResponse].
+  BaseResponse responseAt(int index) {
+    return BaseResponse(results[index]);
+  }
+}
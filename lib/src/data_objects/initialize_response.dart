@@ -0,0 +1,41 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+
+import 'package:optimizely_flutter_sdk/src/data_objects/base_response.dart';
+import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+
+enum DatafileSource {
+  // Started from the datafile saved by the last download, a fresh one is fetched in the background
+  cached,
+  // Started from a freshly downloaded datafile
+  fresh,
+  // Started from the datafile passed to OptimizelyFlutterSdk, a fresh one is fetched in the background
+  bundled
+}
+
+class InitializeResponse extends BaseResponse {
+  DatafileSource? datafileSource;
+
+  InitializeResponse(Map<String, dynamic> json) : super(json) {
+    if (json[Constants.responseResult] is Map<dynamic, dynamic>) {
+      var response = Map<String, dynamic>.from(json[Constants.responseResult]);
+      if (response[Constants.datafileSource] is String) {
+        datafileSource =
+            DatafileSource.values.asNameMap()[response[Constants.datafileSource]];
+      }
+    }
+  }
+}
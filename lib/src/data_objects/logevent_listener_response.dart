@@ -14,11 +14,16 @@
 /// limitations under the License.                                           *
 ///**************************************************************************/
 
+import 'dart:convert';
+import 'dart:typed_data';
+
 import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
 
 class LogEventListenerResponse {
   String url = '';
-  Map<String, dynamic> params = {};
+  // Raw UTF-8 JSON body, only set for listeners added with rawPayload
+  Uint8List? body;
+  Map<String, dynamic>? _params;
 
   LogEventListenerResponse(Map<String, dynamic> json) {
     if (json[Constants.url] is String) {
@@ -26,7 +31,22 @@ class LogEventListenerResponse {
     }
 
     if (json[Constants.params] is Map<dynamic, dynamic>) {
-      params = Map<String, dynamic>.from(json[Constants.params]);
+      _params = Map<String, dynamic>.from(json[Constants.params]);
+    }
+
+    if (json[Constants.body] is Uint8List) {
+      body = json[Constants.body];
     }
   }
+
+  // Parsed on first access when only the raw body was received
+  Map<String, dynamic> get params {
+    if (_params == null) {
+      final decoded = body == null ? null : jsonDecode(utf8.decode(body!));
+      _params = decoded is Map ? Map<String, dynamic>.from(decoded) : {};
+    }
+    return _params!;
+  }
+
+  set params(Map<String, dynamic> value) => _params = value;
 }
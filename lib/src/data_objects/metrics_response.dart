@@ -0,0 +1,320 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+
+import 'package:optimizely_flutter_sdk/src/data_objects/base_response.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/event_overflow_policy.dart';
+import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+
+/// Latency percentiles of one phase, in microseconds.
+///
+/// Values are the upper bound of their histogram bucket, so at most 25% above the actual latency.
+class LatencyPercentiles {
+  int p50 = 0;
+  int p95 = 0;
+  int p99 = 0;
+  int max = 0;
+
+  LatencyPercentiles(Map<String, dynamic> json) {
+    if (json[Constants.p50] is int) {
+      p50 = json[Constants.p50];
+    }
+    if (json[Constants.p95] is int) {
+      p95 = json[Constants.p95];
+    }
+    if (json[Constants.p99] is int) {
+      p99 = json[Constants.p99];
+    }
+    if (json[Constants.max] is int) {
+      max = json[Constants.max];
+    }
+  }
+}
+
+/// Counters and per-phase latencies of one operation.
+///
+/// Method calls have the phases parse, execute, reply and serialize.
+/// Notification and log forwarding have the phases delay and send.
+class OperationMetrics {
+  int count = 0;
+  int errors = 0;
+  int dropped = 0;
+  Map<String, LatencyPercentiles> latencies = {};
+
+  OperationMetrics(Map<String, dynamic> json) {
+    json.forEach((key, value) {
+      if (value is int) {
+        switch (key) {
+          case Constants.count:
+            count = value;
+            break;
+          case Constants.errors:
+            errors = value;
+            break;
+          case Constants.dropped:
+            dropped = value;
+            break;
+        }
+      } else if (value is Map<dynamic, dynamic>) {
+        latencies[key] =
+            LatencyPercentiles(Map<String, dynamic>.from(value));
+      }
+    });
+  }
+}
+
+/// Live threads of the executors shared by all SDK keys, reported on Android only.
+class ThreadMetrics {
+  // Threads running the event queue consumers of open clients
+  int eventThreads = 0;
+  // Consumers waiting for one of those threads, such as that of a client replacing a closing one
+  int queuedEventConsumers = 0;
+  // Threads running event log writes
+  int schedulerThreads = 0;
+  // Threads running datafile polls and replays of spilled events
+  int networkThreads = 0;
+  int processThreads = 0;
+
+  ThreadMetrics(Map<String, dynamic> json) {
+    if (json[Constants.eventThreads] is int) {
+      eventThreads = json[Constants.eventThreads];
+    }
+    if (json[Constants.queuedEventConsumers] is int) {
+      queuedEventConsumers = json[Constants.queuedEventConsumers];
+    }
+    if (json[Constants.schedulerThreads] is int) {
+      schedulerThreads = json[Constants.schedulerThreads];
+    }
+    if (json[Constants.networkThreads] is int) {
+      networkThreads = json[Constants.networkThreads];
+    }
+    if (json[Constants.processThreads] is int) {
+      processThreads = json[Constants.processThreads];
+    }
+  }
+}
+
+/// Current event batching of an SDK key initialized with SDKSettings.enableAdaptiveBatching.
+class EventBatchingMetrics {
+  int batchSize = 0;
+  int flushIntervalInMillis = 0;
+  // Events waiting to be added to a batch
+  int queueSize = 0;
+  // Moving average of the time the event handler takes to accept a batch, in microseconds.
+  // The batch is stored and its upload scheduled in that time, so network time is not included
+  int dispatchLatency = 0;
+
+  EventBatchingMetrics(Map<String, dynamic> json) {
+    if (json[Constants.batchSize] is int) {
+      batchSize = json[Constants.batchSize];
+    }
+    if (json[Constants.flushIntervalInMillis] is int) {
+      flushIntervalInMillis = json[Constants.flushIntervalInMillis];
+    }
+    if (json[Constants.queueSize] is int) {
+      queueSize = json[Constants.queueSize];
+    }
+    if (json[Constants.dispatchLatency] is int) {
+      dispatchLatency = json[Constants.dispatchLatency];
+    }
+  }
+}
+
+/// Event queue of an SDK key and what its overflow policy did, reported on Android only.
+class EventQueueMetrics {
+  EventOverflowPolicy overflowPolicy = EventOverflowPolicy.reject;
+  int queueSize = 0;
+  // Events dropped because the queue was full
+  int rejected = 0;
+  // Impressions dropped to make room for newer events
+  int evictedImpressions = 0;
+  // Tracking calls that waited for room, and those that gave up
+  int blocked = 0;
+  int timedOut = 0;
+  // Events written to disk, sent from disk, and failed to be written
+  int spilled = 0;
+  int replayed = 0;
+  int spillFailures = 0;
+  // Events rejected because the file on disk reached its size cap
+  int spillFull = 0;
+  // Events on disk waiting to be sent
+  int spillPending = 0;
+
+  EventQueueMetrics(Map<String, dynamic> json) {
+    if (json[Constants.overflowPolicy] is String) {
+      overflowPolicy = EventOverflowPolicy.values
+              .asNameMap()[json[Constants.overflowPolicy]] ??
+          EventOverflowPolicy.reject;
+    }
+    if (json[Constants.queueSize] is int) {
+      queueSize = json[Constants.queueSize];
+    }
+    if (json[Constants.rejected] is int) {
+      rejected = json[Constants.rejected];
+    }
+    if (json[Constants.evictedImpressions] is int) {
+      evictedImpressions = json[Constants.evictedImpressions];
+    }
+    if (json[Constants.blocked] is int) {
+      blocked = json[Constants.blocked];
+    }
+    if (json[Constants.timedOut] is int) {
+      timedOut = json[Constants.timedOut];
+    }
+    if (json[Constants.spilled] is int) {
+      spilled = json[Constants.spilled];
+    }
+    if (json[Constants.replayed] is int) {
+      replayed = json[Constants.replayed];
+    }
+    if (json[Constants.spillFailures] is int) {
+      spillFailures = json[Constants.spillFailures];
+    }
+    if (json[Constants.spillFull] is int) {
+      spillFull = json[Constants.spillFull];
+    }
+    if (json[Constants.spillPending] is int) {
+      spillPending = json[Constants.spillPending];
+    }
+  }
+}
+
+/// Persistent event log of an SDK key initialized with SDKSettings.enablePersistentEventLog, reported on Android only.
+class EventLogMetrics {
+  // Events in the log not sent yet, and the bytes they take
+  int pendingEvents = 0;
+  int pendingBytes = 0;
+  int segments = 0;
+  int appended = 0;
+  // Events dropped because the log was full
+  int dropped = 0;
+  // Batched flushes of the log to the disk
+  int syncs = 0;
+  // Events left by an earlier run of the app, and the time it took to read them, in microseconds
+  int recovered = 0;
+  int recoveryTime = 0;
+
+  EventLogMetrics(Map<String, dynamic> json) {
+    if (json[Constants.pendingEvents] is int) {
+      pendingEvents = json[Constants.pendingEvents];
+    }
+    if (json[Constants.pendingBytes] is int) {
+      pendingBytes = json[Constants.pendingBytes];
+    }
+    if (json[Constants.segments] is int) {
+      segments = json[Constants.segments];
+    }
+    if (json[Constants.appended] is int) {
+      appended = json[Constants.appended];
+    }
+    if (json[Constants.dropped] is int) {
+      dropped = json[Constants.dropped];
+    }
+    if (json[Constants.syncs] is int) {
+      syncs = json[Constants.syncs];
+    }
+    if (json[Constants.recovered] is int) {
+      recovered = json[Constants.recovered];
+    }
+    if (json[Constants.recoveryTime] is int) {
+      recoveryTime = json[Constants.recoveryTime];
+    }
+  }
+}
+
+/// Event requests of an SDK key initialized with SDKSettings.enableEventCompression or eventBatchMaxBytes, reported on Android only.
+class EventDispatchMetrics {
+  int requests = 0;
+  // Batches over eventBatchMaxBytes sent as several requests
+  int splitBatches = 0;
+  // Bytes of the compressed requests before and after compression
+  int uncompressedBytes = 0;
+  int compressedBytes = 0;
+  // Compressed requests that failed and were passed on uncompressed
+  int fallbacks = 0;
+
+  EventDispatchMetrics(Map<String, dynamic> json) {
+    if (json[Constants.requests] is int) {
+      requests = json[Constants.requests];
+    }
+    if (json[Constants.splitBatches] is int) {
+      splitBatches = json[Constants.splitBatches];
+    }
+    if (json[Constants.uncompressedBytes] is int) {
+      uncompressedBytes = json[Constants.uncompressedBytes];
+    }
+    if (json[Constants.compressedBytes] is int) {
+      compressedBytes = json[Constants.compressedBytes];
+    }
+    if (json[Constants.fallbacks] is int) {
+      fallbacks = json[Constants.fallbacks];
+    }
+  }
+}
+
+class MetricsResponse extends BaseResponse {
+  // Metrics of every method called so far, by method name
+  Map<String, OperationMetrics> calls = {};
+  OperationMetrics? notifications;
+  OperationMetrics? logs;
+  ThreadMetrics? threads;
+  EventBatchingMetrics? eventBatching;
+  EventQueueMetrics? eventQueue;
+  EventLogMetrics? eventLog;
+  EventDispatchMetrics? eventDispatch;
+
+  MetricsResponse(Map<String, dynamic> json) : super(json) {
+    if (json[Constants.responseResult] is Map<dynamic, dynamic>) {
+      var response = Map<String, dynamic>.from(json[Constants.responseResult]);
+      if (response[Constants.calls] is Map<dynamic, dynamic>) {
+        Map<dynamic, dynamic>.from(response[Constants.calls])
+            .forEach((method, metrics) {
+          if (method is String && metrics is Map<dynamic, dynamic>) {
+            calls[method] =
+                OperationMetrics(Map<String, dynamic>.from(metrics));
+          }
+        });
+      }
+      if (response[Constants.notifications] is Map<dynamic, dynamic>) {
+        notifications = OperationMetrics(
+            Map<String, dynamic>.from(response[Constants.notifications]));
+      }
+      if (response[Constants.logs] is Map<dynamic, dynamic>) {
+        logs = OperationMetrics(
+            Map<String, dynamic>.from(response[Constants.logs]));
+      }
+      if (response[Constants.threads] is Map<dynamic, dynamic>) {
+        threads = ThreadMetrics(
+            Map<String, dynamic>.from(response[Constants.threads]));
+      }
+      if (response[Constants.eventBatching] is Map<dynamic, dynamic>) {
+        eventBatching = EventBatchingMetrics(
+            Map<String, dynamic>.from(response[Constants.eventBatching]));
+      }
+      if (response[Constants.eventQueue] is Map<dynamic, dynamic>) {
+        eventQueue = EventQueueMetrics(
+            Map<String, dynamic>.from(response[Constants.eventQueue]));
+      }
+      if (response[Constants.eventLog] is Map<dynamic, dynamic>) {
+        eventLog = EventLogMetrics(
+            Map<String, dynamic>.from(response[Constants.eventLog]));
+      }
+      if (response[Constants.eventDispatch] is Map<dynamic, dynamic>) {
+        eventDispatch = EventDispatchMetrics(
+            Map<String, dynamic>.from(response[Constants.eventDispatch]));
+      }
+    }
+  }
+}
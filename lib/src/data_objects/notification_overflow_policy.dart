@@ -0,0 +1,24 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+/// Decides which notification the native SDK drops when the notification queue of a type is full.
+enum NotificationOverflowPolicy {
+  // Drops the oldest queued notification to make room
+  dropOldest,
+  // Drops the new notification
+  dropNewest,
+  // Keeps a uniform random sample of all notifications raised since the last delivery
+  sample
+}
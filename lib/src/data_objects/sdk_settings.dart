@@ -14,6 +14,9 @@
 /// limitations under the License.                                           *
 ///**************************************************************************/
 
+import 'package:optimizely_flutter_sdk/src/data_objects/event_overflow_policy.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/notification_overflow_policy.dart';
+
 class SDKSettings {
   // The maximum size of audience segments cache (optional. default = 100). Set to zero to disable caching.
   final int segmentsCacheSize;
@@ -27,6 +30,45 @@ class SDKSettings {
   final bool disableOdp;
   // Set this flag to true (default = false) to enable VUID feature
   final bool enableVuid;
+  // Set this flag to true (default = false) to run native method handlers on a background task queue instead of the platform main thread (Android only).
+  // Once enabled it applies to every SDK instance for the lifetime of the Flutter engine.
+  final bool enableBackgroundDispatch;
+  // The maximum number of user contexts kept by the native SDK (optional. default = 10000). Least recently used contexts are evicted first. Set to zero for no limit.
+  final int userContextCacheSize;
+  // The timeout in seconds after which an unused user context is evicted (optional. default = 0). Set to zero to disable timeout.
+  final int userContextCacheTimeoutInSecs;
+  // Set this flag to true (default = false) to cache the results of decide calls made with DecideOption.disableDecisionEvent (passed or default) per user context.
+  // Cached decisions are dropped when the user context's attributes, segments or forced decisions change, or the datafile changes. Cache hits fire no decision notification.
+  final bool enableDecisionCache;
+  // The time in milliseconds notifications are buffered by the native SDK before being delivered to listeners in one batch (optional. default = 0).
+  // Set to zero to deliver them once per frame.
+  final int notificationBatchIntervalInMillis;
+  // The maximum number of notifications of each type buffered by the native SDK until they are delivered (optional. default = 1000).
+  final int notificationQueueSize;
+  // Which notifications are dropped when a burst exceeds notificationQueueSize (optional. default = dropOldest).
+  final NotificationOverflowPolicy notificationOverflowPolicy;
+  // Set this flag to true (default = false) to start from the datafile saved by the last download instead of waiting for a new one, which is then fetched in the background.
+  // Falls back to waiting for the download when no usable datafile is saved. InitializeResponse.datafileSource tells which one the client started from.
+  final bool enableWarmStart;
+  // Set this flag to true (default = false) to let the batch size and flush interval of events follow the load (Android only).
+  // Batches grow up to 100 events under bursts and the interval shrinks down to a second as the event queue fills up, both returning to eventOptions when traffic calms down.
+  final bool enableAdaptiveBatching;
+  // What happens to events tracked while the event queue is full (optional. default = reject) (Android only).
+  // Events spilled to disk are sent once the queue has drained below half, including those left by an earlier run of the app.
+  // The file of spilled events is capped at 4 MB, events that do not fit anymore are rejected.
+  final EventOverflowPolicy eventOverflowPolicy;
+  // The time in milliseconds a tracking call waits for room with EventOverflowPolicy.block before the event is dropped (optional. default = 100) (Android only).
+  // Calls made on the platform main thread never wait, their events are dropped right away so a full queue cannot freeze the UI.
+  final int eventOverflowBlockTimeoutInMillis;
+  // Set this flag to true (default = false) to write events to a file before they are batched, so events not sent yet survive the app being killed (Android only).
+  // The file replaces the in-memory event queue, so eventOverflowPolicy and enableAdaptiveBatching do not apply. Events left by an earlier run of the app are sent on initialization.
+  final bool enablePersistentEventLog;
+  // Set this flag to true (default = false) to send event batches gzip-compressed (Android only).
+  // Requests that fail compressed are sent again uncompressed by the SDK's default event handler.
+  final bool enableEventCompression;
+  // The maximum size in bytes of the uncompressed body of an event request (optional. default = 0) (Android only).
+  // Larger batches are split by visitor into several requests. Set to zero to only limit batches by eventOptions.batchSize.
+  final int eventBatchMaxBytes;
 
   const SDKSettings({
     this.segmentsCacheSize = 100, // Default segmentsCacheSize
@@ -36,5 +78,24 @@ class SDKSettings {
     this.timeoutForOdpEventInSecs = 10, // Default timeoutForOdpEventInSecs
     this.disableOdp = false, // Default disableOdp
     this.enableVuid = false, // Default disableVuid
+    this.enableBackgroundDispatch = false, // Default enableBackgroundDispatch
+    this.userContextCacheSize = 10000, // Default userContextCacheSize
+    this.userContextCacheTimeoutInSecs =
+        0, // Default userContextCacheTimeoutInSecs
+    this.enableDecisionCache = false, // Default enableDecisionCache
+    this.notificationBatchIntervalInMillis =
+        0, // Default notificationBatchIntervalInMillis
+    this.notificationQueueSize = 1000, // Default notificationQueueSize
+    this.notificationOverflowPolicy =
+        NotificationOverflowPolicy.dropOldest, // Default notificationOverflowPolicy
+    this.enableWarmStart = false, // Default enableWarmStart
+    this.enableAdaptiveBatching = false, // Default enableAdaptiveBatching
+    this.eventOverflowPolicy =
+        EventOverflowPolicy.reject, // Default eventOverflowPolicy
+    this.eventOverflowBlockTimeoutInMillis =
+        100, // Default eventOverflowBlockTimeoutInMillis
+    this.enablePersistentEventLog = false, // Default enablePersistentEventLog
+    this.enableEventCompression = false, // Default enableEventCompression
+    this.eventBatchMaxBytes = 0, // Default eventBatchMaxBytes
   });
 }
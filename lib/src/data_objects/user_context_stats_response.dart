@@ -0,0 +1,52 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+
+import 'package:optimizely_flutter_sdk/src/data_objects/base_response.dart';
+import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+
+class UserContextStatsResponse extends BaseResponse {
+  // Number of user contexts currently kept by the native SDK
+  int size = 0;
+  // Number of user contexts evicted because the store was full
+  int capacityEvictions = 0;
+  // Number of user contexts evicted because they were unused for too long
+  int timeoutEvictions = 0;
+  // Number of decide calls answered from the decision cache
+  int decisionCacheHits = 0;
+  // Number of cacheable decide calls that had to be evaluated
+  int decisionCacheMisses = 0;
+
+  UserContextStatsResponse(Map<String, dynamic> json) : super(json) {
+    if (json[Constants.responseResult] is Map<dynamic, dynamic>) {
+      var response = Map<String, dynamic>.from(json[Constants.responseResult]);
+      if (response[Constants.size] is int) {
+        size = response[Constants.size];
+      }
+      if (response[Constants.capacityEvictions] is int) {
+        capacityEvictions = response[Constants.capacityEvictions];
+      }
+      if (response[Constants.timeoutEvictions] is int) {
+        timeoutEvictions = response[Constants.timeoutEvictions];
+      }
+      if (response[Constants.decisionCacheHits] is int) {
+        decisionCacheHits = response[Constants.decisionCacheHits];
+      }
+      if (response[Constants.decisionCacheMisses] is int) {
+        decisionCacheMisses = response[Constants.decisionCacheMisses];
+      }
+    }
+  }
+}
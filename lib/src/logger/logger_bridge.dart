@@ -22,6 +22,9 @@ class LoggerBridge {
         case 'log':
           await _handleLogCall(call);
           break;
+        case 'logBatch':
+          await _handleLogBatchCall(call);
+          break;
         default:
           logWarning('[LoggerBridge] Unknown method call: ${call.method}');
       }
@@ -43,15 +46,47 @@ class LoggerBridge {
         return;
       }
 
-      final level = _convertLogLevel(levelRawValue);
+      _log(_convertLogLevel(levelRawValue), message);
+    } catch (e) {
+      logError('[LoggerBridge] Error processing log call: $e');
+    }
+  }
+
+  /// Process a batch of log lines from Java, sent as parallel level and message lists
+  static Future<void> _handleLogBatchCall(MethodCall call) async {
+    try {
+      final args = Map<String, dynamic>.from(call.arguments ?? {});
+      final levels = args['levels'] is List ? args['levels'] as List : const [];
+      final messages =
+          args['messages'] is List ? args['messages'] as List : const [];
+      final dropped = args['dropped'] is int ? args['dropped'] as int : 0;
+
+      if (levels.length != messages.length) {
+        logError('[LoggerBridge] Warning: Mismatched levels and messages in log batch');
+        return;
+      }
 
-      if (_customLogger != null) {
-        _customLogger!.log(level, message);
-      } else {
-        logInfo('[Optimizely ${level.name}] $message');
+      if (dropped > 0) {
+        _log(OptimizelyLogLevel.warning,
+            '[LoggerBridge] $dropped native log lines dropped');
+      }
+      for (var i = 0; i < levels.length; i++) {
+        final levelRawValue = levels[i];
+        final message = messages[i];
+        if (levelRawValue is int && message is String) {
+          _log(_convertLogLevel(levelRawValue), message);
+        }
       }
     } catch (e) {
-      logError('[LoggerBridge] Error processing log call: $e');
+      logError('[LoggerBridge] Error processing log batch call: $e');
+    }
+  }
+
+  static void _log(OptimizelyLogLevel level, String message) {
+    if (_customLogger != null) {
+      _customLogger!.log(level, message);
+    } else {
+      logInfo('[Optimizely ${level.name}] $message');
     }
   }
 
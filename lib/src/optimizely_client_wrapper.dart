@@ -22,10 +22,17 @@ import 'package:optimizely_flutter_sdk/package_info.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/activate_listener_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/activate_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/base_response.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/initialize_response.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/batch_operation.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/execute_batch_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/get_variation_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/get_vuid_response.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/notification_stats_response.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/metrics_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/optimizely_config_response.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/user_context_stats_response.dart';
 import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+import 'package:optimizely_flutter_sdk/src/utils/optimizely_message_codec.dart';
 import 'package:optimizely_flutter_sdk/src/utils/utils.dart';
 
 enum ListenerType { activate, track, decision, logEvent, projectConfigUpdate }
@@ -43,7 +50,8 @@ typedef MultiUseCallback = void Function(dynamic msg);
 
 /// The internal client class for the Optimizely Flutter SDK used by the main OptimizelyFlutterSdk class.
 class OptimizelyClientWrapper {
-  static const MethodChannel _channel = MethodChannel('optimizely_flutter_sdk');
+  static const MethodChannel _channel =
+      MethodChannel('optimizely_flutter_sdk', OptimizelyMethodCodec());
   static int nextCallbackId = 0;
   static Map<String, Map<int, ActivateNotificationCallback>>
       activateCallbacksById = {};
@@ -56,7 +64,7 @@ class OptimizelyClientWrapper {
   static Map<String, Map<int, MultiUseCallback>> configUpdateCallbacksById = {};
 
   /// Starts Optimizely SDK (Synchronous) with provided sdkKey and options.
-  static Future<BaseResponse> initializeClient(
+  static Future<InitializeResponse> initializeClient(
       String sdkKey,
       EventOptions eventOptions,
       int datafilePeriodicDownloadInterval,
@@ -65,7 +73,8 @@ class OptimizelyClientWrapper {
       OptimizelyLogLevel defaultLogLevel,
       SDKSettings sdkSettings,
       CmabConfig? cmabConfig,
-      OptimizelyLogger? logger) async {
+      OptimizelyLogger? logger,
+      [Uint8List? datafile]) async {
     _channel.setMethodCallHandler(methodCallHandler);
     final convertedOptions = Utils.convertDecideOptions(defaultDecideOptions);
     final convertedLogLevel = Utils.convertLogLevel(defaultLogLevel);
@@ -93,6 +102,24 @@ class OptimizelyClientWrapper {
       Constants.timeoutForOdpEventInSecs: sdkSettings.timeoutForOdpEventInSecs,
       Constants.disableOdp: sdkSettings.disableOdp,
       Constants.enableVuid: sdkSettings.enableVuid,
+      Constants.enableBackgroundDispatch: sdkSettings.enableBackgroundDispatch,
+      Constants.userContextCacheSize: sdkSettings.userContextCacheSize,
+      Constants.userContextCacheTimeoutInSecs:
+          sdkSettings.userContextCacheTimeoutInSecs,
+      Constants.enableDecisionCache: sdkSettings.enableDecisionCache,
+      Constants.notificationBatchIntervalInMillis:
+          sdkSettings.notificationBatchIntervalInMillis,
+      Constants.notificationQueueSize: sdkSettings.notificationQueueSize,
+      Constants.notificationOverflowPolicy:
+          sdkSettings.notificationOverflowPolicy.name,
+      Constants.enableWarmStart: sdkSettings.enableWarmStart,
+      Constants.enableAdaptiveBatching: sdkSettings.enableAdaptiveBatching,
+      Constants.eventOverflowPolicy: sdkSettings.eventOverflowPolicy.name,
+      Constants.eventOverflowBlockTimeoutInMillis:
+          sdkSettings.eventOverflowBlockTimeoutInMillis,
+      Constants.enablePersistentEventLog: sdkSettings.enablePersistentEventLog,
+      Constants.enableEventCompression: sdkSettings.enableEventCompression,
+      Constants.eventBatchMaxBytes: sdkSettings.eventBatchMaxBytes,
     };
     requestDict[Constants.optimizelySdkSettings] = optimizelySdkSettings;
 
@@ -128,8 +155,13 @@ class OptimizelyClientWrapper {
       }
     });
 
+    // Sent as binary data, Android reads it without copying the message
+    if (datafile != null) {
+      requestDict[Constants.datafile] = datafile;
+    }
+
     final result = await _invoke(Constants.initializeMethod, requestDict);
-    return BaseResponse(result);
+    return InitializeResponse(result);
   }
 
   /// Use the activate method to start an experiment.
@@ -266,6 +298,30 @@ class OptimizelyClientWrapper {
     return BaseResponse(result);
   }
 
+  /// Returns the number of live user contexts and how many were evicted.
+  static Future<UserContextStatsResponse> getUserContextStats(
+      String sdkKey) async {
+    final result = await _invoke(
+        Constants.getUserContextStatsMethod, {Constants.sdkKey: sdkKey});
+    return UserContextStatsResponse(result);
+  }
+
+  /// Returns how many notifications the native notification queues dropped, by notification type.
+  static Future<NotificationStatsResponse> getNotificationStats(
+      String sdkKey) async {
+    final result = await _invoke(
+        Constants.getNotificationStatsMethod, {Constants.sdkKey: sdkKey});
+    return NotificationStatsResponse(result);
+  }
+
+  /// Returns the call, notification and log forwarding metrics of the native plugin.
+  static Future<MetricsResponse> getMetrics(String sdkKey,
+      {bool reset = false}) async {
+    final result = await _invoke(Constants.getMetricsMethod,
+        {Constants.sdkKey: sdkKey, Constants.resetMetrics: reset});
+    return MetricsResponse(result);
+  }
+
   /// Returns a success true if optimizely client closed successfully.
   static Future<BaseResponse> close(String sdkKey) async {
     final result = await _invoke(
@@ -296,6 +352,34 @@ class OptimizelyClientWrapper {
     return null;
   }
 
+  /// Runs [operations] in order on the native side using a single channel round trip.
+  ///
+  /// A failing operation does not stop the batch; its entry in
+  /// [ExecuteBatchResponse.results] carries the failure reason instead.
+  static Future<ExecuteBatchResponse> executeBatch(
+      String sdkKey, List<BatchOperation> operations) async {
+    final result = await _invoke(Constants.executeBatchMethod, {
+      Constants.sdkKey: sdkKey,
+      Constants.operations:
+          operations.map((operation) => operation.toMap()).toList()
+    });
+    final response = ExecuteBatchResponse(result);
+    for (var i = 0; i < response.results.length && i < operations.length; i++) {
+      final operationResult = response.results[i];
+      if (operations[i].method == Constants.createUserContextMethod &&
+          operationResult[Constants.responseSuccess] == true &&
+          operationResult[Constants.responseResult] is Map) {
+        final userContextId =
+            operationResult[Constants.responseResult][Constants.userContextId];
+        if (userContextId is String) {
+          response.userContexts[i] =
+              OptimizelyUserContext(sdkKey, userContextId, _channel);
+        }
+      }
+    }
+    return response;
+  }
+
   static List<int> _clearAllCallbacks(String sdkKey,
       [ListenerType? listenerType]) {
     var callbackIds = <int>[];
@@ -440,7 +524,8 @@ class OptimizelyClientWrapper {
   }
 
   static Future<int> addLogEventNotificationListener(
-      String sdkKey, LogEventNotificationCallback callback) async {
+      String sdkKey, LogEventNotificationCallback callback,
+      {bool rawPayload = false}) async {
     _channel.setMethodCallHandler(methodCallHandler);
 
     if (checkCallBackExist(sdkKey, callback)) {
@@ -455,7 +540,8 @@ class OptimizelyClientWrapper {
     await _invoke(Constants.addNotificationListenerMethod, {
       Constants.sdkKey: sdkKey,
       Constants.id: currentListenerId,
-      Constants.type: listenerTypeStr
+      Constants.type: listenerTypeStr,
+      Constants.rawPayload: rawPayload
     });
     // Returning an id that allows the user to remove the added notification listener
     return currentListenerId;
@@ -517,11 +603,31 @@ class OptimizelyClientWrapper {
   }
 
   static Future<void> methodCallHandler(MethodCall call) async {
-    final id = call.arguments[Constants.id];
     final sdkKey = call.arguments[Constants.sdkKey];
-    final payload = call.arguments[Constants.payload];
+    if (call.method == Constants.notificationBatchCallbackListener) {
+      // Notifications buffered by the native side, in the order they were raised
+      final notifications = call.arguments[Constants.notifications];
+      if (notifications is List) {
+        for (final notification in notifications) {
+          if (notification is Map) {
+            _invokeListener(
+                "${notification[Constants.type]}CallbackListener",
+                sdkKey,
+                notification[Constants.id],
+                notification[Constants.payload]);
+          }
+        }
+      }
+      return;
+    }
+    _invokeListener(call.method, sdkKey, call.arguments[Constants.id],
+        call.arguments[Constants.payload]);
+  }
+
+  static void _invokeListener(
+      String method, dynamic sdkKey, dynamic id, dynamic payload) {
     if (id is int && payload != null) {
-      switch (call.method) {
+      switch (method) {
         case Constants.activateCallBackListener:
           final response =
               ActivateListenerResponse(Map<String, dynamic>.from(payload));
@@ -562,7 +668,7 @@ class OptimizelyClientWrapper {
           break;
         default:
           // ignore: avoid_print
-          print('Method ${call.method} not implemented.');
+          print('Method $method not implemented.');
       }
     }
   }
@@ -22,6 +22,7 @@ import 'package:optimizely_flutter_sdk/src/data_objects/get_attributes_response.
 import 'package:optimizely_flutter_sdk/src/data_objects/get_forced_decision_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/get_user_id_response.dart';
 import 'package:optimizely_flutter_sdk/src/data_objects/get_qualified_segments_response.dart';
+import 'package:optimizely_flutter_sdk/src/user_context/user_context_releaser.dart';
 import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
 import 'package:optimizely_flutter_sdk/src/utils/utils.dart';
 
@@ -70,7 +71,17 @@ class OptimizelyUserContext {
   final String _userContextId;
   final MethodChannel _channel;
 
-  OptimizelyUserContext(this._sdkKey, this._userContextId, this._channel);
+  // Releases the native user context once this object is garbage collected
+  static final Finalizer<_ReleaseToken> _finalizer = Finalizer(
+      (token) => token.releaser.enqueue(token.sdkKey, token.userContextId));
+
+  OptimizelyUserContext(this._sdkKey, this._userContextId, this._channel) {
+    _finalizer.attach(
+        this,
+        _ReleaseToken(_sdkKey, _userContextId,
+            UserContextReleaser.forChannel(_channel)),
+        detach: this);
+  }
 
   /// Safe wrapper around [MethodChannel.invokeMethod] for this user context.
   ///
@@ -96,6 +107,19 @@ class OptimizelyUserContext {
     }
   }
 
+  /// Releases the native user context right away instead of waiting for garbage collection.
+  ///
+  /// The user context must not be used after it is released.
+  /// Returns [BaseResponse]
+  Future<BaseResponse> release() async {
+    _finalizer.detach(this);
+    final result = await _invoke(Constants.releaseUserContextMethod, {
+      Constants.sdkKey: _sdkKey,
+      Constants.userContextId: _userContextId,
+    });
+    return BaseResponse(result);
+  }
+
   /// Returns [GetUserIdResponse] object containing userId for the user context.
   Future<GetUserIdResponse> getUserId() async {
     final result = await _invoke(Constants.getUserIdMethod, {
@@ -357,3 +381,11 @@ class OptimizelyUserContext {
     return BaseResponse(result);
   }
 }
+
+class _ReleaseToken {
+  final String sdkKey;
+  final String userContextId;
+  final UserContextReleaser releaser;
+
+  _ReleaseToken(this.sdkKey, this.userContextId, this.releaser);
+}
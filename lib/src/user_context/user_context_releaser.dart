@@ -0,0 +1,66 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+
+import 'dart:async';
+import 'package:flutter/services.dart';
+import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+
+/// Releases the native twins of user contexts that were garbage collected on the Dart side.
+///
+/// Finalized contexts are queued and released per sdkKey with a single releaseUserContexts
+/// call once [flushDelay] has passed, so a GC cycle collecting many contexts costs one channel
+/// round trip per sdkKey instead of one per context.
+class UserContextReleaser {
+  static const Duration flushDelay = Duration(milliseconds: 100);
+  static final Map<MethodChannel, UserContextReleaser> _releasers = {};
+
+  final MethodChannel _channel;
+  final Map<String, List<String>> _pending = {};
+  Timer? _timer;
+
+  UserContextReleaser._(this._channel);
+
+  /// Returns the releaser sending release calls on [channel].
+  static UserContextReleaser forChannel(MethodChannel channel) {
+    return _releasers.putIfAbsent(channel, () => UserContextReleaser._(channel));
+  }
+
+  /// Queues a user context to be released with the next flush.
+  void enqueue(String sdkKey, String userContextId) {
+    _pending.putIfAbsent(sdkKey, () => []).add(userContextId);
+    _timer ??= Timer(flushDelay, flush);
+  }
+
+  /// Releases all queued user contexts right away.
+  Future<void> flush() async {
+    _timer?.cancel();
+    _timer = null;
+    final pending = Map<String, List<String>>.from(_pending);
+    _pending.clear();
+    for (final entry in pending.entries) {
+      try {
+        await _channel.invokeMethod(Constants.releaseUserContextsMethod, {
+          Constants.sdkKey: entry.key,
+          Constants.userContextIds: entry.value,
+        });
+      } on PlatformException {
+        // Nothing to recover, the native client may already be closed
+      } on MissingPluginException {
+        // Engine detached
+      }
+    }
+  }
+}
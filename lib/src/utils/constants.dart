@@ -58,6 +58,18 @@ class Constants {
   static const String isQualifiedForMethod = "isQualifiedFor";
   static const String fetchQualifiedSegmentsMethod = "fetchQualifiedSegments";
 
+  // Batch Supported Method Names
+  static const String executeBatchMethod = "executeBatch";
+
+  // User context store Supported Method Names
+  static const String getUserContextStatsMethod = "getUserContextStats";
+  static const String releaseUserContextMethod = "releaseUserContext";
+  static const String releaseUserContextsMethod = "releaseUserContexts";
+
+  // Notification Supported Method Names
+  static const String getNotificationStatsMethod = "getNotificationStats";
+  static const String getMetricsMethod = "getMetrics";
+
   // Request parameter keys
   static const String id = "id";
   static const String sdkKey = "sdkKey";
@@ -80,6 +92,8 @@ class Constants {
   static const String eventKey = "eventKey";
   static const String url = "url";
   static const String params = "params";
+  static const String body = "body";
+  static const String rawPayload = "rawPayload";
   static const String eventTags = "eventTags";
   static const String keys = "keys";
   static const String variationKey = "variationKey";
@@ -110,6 +124,16 @@ class Constants {
   static const String logEventCallbackListener = "logEventCallbackListener";
   static const String configUpdateCallBackListener =
       "projectConfigUpdateCallbackListener";
+  static const String notificationBatchCallbackListener =
+      "notificationBatchCallbackListener";
+  static const String notifications = "notifications";
+
+  // Batch Request params
+  static const String operations = "operations";
+  static const String method = "method";
+  static const String arguments = "arguments";
+  static const String userContextRef = "userContextRef";
+  static const String userContextIds = "userContextIds";
 
   // OptimizelyConfig Request params
   static const String audiences = "audiences";
@@ -137,6 +161,23 @@ class Constants {
   static const String timeoutForOdpEventInSecs = "timeoutForOdpEventInSecs";
   static const String disableOdp = "disableOdp";
   static const String enableVuid = "enableVuid";
+  static const String enableBackgroundDispatch = "enableBackgroundDispatch";
+  static const String userContextCacheSize = "userContextCacheSize";
+  static const String userContextCacheTimeoutInSecs =
+      "userContextCacheTimeoutInSecs";
+  static const String enableDecisionCache = "enableDecisionCache";
+  static const String notificationBatchIntervalInMillis =
+      "notificationBatchIntervalInMillis";
+  static const String notificationQueueSize = "notificationQueueSize";
+  static const String notificationOverflowPolicy = "notificationOverflowPolicy";
+  static const String enableWarmStart = "enableWarmStart";
+  static const String enableAdaptiveBatching = "enableAdaptiveBatching";
+  static const String eventOverflowPolicy = "eventOverflowPolicy";
+  static const String eventOverflowBlockTimeoutInMillis =
+      "eventOverflowBlockTimeoutInMillis";
+  static const String enablePersistentEventLog = "enablePersistentEventLog";
+  static const String enableEventCompression = "enableEventCompression";
+  static const String eventBatchMaxBytes = "eventBatchMaxBytes";
 
   // CMAB Config params
   static const String cmabConfig = "cmabConfig";
@@ -144,8 +185,67 @@ class Constants {
   static const String cmabCacheTimeoutInSecs = "cmabCacheTimeoutInSecs";
   static const String cmabPredictionEndpoint = "cmabPredictionEndpoint";
 
+  // User context stats keys
+  static const String size = "size";
+  static const String capacityEvictions = "capacityEvictions";
+  static const String timeoutEvictions = "timeoutEvictions";
+  static const String decisionCacheHits = "decisionCacheHits";
+  static const String decisionCacheMisses = "decisionCacheMisses";
+
+  // Notification stats keys
+  static const String droppedNotifications = "droppedNotifications";
+
+  // Metrics keys
+  static const String resetMetrics = "resetMetrics";
+  static const String calls = "calls";
+  static const String logs = "logs";
+  static const String threads = "threads";
+  static const String eventThreads = "eventThreads";
+  static const String queuedEventConsumers = "queuedEventConsumers";
+  static const String schedulerThreads = "schedulerThreads";
+  static const String networkThreads = "networkThreads";
+  static const String processThreads = "processThreads";
+  static const String eventBatching = "eventBatching";
+  static const String batchSize = "batchSize";
+  static const String flushIntervalInMillis = "flushIntervalInMillis";
+  static const String queueSize = "queueSize";
+  static const String dispatchLatency = "dispatchLatency";
+  static const String eventQueue = "eventQueue";
+  static const String overflowPolicy = "overflowPolicy";
+  static const String rejected = "rejected";
+  static const String evictedImpressions = "evictedImpressions";
+  static const String blocked = "blocked";
+  static const String timedOut = "timedOut";
+  static const String spilled = "spilled";
+  static const String replayed = "replayed";
+  static const String spillFailures = "spillFailures";
+  static const String spillFull = "spillFull";
+  static const String spillPending = "spillPending";
+  static const String eventLog = "eventLog";
+  static const String pendingEvents = "pendingEvents";
+  static const String pendingBytes = "pendingBytes";
+  static const String segments = "segments";
+  static const String appended = "appended";
+  static const String syncs = "syncs";
+  static const String recovered = "recovered";
+  static const String recoveryTime = "recoveryTime";
+  static const String eventDispatch = "eventDispatch";
+  static const String requests = "requests";
+  static const String splitBatches = "splitBatches";
+  static const String uncompressedBytes = "uncompressedBytes";
+  static const String compressedBytes = "compressedBytes";
+  static const String fallbacks = "fallbacks";
+  static const String count = "count";
+  static const String errors = "errors";
+  static const String dropped = "dropped";
+  static const String p50 = "p50";
+  static const String p95 = "p95";
+  static const String p99 = "p99";
+  static const String max = "max";
+
   // Response keys
   static const String responseSuccess = "success";
   static const String responseResult = "result";
   static const String responseReason = "reason";
+  static const String datafileSource = "datafileSource";
 }
@@ -0,0 +1,161 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/decide_response.dart';
+import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+import 'package:optimizely_flutter_sdk/src/utils/request_fields.dart';
+
+/// Method codec of the plugin method channel.
+///
+/// Sends the arguments of calls as [RequestArguments] when every key has a field in
+/// [requestFields], and as a plain map otherwise.
+class OptimizelyMethodCodec extends StandardMethodCodec {
+  const OptimizelyMethodCodec() : super(const OptimizelyMessageCodec());
+
+  @override
+  ByteData encodeMethodCall(MethodCall methodCall) {
+    final arguments = methodCall.arguments;
+    final requestArguments =
+        arguments is Map ? RequestArguments.tryFrom(arguments) : null;
+    if (requestArguments == null) {
+      return super.encodeMethodCall(methodCall);
+    }
+    return super
+        .encodeMethodCall(MethodCall(methodCall.method, requestArguments));
+  }
+}
+
+/// Arguments of a method call as (field, value) pairs, numbered by [requestFields].
+///
+/// Null values are left out, native platforms read missing fields as null.
+class RequestArguments {
+  final List<int> fields;
+  final List<Object?> values;
+
+  RequestArguments._(this.fields, this.values);
+
+  /// Returns null if a key of [arguments] has no field.
+  static RequestArguments? tryFrom(Map arguments) {
+    final fields = <int>[];
+    final values = <Object?>[];
+    for (final entry in arguments.entries) {
+      final field = requestFieldIds[entry.key];
+      if (field == null) {
+        return null;
+      }
+      if (entry.value != null) {
+        fields.add(field);
+        values.add(entry.value);
+      }
+    }
+    return RequestArguments._(fields, values);
+  }
+}
+
+/// Message codec of the plugin method channel.
+///
+/// Extends [StandardMessageCodec] with tagged encodings written without keys:
+/// * [Decision], so native platforms can write decisions straight into the channel buffer,
+///   without building intermediate maps. Fields are written positionally: variationKey,
+///   enabled, variables, ruleKey, flagKey, userId, attributes, reasons.
+/// * Responses, written positionally as success, result and reason, and decoded into the
+///   same map platforms without the tag reply with.
+/// * [RequestArguments], written as a count followed by (field, value) pairs with the field
+///   as a single byte, and decoded back into a map.
+///
+/// Platforms that send decisions and responses as plain maps keep working, as every standard
+/// type is still decoded by the parent codec.
+///
+/// Must be kept in sync with OptimizelyMessageCodec.java on Android.
+class OptimizelyMessageCodec extends StandardMessageCodec {
+  const OptimizelyMessageCodec();
+
+  // Custom type tags must not collide with the standard ones (0-15)
+  static const int _valueDecision = 128;
+  static const int _valueRequest = 129;
+  static const int _valueResponse = 130;
+
+  @override
+  void writeValue(WriteBuffer buffer, Object? value) {
+    if (value is Decision) {
+      buffer.putUint8(_valueDecision);
+      writeValue(buffer, value.variationKey);
+      writeValue(buffer, value.enabled);
+      writeValue(buffer, value.variables);
+      writeValue(buffer, value.ruleKey);
+      writeValue(buffer, value.flagKey);
+      writeValue(buffer, value.userContext[Constants.userId]);
+      writeValue(buffer, value.userContext[Constants.attributes]);
+      writeValue(buffer, value.reasons);
+    } else if (value is RequestArguments) {
+      buffer.putUint8(_valueRequest);
+      writeSize(buffer, value.fields.length);
+      for (var i = 0; i < value.fields.length; i++) {
+        buffer.putUint8(value.fields[i]);
+        writeValue(buffer, value.values[i]);
+      }
+    } else {
+      super.writeValue(buffer, value);
+    }
+  }
+
+  @override
+  Object? readValueOfType(int type, ReadBuffer buffer) {
+    switch (type) {
+      case _valueDecision:
+        final variationKey = readValue(buffer) as String?;
+        final enabled = readValue(buffer) as bool?;
+        final variables = _readStringMap(buffer);
+        final ruleKey = readValue(buffer) as String?;
+        final flagKey = readValue(buffer) as String?;
+        final userId = readValue(buffer) as String?;
+        final attributes = _readStringMap(buffer);
+        final reasons = readValue(buffer) as List<Object?>?;
+        return Decision.fromFields(
+            variationKey: variationKey,
+            enabled: enabled,
+            variables: variables,
+            ruleKey: ruleKey,
+            flagKey: flagKey,
+            userId: userId,
+            attributes: attributes,
+            reasons: reasons?.cast<String>().toList());
+      case _valueRequest:
+        final size = readSize(buffer);
+        final arguments = <Object?, Object?>{};
+        for (var i = 0; i < size; i++) {
+          final field = buffer.getUint8();
+          arguments[requestFields[field]] = readValue(buffer);
+        }
+        return arguments;
+      case _valueResponse:
+        return <Object?, Object?>{
+          Constants.responseSuccess: readValue(buffer),
+          Constants.responseResult: readValue(buffer),
+          Constants.responseReason: readValue(buffer),
+        };
+      default:
+        return super.readValueOfType(type, buffer);
+    }
+  }
+
+  Map<String, dynamic>? _readStringMap(ReadBuffer buffer) {
+    final value = readValue(buffer);
+    return value is Map ? Map<String, dynamic>.from(value) : null;
+  }
+}
@@ -0,0 +1,69 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+
+import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+
+/// Keys of method call arguments, numbered by their position.
+///
+/// [OptimizelyMethodCodec] sends arguments as (field, value) pairs with these numbers instead of
+/// keyed maps. Native platforms read them back by the same numbers, and Android checks each value
+/// against the type of its field while decoding.
+///
+/// Must be kept in sync with RequestArguments.java on Android and OptimizelyMessageCodec.swift on iOS.
+/// Fields may only be appended.
+const List<String> requestFields = [
+  Constants.sdkKey,
+  Constants.sdkVersion,
+  Constants.userId,
+  Constants.userContextId,
+  Constants.userContextIds,
+  Constants.id,
+  Constants.type,
+  Constants.rawPayload,
+  Constants.resetMetrics,
+  Constants.callbackIds,
+  Constants.attributes,
+  Constants.eventKey,
+  Constants.eventTags,
+  Constants.keys,
+  Constants.optimizelyDecideOption,
+  Constants.defaultLogLevel,
+  Constants.flagKey,
+  Constants.ruleKey,
+  Constants.variationKey,
+  Constants.experimentKey,
+  Constants.eventBatchSize,
+  Constants.eventTimeInterval,
+  Constants.eventMaxQueueSize,
+  Constants.datafilePeriodicDownloadInterval,
+  Constants.datafileHostPrefix,
+  Constants.datafileHostSuffix,
+  Constants.qualifiedSegments,
+  Constants.segment,
+  Constants.action,
+  Constants.identifiers,
+  Constants.data,
+  Constants.optimizelySegmentOption,
+  Constants.optimizelySdkSettings,
+  Constants.operations,
+  Constants.cmabConfig,
+  Constants.datafile,
+];
+
+/// Number of each key in [requestFields].
+final Map<String, int> requestFieldIds = {
+  for (var i = 0; i < requestFields.length; i++) requestFields[i]: i
+};
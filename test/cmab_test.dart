@@ -19,6 +19,7 @@ import "package:flutter_test/flutter_test.dart";
 import "package:optimizely_flutter_sdk/optimizely_flutter_sdk.dart";
 import 'package:optimizely_flutter_sdk/src/optimizely_client_wrapper.dart';
 import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+import 'package:optimizely_flutter_sdk/src/utils/optimizely_message_codec.dart';
 import 'package:optimizely_flutter_sdk/src/utils/utils.dart';
 import 'test_utils.dart';
 
@@ -29,7 +30,8 @@ void main() {
   const String userContextId = "123";
   const Map<String, dynamic> attributes = {"abc": 123};
 
-  const MethodChannel channel = MethodChannel("optimizely_flutter_sdk");
+  const MethodChannel channel =
+      MethodChannel("optimizely_flutter_sdk", OptimizelyMethodCodec());
   TestDefaultBinaryMessenger? tester;
 
   setUp(() async {
@@ -30,9 +30,11 @@ import 'package:flutter/services.dart';
 import 'package:flutter_test/flutter_test.dart';
 import 'package:optimizely_flutter_sdk/optimizely_flutter_sdk.dart';
 import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+import 'package:optimizely_flutter_sdk/src/utils/optimizely_message_codec.dart';
 
 void main() {
-  const channel = MethodChannel('optimizely_flutter_sdk');
+  const channel =
+      MethodChannel('optimizely_flutter_sdk', OptimizelyMethodCodec());
   const sdkKey = 'test-sdk-key';
 
   TestWidgetsFlutterBinding.ensureInitialized();
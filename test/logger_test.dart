@@ -168,6 +168,55 @@ void main() {
       });
     });
 
+    group("Log Batches", () {
+      test("should handle batched log lines in order", () async {
+        var testLogger = TestLogger();
+        LoggerBridge.initialize(testLogger);
+
+        final methodCall = const MethodCall('logBatch', {
+          'levels': [1, 4, 3],
+          'messages': ['Error message', 'Debug message', 'Info message'],
+          'dropped': 0
+        });
+        await LoggerBridge.handleMethodCallForTesting(methodCall);
+
+        expect(testLogger.logs.length, equals(3));
+        expect(testLogger.logs[0].level, equals(OptimizelyLogLevel.error));
+        expect(testLogger.logs[1].level, equals(OptimizelyLogLevel.debug));
+        expect(testLogger.logs[2].message, equals('Info message'));
+      });
+
+      test("should report dropped log lines", () async {
+        var testLogger = TestLogger();
+        LoggerBridge.initialize(testLogger);
+
+        final methodCall = const MethodCall('logBatch', {
+          'levels': [3],
+          'messages': ['Info message'],
+          'dropped': 5
+        });
+        await LoggerBridge.handleMethodCallForTesting(methodCall);
+
+        expect(testLogger.logs.length, equals(2));
+        expect(testLogger.logs[0].level, equals(OptimizelyLogLevel.warning));
+        expect(testLogger.logs[0].message, contains('5'));
+        expect(testLogger.logs[1].message, equals('Info message'));
+      });
+
+      test("should ignore batches with mismatched lists", () async {
+        var testLogger = TestLogger();
+        LoggerBridge.initialize(testLogger);
+
+        final methodCall = const MethodCall('logBatch', {
+          'levels': [3, 3],
+          'messages': ['Info message']
+        });
+        await LoggerBridge.handleMethodCallForTesting(methodCall);
+
+        expect(testLogger.logs.isEmpty, isTrue);
+      });
+    });
+
     group("Multiple Log Levels", () {
       test("should handle all log levels in sequence", () async {
         var testLogger = TestLogger();
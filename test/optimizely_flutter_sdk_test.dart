@@ -19,7 +19,9 @@ import "package:flutter/services.dart";
 import "package:flutter_test/flutter_test.dart";
 import "package:optimizely_flutter_sdk/optimizely_flutter_sdk.dart";
 import 'package:optimizely_flutter_sdk/src/optimizely_client_wrapper.dart';
+import 'package:optimizely_flutter_sdk/src/user_context/user_context_releaser.dart';
 import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+import 'package:optimizely_flutter_sdk/src/utils/optimizely_message_codec.dart';
 import 'package:optimizely_flutter_sdk/src/utils/utils.dart';
 import 'dart:io';
 import 'dart:convert';
@@ -52,11 +54,14 @@ void main() {
   EventOptions eventOptions = const EventOptions();
   // To check if segment options properly reached the native sdk through channel
   List<String> segmentOptions = [];
+  // To check which user contexts were released through channel
+  List<List<String>> releasedUserContextIds = [];
   DatafileHostOptions datafileHostOptions = const DatafileHostOptions("", "");
   SDKSettings sdkSettings = const SDKSettings();
   int datafilePeriodicDownloadInterval = 0;
   String defaultLogLevel = "error";
-  const MethodChannel channel = MethodChannel("optimizely_flutter_sdk");
+  const MethodChannel channel =
+      MethodChannel("optimizely_flutter_sdk", OptimizelyMethodCodec());
   dynamic mockOptimizelyConfig;
 
   TestDefaultBinaryMessenger? tester;
@@ -106,6 +111,29 @@ void main() {
                   settings[Constants.timeoutForOdpEventInSecs],
               disableOdp: settings[Constants.disableOdp],
               enableVuid: settings[Constants.enableVuid],
+              enableBackgroundDispatch:
+                  settings[Constants.enableBackgroundDispatch],
+              userContextCacheSize: settings[Constants.userContextCacheSize],
+              userContextCacheTimeoutInSecs:
+                  settings[Constants.userContextCacheTimeoutInSecs],
+              enableDecisionCache: settings[Constants.enableDecisionCache],
+              notificationBatchIntervalInMillis:
+                  settings[Constants.notificationBatchIntervalInMillis],
+              notificationQueueSize: settings[Constants.notificationQueueSize],
+              notificationOverflowPolicy: NotificationOverflowPolicy.values
+                  .byName(settings[Constants.notificationOverflowPolicy]),
+              enableWarmStart: settings[Constants.enableWarmStart],
+              enableAdaptiveBatching:
+                  settings[Constants.enableAdaptiveBatching],
+              eventOverflowPolicy: EventOverflowPolicy.values
+                  .byName(settings[Constants.eventOverflowPolicy]),
+              eventOverflowBlockTimeoutInMillis:
+                  settings[Constants.eventOverflowBlockTimeoutInMillis],
+              enablePersistentEventLog:
+                  settings[Constants.enablePersistentEventLog],
+              enableEventCompression:
+                  settings[Constants.enableEventCompression],
+              eventBatchMaxBytes: settings[Constants.eventBatchMaxBytes],
             );
           }
 
@@ -128,6 +156,13 @@ void main() {
 
           return {
             Constants.responseSuccess: true,
+            Constants.responseResult: {
+              Constants.datafileSource: sdkSettings.enableWarmStart
+                  ? "cached"
+                  : methodCall.arguments[Constants.datafile] is Uint8List
+                      ? "bundled"
+                      : "fresh"
+            },
           };
         case Constants.activate:
           expect(methodCall.arguments[Constants.sdkKey], isNotEmpty);
@@ -407,6 +442,166 @@ void main() {
           return {
             Constants.responseSuccess: true,
           };
+        case Constants.releaseUserContextMethod:
+          expect(methodCall.arguments[Constants.sdkKey], isNotEmpty);
+          releasedUserContextIds
+              .add([methodCall.arguments[Constants.userContextId]]);
+          return {
+            Constants.responseSuccess: true,
+          };
+        case Constants.releaseUserContextsMethod:
+          expect(methodCall.arguments[Constants.sdkKey], isNotEmpty);
+          releasedUserContextIds.add(
+              List<String>.from(methodCall.arguments[Constants.userContextIds]));
+          return {
+            Constants.responseSuccess: true,
+          };
+        case Constants.getNotificationStatsMethod:
+          expect(methodCall.arguments[Constants.sdkKey], isNotEmpty);
+          return {
+            Constants.responseSuccess: true,
+            Constants.responseResult: {
+              Constants.droppedNotifications: {
+                "decision": 7,
+                "logEvent": 8,
+              },
+            },
+          };
+        case Constants.getMetricsMethod:
+          expect(methodCall.arguments[Constants.sdkKey], isNotEmpty);
+          expect(methodCall.arguments[Constants.resetMetrics], isA<bool>());
+          return {
+            Constants.responseSuccess: true,
+            Constants.responseResult: {
+              Constants.calls: {
+                "decide": {
+                  Constants.count: 3,
+                  Constants.errors: 1,
+                  Constants.dropped: 0,
+                  "execute": {
+                    Constants.p50: 120,
+                    Constants.p95: 450,
+                    Constants.p99: 900,
+                    Constants.max: 950,
+                  },
+                },
+              },
+              Constants.notifications: {
+                Constants.count: 10,
+                Constants.errors: 0,
+                Constants.dropped: 0,
+                "send": {
+                  Constants.p50: 40,
+                  Constants.p95: 80,
+                  Constants.p99: 80,
+                  Constants.max: 80,
+                },
+              },
+              Constants.logs: {
+                Constants.count: 5,
+                Constants.errors: 0,
+                Constants.dropped: 2,
+              },
+              Constants.threads: {
+                Constants.eventThreads: 4,
+                Constants.queuedEventConsumers: 0,
+                Constants.schedulerThreads: 1,
+                Constants.networkThreads: 2,
+                Constants.processThreads: 31,
+              },
+              Constants.eventBatching: {
+                Constants.batchSize: 40,
+                Constants.flushIntervalInMillis: 15000,
+                Constants.queueSize: 120,
+                Constants.dispatchLatency: 2300,
+              },
+              Constants.eventQueue: {
+                Constants.overflowPolicy: "spillToDisk",
+                Constants.queueSize: 10000,
+                Constants.rejected: 0,
+                Constants.evictedImpressions: 0,
+                Constants.blocked: 0,
+                Constants.timedOut: 0,
+                Constants.spilled: 250,
+                Constants.replayed: 200,
+                Constants.spillFailures: 1,
+                Constants.spillFull: 3,
+                Constants.spillPending: 50,
+              },
+              Constants.eventLog: {
+                Constants.pendingEvents: 12,
+                Constants.pendingBytes: 8400,
+                Constants.segments: 1,
+                Constants.appended: 300,
+                Constants.dropped: 0,
+                Constants.syncs: 45,
+                Constants.recovered: 7,
+                Constants.recoveryTime: 1500,
+              },
+              Constants.eventDispatch: {
+                Constants.requests: 30,
+                Constants.splitBatches: 4,
+                Constants.uncompressedBytes: 96000,
+                Constants.compressedBytes: 11000,
+                Constants.fallbacks: 1,
+              },
+            },
+          };
+        case Constants.getUserContextStatsMethod:
+          expect(methodCall.arguments[Constants.sdkKey], isNotEmpty);
+          return {
+            Constants.responseSuccess: true,
+            Constants.responseResult: {
+              Constants.size: 2,
+              Constants.capacityEvictions: 3,
+              Constants.timeoutEvictions: 4,
+              Constants.decisionCacheHits: 5,
+              Constants.decisionCacheMisses: 6,
+            },
+          };
+        case Constants.executeBatchMethod:
+          expect(methodCall.arguments[Constants.sdkKey], isNotEmpty);
+          List<dynamic> operations = methodCall.arguments[Constants.operations];
+          return {
+            Constants.responseSuccess: true,
+            Constants.responseResult: operations.map((operation) {
+              switch (operation[Constants.method]) {
+                case Constants.createUserContextMethod:
+                  expect(operation[Constants.arguments][Constants.userId],
+                      equals(userId));
+                  return {
+                    Constants.responseSuccess: true,
+                    Constants.responseResult: {
+                      Constants.userContextId: userContextId
+                    },
+                  };
+                case Constants.setAttributesMethod:
+                  expect(operation[Constants.arguments][Constants.userContextRef],
+                      equals(0));
+                  return {Constants.responseSuccess: true};
+                case Constants.decideMethod:
+                  expect(operation[Constants.arguments][Constants.keys],
+                      equals([flagKey]));
+                  expect(operation[Constants.arguments][Constants.userContextRef],
+                      equals(0));
+                  expect(
+                      operation[Constants.arguments]
+                          [Constants.optimizelyDecideOption],
+                      equals(["includeReasons"]));
+                  return {
+                    Constants.responseSuccess: true,
+                    Constants.responseResult: {
+                      flagKey: TestUtils.decideResponseMap
+                    },
+                  };
+                default:
+                  return {
+                    Constants.responseSuccess: false,
+                    Constants.responseReason: "Operation not supported in batch.",
+                  };
+              }
+            }).toList(),
+          };
         default:
           return null;
       }
@@ -416,6 +611,7 @@ void main() {
   tearDown(() {
     tester?.setMockMethodCallHandler(channel, null);
     sdkSettings = const SDKSettings();
+    releasedUserContextIds = [];
   });
 
   group("Integration: OptimizelyFlutterSdk MethodChannel", () {
@@ -436,6 +632,29 @@ void main() {
         var response = await sdk.initializeClient();
 
         expect(response.success, isTrue);
+        expect(response.datafileSource, equals(DatafileSource.fresh));
+      });
+
+      test("with warm start should report the cached datafile source",
+          () async {
+        var sdk = OptimizelyFlutterSdk(testSDKKey,
+            sdkSettings: const SDKSettings(enableWarmStart: true));
+
+        var response = await sdk.initializeClient();
+
+        expect(response.success, isTrue);
+        expect(sdkSettings.enableWarmStart, isTrue);
+        expect(response.datafileSource, equals(DatafileSource.cached));
+      });
+
+      test("with a bundled datafile should send it as binary data", () async {
+        var datafile = Uint8List.fromList(utf8.encode('{"version": "4"}'));
+        var sdk = OptimizelyFlutterSdk(testSDKKey, datafile: datafile);
+
+        var response = await sdk.initializeClient();
+
+        expect(response.success, isTrue);
+        expect(response.datafileSource, equals(DatafileSource.bundled));
       });
 
       test("with no eventOptions, datafileOptions and sdkSettings", () async {
@@ -450,6 +669,20 @@ void main() {
           timeoutForSegmentFetchInSecs: 10,
           timeoutForOdpEventInSecs: 10,
           disableOdp: false,
+          enableBackgroundDispatch: false,
+          userContextCacheSize: 10000,
+          userContextCacheTimeoutInSecs: 0,
+          enableDecisionCache: false,
+          notificationBatchIntervalInMillis: 0,
+          notificationQueueSize: 1000,
+          notificationOverflowPolicy: NotificationOverflowPolicy.dropOldest,
+          enableWarmStart: false,
+          enableAdaptiveBatching: false,
+          eventOverflowPolicy: EventOverflowPolicy.reject,
+          eventOverflowBlockTimeoutInMillis: 100,
+          enablePersistentEventLog: false,
+          enableEventCompression: false,
+          eventBatchMaxBytes: 0,
         );
         const expectedDatafilePeriodicDownloadInterval = 10 * 60;
         var sdk = OptimizelyFlutterSdk(testSDKKey);
@@ -477,6 +710,34 @@ void main() {
         expect(sdkSettings.timeoutForOdpEventInSecs,
             equals(expectedSDKSettings.timeoutForOdpEventInSecs));
         expect(sdkSettings.disableOdp, equals(expectedSDKSettings.disableOdp));
+        expect(sdkSettings.enableBackgroundDispatch,
+            equals(expectedSDKSettings.enableBackgroundDispatch));
+        expect(sdkSettings.userContextCacheSize,
+            equals(expectedSDKSettings.userContextCacheSize));
+        expect(sdkSettings.userContextCacheTimeoutInSecs,
+            equals(expectedSDKSettings.userContextCacheTimeoutInSecs));
+        expect(sdkSettings.enableDecisionCache,
+            equals(expectedSDKSettings.enableDecisionCache));
+        expect(sdkSettings.notificationBatchIntervalInMillis,
+            equals(expectedSDKSettings.notificationBatchIntervalInMillis));
+        expect(sdkSettings.notificationQueueSize,
+            equals(expectedSDKSettings.notificationQueueSize));
+        expect(sdkSettings.notificationOverflowPolicy,
+            equals(expectedSDKSettings.notificationOverflowPolicy));
+        expect(sdkSettings.enableWarmStart,
+            equals(expectedSDKSettings.enableWarmStart));
+        expect(sdkSettings.enableAdaptiveBatching,
+            equals(expectedSDKSettings.enableAdaptiveBatching));
+        expect(sdkSettings.eventOverflowPolicy,
+            equals(expectedSDKSettings.eventOverflowPolicy));
+        expect(sdkSettings.eventOverflowBlockTimeoutInMillis,
+            equals(expectedSDKSettings.eventOverflowBlockTimeoutInMillis));
+        expect(sdkSettings.enablePersistentEventLog,
+            equals(expectedSDKSettings.enablePersistentEventLog));
+        expect(sdkSettings.enableEventCompression,
+            equals(expectedSDKSettings.enableEventCompression));
+        expect(sdkSettings.eventBatchMaxBytes,
+            equals(expectedSDKSettings.eventBatchMaxBytes));
         debugDefaultTargetPlatformOverride = null;
       });
 
@@ -492,6 +753,20 @@ void main() {
           timeoutForSegmentFetchInSecs: 333,
           timeoutForOdpEventInSecs: 444,
           disableOdp: true,
+          enableBackgroundDispatch: true,
+          userContextCacheSize: 555,
+          userContextCacheTimeoutInSecs: 666,
+          enableDecisionCache: true,
+          notificationBatchIntervalInMillis: 777,
+          notificationQueueSize: 888,
+          notificationOverflowPolicy: NotificationOverflowPolicy.sample,
+          enableWarmStart: true,
+          enableAdaptiveBatching: true,
+          eventOverflowPolicy: EventOverflowPolicy.dropOldestImpressions,
+          eventOverflowBlockTimeoutInMillis: 250,
+          enablePersistentEventLog: true,
+          enableEventCompression: true,
+          eventBatchMaxBytes: 65536,
         );
         var sdk = OptimizelyFlutterSdk(testSDKKey,
             eventOptions: expectedEventOptions,
@@ -525,6 +800,34 @@ void main() {
         expect(sdkSettings.timeoutForOdpEventInSecs,
             equals(expectedSDKSettings.timeoutForOdpEventInSecs));
         expect(sdkSettings.disableOdp, equals(expectedSDKSettings.disableOdp));
+        expect(sdkSettings.enableBackgroundDispatch,
+            equals(expectedSDKSettings.enableBackgroundDispatch));
+        expect(sdkSettings.userContextCacheSize,
+            equals(expectedSDKSettings.userContextCacheSize));
+        expect(sdkSettings.userContextCacheTimeoutInSecs,
+            equals(expectedSDKSettings.userContextCacheTimeoutInSecs));
+        expect(sdkSettings.enableDecisionCache,
+            equals(expectedSDKSettings.enableDecisionCache));
+        expect(sdkSettings.notificationBatchIntervalInMillis,
+            equals(expectedSDKSettings.notificationBatchIntervalInMillis));
+        expect(sdkSettings.notificationQueueSize,
+            equals(expectedSDKSettings.notificationQueueSize));
+        expect(sdkSettings.notificationOverflowPolicy,
+            equals(expectedSDKSettings.notificationOverflowPolicy));
+        expect(sdkSettings.enableWarmStart,
+            equals(expectedSDKSettings.enableWarmStart));
+        expect(sdkSettings.enableAdaptiveBatching,
+            equals(expectedSDKSettings.enableAdaptiveBatching));
+        expect(sdkSettings.eventOverflowPolicy,
+            equals(expectedSDKSettings.eventOverflowPolicy));
+        expect(sdkSettings.eventOverflowBlockTimeoutInMillis,
+            equals(expectedSDKSettings.eventOverflowBlockTimeoutInMillis));
+        expect(sdkSettings.enablePersistentEventLog,
+            equals(expectedSDKSettings.enablePersistentEventLog));
+        expect(sdkSettings.enableEventCompression,
+            equals(expectedSDKSettings.enableEventCompression));
+        expect(sdkSettings.eventBatchMaxBytes,
+            equals(expectedSDKSettings.eventBatchMaxBytes));
         debugDefaultTargetPlatformOverride = null;
       });
 
@@ -621,6 +924,138 @@ void main() {
       });
     });
 
+    group("release()", () {
+      test("should release the native user context", () async {
+        var sdk = OptimizelyFlutterSdk(testSDKKey);
+        var userContext = await sdk.createUserContext(userId: userId);
+        var response = await userContext!.release();
+
+        expect(response.success, isTrue);
+        expect(releasedUserContextIds, equals([[userContextId]]));
+      });
+
+      test("should batch queued releases into a single call", () async {
+        final releaser = UserContextReleaser.forChannel(
+            const MethodChannel("optimizely_flutter_sdk",
+                StandardMethodCodec(OptimizelyMessageCodec())));
+        releaser.enqueue(testSDKKey, "1");
+        releaser.enqueue(testSDKKey, "2");
+        releaser.enqueue(testSDKKey, "3");
+        await releaser.flush();
+
+        expect(releasedUserContextIds, equals([["1", "2", "3"]]));
+      });
+    });
+
+    group("getUserContextStats()", () {
+      test("should succeed", () async {
+        var sdk = OptimizelyFlutterSdk(testSDKKey);
+        var response = await sdk.getUserContextStats();
+
+        expect(response.success, isTrue);
+        expect(response.size, equals(2));
+        expect(response.capacityEvictions, equals(3));
+        expect(response.timeoutEvictions, equals(4));
+        expect(response.decisionCacheHits, equals(5));
+        expect(response.decisionCacheMisses, equals(6));
+      });
+    });
+
+    group("getNotificationStats()", () {
+      test("should succeed", () async {
+        var sdk = OptimizelyFlutterSdk(testSDKKey);
+        var response = await sdk.getNotificationStats();
+
+        expect(response.success, isTrue);
+        expect(response.droppedNotifications,
+            equals({"decision": 7, "logEvent": 8}));
+      });
+    });
+
+    group("getMetrics()", () {
+      test("should succeed", () async {
+        var sdk = OptimizelyFlutterSdk(testSDKKey);
+        var response = await sdk.getMetrics(reset: true);
+
+        expect(response.success, isTrue);
+        expect(response.calls.keys, equals(["decide"]));
+        var decide = response.calls["decide"]!;
+        expect(decide.count, equals(3));
+        expect(decide.errors, equals(1));
+        expect(decide.latencies["execute"]!.p50, equals(120));
+        expect(decide.latencies["execute"]!.p99, equals(900));
+        expect(decide.latencies["execute"]!.max, equals(950));
+        expect(response.notifications!.count, equals(10));
+        expect(response.notifications!.latencies["send"]!.p95, equals(80));
+        expect(response.logs!.dropped, equals(2));
+        expect(response.logs!.latencies, isEmpty);
+        expect(response.threads!.eventThreads, equals(4));
+        expect(response.threads!.queuedEventConsumers, equals(0));
+        expect(response.threads!.schedulerThreads, equals(1));
+        expect(response.threads!.networkThreads, equals(2));
+        expect(response.threads!.processThreads, equals(31));
+        expect(response.eventBatching!.batchSize, equals(40));
+        expect(response.eventBatching!.flushIntervalInMillis, equals(15000));
+        expect(response.eventBatching!.queueSize, equals(120));
+        expect(response.eventBatching!.dispatchLatency, equals(2300));
+        expect(response.eventQueue!.overflowPolicy,
+            equals(EventOverflowPolicy.spillToDisk));
+        expect(response.eventQueue!.queueSize, equals(10000));
+        expect(response.eventQueue!.spilled, equals(250));
+        expect(response.eventQueue!.replayed, equals(200));
+        expect(response.eventQueue!.spillFailures, equals(1));
+        expect(response.eventQueue!.spillFull, equals(3));
+        expect(response.eventQueue!.spillPending, equals(50));
+        expect(response.eventLog!.pendingEvents, equals(12));
+        expect(response.eventLog!.pendingBytes, equals(8400));
+        expect(response.eventLog!.syncs, equals(45));
+        expect(response.eventLog!.recovered, equals(7));
+        expect(response.eventLog!.recoveryTime, equals(1500));
+        expect(response.eventDispatch!.requests, equals(30));
+        expect(response.eventDispatch!.splitBatches, equals(4));
+        expect(response.eventDispatch!.uncompressedBytes, equals(96000));
+        expect(response.eventDispatch!.compressedBytes, equals(11000));
+        expect(response.eventDispatch!.fallbacks, equals(1));
+      });
+    });
+
+    group("executeBatch()", () {
+      test("should return per operation responses in order", () async {
+        var sdk = OptimizelyFlutterSdk(testSDKKey);
+        var response = await sdk.executeBatch([
+          BatchOperation.createUserContext(
+              userId: userId, attributes: attributes),
+          BatchOperation.setAttributes(attributes1, userContextRef: 0),
+          BatchOperation.decide(
+              keys: [flagKey],
+              options: {OptimizelyDecideOption.includeReasons},
+              userContextRef: 0),
+          const BatchOperation(Constants.initializeMethod),
+        ]);
+
+        expect(response.success, isTrue);
+        expect(response.results.length, equals(4));
+        expect(response.responseAt(0).success, isTrue);
+        expect(response.responseAt(1).success, isTrue);
+        expect(response.responseAt(2).success, isTrue);
+        expect(response.responseAt(3).success, isFalse);
+        expect(response.responseAt(3).reason,
+            equals("Operation not supported in batch."));
+      });
+
+      test("should return created user contexts by operation index", () async {
+        var sdk = OptimizelyFlutterSdk(testSDKKey);
+        var response = await sdk.executeBatch([
+          const BatchOperation(Constants.initializeMethod),
+          BatchOperation.createUserContext(userId: userId),
+        ]);
+
+        expect(response.userContexts.keys, equals([1]));
+        var userIdResponse = await response.userContexts[1]!.getUserId();
+        expect(userIdResponse.userId, equals(userId));
+      });
+    });
+
     group("activate()", () {
       test("should succeed", () async {
         var sdk = OptimizelyFlutterSdk(testSDKKey);
@@ -1019,6 +1454,21 @@ void main() {
             true);
       });
 
+      test("should parse raw log event payload on first access", () async {
+        var notifications = [];
+        var sdk = OptimizelyFlutterSdk(testSDKKey);
+        await sdk.addLogEventNotificationListener((msg) {
+          notifications.add(msg);
+        }, rawPayload: true);
+        var callHandler = OptimizelyClientWrapper.methodCallHandler;
+        tester?.setMockMethodCallHandler(channel, callHandler);
+        TestUtils.sendTestRawLogEventNotifications(callHandler, 1, testSDKKey);
+        expect(notifications.length, equals(1));
+        expect(notifications[0].body, isNotNull);
+        expect(TestUtils.testLogEventNotificationPayload(notifications, 0, 1),
+            true);
+      });
+
       test("should receive 4 notification due to different callbacks used",
           () async {
         var notifications = [];
@@ -1059,6 +1509,47 @@ void main() {
             true);
       });
 
+      test("should receive batched notifications in order", () async {
+        var notifications = [];
+        var sdk = OptimizelyFlutterSdk(testSDKKey);
+        await sdk.addDecisionNotificationListener((msg) {
+          notifications.add(msg);
+        });
+        await sdk.addLogEventNotificationListener((msg) {
+          notifications.add(msg);
+        });
+        await sdk.addConfigUpdateNotificationListener((msg) {
+          notifications.add(msg);
+        });
+        await sdk.addTrackNotificationListener((msg) {
+          notifications.add(msg);
+        });
+        await sdk.addActivateNotificationListener((msg) {
+          notifications.add(msg);
+        });
+        var callHandler = OptimizelyClientWrapper.methodCallHandler;
+        tester?.setMockMethodCallHandler(channel, callHandler);
+        TestUtils.sendTestNotificationBatch(callHandler, testSDKKey, (collect) {
+          TestUtils.sendTestDecisionNotifications(collect, 0, testSDKKey);
+          TestUtils.sendTestLogEventNotifications(collect, 1, testSDKKey);
+          TestUtils.sendTestUpdateConfigNotifications(collect, 2, testSDKKey);
+          TestUtils.sendTestTrackNotifications(collect, 3, testSDKKey);
+          TestUtils.sendTestActivateNotifications(collect, 4, testSDKKey);
+        });
+        expect(notifications.length, equals(5));
+        expect(TestUtils.testDecisionNotificationPayload(notifications, 0, 0),
+            true);
+        expect(TestUtils.testLogEventNotificationPayload(notifications, 1, 1),
+            true);
+        expect(
+            TestUtils.testUpdateConfigNotificationPayload(notifications, 2, 2),
+            true);
+        expect(
+            TestUtils.testTrackNotificationPayload(notifications, 3, 3), true);
+        expect(TestUtils.testActivateNotificationPayload(notifications, 4, 4),
+            true);
+      });
+
       test("should receive notifications with several ListenerTypes", () async {
         var notifications = [];
         var sdk = OptimizelyFlutterSdk(testSDKKey);
@@ -0,0 +1,194 @@
+/// **************************************************************************
+/// Copyright 2024, Optimizely, Inc. and contributors                        *
+///                                                                          *
+/// Licensed under the Apache License, Version 2.0 (the "License");          *
+/// you may not use this file except in compliance with the License.         *
+/// You may obtain a copy of the License at                                  *
+///                                                                          *
+///    http://www.apache.org/licenses/LICENSE-2.0                            *
+///                                                                          *
+/// Unless required by applicable law or agreed to in writing, software      *
+/// distributed under the License is distributed on an "AS IS" BASIS,        *
+/// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. *
+/// See the License for the specific language governing permissions and      *
+/// limitations under the License.                                           *
+///**************************************************************************/
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:optimizely_flutter_sdk/optimizely_flutter_sdk.dart';
+import 'package:optimizely_flutter_sdk/src/data_objects/decide_response.dart';
+import 'package:optimizely_flutter_sdk/src/utils/constants.dart';
+import 'package:optimizely_flutter_sdk/src/utils/optimizely_message_codec.dart';
+import 'test_utils.dart';
+
+void main() {
+  const codec = OptimizelyMessageCodec();
+  const flagKey = "feature_1";
+
+  Decision expectedDecision() => Decision(TestUtils.decideResponseMap);
+
+  group("OptimizelyMessageCodec", () {
+    test("should decode decisions written positionally by the native codec",
+        () {
+      // Same layout as OptimizelyMessageCodec.java
+      const standard = StandardMessageCodec();
+      final buffer = WriteBuffer();
+      final map = TestUtils.decideResponseMap;
+      buffer.putUint8(128);
+      standard.writeValue(buffer, map[Constants.variationKey]);
+      standard.writeValue(buffer, map[Constants.enabled]);
+      standard.writeValue(buffer, map[Constants.variables]);
+      standard.writeValue(buffer, map[Constants.ruleKey]);
+      standard.writeValue(buffer, map[Constants.flagKey]);
+      standard.writeValue(buffer, map[Constants.userContext][Constants.userId]);
+      standard.writeValue(
+          buffer, map[Constants.userContext][Constants.attributes]);
+      standard.writeValue(buffer, map[Constants.reasons]);
+
+      final decoded = codec.decodeMessage(buffer.done());
+
+      expect(decoded, isA<Decision>());
+      expect(TestUtils.compareDecisions({flagKey: decoded as Decision}),
+          isTrue);
+    });
+
+    test("should round trip decisions nested in a response", () {
+      final message = codec.encodeMessage({
+        Constants.responseSuccess: true,
+        Constants.responseResult: {flagKey: expectedDecision()},
+      });
+
+      final decoded =
+          Map<String, dynamic>.from(codec.decodeMessage(message) as Map);
+      final response = DecideForKeysResponse(decoded);
+
+      expect(response.success, isTrue);
+      expect(TestUtils.compareDecisions(response.decisions), isTrue);
+    });
+
+    test("should decode missing fields to decision defaults", () {
+      final decision = codec.decodeMessage(
+              codec.encodeMessage(Decision.fromFields(flagKey: flagKey)))
+          as Decision;
+
+      expect(decision.flagKey, equals(flagKey));
+      expect(decision.variationKey, isEmpty);
+      expect(decision.ruleKey, isEmpty);
+      expect(decision.enabled, isFalse);
+      expect(decision.variables, isEmpty);
+      expect(decision.reasons, isEmpty);
+      expect(decision.userContext, isEmpty);
+    });
+
+    test("should be smaller on the wire than the map encoding", () {
+      final tagged = codec.encodeMessage(expectedDecision())!;
+      final keyed =
+          const StandardMessageCodec().encodeMessage(TestUtils.decideResponseMap)!;
+
+      expect(tagged.lengthInBytes, lessThan(keyed.lengthInBytes));
+    });
+  });
+
+  group("OptimizelyMethodCodec", () {
+    const methodCodec = OptimizelyMethodCodec();
+    final arguments = {
+      Constants.sdkKey: "sdkKey",
+      Constants.userContextId: "123",
+      Constants.keys: [flagKey],
+      Constants.optimizelyDecideOption: <String>[],
+      Constants.attributes: {"country": "us"},
+    };
+
+    test("should send arguments as numbered fields and decode them as a map",
+        () {
+      final call = methodCodec
+          .decodeMethodCall(methodCodec.encodeMethodCall(MethodCall(
+              Constants.decideMethod, {...arguments, Constants.flagKey: null})));
+
+      expect(call.method, equals(Constants.decideMethod));
+      expect(call.arguments, equals(arguments));
+    });
+
+    test("should be smaller on the wire than the map encoding", () {
+      final call = MethodCall(Constants.decideMethod, arguments);
+      final numbered = methodCodec.encodeMethodCall(call);
+      final keyed = const StandardMethodCodec().encodeMethodCall(call);
+
+      expect(numbered.lengthInBytes, lessThan(keyed.lengthInBytes));
+    });
+
+    test("should send arguments with unknown keys as a map", () {
+      final call = MethodCall(Constants.decideMethod,
+          {Constants.sdkKey: "sdkKey", "unknownKey": 1});
+
+      Uint8List bytes(ByteData data) =>
+          data.buffer.asUint8List(data.offsetInBytes, data.lengthInBytes);
+
+      expect(bytes(methodCodec.encodeMethodCall(call)),
+          equals(bytes(const StandardMethodCodec().encodeMethodCall(call))));
+    });
+
+    test("should decode positional responses into the response map", () {
+      const standard = StandardMessageCodec();
+      final buffer = WriteBuffer();
+      buffer.putUint8(130);
+      standard.writeValue(buffer, true);
+      standard.writeValue(buffer, {Constants.userContextId: "123"});
+      standard.writeValue(buffer, "");
+
+      final decoded = codec.decodeMessage(buffer.done());
+
+      expect(
+          decoded,
+          equals({
+            Constants.responseSuccess: true,
+            Constants.responseResult: {Constants.userContextId: "123"},
+            Constants.responseReason: "",
+          }));
+    });
+  });
+
+  group("decide() over the method channel", () {
+    const channel = MethodChannel('optimizely_flutter_sdk',
+        StandardMethodCodec(OptimizelyMessageCodec()));
+    TestDefaultBinaryMessenger? tester;
+
+    setUp(() {
+      TestWidgetsFlutterBinding.ensureInitialized();
+      tester =
+          TestDefaultBinaryMessengerBinding.instance?.defaultBinaryMessenger;
+      tester?.setMockMethodCallHandler(channel, (MethodCall methodCall) async {
+        switch (methodCall.method) {
+          case Constants.createUserContextMethod:
+            return {
+              Constants.responseSuccess: true,
+              Constants.responseResult: {Constants.userContextId: "123"},
+            };
+          case Constants.decideMethod:
+            return {
+              Constants.responseSuccess: true,
+              Constants.responseResult: {flagKey: expectedDecision()},
+            };
+          default:
+            return null;
+        }
+      });
+    });
+
+    tearDown(() {
+      tester?.setMockMethodCallHandler(channel, null);
+    });
+
+    test("should return decisions sent with the decision type tag", () async {
+      var sdk = OptimizelyFlutterSdk("sdkKey");
+      var userContext = await sdk.createUserContext(userId: "user");
+
+      var response = await userContext!.decide(flagKey);
+
+      expect(response.success, isTrue);
+      expect(TestUtils.compareDecisions({flagKey: response.decision!}), isTrue);
+    });
+  });
+}
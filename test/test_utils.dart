@@ -14,6 +14,8 @@
 /// limitations under the License.                                           *
 ///**************************************************************************/
 
+import 'dart:convert';
+
 import 'package:flutter/foundation.dart';
 import "package:flutter/services.dart";
 import 'package:optimizely_flutter_sdk/src/data_objects/decide_response.dart';
@@ -113,6 +115,19 @@ class TestUtils {
     }));
   }
 
+  static sendTestRawLogEventNotifications(
+      Function(MethodCall message) handler, int id, String sdkKey) {
+    var payload = {
+      Constants.url: "$id",
+      Constants.body: Uint8List.fromList(utf8.encode(jsonEncode({"test": id})))
+    };
+    handler(MethodCall(Constants.logEventCallbackListener, {
+      Constants.id: id,
+      Constants.sdkKey: sdkKey,
+      Constants.payload: payload
+    }));
+  }
+
   static sendTestClientNameAndVersionLogEventNotification(
       Function(MethodCall message) handler, int id, String sdkKey, String clientName, String sdkVersion) {
       var payload = {
@@ -186,6 +201,23 @@ class TestUtils {
     }));
   }
 
+  // Sends the notifications raised by senders as one native notification batch
+  static sendTestNotificationBatch(Function(MethodCall message) handler,
+      String sdkKey, Function(Function(MethodCall message) collect) senders) {
+    var notifications = [];
+    senders((MethodCall call) {
+      notifications.add({
+        Constants.id: call.arguments[Constants.id],
+        Constants.type: call.method.replaceAll("CallbackListener", ""),
+        Constants.payload: call.arguments[Constants.payload],
+      });
+    });
+    handler(MethodCall(Constants.notificationBatchCallbackListener, {
+      Constants.sdkKey: sdkKey,
+      Constants.notifications: notifications,
+    }));
+  }
+
   static bool testActivateNotificationPayload(
       List notifications, int id, int actualID) {
     if (notifications[id].experiment["test"] != actualID ||